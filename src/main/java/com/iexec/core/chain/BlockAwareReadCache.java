@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of chain objects which are only valid for the latest known block.
+ * <p>
+ * Entries are bound to the block number they were read at, all entries are dropped
+ * as soon as a new block number is notified with {@link #onNewBlock(long)}.
+ * An object is then read at most once per block, whatever the number of callers.
+ * Objects which could not be read are not cached.
+ * <p>
+ * A read stamp is taken when a read starts and changes on each new block and each eviction.
+ * An object is only cached if the stamp has not changed since its read started,
+ * so that a read in flight during an eviction can't cache the object as it was before eviction.
+ *
+ * @param <K> Type of the key identifying a chain object
+ * @param <V> Type of the cached chain object
+ */
+class BlockAwareReadCache<K, V> {
+
+    static final String CACHE_METRIC_NAME = "iexec.core.chain.read.cache";
+
+    private final Function<K, Optional<V>> reader;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final AtomicLong readStamp = new AtomicLong();
+    private volatile long blockNumber;
+
+    BlockAwareReadCache(String name, Function<K, Optional<V>> reader, MeterRegistry meterRegistry) {
+        this.reader = reader;
+        this.hitCounter = buildCacheCounter(meterRegistry, name, "hit");
+        this.missCounter = buildCacheCounter(meterRegistry, name, "miss");
+    }
+
+    private static Counter buildCacheCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder(CACHE_METRIC_NAME)
+                .description("Chain reads served by the cache of the latest block")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets a chain object, reading it on chain if it has not been read yet at the latest known block.
+     *
+     * @param key Key of the chain object
+     * @return The chain object, empty if it could not be read.
+     */
+    Optional<V> get(K key) {
+        final long stamp = readStamp.get();
+        final V cachedValue = entries.get(key);
+        if (cachedValue != null) {
+            hitCounter.increment();
+            return Optional.of(cachedValue);
+        }
+        missCounter.increment();
+        final Optional<V> value = reader.apply(key);
+        // a value read while a new block was notified or an entry was evicted may be outdated, it is not cached
+        value.ifPresent(v -> put(key, v, stamp));
+        return value;
+    }
+
+    /**
+     * Caches a chain object read outside of this cache,
+     * only if neither a new block has been notified nor an entry has been evicted since it was read.
+     *
+     * @param key   Key of the chain object
+     * @param value Chain object
+     * @param stamp Read stamp taken when the read started, as returned by {@link #getReadStamp()}
+     */
+    void put(K key, V value, long stamp) {
+        if (stamp == readStamp.get()) {
+            entries.put(key, value);
+            // the stamp is changed before entries are dropped, an entry put meanwhile is dropped here
+            if (stamp != readStamp.get()) {
+                entries.remove(key, value);
+            }
+        }
+    }
+
+    boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Drops a cached chain object, so that it is read again on next demand.
+     * This is useful when the object is known to have changed within the latest known block.
+     *
+     * @param key Key of the chain object
+     */
+    void evict(K key) {
+        readStamp.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Drops a cached chain object if it has been read before given block,
+     * i.e. if given block is newer than the latest known one.
+     * This is useful when a block has been mined but not yet notified with {@link #onNewBlock(long)}.
+     *
+     * @param key         Key of the chain object
+     * @param blockNumber Block the chain object must have been read at or after
+     */
+    void evictIfReadBefore(K key, long blockNumber) {
+        if (blockNumber > this.blockNumber) {
+            evict(key);
+        }
+    }
+
+    /**
+     * Drops all cached chain objects if given block number differs from the latest known one.
+     *
+     * @param newBlockNumber Latest block number read on chain
+     */
+    void onNewBlock(long newBlockNumber) {
+        if (newBlockNumber != blockNumber) {
+            blockNumber = newBlockNumber;
+            readStamp.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    long getBlockNumber() {
+        return blockNumber;
+    }
+
+    /**
+     * Returns the stamp to take before reading a chain object outside of this cache
+     * and to give back to {@link #put(Object, Object, long)}.
+     *
+     * @return The current read stamp
+     */
+    long getReadStamp() {
+        return readStamp.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -43,6 +43,9 @@ public class ChainConfig {
     @Value("${chain.workerPassAddress}")
     private String workerPassAddress;
 
+    @Value("${chain.workerPassCacheTtl}")
+    private long workerPassCacheTtl;
+
     @Value("${chain.poolAddress}")
     private String poolAddress;
 
@@ -55,4 +58,43 @@ public class ChainConfig {
     @Value("${chain.gasPriceCap}")
     private long gasPriceCap;
 
+    @Value("${chain.gasBalanceCache.maxStaleBlocks}")
+    private long gasBalanceCacheMaxStaleBlocks;
+
+    @Value("${chain.gasBalanceCache.refreshPeriod}")
+    private long gasBalanceCacheRefreshPeriod;
+
+    @Value("${chain.gasBalanceCache.idleTtl}")
+    private long gasBalanceCacheIdleTtl;
+
+    @Value("${chain.dealCacheSize}")
+    private int dealCacheSize;
+
+    @Value("${chain.readCache.blockNumberRefreshPeriod}")
+    private long readCacheBlockNumberRefreshPeriod;
+
+    @Value("${chain.readBatchSize}")
+    private int readBatchSize;
+
+    @Value("${chain.checkpoint.flushPeriod}")
+    private long checkpointFlushPeriod;
+
+    @Value("${chain.checkpoint.maxPendingUpdates}")
+    private int checkpointMaxPendingUpdates;
+
+    @Value("${chain.dealReplay.initialWindowSize}")
+    private long dealReplayInitialWindowSize;
+
+    @Value("${chain.dealReplay.maxWindowSize}")
+    private long dealReplayMaxWindowSize;
+
+    @Value("${chain.dealReplay.concurrency}")
+    private int dealReplayConcurrency;
+
+    @Value("${chain.dealIngestion.bufferSize}")
+    private int dealIngestionBufferSize;
+
+    @Value("${chain.dealIngestion.fetchConcurrency}")
+    private int dealIngestionFetchConcurrency;
+
 }
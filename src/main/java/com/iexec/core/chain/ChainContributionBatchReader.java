@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.chain.ChainContribution;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.tuples.generated.Tuple4;
+
+import java.util.*;
+
+import static com.iexec.common.utils.BytesUtils.stringToBytes;
+
+/**
+ * Reads contributions of workers with JSON-RPC batch requests,
+ * so that checking many contributions costs a few round trips instead of one per contribution.
+ * <p>
+ * Contributions are read with the {@code viewContributionABILegacy} hub function,
+ * as done for a single contribution by {@link IexecHubService#getChainContribution(String, String)}.
+ */
+@Slf4j
+class ChainContributionBatchReader {
+
+    static final String VIEW_CONTRIBUTION_FUNCTION_NAME = "viewContributionABILegacy";
+    // status, resultHash, resultSeal, enclaveChallenge
+    private static final List<TypeReference<?>> VIEW_CONTRIBUTION_OUTPUT_PARAMETERS = List.of(
+            new TypeReference<Uint256>() {
+            },
+            new TypeReference<Bytes32>() {
+            },
+            new TypeReference<Bytes32>() {
+            },
+            new TypeReference<Address>() {
+            });
+
+    private final Web3j web3j;
+    private final String hubAddress;
+    private final int batchSize;
+
+    ChainContributionBatchReader(Web3j web3j, String hubAddress, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Read batch size must be positive [batchSize:" + batchSize + "]");
+        }
+        this.web3j = web3j;
+        this.hubAddress = hubAddress;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads contributions with one batch request per {@code batchSize} contributions.
+     * <p>
+     * Contributions which could not be read, including all contributions of a failed batch,
+     * are missing from the returned map.
+     *
+     * @param keys Contributions to read, identified by {@code chainTaskId} and wallet address
+     * @return Read contributions by key.
+     */
+    Map<Pair<String, String>, ChainContribution> read(List<Pair<String, String>> keys) {
+        final Map<Pair<String, String>, ChainContribution> contributions = new HashMap<>(keys.size());
+        for (int batchStart = 0; batchStart < keys.size(); batchStart += batchSize) {
+            final int batchEnd = Math.min(batchStart + batchSize, keys.size());
+            readBatch(keys.subList(batchStart, batchEnd), contributions);
+        }
+        return contributions;
+    }
+
+    private void readBatch(List<Pair<String, String>> keys,
+                           Map<Pair<String, String>, ChainContribution> contributions) {
+        final BatchRequest batchRequest = web3j.newBatch();
+        // responses are matched to their request by JSON-RPC id, whatever their order
+        final Map<Long, Pair<String, String>> keysByRequestId = new HashMap<>(keys.size());
+        for (Pair<String, String> key : keys) {
+            final String data = FunctionEncoder.encode(buildViewContributionFunction(key.getLeft(), key.getRight()));
+            final var request = web3j.ethCall(
+                    Transaction.createEthCallTransaction(null, hubAddress, data),
+                    DefaultBlockParameterName.LATEST);
+            keysByRequestId.put(request.getId(), key);
+            batchRequest.add(request);
+        }
+
+        final List<? extends Response<?>> responses;
+        try {
+            responses = batchRequest.send().getResponses();
+        } catch (Exception e) {
+            log.error("Failed to read contributions batch [size:{}]", keys.size(), e);
+            return;
+        }
+
+        for (Response<?> response : responses) {
+            final Pair<String, String> key = keysByRequestId.get(response.getId());
+            if (key == null || !(response instanceof EthCall)) {
+                continue;
+            }
+            final EthCall ethCall = (EthCall) response;
+            if (ethCall.hasError() || ethCall.isReverted()) {
+                log.warn("Failed to read contribution [chainTaskId:{}, walletAddress:{}, error:{}]",
+                        key.getLeft(), key.getRight(),
+                        ethCall.hasError() ? ethCall.getError().getMessage() : ethCall.getRevertReason());
+                continue;
+            }
+            decodeContribution(ethCall.getValue())
+                    .ifPresent(contribution -> contributions.put(key, contribution));
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    static Optional<ChainContribution> decodeContribution(String value) {
+        final List<Type> values = FunctionReturnDecoder.decode(value, castOutputParameters());
+        if (values.size() != VIEW_CONTRIBUTION_OUTPUT_PARAMETERS.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(ChainContribution.tuple2Contribution(new Tuple4<>(
+                ((Uint256) values.get(0)).getValue(),
+                ((Bytes32) values.get(1)).getValue(),
+                ((Bytes32) values.get(2)).getValue(),
+                ((Address) values.get(3)).getValue())));
+    }
+
+    static Function buildViewContributionFunction(String chainTaskId, String walletAddress) {
+        return new Function(VIEW_CONTRIBUTION_FUNCTION_NAME,
+                List.of(new Bytes32(stringToBytes(chainTaskId)), new Address(walletAddress)),
+                VIEW_CONTRIBUTION_OUTPUT_PARAMETERS);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<TypeReference<Type>> castOutputParameters() {
+        return (List) VIEW_CONTRIBUTION_OUTPUT_PARAMETERS;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.chain.ChainDeal;
+import lombok.Value;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of {@link ChainDeal}s and of their derived deadlines, keyed by {@code chainDealId}.
+ * <p>
+ * A deal can't change once mined, so entries never expire. When the cache is full,
+ * the least recently used deal is evicted.
+ * Deals which could not be fetched are not cached so that they are fetched again on next read.
+ */
+class ChainDealCache {
+
+    private final Function<String, Optional<ChainDeal>> chainDealFetcher;
+    private final Function<ChainDeal, Date> contributionDeadlineCalculator;
+    private final Function<ChainDeal, Date> finalDeadlineCalculator;
+    // access-ordered, all accesses are synchronized on this map
+    private final Map<String, CachedChainDeal> deals;
+
+    ChainDealCache(int maxSize,
+                   Function<String, Optional<ChainDeal>> chainDealFetcher,
+                   Function<ChainDeal, Date> contributionDeadlineCalculator,
+                   Function<ChainDeal, Date> finalDeadlineCalculator) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Deal cache size must be positive [maxSize:" + maxSize + "]");
+        }
+        this.chainDealFetcher = chainDealFetcher;
+        this.contributionDeadlineCalculator = contributionDeadlineCalculator;
+        this.finalDeadlineCalculator = finalDeadlineCalculator;
+        this.deals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedChainDeal> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a deal and its deadlines, fetching them on first read.
+     * <p>
+     * The fetch is done without holding the cache lock,
+     * so concurrent first reads of a deal may fetch it more than once.
+     *
+     * @param chainDealId ID of the deal
+     * @return The cached deal, empty if it could not be fetched.
+     */
+    Optional<CachedChainDeal> get(String chainDealId) {
+        synchronized (deals) {
+            final CachedChainDeal cachedChainDeal = deals.get(chainDealId);
+            if (cachedChainDeal != null) {
+                return Optional.of(cachedChainDeal);
+            }
+        }
+        final Optional<CachedChainDeal> fetchedChainDeal = chainDealFetcher.apply(chainDealId)
+                .map(chainDeal -> new CachedChainDeal(
+                        chainDeal,
+                        contributionDeadlineCalculator.apply(chainDeal),
+                        finalDeadlineCalculator.apply(chainDeal)));
+        fetchedChainDeal.ifPresent(cachedChainDeal -> {
+            synchronized (deals) {
+                deals.put(chainDealId, cachedChainDeal);
+            }
+        });
+        return fetchedChainDeal;
+    }
+
+    int size() {
+        synchronized (deals) {
+            return deals.size();
+        }
+    }
+
+    @Value
+    static class CachedChainDeal {
+        ChainDeal chainDeal;
+        Date contributionDeadline;
+        Date finalDeadline;
+    }
+}
@@ -22,8 +22,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.web3j.abi.EventValues;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.tx.Contract;
 
 import java.math.BigInteger;
+import java.util.Optional;
 
 @Data
 @Getter
@@ -44,4 +50,24 @@ public class DealEvent {
         this.blockNumber = schedulerNoticeEventResponse.log.getBlockNumber();
     }
 
+    /**
+     * Decodes a deal event from a {@code SchedulerNotice} log of the hub contract.
+     *
+     * @param log         Log emitted by the hub contract
+     * @param poolAddress Address of the workerpool of this scheduler
+     * @return The decoded event, empty if the log is not a {@code SchedulerNotice} of the workerpool.
+     */
+    static Optional<DealEvent> fromLog(Log log, String poolAddress) {
+        final EventValues eventValues = Contract.staticExtractEventParameters(IexecHubContract.SCHEDULERNOTICE_EVENT, log);
+        if (eventValues == null) {
+            return Optional.empty();
+        }
+        final String workerpool = ((Address) eventValues.getIndexedValues().get(0)).getValue();
+        if (!workerpool.equalsIgnoreCase(poolAddress)) {
+            return Optional.empty();
+        }
+        final byte[] dealid = ((Bytes32) eventValues.getNonIndexedValues().get(0)).getValue();
+        return Optional.of(new DealEvent(BytesUtils.bytesToString(dealid), log.getBlockNumber()));
+    }
+
 }
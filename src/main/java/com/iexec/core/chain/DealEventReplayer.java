@@ -0,0 +1,244 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.contract.generated.IexecHubContract;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Replays deal events of a range of blocks with {@code eth_getLogs} calls over adaptive block windows,
+ * instead of a single call over the whole range which nodes may time out or truncate.
+ * <p>
+ * Windows are read in parallel, with at most {@link ChainConfig#getDealReplayConcurrency()} concurrent calls,
+ * and their events are handled in block order. A checkpoint is notified once all events of a window
+ * and of the preceding ones have been handled, so that an interrupted replay can resume from there.
+ * <p>
+ * The window size is halved each time a window read fails, the failed window being read again as two
+ * smaller ones. It is doubled after each successful read, up to {@link ChainConfig#getDealReplayMaxWindowSize()}
+ * and never beyond half the size of a window which failed during the same replay.
+ */
+@Slf4j
+@Component
+public class DealEventReplayer {
+
+    /**
+     * Reads deal events of the given range of blocks, bounds included.
+     */
+    @FunctionalInterface
+    interface WindowReader {
+        List<DealEvent> read(BigInteger from, BigInteger to) throws IOException;
+    }
+
+    /**
+     * Number of attempts to read a single block window before giving up the replay.
+     */
+    static final int MAX_ATTEMPTS_OF_SINGLE_BLOCK_WINDOW = 3;
+
+    private final WindowReader windowReader;
+    private final long maxWindowSize;
+    private final int concurrency;
+    private final ExecutorService executorService;
+    // adaptive window size, kept from one replay to the next one
+    private long windowSize;
+
+    @Autowired
+    public DealEventReplayer(Web3jService web3jService, ChainConfig chainConfig) {
+        this((from, to) -> readDealEvents(web3jService.getWeb3j(), chainConfig.getHubAddress(),
+                        chainConfig.getPoolAddress(), from, to),
+                chainConfig.getDealReplayInitialWindowSize(),
+                chainConfig.getDealReplayMaxWindowSize(),
+                chainConfig.getDealReplayConcurrency());
+    }
+
+    DealEventReplayer(WindowReader windowReader, long initialWindowSize, long maxWindowSize, int concurrency) {
+        if (initialWindowSize <= 0 || maxWindowSize < initialWindowSize || concurrency <= 0) {
+            throw new IllegalArgumentException("Window sizes and concurrency must be positive, " +
+                    "max window size must not be lower than initial one");
+        }
+        this.windowReader = windowReader;
+        this.windowSize = initialWindowSize;
+        this.maxWindowSize = maxWindowSize;
+        this.concurrency = concurrency;
+        this.executorService = Executors.newFixedThreadPool(concurrency);
+    }
+
+    /**
+     * Reads {@code SchedulerNotice} events of a pool emitted by the hub contract within a range of blocks.
+     *
+     * @param web3j       Client of the chain node
+     * @param hubAddress  Address of the hub contract
+     * @param poolAddress Address of the workerpool
+     * @param from        First block of the range
+     * @param to          Last block of the range
+     * @return Deal events of the pool, in the order they have been emitted.
+     * @throws IOException if the node could not be reached or returned an error
+     */
+    static List<DealEvent> readDealEvents(Web3j web3j, String hubAddress, String poolAddress,
+                                          BigInteger from, BigInteger to) throws IOException {
+        final EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(from),
+                DefaultBlockParameter.valueOf(to),
+                hubAddress);
+        filter.addSingleTopic(EventEncoder.encode(IexecHubContract.SCHEDULERNOTICE_EVENT));
+        filter.addSingleTopic("0x" + TypeEncoder.encode(new Address(poolAddress)));
+        final EthLog ethLog = web3j.ethGetLogs(filter).send();
+        if (ethLog.hasError()) {
+            throw new IOException(String.format("Failed to get logs [from:%s, to:%s, code:%s, message:%s]",
+                    from, to, ethLog.getError().getCode(), ethLog.getError().getMessage()));
+        }
+        final List<DealEvent> dealEvents = new ArrayList<>();
+        for (EthLog.LogResult<?> logResult : ethLog.getLogs()) {
+            if (logResult.get() instanceof Log) {
+                DealEvent.fromLog((Log) logResult.get(), poolAddress).ifPresent(dealEvents::add);
+            }
+        }
+        return dealEvents;
+    }
+
+    /**
+     * Replays deal events of a range of blocks, blocking until the whole range has been replayed,
+     * a single block window could not be read after {@link #MAX_ATTEMPTS_OF_SINGLE_BLOCK_WINDOW} attempts
+     * or a handler failed.
+     *
+     * @param from              First block of the range
+     * @param to                Last block of the range
+     * @param eventHandler      Handler of deal events, called in block order on the calling thread
+     * @param checkpointHandler Called with the last block of each window once all events up to this block have been handled
+     * @return The last replayed block, which is {@code to} if the whole range has been replayed,
+     * or {@code from} if no window could be replayed.
+     */
+    synchronized BigInteger replay(BigInteger from, BigInteger to,
+                                   Consumer<DealEvent> eventHandler,
+                                   Consumer<BigInteger> checkpointHandler) {
+        final Deque<Window> windows = new ArrayDeque<>();
+        long growthCeiling = maxWindowSize;
+        BigInteger nextFrom = from;
+        BigInteger lastReplayedBlock = from;
+        int nbWindows = 0;
+        int nbEvents = 0;
+        final long start = System.currentTimeMillis();
+        while (true) {
+            while (windows.size() < concurrency && nextFrom.compareTo(to) <= 0) {
+                final BigInteger windowTo = nextFrom.add(BigInteger.valueOf(windowSize - 1)).min(to);
+                windows.addLast(submit(nextFrom, windowTo, 1));
+                nextFrom = windowTo.add(BigInteger.ONE);
+            }
+            final Window window = windows.pollFirst();
+            if (window == null) {
+                break;
+            }
+            try {
+                final List<DealEvent> dealEvents = window.events.get();
+                dealEvents.forEach(eventHandler);
+                checkpointHandler.accept(window.to);
+                lastReplayedBlock = window.to;
+                nbWindows++;
+                nbEvents += dealEvents.size();
+                if (window.size() >= windowSize) {
+                    windowSize = Math.max(windowSize, Math.min(windowSize * 2, growthCeiling));
+                }
+            } catch (ExecutionException e) {
+                log.warn("Failed to read deal events window [from:{}, to:{}, attempt:{}, error:{}]",
+                        window.from, window.to, window.attempt, e.getCause().getMessage());
+                final long failedSize = window.size();
+                if (failedSize > 1) {
+                    growthCeiling = Math.min(growthCeiling, failedSize / 2);
+                    windowSize = Math.min(windowSize, growthCeiling);
+                    final BigInteger middle = window.from.add(BigInteger.valueOf(failedSize / 2 - 1));
+                    windows.addFirst(submit(middle.add(BigInteger.ONE), window.to, 1));
+                    windows.addFirst(submit(window.from, middle, 1));
+                } else if (window.attempt < MAX_ATTEMPTS_OF_SINGLE_BLOCK_WINDOW) {
+                    windows.addFirst(submit(window.from, window.to, window.attempt + 1));
+                } else {
+                    log.error("Deal events replay stopped [from:{}, to:{}, failedBlock:{}, lastReplayedBlock:{}]",
+                            from, to, window.from, lastReplayedBlock);
+                    windows.forEach(pending -> pending.events.cancel(true));
+                    return lastReplayedBlock;
+                }
+            } catch (InterruptedException e) {
+                log.warn("Deal events replay interrupted [from:{}, to:{}, lastReplayedBlock:{}]",
+                        from, to, lastReplayedBlock);
+                windows.forEach(pending -> pending.events.cancel(true));
+                Thread.currentThread().interrupt();
+                return lastReplayedBlock;
+            } catch (RuntimeException e) {
+                log.error("Deal events replay stopped, failed to handle deal events " +
+                                "[from:{}, to:{}, failedWindowFrom:{}, lastReplayedBlock:{}]",
+                        from, to, window.from, lastReplayedBlock, e);
+                windows.forEach(pending -> pending.events.cancel(true));
+                return lastReplayedBlock;
+            }
+        }
+        log.info("Deal events replayed [from:{}, to:{}, nbWindows:{}, nbEvents:{}, windowSize:{}, durationMs:{}]",
+                from, to, nbWindows, nbEvents, windowSize, System.currentTimeMillis() - start);
+        return lastReplayedBlock;
+    }
+
+    private Window submit(BigInteger from, BigInteger to, int attempt) {
+        return new Window(from, to, attempt, executorService.submit(() -> windowReader.read(from, to)));
+    }
+
+    long getWindowSize() {
+        return windowSize;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private static class Window {
+        private final BigInteger from;
+        private final BigInteger to;
+        private final int attempt;
+        private final Future<List<DealEvent>> events;
+
+        private Window(BigInteger from, BigInteger to, int attempt, Future<List<DealEvent>> events) {
+            this.from = from;
+            this.to = to;
+            this.attempt = attempt;
+            this.events = events;
+        }
+
+        private long size() {
+            return to.subtract(from).longValue() + 1;
+        }
+    }
+}
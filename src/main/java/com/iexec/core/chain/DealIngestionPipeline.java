@@ -0,0 +1,225 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.chain.ChainDeal;
+import com.iexec.core.task.event.TasksCreatedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Staged pipeline ingesting deal events received from the chain:
+ * receive, then fetch the deal, then insert its tasks and publish their events.
+ * <ul>
+ * <li>Deals are fetched in parallel, by at most {@code fetchConcurrency} threads.
+ * <li>Tasks are inserted and their events published by a single thread, deal after deal,
+ * in the order deal events have been received. Events are published as soon as their tasks
+ * have been inserted, e.g. chunk by chunk for a bag-of-tasks deal.
+ * <li>At most {@code bufferSize} deals wait to be inserted. Once the buffer is full,
+ * {@link #submit(DealEvent)} blocks the caller, so that the chain subscription is slowed down
+ * instead of buffering an unbounded number of deals.
+ * <li>A deal is checkpointed once it and all deals received before it have been ingested,
+ * so that a checkpoint never skips a deal which has not been ingested yet.
+ * </ul>
+ * A deal which could not be ingested is checkpointed nonetheless, it is ingested again by the deal events replay.
+ */
+@Slf4j
+class DealIngestionPipeline {
+
+    static final String PENDING_METRIC_NAME = "iexec.core.deal.ingestion.pending";
+    static final String STAGE_METRIC_NAME = "iexec.core.deal.ingestion.stage";
+
+    /**
+     * Inserts tasks of a deal.
+     */
+    @FunctionalInterface
+    interface TasksInserter {
+        /**
+         * @param dealEvent      Event of the deal
+         * @param chainDeal      Deal read on chain
+         * @param eventPublisher Publishes events of created tasks, to be called as soon as they have been inserted
+         */
+        void insert(DealEvent dealEvent, ChainDeal chainDeal, Consumer<TasksCreatedEvent> eventPublisher);
+    }
+
+    private final Function<DealEvent, Optional<ChainDeal>> dealFetcher;
+    private final TasksInserter tasksInserter;
+    private final Consumer<TasksCreatedEvent> eventPublisher;
+    private final Consumer<DealEvent> checkpointer;
+    // deals being fetched or waiting for insertion, in reception order
+    private final BlockingQueue<PendingDeal> pendingDeals;
+    private final ExecutorService fetchExecutorService;
+    private final ExecutorService ingestionExecutorService = Executors.newSingleThreadExecutor();
+    // deals received but not checkpointed yet
+    private final AtomicInteger nbPendingDeals = new AtomicInteger();
+    private final Timer receiveTimer;
+    private final Timer fetchTimer;
+    private final Timer insertTimer;
+    private final Timer publishTimer;
+
+    /**
+     * @param dealFetcher      Reads a deal on chain, empty if the deal must not be ingested
+     * @param tasksInserter    Inserts tasks of a deal and publishes their events
+     * @param eventPublisher   Publishes an event of created tasks
+     * @param checkpointer     Records that a deal and all deals received before it have been ingested
+     * @param bufferSize       Max number of deals waiting for insertion
+     * @param fetchConcurrency Max number of deals fetched in parallel
+     * @param meterRegistry    Registry of pipeline metrics
+     */
+    DealIngestionPipeline(Function<DealEvent, Optional<ChainDeal>> dealFetcher,
+                          TasksInserter tasksInserter,
+                          Consumer<TasksCreatedEvent> eventPublisher,
+                          Consumer<DealEvent> checkpointer,
+                          int bufferSize,
+                          int fetchConcurrency,
+                          MeterRegistry meterRegistry) {
+        if (bufferSize <= 0 || fetchConcurrency <= 0) {
+            throw new IllegalArgumentException("Buffer size and fetch concurrency must be positive");
+        }
+        this.dealFetcher = dealFetcher;
+        this.tasksInserter = tasksInserter;
+        this.eventPublisher = eventPublisher;
+        this.checkpointer = checkpointer;
+        this.pendingDeals = new ArrayBlockingQueue<>(bufferSize);
+        this.fetchExecutorService = Executors.newFixedThreadPool(fetchConcurrency);
+        Gauge.builder(PENDING_METRIC_NAME, nbPendingDeals, AtomicInteger::get)
+                .description("Number of deals received but not ingested yet")
+                .register(meterRegistry);
+        this.receiveTimer = buildStageTimer(meterRegistry, "receive", "Time spent waiting for room in the buffer");
+        this.fetchTimer = buildStageTimer(meterRegistry, "fetch", "Time spent fetching deals");
+        this.insertTimer = buildStageTimer(meterRegistry, "insert", "Time spent inserting tasks of deals, publishing excluded");
+        this.publishTimer = buildStageTimer(meterRegistry, "publish", "Time spent publishing events of created tasks");
+        ingestionExecutorService.execute(this::ingestPendingDeals);
+    }
+
+    private static Timer buildStageTimer(MeterRegistry meterRegistry, String stage, String description) {
+        return Timer.builder(STAGE_METRIC_NAME)
+                .description(description)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the ingestion of a deal, blocking while the buffer is full.
+     *
+     * @param dealEvent Event of the deal
+     * @return {@literal true} if the deal has been accepted,
+     * {@literal false} if the calling thread has been interrupted while waiting.
+     */
+    synchronized boolean submit(DealEvent dealEvent) {
+        nbPendingDeals.incrementAndGet();
+        final CompletableFuture<Optional<ChainDeal>> chainDeal = CompletableFuture.supplyAsync(
+                () -> fetchTimer.record(() -> dealFetcher.apply(dealEvent)), fetchExecutorService);
+        final long start = System.nanoTime();
+        try {
+            pendingDeals.put(new PendingDeal(dealEvent, chainDeal));
+            return true;
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for room in deal ingestion buffer [chainDealId:{}]",
+                    dealEvent.getChainDealId());
+            chainDeal.cancel(true);
+            nbPendingDeals.decrementAndGet();
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            receiveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void ingestPendingDeals() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final PendingDeal pendingDeal;
+            try {
+                pendingDeal = pendingDeals.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            ingest(pendingDeal);
+        }
+    }
+
+    private void ingest(PendingDeal pendingDeal) {
+        final DealEvent dealEvent = pendingDeal.dealEvent;
+        try {
+            final Optional<ChainDeal> chainDeal = pendingDeal.chainDeal.join();
+            if (chainDeal.isPresent()) {
+                insert(dealEvent, chainDeal.get());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to ingest deal [chainDealId:{}]", dealEvent.getChainDealId(), e);
+        }
+        try {
+            checkpointer.accept(dealEvent);
+        } catch (RuntimeException e) {
+            log.error("Failed to checkpoint deal [chainDealId:{}]", dealEvent.getChainDealId(), e);
+        } finally {
+            nbPendingDeals.decrementAndGet();
+        }
+    }
+
+    private void insert(DealEvent dealEvent, ChainDeal chainDeal) {
+        final long[] publishDuration = {0};
+        final long start = System.nanoTime();
+        try {
+            tasksInserter.insert(dealEvent, chainDeal, event -> {
+                final long publishStart = System.nanoTime();
+                try {
+                    eventPublisher.accept(event);
+                } finally {
+                    final long duration = System.nanoTime() - publishStart;
+                    publishDuration[0] += duration;
+                    publishTimer.record(duration, TimeUnit.NANOSECONDS);
+                }
+            });
+        } finally {
+            insertTimer.record(System.nanoTime() - start - publishDuration[0], TimeUnit.NANOSECONDS);
+        }
+    }
+
+    boolean isIdle() {
+        return nbPendingDeals.get() == 0;
+    }
+
+    void shutdown() {
+        ingestionExecutorService.shutdownNow();
+        fetchExecutorService.shutdownNow();
+    }
+
+    private static class PendingDeal {
+        private final DealEvent dealEvent;
+        private final CompletableFuture<Optional<ChainDeal>> chainDeal;
+
+        private PendingDeal(DealEvent dealEvent, CompletableFuture<Optional<ChainDeal>> chainDeal) {
+            this.dealEvent = dealEvent;
+            this.chainDeal = chainDeal;
+        }
+    }
+}
@@ -21,7 +21,10 @@ import com.iexec.common.utils.BytesUtils;
 import com.iexec.core.configuration.ConfigurationService;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
+import com.iexec.core.task.event.DealTasksCreatedEvent;
 import com.iexec.core.task.event.TaskCreatedEvent;
+import com.iexec.core.task.event.TasksCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.reactivex.disposables.Disposable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,32 +35,60 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class DealWatcherService {
 
+    /**
+     * Max number of tasks of a deal saved with a single bulk insert.
+     */
+    static final int TASK_INSERT_CHUNK_SIZE = 1000;
+
     private final IexecHubService iexecHubService;
     private final ConfigurationService configurationService;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final TaskService taskService;
     private final Web3jService web3jService;
-    // internal variables
-    private Disposable dealEventSubscriptionReplay;
+    private final DealEventReplayer dealEventReplayer;
+    private final DealIngestionPipeline dealIngestionPipeline;
 
     @Autowired
     public DealWatcherService(IexecHubService iexecHubService,
                               ConfigurationService configurationService,
                               ApplicationEventPublisher applicationEventPublisher,
                               TaskService taskService,
-                              Web3jService web3jService) {
+                              Web3jService web3jService,
+                              DealEventReplayer dealEventReplayer,
+                              ChainConfig chainConfig,
+                              MeterRegistry meterRegistry) {
         this.iexecHubService = iexecHubService;
         this.configurationService = configurationService;
         this.applicationEventPublisher = applicationEventPublisher;
         this.taskService = taskService;
         this.web3jService = web3jService;
+        this.dealEventReplayer = dealEventReplayer;
+        this.dealIngestionPipeline = new DealIngestionPipeline(
+                this::fetchDeal,
+                this::addTasks,
+                applicationEventPublisher::publishEvent,
+                this::updateLastSeenBlockWithDeal,
+                chainConfig.getDealIngestionBufferSize(),
+                chainConfig.getDealIngestionFetchConcurrency(),
+                meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dealIngestionPipeline.shutdown();
     }
 
     /**
@@ -74,6 +105,8 @@ public class DealWatcherService {
     /**
      * Subscribe to onchain deal events from
      * a given block to the latest block.
+     * Received deals are ingested by the {@link DealIngestionPipeline},
+     * which slows down the subscription when too many deals are pending.
      * 
      * @param from start block
      * @return disposable subscription
@@ -81,16 +114,28 @@ public class DealWatcherService {
     Disposable subscribeToDealEventFromOneBlockToLatest(BigInteger from) {
         log.info("Watcher DealEvent started [from:{}, to:{}]", from, "latest");
         return iexecHubService.getDealEventObservableToLatest(from)
-                .subscribe(dealEvent -> dealEvent.ifPresent(this::onDealEvent));
+                .subscribe(dealEvent -> dealEvent.ifPresent(this::receiveDealEvent));
+    }
+
+    private void receiveDealEvent(DealEvent dealEvent) {
+        checkDealBlock(dealEvent);
+        dealIngestionPipeline.submit(dealEvent);
     }
 
     /**
-     * Update last seen block in the database
-     * and run {@link DealEvent} handler.
+     * Run {@link DealEvent} handler synchronously
+     * and update last seen block in the database.
      * 
      * @param dealEvent
      */
     private void onDealEvent(DealEvent dealEvent) {
+        checkDealBlock(dealEvent);
+        fetchDeal(dealEvent).ifPresent(chainDeal ->
+                addTasks(dealEvent, chainDeal, applicationEventPublisher::publishEvent));
+        updateLastSeenBlockWithDeal(dealEvent);
+    }
+
+    private void checkDealBlock(DealEvent dealEvent) {
         String dealId = dealEvent.getChainDealId();
         BigInteger dealBlock = dealEvent.getBlockNumber();
         log.info("Received deal [dealId:{}, block:{}]", dealId,
@@ -101,34 +146,53 @@ public class DealWatcherService {
                     "lastBlock:{}]", dealId, dealBlock, web3jService.getLatestBlockNumber());
             dealEvent.setBlockNumber(BigInteger.ZERO);
         }
-        this.handleDeal(dealEvent);
+    }
+
+    private void updateLastSeenBlockWithDeal(DealEvent dealEvent) {
+        BigInteger dealBlock = dealEvent.getBlockNumber();
         if (configurationService.getLastSeenBlockWithDeal().compareTo(dealBlock) < 0) {
             configurationService.setLastSeenBlockWithDeal(dealBlock);
         }
     }
 
     /**
-     * Handle new onchain deals and add its tasks
-     * to db.
+     * Get a new onchain deal if its tasks can still be computed.
      *
      * @param dealEvent
+     * @return the deal, empty if it could not be read or has expired
      */
-    private void handleDeal(DealEvent dealEvent) {
+    private Optional<ChainDeal> fetchDeal(DealEvent dealEvent) {
         String chainDealId = dealEvent.getChainDealId();
         Optional<ChainDeal> oChainDeal = iexecHubService.getChainDeal(chainDealId);
         if (oChainDeal.isEmpty()) {
             log.error("Could not get chain deal [chainDealId:{}]", chainDealId);
-            return;
+            return Optional.empty();
         }
         ChainDeal chainDeal = oChainDeal.get();
         // do not process deals after deadline
         if (!iexecHubService.isBeforeContributionDeadline(chainDeal)) {
             log.error("Deal has expired [chainDealId:{}, deadline:{}]",
                     chainDealId, iexecHubService.getChainDealContributionDeadline(chainDeal));
-            return;
+            return Optional.empty();
         }
+        return oChainDeal;
+    }
+
+    /**
+     * Add tasks of a deal to db.
+     *
+     * @param dealEvent      event of the deal
+     * @param chainDeal      deal
+     * @param eventPublisher publisher of events of the created tasks
+     */
+    private void addTasks(DealEvent dealEvent, ChainDeal chainDeal, Consumer<TasksCreatedEvent> eventPublisher) {
+        String chainDealId = dealEvent.getChainDealId();
         int startBag = chainDeal.getBotFirst().intValue();
         int endBag = chainDeal.getBotFirst().intValue() + chainDeal.getBotSize().intValue();
+        if (endBag - startBag > 1) {
+            addTasksInBulk(dealEvent, chainDeal, startBag, endBag, eventPublisher);
+            return;
+        }
         for (int taskIndex = startBag; taskIndex < endBag; taskIndex++) {
             Optional<Task> optional = taskService.addTask(
                     chainDealId,
@@ -141,14 +205,67 @@ public class DealWatcherService {
                     chainDeal.getTag(),
                     iexecHubService.getChainDealContributionDeadline(chainDeal),
                     iexecHubService.getChainDealFinalDeadline(chainDeal));
-            optional.ifPresent(task -> applicationEventPublisher
-                    .publishEvent(new TaskCreatedEvent(task.getChainTaskId())));
+            optional.ifPresent(task -> eventPublisher.accept(new TaskCreatedEvent(task.getChainTaskId())));
+        }
+    }
+
+    /**
+     * Add tasks of a bag-of-tasks deal to db by chunks of {@link #TASK_INSERT_CHUNK_SIZE},
+     * each chunk being saved with a single bulk insert.
+     * Already added tasks are ignored, so that a deal can be replayed.
+     * <p>
+     * A single {@link DealTasksCreatedEvent} is published per chunk, as soon as the chunk is inserted,
+     * so that tasks of the first chunks are scheduled while the following ones are being inserted.
+     *
+     * @param dealEvent      event of the deal
+     * @param chainDeal      deal
+     * @param startBag       index of the first task
+     * @param endBag         index following the last task
+     * @param eventPublisher publisher of events of the created tasks
+     */
+    private void addTasksInBulk(DealEvent dealEvent, ChainDeal chainDeal, int startBag, int endBag,
+                                Consumer<TasksCreatedEvent> eventPublisher) {
+        final String chainDealId = dealEvent.getChainDealId();
+        final String imageName = BytesUtils.hexStringToAscii(chainDeal.getChainApp().getUri());
+        final Date contributionDeadline = iexecHubService.getChainDealContributionDeadline(chainDeal);
+        final Date finalDeadline = iexecHubService.getChainDealFinalDeadline(chainDeal);
+        int nbAddedTasks = 0;
+        for (int chunkStart = startBag; chunkStart < endBag; chunkStart += TASK_INSERT_CHUNK_SIZE) {
+            final int chunkEnd = Math.min(chunkStart + TASK_INSERT_CHUNK_SIZE, endBag);
+            final List<Task> chunk = new ArrayList<>(chunkEnd - chunkStart);
+            for (int taskIndex = chunkStart; taskIndex < chunkEnd; taskIndex++) {
+                Task task = new Task(chainDealId, taskIndex, imageName,
+                        chainDeal.getParams().getIexecArgs(),
+                        chainDeal.getTrust().intValue(),
+                        chainDeal.getChainCategory().getMaxExecutionTime(),
+                        chainDeal.getTag());
+                task.setDealBlockNumber(dealEvent.getBlockNumber().longValue());
+                task.setContributionDeadline(contributionDeadline);
+                task.setFinalDeadline(finalDeadline);
+                chunk.add(task);
+            }
+            final List<String> addedChainTaskIds = taskService.addTasks(chunk)
+                    .stream()
+                    .map(Task::getChainTaskId)
+                    .collect(Collectors.toList());
+            nbAddedTasks += addedChainTaskIds.size();
+            if (!addedChainTaskIds.isEmpty()) {
+                eventPublisher.accept(new DealTasksCreatedEvent(chainDealId, addedChainTaskIds));
+            }
         }
+        log.info("Added new tasks [chainDealId:{}, botSize:{}, nbAddedTasks:{}]",
+                chainDealId, endBag - startBag, nbAddedTasks);
+    }
+
+    boolean isIngestionIdle() {
+        return dealIngestionPipeline.isIdle();
     }
 
     /*
      * Some deal events are sometimes missed by #schedulerNoticeEventObservable method
-     * so we decide to replay events from times to times (already saved events will be ignored)
+     * so we decide to replay events from times to times (already saved events will be ignored).
+     * The range is replayed by block windows and the replay start is moved forward after each window,
+     * so that an interrupted replay resumes from the last replayed window.
      */
     @Scheduled(fixedRateString = "#{@cronConfiguration.getDealReplay()}")
     void replayDealEvent() {
@@ -157,25 +274,8 @@ public class DealWatcherService {
         if (replayFromBlock.compareTo(lastSeenBlockWithDeal) >= 0) {
             return;
         }
-        if (this.dealEventSubscriptionReplay != null && !this.dealEventSubscriptionReplay.isDisposed()) {
-            this.dealEventSubscriptionReplay.dispose();
-        }
-        this.dealEventSubscriptionReplay = subscribeToDealEventInRange(replayFromBlock, lastSeenBlockWithDeal);
-        configurationService.setFromReplay(lastSeenBlockWithDeal);
-    }
-
-    /**
-     * Subscribe to onchain deal events for
-     * a fixed range of blocks.
-     * 
-     * @param from start block
-     * @param to end block
-     * @return disposable subscription
-     */
-    private Disposable subscribeToDealEventInRange(BigInteger from, BigInteger to) {
-        log.info("Replay Watcher DealEvent started [from:{}, to:{}]",
-                from, (to == null) ? "latest" : to);
-        return iexecHubService.getDealEventObservable(from, to)
-                .subscribe(dealEvent -> dealEvent.ifPresent(this::onDealEvent));
+        log.info("Replay Watcher DealEvent started [from:{}, to:{}]", replayFromBlock, lastSeenBlockWithDeal);
+        dealEventReplayer.replay(replayFromBlock, lastSeenBlockWithDeal,
+                this::onDealEvent, configurationService::setFromReplay);
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads balances of wallets with JSON-RPC batch requests,
+ * so that refreshing many gas balance checks costs a few round trips instead of one per wallet.
+ */
+@Slf4j
+class GasBalanceBatchReader {
+
+    private final Web3j web3j;
+    private final int batchSize;
+
+    GasBalanceBatchReader(Web3j web3j, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Read batch size must be positive [batchSize:" + batchSize + "]");
+        }
+        this.web3j = web3j;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads balances with one batch request per {@code batchSize} wallets.
+     * <p>
+     * Balances which could not be read, including all balances of a failed batch,
+     * are missing from the returned map.
+     *
+     * @param walletAddresses Wallets whose balance should be read
+     * @return Read balances in wei by wallet address.
+     */
+    Map<String, BigInteger> read(List<String> walletAddresses) {
+        final Map<String, BigInteger> balances = new HashMap<>(walletAddresses.size());
+        for (int batchStart = 0; batchStart < walletAddresses.size(); batchStart += batchSize) {
+            final int batchEnd = Math.min(batchStart + batchSize, walletAddresses.size());
+            readBatch(walletAddresses.subList(batchStart, batchEnd), balances);
+        }
+        return balances;
+    }
+
+    private void readBatch(List<String> walletAddresses, Map<String, BigInteger> balances) {
+        final BatchRequest batchRequest = web3j.newBatch();
+        // responses are matched to their request by JSON-RPC id, whatever their order
+        final Map<Long, String> walletAddressesByRequestId = new HashMap<>(walletAddresses.size());
+        for (String walletAddress : walletAddresses) {
+            final var request = web3j.ethGetBalance(walletAddress, DefaultBlockParameterName.LATEST);
+            walletAddressesByRequestId.put(request.getId(), walletAddress);
+            batchRequest.add(request);
+        }
+
+        final List<? extends Response<?>> responses;
+        try {
+            responses = batchRequest.send().getResponses();
+        } catch (Exception e) {
+            log.error("Failed to read balances batch [size:{}]", walletAddresses.size(), e);
+            return;
+        }
+
+        for (Response<?> response : responses) {
+            final String walletAddress = walletAddressesByRequestId.get(response.getId());
+            if (walletAddress == null || !(response instanceof EthGetBalance)) {
+                continue;
+            }
+            final EthGetBalance ethGetBalance = (EthGetBalance) response;
+            if (ethGetBalance.hasError()) {
+                log.warn("Failed to read balance [walletAddress:{}, error:{}]",
+                        walletAddress, ethGetBalance.getError().getMessage());
+                continue;
+            }
+            balances.put(walletAddress, ethGetBalance.getBalance());
+        }
+    }
+}
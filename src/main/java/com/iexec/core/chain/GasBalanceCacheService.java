@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Caches gas balance checks of workers so that asking for a replicate does not wait on the chain node.
+ * <p>
+ * Each check is stored with the block number it was done at and the balance it was based on.
+ * Checks older than {@link ChainConfig#getGasBalanceCacheMaxStaleBlocks()} blocks are refreshed
+ * by a periodic background pass, only the first check of a worker is done synchronously.
+ * Balances of stale checks are read with JSON-RPC batch requests, a worker is only checked again
+ * if its balance has changed since its previous check.
+ * Checks of workers which did not ask for gas balance for {@link ChainConfig#getGasBalanceCacheIdleTtl()}
+ * are evicted instead of refreshed.
+ */
+@Slf4j
+@Service
+public class GasBalanceCacheService {
+
+    static final String CACHE_METRIC_NAME = "iexec.core.gas.balance.cache";
+
+    private final Web3jService web3jService;
+    private final ChainConfig chainConfig;
+    private final GasBalanceBatchReader gasBalanceBatchReader;
+    private final Map<String, GasBalanceCheck> checks = new ConcurrentHashMap<>();
+    // last time each worker asked for gas balance, in ms
+    private final Map<String, Long> lastAskTimes = new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private volatile long latestBlockNumber;
+
+    @Autowired
+    public GasBalanceCacheService(Web3jService web3jService,
+                                  ChainConfig chainConfig,
+                                  MeterRegistry meterRegistry) {
+        this(web3jService, chainConfig,
+                new GasBalanceBatchReader(web3jService.getWeb3j(), chainConfig.getReadBatchSize()),
+                meterRegistry);
+    }
+
+    GasBalanceCacheService(Web3jService web3jService,
+                           ChainConfig chainConfig,
+                           GasBalanceBatchReader gasBalanceBatchReader,
+                           MeterRegistry meterRegistry) {
+        this.web3jService = web3jService;
+        this.chainConfig = chainConfig;
+        this.gasBalanceBatchReader = gasBalanceBatchReader;
+        this.hitCounter = buildCacheCounter(meterRegistry, "hit");
+        this.missCounter = buildCacheCounter(meterRegistry, "miss");
+    }
+
+    private static Counter buildCacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CACHE_METRIC_NAME)
+                .description("Gas balance checks of workers served by the cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a worker has enough gas, using the cached check if any.
+     *
+     * @param walletAddress Wallet address of the worker.
+     * @return {@literal true} if the worker had enough gas at last check, {@literal false} otherwise.
+     */
+    public boolean hasEnoughGas(String walletAddress) {
+        lastAskTimes.put(walletAddress, System.currentTimeMillis());
+        final GasBalanceCheck check = checks.get(walletAddress);
+        if (check == null) {
+            missCounter.increment();
+            return refresh(walletAddress, null).isHasEnoughGas();
+        }
+        hitCounter.increment();
+        return check.isHasEnoughGas();
+    }
+
+    /**
+     * Refreshes stale checks of workers which asked for gas balance within the idle TTL
+     * and evicts checks of other workers.
+     */
+    @Scheduled(fixedRateString = "#{@chainConfig.getGasBalanceCacheRefreshPeriod()}")
+    public void refreshStaleChecks() {
+        latestBlockNumber = web3jService.getLatestBlockNumber();
+        final long idleSince = System.currentTimeMillis() - chainConfig.getGasBalanceCacheIdleTtl();
+        for (Map.Entry<String, Long> lastAskTime : lastAskTimes.entrySet()) {
+            // not evicted if the worker has just asked again
+            if (lastAskTime.getValue() < idleSince
+                    && lastAskTimes.remove(lastAskTime.getKey(), lastAskTime.getValue())) {
+                checks.remove(lastAskTime.getKey());
+            }
+        }
+        final List<String> staleWalletAddresses = checks.entrySet().stream()
+                .filter(entry -> isStale(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (staleWalletAddresses.isEmpty()) {
+            return;
+        }
+        final Map<String, BigInteger> balances = gasBalanceBatchReader.read(staleWalletAddresses);
+        int nbCheckedAgain = 0;
+        for (Map.Entry<String, BigInteger> balance : balances.entrySet()) {
+            final String walletAddress = balance.getKey();
+            final GasBalanceCheck check = checks.get(walletAddress);
+            if (check == null) {
+                continue;
+            }
+            if (balance.getValue().equals(check.getBalance())) {
+                // same balance, same outcome
+                checks.replace(walletAddress, check,
+                        new GasBalanceCheck(latestBlockNumber, check.getBalance(), check.isHasEnoughGas()));
+            } else {
+                refresh(walletAddress, balance.getValue());
+                nbCheckedAgain++;
+            }
+        }
+        log.debug("Refreshed gas balance checks [latestBlockNumber:{}, nbStaleChecks:{}, nbReadBalances:{}, " +
+                        "nbCheckedAgain:{}, nbChecks:{}]",
+                latestBlockNumber, staleWalletAddresses.size(), balances.size(), nbCheckedAgain, checks.size());
+    }
+
+    int getNbChecks() {
+        return checks.size();
+    }
+
+    private boolean isStale(GasBalanceCheck check) {
+        return latestBlockNumber - check.getBlockNumber() > chainConfig.getGasBalanceCacheMaxStaleBlocks();
+    }
+
+    /**
+     * Checks on chain whether a worker has enough gas.
+     *
+     * @param walletAddress Wallet address of the worker.
+     * @param balance       Balance of the worker read just before, {@literal null} if unknown.
+     */
+    private GasBalanceCheck refresh(String walletAddress, BigInteger balance) {
+        final long blockNumber = latestBlockNumber;
+        final GasBalanceCheck check =
+                new GasBalanceCheck(blockNumber, balance, web3jService.hasEnoughGas(walletAddress));
+        checks.put(walletAddress, check);
+        return check;
+    }
+
+    @Value
+    private static class GasBalanceCheck {
+        long blockNumber;
+        // balance the check is based on, null if unknown
+        BigInteger balance;
+        boolean hasEnoughGas;
+    }
+}
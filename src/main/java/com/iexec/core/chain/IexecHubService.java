@@ -19,26 +19,32 @@ package com.iexec.core.chain;
 import com.iexec.common.chain.*;
 import com.iexec.common.contract.generated.IexecHubContract;
 import com.iexec.common.utils.BytesUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.reactivex.Flowable;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.RemoteCall;
+import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.BaseEventResponse;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
 
 import static com.iexec.common.chain.ChainTaskStatus.ACTIVE;
 import static com.iexec.common.chain.ChainTaskStatus.COMPLETED;
@@ -53,11 +59,19 @@ public class IexecHubService extends IexecHubAbstractService {
     private final CredentialsService credentialsService;
     private final Web3jService web3jService;
     private final String poolAddress;
+    private final ChainDealCache chainDealCache;
+    private final BlockAwareReadCache<String, ChainTask> chainTaskCache;
+    // keyed by chainTaskId and wallet address
+    private final BlockAwareReadCache<Pair<String, String>, ChainContribution> chainContributionCache;
+    private final ChainContributionBatchReader chainContributionBatchReader;
+    // hub constant, cached once successfully read
+    private volatile long maxNbOfPeriodsForConsensus = -1;
 
     @Autowired
     public IexecHubService(CredentialsService credentialsService,
                            Web3jService web3jService,
-                           ChainConfig chainConfig) {
+                           ChainConfig chainConfig,
+                           MeterRegistry meterRegistry) {
         super(
                 credentialsService.getCredentials(),
                 web3jService,
@@ -66,6 +80,16 @@ public class IexecHubService extends IexecHubAbstractService {
         this.web3jService = web3jService;
         this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
         this.poolAddress = chainConfig.getPoolAddress();
+        this.chainDealCache = new ChainDealCache(
+                chainConfig.getDealCacheSize(),
+                super::getChainDeal,
+                this::getChainDealContributionDeadline,
+                this::getChainDealFinalDeadline);
+        this.chainTaskCache = new BlockAwareReadCache<>("chainTask", super::getChainTask, meterRegistry);
+        this.chainContributionCache = new BlockAwareReadCache<>("chainContribution",
+                key -> super.getChainContribution(key.getLeft(), key.getRight()), meterRegistry);
+        this.chainContributionBatchReader = new ChainContributionBatchReader(
+                web3jService.getWeb3j(), chainConfig.getHubAddress(), chainConfig.getReadBatchSize());
         if (!hasEnoughGas()) {
             System.exit(0);
         }
@@ -111,11 +135,147 @@ public class IexecHubService extends IexecHubAbstractService {
      * @return true if deadline is not reached, false otherwise.
      */
     public boolean isBeforeContributionDeadline(String chainDealId) {
-        return getChainDeal(chainDealId)
-                .map(this::isBeforeContributionDeadline)
+        return chainDealCache.get(chainDealId)
+                .map(cachedChainDeal -> cachedChainDeal.getContributionDeadline().after(new Date()))
                 .orElse(false);
     }
 
+    /**
+     * Get a deal from the deal cache, it is only read
+     * onchain on first access as a deal can't change
+     * once mined.
+     *
+     * @param chainDealId
+     * @return the deal if found, empty otherwise.
+     */
+    @Override
+    public Optional<ChainDeal> getChainDeal(String chainDealId) {
+        return chainDealCache.get(chainDealId)
+                .map(ChainDealCache.CachedChainDeal::getChainDeal);
+    }
+
+    /**
+     * Get a task, it is read onchain at most once
+     * per block.
+     *
+     * @param chainTaskId
+     * @return the task if found, empty otherwise.
+     */
+    @Override
+    public Optional<ChainTask> getChainTask(String chainTaskId) {
+        return chainTaskCache.get(chainTaskId);
+    }
+
+    /**
+     * Get the contribution of a worker to a task,
+     * it is read onchain at most once per block.
+     *
+     * @param chainTaskId
+     * @param workerAddress
+     * @return the contribution if found, empty otherwise.
+     */
+    @Override
+    public Optional<ChainContribution> getChainContribution(String chainTaskId, String workerAddress) {
+        return chainContributionCache.get(Pair.of(chainTaskId, workerAddress));
+    }
+
+    /**
+     * Read contributions which are not cached yet with
+     * JSON-RPC batch requests and cache them, so that
+     * following reads of these contributions in the
+     * same block, including status checks, are served
+     * by the cache.
+     *
+     * @param keys chainTaskId and wallet address of
+     *             each contribution
+     */
+    public void prefetchChainContributions(Collection<Pair<String, String>> keys) {
+        final long readStamp = chainContributionCache.getReadStamp();
+        final List<Pair<String, String>> missingKeys = keys.stream()
+                .distinct()
+                .filter(key -> !chainContributionCache.contains(key))
+                .collect(Collectors.toList());
+        if (missingKeys.isEmpty()) {
+            return;
+        }
+        final Map<Pair<String, String>, ChainContribution> contributions =
+                chainContributionBatchReader.read(missingKeys);
+        contributions.forEach((key, contribution) ->
+                chainContributionCache.put(key, contribution, readStamp));
+        log.debug("Prefetched contributions [nbRequested:{}, nbRead:{}]",
+                missingKeys.size(), contributions.size());
+    }
+
+    /**
+     * Drop the cached task, so that it is read onchain
+     * on next demand even if no new block has been seen.
+     * This should be called once a transaction updating
+     * the task has been mined.
+     *
+     * @param chainTaskId
+     */
+    public void evictChainTask(String chainTaskId) {
+        chainTaskCache.evict(chainTaskId);
+    }
+
+    /**
+     * Drop the cached contribution, so that it is read
+     * onchain on next demand even if no new block has
+     * been seen.
+     *
+     * @param chainTaskId
+     * @param workerAddress
+     */
+    public void evictChainContribution(String chainTaskId, String workerAddress) {
+        chainContributionCache.evict(Pair.of(chainTaskId, workerAddress));
+    }
+
+    /**
+     * Drop the cached contribution if it has been read
+     * before the given block. A worker may report a
+     * contribute or reveal transaction mined in a block
+     * which has not been seen yet by
+     * {@link #refreshLatestBlockNumber()}, the cached
+     * contribution then predates the transaction.
+     *
+     * @param chainTaskId
+     * @param workerAddress
+     * @param blockNumber block of the transaction receipt
+     */
+    public void evictChainContributionReadBefore(String chainTaskId, String workerAddress, long blockNumber) {
+        chainContributionCache.evictIfReadBefore(Pair.of(chainTaskId, workerAddress), blockNumber);
+    }
+
+    /**
+     * Read the latest block number and drop all tasks
+     * and contributions read at a previous block.
+     */
+    @Scheduled(fixedRateString = "#{@chainConfig.getReadCacheBlockNumberRefreshPeriod()}")
+    public void refreshLatestBlockNumber() {
+        final long latestBlockNumber = web3jService.getLatestBlockNumber();
+        if (latestBlockNumber <= 0) {
+            return;
+        }
+        chainTaskCache.onNewBlock(latestBlockNumber);
+        chainContributionCache.onNewBlock(latestBlockNumber);
+    }
+
+    /**
+     * Get the number of category units dedicated
+     * for the contribution phase. This is a hub
+     * constant, it is only read onchain until
+     * it is successfully read once.
+     *
+     * @return the number of periods, -1 if it could not be read.
+     */
+    @Override
+    public long getMaxNbOfPeriodsForConsensus() {
+        if (maxNbOfPeriodsForConsensus == -1) {
+            maxNbOfPeriodsForConsensus = super.getMaxNbOfPeriodsForConsensus();
+        }
+        return maxNbOfPeriodsForConsensus;
+    }
+
     /**
      * Check if a deal's contribution deadline
      * is still not reached.
@@ -386,6 +546,25 @@ public class IexecHubService extends IexecHubAbstractService {
         });
     }
 
+    /**
+     * Get task lifecycle events of the hub, from all pools,
+     * in the order they have been emitted.
+     *
+     * @param from start block
+     * @return events from start block to the latest one, then new events.
+     */
+    Flowable<TaskChainEvent> getTaskEventObservableToLatest(BigInteger from) {
+        final EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(from),
+                DefaultBlockParameterName.LATEST,
+                getHubContract().getContractAddress());
+        filter.addOptionalTopics(TaskChainEvent.getTopics());
+        return web3jService.getWeb3j().ethLogFlowable(filter)
+                .map(TaskChainEvent::fromLog)
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+    }
+
     public boolean hasEnoughGas() {
         return hasEnoughGas(credentialsService.getCredentials().getAddress());
     }
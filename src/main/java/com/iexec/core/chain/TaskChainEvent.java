@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.contract.generated.IexecHubContract;
+import com.iexec.common.utils.BytesUtils;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.EventValues;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.tx.Contract;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Task lifecycle event emitted by the hub contract, decoded from its log.
+ */
+@Data
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChainEvent {
+
+    @Getter
+    public enum EventType {
+        CONTRIBUTE(IexecHubContract.TASKCONTRIBUTE_EVENT, true),
+        REVEAL(IexecHubContract.TASKREVEAL_EVENT, true),
+        CONSENSUS(IexecHubContract.TASKCONSENSUS_EVENT, false),
+        FINALIZE(IexecHubContract.TASKFINALIZE_EVENT, false);
+
+        private final Event event;
+        private final String topic;
+        // whether the event is about a worker contribution, and not only about the task
+        private final boolean hasWorker;
+
+        EventType(Event event, boolean hasWorker) {
+            this.event = event;
+            this.topic = EventEncoder.encode(event);
+            this.hasWorker = hasWorker;
+        }
+    }
+
+    private static final Map<String, EventType> EVENT_TYPES_BY_TOPIC = new HashMap<>();
+
+    static {
+        for (EventType eventType : EventType.values()) {
+            EVENT_TYPES_BY_TOPIC.put(eventType.getTopic(), eventType);
+        }
+    }
+
+    private EventType type;
+    private String chainTaskId;
+    // only set for CONTRIBUTE and REVEAL events
+    private String walletAddress;
+    private BigInteger blockNumber;
+
+    /**
+     * Decodes a task lifecycle event from a log of the hub contract.
+     *
+     * @param log Log emitted by the hub contract
+     * @return The decoded event, empty if the log is not a task lifecycle event.
+     */
+    @SuppressWarnings("rawtypes")
+    static Optional<TaskChainEvent> fromLog(Log log) {
+        if (log.getTopics() == null || log.getTopics().isEmpty()) {
+            return Optional.empty();
+        }
+        final EventType eventType = EVENT_TYPES_BY_TOPIC.get(log.getTopics().get(0));
+        if (eventType == null) {
+            return Optional.empty();
+        }
+        final EventValues eventValues = Contract.staticExtractEventParameters(eventType.getEvent(), log);
+        if (eventValues == null) {
+            return Optional.empty();
+        }
+        // put back indexed and non-indexed values in declaration order
+        final List<Type> values = new ArrayList<>();
+        final Iterator<Type> indexedValues = eventValues.getIndexedValues().iterator();
+        final Iterator<Type> nonIndexedValues = eventValues.getNonIndexedValues().iterator();
+        for (TypeReference<Type> parameter : eventType.getEvent().getParameters()) {
+            values.add(parameter.isIndexed() ? indexedValues.next() : nonIndexedValues.next());
+        }
+        return Optional.of(TaskChainEvent.builder()
+                .type(eventType)
+                .chainTaskId(BytesUtils.bytesToString(((Bytes32) values.get(0)).getValue()))
+                .walletAddress(eventType.isHasWorker() ? ((Address) values.get(1)).getValue() : null)
+                .blockNumber(log.getBlockNumber())
+                .build());
+    }
+
+    static String[] getTopics() {
+        return Arrays.stream(EventType.values())
+                .map(EventType::getTopic)
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.replicate.ReplicateStatus;
+import com.iexec.common.replicate.ReplicateStatusDetails;
+import com.iexec.core.configuration.ConfigurationService;
+import com.iexec.core.replicate.Replicate;
+import com.iexec.core.replicate.ReplicatesService;
+import com.iexec.core.task.TaskService;
+import com.iexec.core.task.update.TaskUpdateRequestManager;
+import io.reactivex.disposables.Disposable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+/**
+ * Watches task lifecycle events of the hub to update replicates and tasks about one block after
+ * their onchain change, instead of waiting for the unnotified detectors which poll every replicate.
+ * <p>
+ * Events are read from the block of the last handled event, which is checkpointed each time events
+ * of a new block are handled. Events of a few blocks may then be handled twice after a restart,
+ * which is harmless as updates are only applied to replicates and tasks which are not updated yet.
+ * Detectors remain as a safety net for missed events.
+ */
+@Slf4j
+@Service
+public class TaskEventWatcherService {
+
+    static final long RESUBSCRIBE_PERIOD_MS = 60_000;
+
+    private final IexecHubService iexecHubService;
+    private final ConfigurationService configurationService;
+    private final ReplicatesService replicatesService;
+    private final TaskService taskService;
+    private final TaskUpdateRequestManager taskUpdateRequestManager;
+    // internal variables
+    private Disposable taskEventSubscription;
+    private BigInteger lastSeenBlock;
+
+    public TaskEventWatcherService(IexecHubService iexecHubService,
+                                   ConfigurationService configurationService,
+                                   ReplicatesService replicatesService,
+                                   TaskService taskService,
+                                   TaskUpdateRequestManager taskUpdateRequestManager) {
+        this.iexecHubService = iexecHubService;
+        this.configurationService = configurationService;
+        this.replicatesService = replicatesService;
+        this.taskService = taskService;
+        this.taskUpdateRequestManager = taskUpdateRequestManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        subscribeToTaskEvents();
+    }
+
+    /**
+     * Subscribes again from the last seen block if the subscription has failed.
+     */
+    @Scheduled(fixedDelay = RESUBSCRIBE_PERIOD_MS, initialDelay = RESUBSCRIBE_PERIOD_MS)
+    public synchronized void resubscribeIfNeeded() {
+        if (taskEventSubscription != null && taskEventSubscription.isDisposed()) {
+            log.warn("Task events subscription has been disposed, subscribing again");
+            subscribeToTaskEvents();
+        }
+    }
+
+    synchronized Disposable subscribeToTaskEvents() {
+        lastSeenBlock = configurationService.getLastSeenBlockWithTaskEvent();
+        log.info("Watcher TaskChainEvent started [from:{}, to:{}]", lastSeenBlock, "latest");
+        taskEventSubscription = iexecHubService.getTaskEventObservableToLatest(lastSeenBlock)
+                .subscribe(this::onTaskEvent,
+                        error -> log.error("Task events subscription failed [lastSeenBlock:{}]", lastSeenBlock, error));
+        return taskEventSubscription;
+    }
+
+    void onTaskEvent(TaskChainEvent event) {
+        log.debug("Received task event [type:{}, chainTaskId:{}, walletAddress:{}, block:{}]",
+                event.getType(), event.getChainTaskId(), event.getWalletAddress(), event.getBlockNumber());
+        try {
+            switch (event.getType()) {
+                case CONTRIBUTE:
+                    onReplicateEvent(event, ReplicateStatus.CONTRIBUTING, ReplicateStatus.CONTRIBUTED);
+                    break;
+                case REVEAL:
+                    onReplicateEvent(event, ReplicateStatus.REVEALING, ReplicateStatus.REVEALED);
+                    break;
+                case CONSENSUS:
+                case FINALIZE:
+                    onTaskUpdatedEvent(event);
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            // the subscription would be disposed, detectors will catch up on this event
+            log.error("Failed to handle task event [type:{}, chainTaskId:{}]",
+                    event.getType(), event.getChainTaskId(), e);
+        }
+        updateLastSeenBlock(event.getBlockNumber());
+    }
+
+    /**
+     * Completes the replicate of the worker if the worker has not notified its completion yet.
+     * <p>
+     * Events of the whole hub are received, events of tasks of other pools are dropped
+     * before reading replicates so that they don't fill the replicates lists cache.
+     */
+    private void onReplicateEvent(TaskChainEvent event,
+                                  ReplicateStatus offchainCompleting,
+                                  ReplicateStatus offchainCompleted) {
+        final String chainTaskId = event.getChainTaskId();
+        if (taskService.getTaskByChainTaskId(chainTaskId).isEmpty()) {
+            // task of another pool
+            return;
+        }
+        final Optional<Replicate> oReplicate = replicatesService.getReplicates(chainTaskId)
+                .stream()
+                .filter(replicate -> replicate.getWalletAddress().equalsIgnoreCase(event.getWalletAddress()))
+                .findFirst();
+        if (oReplicate.isEmpty()) {
+            // replicate unknown to this scheduler
+            return;
+        }
+        final Replicate replicate = oReplicate.get();
+        iexecHubService.evictChainContribution(chainTaskId, replicate.getWalletAddress());
+        final Optional<ReplicateStatus> lastRelevantStatus = replicate.getLastRelevantStatus();
+        if (lastRelevantStatus.isEmpty() || lastRelevantStatus.get() != offchainCompleting) {
+            return;
+        }
+        log.info("Detected missing update from task event (replicate) [is:{}, should:{}, chainTaskId:{}]",
+                offchainCompleting, offchainCompleted, chainTaskId);
+        final long blockNumber = event.getBlockNumber() != null ? event.getBlockNumber().longValue() : 0;
+        replicatesService.updateReplicateStatus(chainTaskId, replicate.getWalletAddress(),
+                offchainCompleted, new ReplicateStatusDetails(blockNumber));
+    }
+
+    /**
+     * Updates the task as soon as its consensus is reached or it is finalized onchain.
+     */
+    private void onTaskUpdatedEvent(TaskChainEvent event) {
+        final String chainTaskId = event.getChainTaskId();
+        if (taskService.getTaskByChainTaskId(chainTaskId).isEmpty()) {
+            // task of another pool
+            return;
+        }
+        iexecHubService.evictChainTask(chainTaskId);
+        taskUpdateRequestManager.publishRequest(chainTaskId);
+    }
+
+    /**
+     * Persists the block of handled events once events of a new block are received.
+     * The persisted block is never decreased.
+     */
+    private void updateLastSeenBlock(BigInteger blockNumber) {
+        if (blockNumber == null || (lastSeenBlock != null && blockNumber.compareTo(lastSeenBlock) <= 0)) {
+            return;
+        }
+        lastSeenBlock = blockNumber;
+        configurationService.setLastSeenBlockWithTaskEvent(blockNumber);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caches worker pass ownerships by wallet address for a limited time.
+ * <p>
+ * Failed reads are not cached.
+ * A read in flight while the ownership of its address is invalidated is not cached either,
+ * so that a pre-transfer ownership can't be cached again after the transfer has been seen:
+ * each read registers its own token, which is dropped by an invalidation
+ * and must still be registered for the read result to be cached.
+ */
+class WorkerPassOwnershipCache {
+
+    // ExpiringMap is thread-safe
+    private final ExpiringMap<String, Boolean> ownerships;
+    private final Map<String, Object> readTokens = new ConcurrentHashMap<>();
+
+    WorkerPassOwnershipCache(long ttlInMillis) {
+        this.ownerships = ExpiringMap.builder()
+                .expiration(ttlInMillis, TimeUnit.MILLISECONDS)
+                .expirationPolicy(ExpirationPolicy.CREATED)
+                .build();
+    }
+
+    /**
+     * Returns the cached ownership of an address, reading and caching it if needed.
+     *
+     * @param address Address of the worker.
+     * @param reader  Reads the ownership of an address, returns {@link Optional#empty()} on failure.
+     * @return The ownership of the address, {@link Optional#empty()} if it could not be read.
+     */
+    Optional<Boolean> get(String address, Function<String, Optional<Boolean>> reader) {
+        final Boolean cachedOwnership = ownerships.get(address);
+        if (cachedOwnership != null) {
+            return Optional.of(cachedOwnership);
+        }
+        final Object readToken = new Object();
+        readTokens.put(address, readToken);
+        final Optional<Boolean> ownership;
+        try {
+            ownership = reader.apply(address);
+        } catch (RuntimeException e) {
+            readTokens.remove(address, readToken);
+            throw e;
+        }
+        synchronized (this) {
+            // Still registered only if neither invalidated nor superseded by another read
+            final boolean isReadStillValid = readTokens.remove(address, readToken);
+            if (isReadStillValid && ownership.isPresent()) {
+                ownerships.put(address, ownership.get());
+            }
+        }
+        return ownership;
+    }
+
+    /**
+     * Invalidates cached ownerships of given addresses, including reads in flight.
+     *
+     * @param addresses Addresses whose ownership may have changed, e.g. both parties of a transfer.
+     */
+    synchronized void invalidate(String... addresses) {
+        for (String address : addresses) {
+            readTokens.remove(address);
+            ownerships.remove(address);
+        }
+    }
+
+    /**
+     * Invalidates all cached ownerships, including reads in flight, e.g. once transfers may have been missed.
+     */
+    synchronized void invalidateAll() {
+        readTokens.clear();
+        ownerships.clear();
+    }
+}
@@ -2,14 +2,21 @@ package com.iexec.core.chain;
 
 import com.iexec.common.chain.IexecHubAbstractService;
 import com.iexec.core.contract.generated.IExecTokenABI;
+import io.reactivex.disposables.Disposable;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.web3j.crypto.Keys;
 import org.web3j.ens.EnsResolutionException;
+import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.tx.ChainIdLong;
 import org.web3j.tx.RawTransactionManager;
 import org.web3j.tx.gas.ContractGasProvider;
 import org.web3j.tx.gas.DefaultGasProvider;
 
+import javax.annotation.PreDestroy;
 import java.math.BigInteger;
 import java.util.Optional;
 
@@ -20,9 +27,15 @@ import static org.web3j.tx.TransactionManager.DEFAULT_POLLING_ATTEMPTS_PER_TX_HA
 @Service
 public class WorkerPassService extends IexecHubAbstractService {
 
+    static final long RESUBSCRIBE_PERIOD_MS = 60_000;
+
     private final String workerPassAddress;
     private final Web3jService web3jService;
     private final CredentialsService credentialsService;
+    // worker pass ownership by checksum wallet address
+    private final WorkerPassOwnershipCache workerPassOwnerships;
+    private IExecTokenABI readOnlyWorkerPassContract;
+    private volatile Disposable transferEventSubscription;
 
     public WorkerPassService(CredentialsService credentialsService,
                              Web3jService web3jService,
@@ -34,6 +47,7 @@ public class WorkerPassService extends IexecHubAbstractService {
         this.credentialsService = credentialsService;
         this.web3jService = web3jService;
         this.workerPassAddress = chainConfig.getWorkerPassAddress();
+        this.workerPassOwnerships = new WorkerPassOwnershipCache(chainConfig.getWorkerPassCacheTtl());
         if (!hasEnoughGas()) {
             System.exit(0);
         }
@@ -77,22 +91,82 @@ public class WorkerPassService extends IexecHubAbstractService {
     }
 
     /*
-     * This method should only be used for reading
+     * This method should only be used for reading, the same instance is returned on each call
+     */
+    public synchronized IExecTokenABI getWorkerPassContract() {
+        if (readOnlyWorkerPassContract == null) {
+            readOnlyWorkerPassContract = getWorkerPassContract(new DefaultGasProvider());
+        }
+        return readOnlyWorkerPassContract;
+    }
+
+    /**
+     * Invalidates cached worker pass ownerships of both parties of each new worker pass transfer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void subscribeToTransferEvents() {
+        if (workerPassAddress == null || workerPassAddress.isBlank()) {
+            return;
+        }
+        log.info("Watcher TransferEvent started [workerPassAddress:{}]", workerPassAddress);
+        transferEventSubscription = getWorkerPassContract()
+                .transferEventFlowable(DefaultBlockParameterName.LATEST, DefaultBlockParameterName.LATEST)
+                .subscribe(
+                        transfer -> onTransfer(transfer.from, transfer.to),
+                        throwable -> log.error("Watcher TransferEvent failed, cached worker pass "
+                                + "ownerships are bypassed until subscribing again", throwable));
+    }
+
+    /**
+     * Subscribes again to transfer events if the subscription has been disposed, e.g. after an error.
+     * Transfers emitted in the meantime have been missed, all cached ownerships are invalidated.
      */
-    public IExecTokenABI getWorkerPassContract() {
-        return getWorkerPassContract(new DefaultGasProvider());
+    @Scheduled(fixedDelay = RESUBSCRIBE_PERIOD_MS, initialDelay = RESUBSCRIBE_PERIOD_MS)
+    public synchronized void resubscribeIfNeeded() {
+        if (isTransferWatchInterrupted()) {
+            log.warn("Transfer events subscription has been disposed, subscribing again");
+            workerPassOwnerships.invalidateAll();
+            subscribeToTransferEvents();
+        }
+    }
+
+    private boolean isTransferWatchInterrupted() {
+        final Disposable subscription = transferEventSubscription;
+        return subscription != null && subscription.isDisposed();
+    }
+
+    @PreDestroy
+    void unsubscribeFromTransferEvents() {
+        if (transferEventSubscription != null) {
+            transferEventSubscription.dispose();
+        }
+    }
+
+    void onTransfer(String from, String to) {
+        log.debug("Worker pass transferred [from:{}, to:{}]", from, to);
+        workerPassOwnerships.invalidate(Keys.toChecksumAddress(from), Keys.toChecksumAddress(to));
     }
 
     public Optional<Boolean> hasWorkerPass(String address) {
-        if (address != null && !address.isEmpty()) {
-            try {
-                BigInteger balance = getWorkerPassContract().balanceOf(address).send();
-                return Optional.of(balance.compareTo(BigInteger.ZERO) > 0);
-            } catch (Exception e) {
-                log.error("Failed to getWorkerScore [address:{}]", address, e);
-            }
+        if (address == null || address.isEmpty()) {
+            return Optional.empty();
+        }
+        final String checksumAddress = Keys.toChecksumAddress(address);
+        if (isTransferWatchInterrupted()) {
+            // transfers are not seen, a cached ownership may be outdated
+            return readWorkerPassOwnership(checksumAddress);
+        }
+        return workerPassOwnerships.get(checksumAddress, this::readWorkerPassOwnership);
+    }
+
+    private Optional<Boolean> readWorkerPassOwnership(String address) {
+        try {
+            BigInteger balance = getWorkerPassContract().balanceOf(address).send();
+            return Optional.of(balance.compareTo(BigInteger.ZERO) > 0);
+        } catch (Exception e) {
+            log.error("Failed to getWorkerScore [address:{}]", address, e);
+            return Optional.empty();
         }
-        return Optional.empty();
     }
 
     private boolean hasEnoughGas() {
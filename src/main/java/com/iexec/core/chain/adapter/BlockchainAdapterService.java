@@ -24,13 +24,15 @@ import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
-import static java.util.concurrent.TimeUnit.SECONDS;
-
 @Slf4j
 @Service
 public class BlockchainAdapterService {
@@ -39,6 +41,8 @@ public class BlockchainAdapterService {
     public static final int MAX_ATTEMPTS = 50;
 
     private final BlockchainAdapterApiClient blockchainAdapterClient;
+    private final Map<String, WatchedCommand> watchedInitializeCommands = new ConcurrentHashMap<>();
+    private final Map<String, WatchedCommand> watchedFinalizeCommands = new ConcurrentHashMap<>();
     private PublicChainConfig publicChainConfig;
 
     public BlockchainAdapterService(BlockchainAdapterApiClient blockchainAdapterClient) {
@@ -68,15 +72,17 @@ public class BlockchainAdapterService {
     }
 
     /**
-     * Verify if the initialize task command is completed on-chain.
+     * Watch the initialize task command until it is completed on-chain.
+     * <p>
+     * The returned future is completed by {@link #watchCommands()}, no thread waits for it.
+     * Once completed, the result is handed once: a later call watches the command again.
      *
      * @param chainTaskId ID of the task
-     * @return true if the tx is mined, false if reverted or empty for other
+     * @return a future completed with true if the tx is mined, false if reverted or empty for other
      * cases (too long since still RECEIVED or PROCESSING, adapter error)
      */
-    public Optional<Boolean> isInitialized(String chainTaskId) {
-        return isCommandCompleted(blockchainAdapterClient::getStatusForInitializeTaskRequest,
-                chainTaskId, SECONDS.toMillis(WATCH_PERIOD_SECONDS), MAX_ATTEMPTS);
+    public CompletableFuture<Optional<Boolean>> isInitialized(String chainTaskId) {
+        return watchCommand(watchedInitializeCommands, chainTaskId);
     }
 
     /**
@@ -106,50 +112,86 @@ public class BlockchainAdapterService {
     }
 
     /**
-     * Verify if the finalize task command is completed on-chain.
+     * Watch the finalize task command until it is completed on-chain.
+     * <p>
+     * The returned future is completed by {@link #watchCommands()}, no thread waits for it.
+     * Once completed, the result is handed once: a later call watches the command again.
      *
      * @param chainTaskId ID of the task
-     * @return true if the tx is mined, false if reverted or empty for other
+     * @return a future completed with true if the tx is mined, false if reverted or empty for other
      * cases (too long since still RECEIVED or PROCESSING, adapter error)
      */
-    public Optional<Boolean> isFinalized(String chainTaskId) {
-        return isCommandCompleted(blockchainAdapterClient::getStatusForFinalizeTaskRequest,
-                chainTaskId, SECONDS.toMillis(WATCH_PERIOD_SECONDS), MAX_ATTEMPTS);
+    public CompletableFuture<Optional<Boolean>> isFinalized(String chainTaskId) {
+        return watchCommand(watchedFinalizeCommands, chainTaskId);
+    }
+
+    private CompletableFuture<Optional<Boolean>> watchCommand(Map<String, WatchedCommand> watchedCommands,
+                                                              String chainTaskId) {
+        final WatchedCommand command = watchedCommands.computeIfAbsent(chainTaskId, id -> new WatchedCommand());
+        if (command.completion.isDone()) {
+            watchedCommands.remove(chainTaskId, command);
+        }
+        return command.completion;
     }
 
     /**
-     * Verify if a command sent to the adapter is completed on-chain.
+     * Check status of all watched commands at once, every {@link #WATCH_PERIOD_SECONDS}.
+     * <p>
+     * A command is completed when its status is SUCCESS or FAILURE,
+     * or after {@link #MAX_ATTEMPTS} checks.
+     * Completed commands whose result has not been retrieved after {@link #MAX_ATTEMPTS} periods are evicted.
+     */
+    @Scheduled(fixedRate = WATCH_PERIOD_SECONDS * 1000L)
+    public void watchCommands() {
+        watchCommands(watchedInitializeCommands, blockchainAdapterClient::getStatusForInitializeTaskRequest);
+        watchCommands(watchedFinalizeCommands, blockchainAdapterClient::getStatusForFinalizeTaskRequest);
+    }
+
+    private void watchCommands(Map<String, WatchedCommand> watchedCommands,
+                               Function<String, CommandStatus> getCommandStatusFunction) {
+        for (Map.Entry<String, WatchedCommand> entry : watchedCommands.entrySet()) {
+            final String chainTaskId = entry.getKey();
+            final WatchedCommand command = entry.getValue();
+            if (!command.completion.isDone()) {
+                checkCommand(getCommandStatusFunction, chainTaskId, command);
+            } else if (++command.nbPeriodsSinceCompletion >= MAX_ATTEMPTS) {
+                watchedCommands.remove(chainTaskId, command);
+            }
+        }
+    }
+
+    /**
+     * Check once if a command sent to the adapter is completed on-chain
+     * and complete its future accordingly.
      *
      * @param getCommandStatusFunction method for checking the command is completed
      * @param chainTaskId              ID of the task
-     * @param period                   period in ms between checks
-     * @param maxAttempts              maximum number of attempts for checking
-     * @return true if the tx is mined, false if reverted or empty for other
-     * cases (too long since still RECEIVED or PROCESSING, adapter error)
+     * @param command                  watched command
      */
-    Optional<Boolean> isCommandCompleted(
-            Function<String, CommandStatus> getCommandStatusFunction,
-            String chainTaskId,
-            long period, int maxAttempts) {
-        for(int attempt = 0; attempt < maxAttempts; attempt++) {
-            try {
-                CommandStatus status = getCommandStatusFunction.apply(chainTaskId);
-                if (CommandStatus.SUCCESS.equals(status) || CommandStatus.FAILURE.equals(status)) {
-                    return Optional.of(status.equals(CommandStatus.SUCCESS));
-                }
-                // RECEIVED, PROCESSING
-                log.warn("Waiting command completion [chainTaskId:{}, status:{}, period:{}ms, attempt:{}, maxAttempts:{}]",
-                        chainTaskId, status, period, attempt, maxAttempts);
-                Thread.sleep(period);
-            } catch (Exception e) {
-                log.error("Unexpected error while waiting command completion [chainTaskId:{}, period:{}ms, attempt:{}, maxAttempts:{}]",
-                        chainTaskId, period, attempt, maxAttempts, e);
-                return Optional.empty();
+    private void checkCommand(Function<String, CommandStatus> getCommandStatusFunction,
+                              String chainTaskId,
+                              WatchedCommand command) {
+        final int attempt = command.nbAttempts++;
+        try {
+            CommandStatus status = getCommandStatusFunction.apply(chainTaskId);
+            if (CommandStatus.SUCCESS.equals(status) || CommandStatus.FAILURE.equals(status)) {
+                command.completion.complete(Optional.of(status.equals(CommandStatus.SUCCESS)));
+                return;
             }
+            // RECEIVED, PROCESSING
+            if (command.nbAttempts >= MAX_ATTEMPTS) {
+                log.error("Reached max retry while waiting command completion [chainTaskId:{}, maxAttempts:{}]",
+                        chainTaskId, MAX_ATTEMPTS);
+                command.completion.complete(Optional.empty());
+                return;
+            }
+            log.warn("Waiting command completion [chainTaskId:{}, status:{}, period:{}s, attempt:{}, maxAttempts:{}]",
+                    chainTaskId, status, WATCH_PERIOD_SECONDS, attempt, MAX_ATTEMPTS);
+        } catch (Exception e) {
+            log.error("Unexpected error while waiting command completion [chainTaskId:{}, attempt:{}, maxAttempts:{}]",
+                    chainTaskId, attempt, MAX_ATTEMPTS, e);
+            command.completion.complete(Optional.empty());
         }
-        log.error("Reached max retry while waiting command completion [chainTaskId:{}, maxAttempts:{}]",
-                chainTaskId, maxAttempts);
-        return Optional.empty();
     }
 
     /**
@@ -174,4 +216,14 @@ public class BlockchainAdapterService {
         return getPublicChainConfig().getChainId();
     }
 
+    /**
+     * Command sent to the adapter and watched until it is completed on-chain.
+     * Counters are only accessed by the scheduled watch loop.
+     */
+    private static class WatchedCommand {
+        private final CompletableFuture<Optional<Boolean>> completion = new CompletableFuture<>();
+        private int nbAttempts;
+        private int nbPeriodsSinceCompletion;
+    }
+
 }
\ No newline at end of file
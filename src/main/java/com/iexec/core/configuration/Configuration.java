@@ -39,5 +39,7 @@ class Configuration {
 
     private BigInteger lastSeenBlockWithDeal;
 
+    private BigInteger lastSeenBlockWithTaskEvent;
+
 }
 
@@ -17,16 +17,35 @@
 package com.iexec.core.configuration;
 
 import com.iexec.core.chain.ChainConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.math.BigInteger;
 
+/**
+ * Holds block checkpoints of chain watchers.
+ * <p>
+ * Checkpoints are loaded once from the database, then read and updated in memory.
+ * Updates are written behind, every {@link ChainConfig#getCheckpointFlushPeriod()} ms,
+ * as soon as {@link ChainConfig#getCheckpointMaxPendingUpdates()} updates are pending and on shutdown.
+ * Checkpoints can only move forward, so that a flushed checkpoint is never behind a previous one.
+ * After a crash, watchers start again from the last flushed checkpoints and scan again a few blocks.
+ */
+@Slf4j
 @Service
 public class ConfigurationService {
 
     private final ConfigurationRepository configurationRepository;
     private final ReplayConfigurationRepository replayConfigurationRepository;
     private final ChainConfig chainConfig;
+    // in-memory checkpoints, all accesses are synchronized on this service
+    private Configuration configuration;
+    private ReplayConfiguration replayConfiguration;
+    private boolean isConfigurationFlushNeeded;
+    private boolean isReplayConfigurationFlushNeeded;
+    private int nbPendingUpdates;
 
     public ConfigurationService(ConfigurationRepository configurationRepository,
                                 ReplayConfigurationRepository replayConfigurationRepository,
@@ -36,46 +55,133 @@ public class ConfigurationService {
         this.chainConfig = chainConfig;
     }
 
-    private Configuration getConfiguration() {
-        if (configurationRepository.count() > 0)
-            return configurationRepository.findAll().get(0);
-
-        return configurationRepository.save(
-            Configuration
-                    .builder()
-                    .lastSeenBlockWithDeal(BigInteger.valueOf(chainConfig.getStartBlockNumber()))
-                    .build());
+    private synchronized Configuration getConfiguration() {
+        if (configuration != null) {
+            return configuration;
+        }
+        if (configurationRepository.count() > 0) {
+            configuration = configurationRepository.findAll().get(0);
+        } else {
+            configuration = configurationRepository.save(
+                    Configuration
+                            .builder()
+                            .lastSeenBlockWithDeal(BigInteger.valueOf(chainConfig.getStartBlockNumber()))
+                            .build());
+        }
+        return configuration;
     }
 
-    public BigInteger getLastSeenBlockWithDeal() {
+    public synchronized BigInteger getLastSeenBlockWithDeal() {
         return this.getConfiguration().getLastSeenBlockWithDeal();
     }
 
-    public void setLastSeenBlockWithDeal(BigInteger lastBlockNumber) {
-        Configuration configuration = this.getConfiguration();
-        configuration.setLastSeenBlockWithDeal(lastBlockNumber);
-        configurationRepository.save(configuration);
+    public synchronized void setLastSeenBlockWithDeal(BigInteger lastBlockNumber) {
+        Configuration currentConfiguration = this.getConfiguration();
+        if (!isForward(currentConfiguration.getLastSeenBlockWithDeal(), lastBlockNumber)) {
+            return;
+        }
+        currentConfiguration.setLastSeenBlockWithDeal(lastBlockNumber);
+        isConfigurationFlushNeeded = true;
+        onUpdate();
+    }
+
+    /**
+     * Get the block from which task lifecycle events should be read.
+     * Before any task event has been seen, it is the last block with a deal
+     * since no task of this pool can have an older event.
+     */
+    public synchronized BigInteger getLastSeenBlockWithTaskEvent() {
+        Configuration currentConfiguration = this.getConfiguration();
+        return currentConfiguration.getLastSeenBlockWithTaskEvent() != null
+                ? currentConfiguration.getLastSeenBlockWithTaskEvent()
+                : currentConfiguration.getLastSeenBlockWithDeal();
     }
 
-    private ReplayConfiguration getReplayConfiguration() {
-        if (replayConfigurationRepository.count() > 0)
-            return replayConfigurationRepository.findAll().get(0);
+    public synchronized void setLastSeenBlockWithTaskEvent(BigInteger lastBlockNumber) {
+        Configuration currentConfiguration = this.getConfiguration();
+        if (!isForward(currentConfiguration.getLastSeenBlockWithTaskEvent(), lastBlockNumber)) {
+            return;
+        }
+        currentConfiguration.setLastSeenBlockWithTaskEvent(lastBlockNumber);
+        isConfigurationFlushNeeded = true;
+        onUpdate();
+    }
 
-        return replayConfigurationRepository.save(
-                ReplayConfiguration
-                        .builder()
-                        .fromBlockNumber(BigInteger.valueOf(chainConfig.getStartBlockNumber()))
-                        .build());
+    private synchronized ReplayConfiguration getReplayConfiguration() {
+        if (replayConfiguration != null) {
+            return replayConfiguration;
+        }
+        if (replayConfigurationRepository.count() > 0) {
+            replayConfiguration = replayConfigurationRepository.findAll().get(0);
+        } else {
+            replayConfiguration = replayConfigurationRepository.save(
+                    ReplayConfiguration
+                            .builder()
+                            .fromBlockNumber(BigInteger.valueOf(chainConfig.getStartBlockNumber()))
+                            .build());
+        }
+        return replayConfiguration;
     }
 
-    public BigInteger getFromReplay() {
+    public synchronized BigInteger getFromReplay() {
         return this.getReplayConfiguration().getFromBlockNumber();
     }
 
-    public void setFromReplay(BigInteger fromReplay) {
-        ReplayConfiguration replayConfiguration = this.getReplayConfiguration();
-        replayConfiguration.setFromBlockNumber(fromReplay);
-        replayConfigurationRepository.save(replayConfiguration);
+    public synchronized void setFromReplay(BigInteger fromReplay) {
+        ReplayConfiguration currentReplayConfiguration = this.getReplayConfiguration();
+        if (!isForward(currentReplayConfiguration.getFromBlockNumber(), fromReplay)) {
+            return;
+        }
+        currentReplayConfiguration.setFromBlockNumber(fromReplay);
+        isReplayConfigurationFlushNeeded = true;
+        onUpdate();
+    }
+
+    /**
+     * Writes checkpoints updated since the previous flush to the database.
+     * Checkpoints which could not be written are written again on next flush.
+     */
+    @PreDestroy
+    @Scheduled(fixedRateString = "#{@chainConfig.getCheckpointFlushPeriod()}")
+    public synchronized void flush() {
+        if (nbPendingUpdates == 0) {
+            return;
+        }
+        try {
+            if (isConfigurationFlushNeeded) {
+                configuration = configurationRepository.save(configuration);
+                isConfigurationFlushNeeded = false;
+            }
+            if (isReplayConfigurationFlushNeeded) {
+                replayConfiguration = replayConfigurationRepository.save(replayConfiguration);
+                isReplayConfigurationFlushNeeded = false;
+            }
+            log.debug("Flushed checkpoints [nbUpdates:{}, lastSeenBlockWithDeal:{}, fromReplay:{}]",
+                    nbPendingUpdates,
+                    configuration != null ? configuration.getLastSeenBlockWithDeal() : null,
+                    replayConfiguration != null ? replayConfiguration.getFromBlockNumber() : null);
+            nbPendingUpdates = 0;
+        } catch (RuntimeException e) {
+            log.error("Failed to flush checkpoints [nbPendingUpdates:{}]", nbPendingUpdates, e);
+        }
+    }
+
+    private void onUpdate() {
+        nbPendingUpdates++;
+        if (nbPendingUpdates >= chainConfig.getCheckpointMaxPendingUpdates()) {
+            flush();
+        }
+    }
+
+    private static boolean isForward(BigInteger currentBlockNumber, BigInteger newBlockNumber) {
+        if (newBlockNumber == null) {
+            return false;
+        }
+        if (currentBlockNumber != null && newBlockNumber.compareTo(currentBlockNumber) <= 0) {
+            log.debug("Checkpoint can't move backward [current:{}, new:{}]", currentBlockNumber, newBlockNumber);
+            return false;
+        }
+        return true;
     }
 
 }
@@ -30,6 +30,12 @@ public class WorkerConfiguration {
     @Value("${workers.askForReplicatePeriod}")
     private long askForReplicatePeriod;
 
+    @Value("${workers.replicateLongPollTimeout}")
+    private long replicateLongPollTimeout;
+
+    @Value("${workers.activityFlushPeriod}")
+    private long activityFlushPeriod;
+
     @Value("${workers.requiredWorkerVersion}")
     private String requiredWorkerVersion;
 
@@ -41,6 +47,14 @@ public class WorkerConfiguration {
         return askForReplicatePeriod;
     }
 
+    public long getReplicateLongPollTimeout() {
+        return replicateLongPollTimeout;
+    }
+
+    public long getActivityFlushPeriod() {
+        return activityFlushPeriod;
+    }
+
     public String getRequiredWorkerVersion() {
         return requiredWorkerVersion;
     }
@@ -28,9 +28,12 @@ import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
 import com.iexec.core.task.TaskStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.iexec.common.replicate.ReplicateStatus.WORKER_LOST;
 import static com.iexec.common.replicate.ReplicateStatus.getMissingStatuses;
@@ -58,28 +61,24 @@ public abstract class UnnotifiedAbstractDetector {
                                                        ReplicateStatus offchainCompleting,
                                                        ReplicateStatus offchainCompleted,
                                                        ChainContributionStatus onchainCompleted) {
+        final List<Pair<Task, Replicate>> candidates = new ArrayList<>();
         for (Task task : taskService.findByCurrentStatus(detectWhenOffChainTaskStatuses)) {
             for (Replicate replicate : replicatesService.getReplicates(task.getChainTaskId())) {
                 Optional<ReplicateStatus> lastRelevantStatus = replicate.getLastRelevantStatus();
                 if (lastRelevantStatus.isEmpty() || !lastRelevantStatus.get().equals(offchainCompleting)) {
                     continue;
                 }
-
-                boolean statusTrueOnChain = iexecHubService.isStatusTrueOnChain(task.getChainTaskId(), replicate.getWalletAddress(), onchainCompleted);
-
-                if (statusTrueOnChain) {
-                    log.info("Detected confirmed missing update (replicate) [is:{}, should:{}, taskId:{}]",
-                            lastRelevantStatus.get(), onchainCompleted, task.getChainTaskId());
-                    updateReplicateStatuses(task, replicate, offchainCompleted);
-                }
+                candidates.add(Pair.of(task, replicate));
             }
         }
+        detectOnchainCompleted(candidates, offchainCompleted, onchainCompleted);
     }
 
     void dectectOnchainCompleted(List<TaskStatus> detectWhenOffChainTaskStatuses,
                                  ReplicateStatus offchainCompleting,
                                  ReplicateStatus offchainCompleted,
                                  ChainContributionStatus onchainCompleted) {
+        final List<Pair<Task, Replicate>> candidates = new ArrayList<>();
         for (Task task : taskService.findByCurrentStatus(detectWhenOffChainTaskStatuses)) {
             for (Replicate replicate : replicatesService.getReplicates(task.getChainTaskId())) {
                 Optional<ReplicateStatus> lastRelevantStatus = replicate.getLastRelevantStatus();
@@ -87,14 +86,38 @@ public abstract class UnnotifiedAbstractDetector {
                 if (lastRelevantStatus.isEmpty() || lastRelevantStatus.get().equals(offchainCompleted)) {
                     continue;
                 }
+                candidates.add(Pair.of(task, replicate));
+            }
+        }
+        detectOnchainCompleted(candidates, offchainCompleted, onchainCompleted);
+    }
 
-                boolean statusTrueOnChain = iexecHubService.isStatusTrueOnChain(task.getChainTaskId(), replicate.getWalletAddress(), onchainCompleted);
-
-                if (statusTrueOnChain) {
-                    log.info("Detected confirmed missing update (replicate) [is:{}, should:{}, taskId:{}]",
-                            lastRelevantStatus.get(), onchainCompleted, task.getChainTaskId());
-                    updateReplicateStatuses(task, replicate, offchainCompleted);
-                }
+    /**
+     * Checks onchain status of given replicates and updates those which are completed onchain.
+     * <p>
+     * Contributions of all replicates are first read with batched JSON-RPC requests,
+     * so that following status checks are served by the chain read cache
+     * instead of costing one request each.
+     */
+    private void detectOnchainCompleted(List<Pair<Task, Replicate>> candidates,
+                                        ReplicateStatus offchainCompleted,
+                                        ChainContributionStatus onchainCompleted) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        iexecHubService.prefetchChainContributions(candidates.stream()
+                .map(candidate -> Pair.of(candidate.getLeft().getChainTaskId(), candidate.getRight().getWalletAddress()))
+                .collect(Collectors.toList()));
+
+        for (Pair<Task, Replicate> candidate : candidates) {
+            final Task task = candidate.getLeft();
+            final Replicate replicate = candidate.getRight();
+            boolean statusTrueOnChain = iexecHubService.isStatusTrueOnChain(task.getChainTaskId(), replicate.getWalletAddress(), onchainCompleted);
+
+            if (statusTrueOnChain) {
+                log.info("Detected confirmed missing update (replicate) [is:{}, should:{}, taskId:{}]",
+                        replicate.getLastRelevantStatus().orElse(null), onchainCompleted, task.getChainTaskId());
+                updateReplicateStatuses(task, replicate, offchainCompleted);
             }
         }
     }
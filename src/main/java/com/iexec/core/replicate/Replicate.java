@@ -25,11 +25,12 @@ import com.iexec.common.replicate.ReplicateStatusDetails;
 import com.iexec.common.replicate.ReplicateStatusModifier;
 import com.iexec.common.replicate.ReplicateStatusUpdate;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.iexec.common.replicate.ReplicateStatus.*;
 import static com.iexec.common.replicate.ReplicateStatusUpdate.*;
@@ -40,6 +41,20 @@ import static com.iexec.common.replicate.ReplicateStatusUpdate.*;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Replicate {
 
+    // statuses ignored by the last relevant status
+    static final Set<ReplicateStatus> IRRELEVANT_STATUSES = EnumSet.of(WORKER_LOST, RECOVERING);
+
+    public static final String STATUS_UPDATE_LIST_FIELD_NAME = "statusUpdateList";
+    public static final String WALLET_ADDRESS_FIELD_NAME = "walletAddress";
+    public static final String RESULT_LINK_FIELD_NAME = "resultLink";
+    public static final String CHAIN_CALLBACK_DATA_FIELD_NAME = "chainCallbackData";
+    public static final String CONTRIBUTION_HASH_FIELD_NAME = "contributionHash";
+    public static final String WORKER_WEIGHT_FIELD_NAME = "workerWeight";
+    public static final String APP_COMPUTE_LOGS_PRESENT_FIELD_NAME = "appComputeLogsPresent";
+    public static final String CURRENT_STATUS_FIELD_NAME = "currentStatus";
+    public static final String LAST_RELEVANT_STATUS_FIELD_NAME = "lastRelevantStatus";
+    public static final String SEEN_STATUSES_FIELD_NAME = "seenStatuses";
+
     private List<ReplicateStatusUpdate> statusUpdateList;
     private String walletAddress;
     private String resultLink;
@@ -49,54 +64,90 @@ public class Replicate {
     private int workerWeight;
     private boolean appComputeLogsPresent;
 
+    // Derived from the status history, maintained along each status update
+    // and stored so that replicates can be queried by status.
+    // They are derived from the history on first access if they have not been stored.
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private ReplicateStatus currentStatus;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private ReplicateStatus lastRelevantStatus;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private Set<ReplicateStatus> seenStatuses;
+
     public Replicate(String walletAddress, String chainTaskId) {
         this.chainTaskId = chainTaskId;
         this.walletAddress = walletAddress;
         this.statusUpdateList = new ArrayList<>();
+        this.seenStatuses = EnumSet.noneOf(ReplicateStatus.class);
         // a new replicate should only be create by the scheduler
-        this.statusUpdateList.add(poolManagerRequest(CREATED));
+        updateStatus(poolManagerRequest(CREATED));
         this.contributionHash = "";
     }
 
+    public void setStatusUpdateList(List<ReplicateStatusUpdate> statusUpdateList) {
+        this.statusUpdateList = statusUpdateList;
+        deriveStatuses();
+    }
+
+    /**
+     * Derives current status, last relevant status and seen statuses from the whole status history.
+     */
+    void deriveStatuses() {
+        currentStatus = null;
+        lastRelevantStatus = null;
+        seenStatuses = EnumSet.noneOf(ReplicateStatus.class);
+        if (statusUpdateList == null) {
+            return;
+        }
+        for (ReplicateStatusUpdate statusUpdate : statusUpdateList) {
+            recordStatus(statusUpdate.getStatus());
+        }
+    }
+
+    private void recordStatus(ReplicateStatus status) {
+        currentStatus = status;
+        if (!IRRELEVANT_STATUSES.contains(status)) {
+            lastRelevantStatus = status;
+        }
+        seenStatuses.add(status);
+    }
+
+    void deriveStatusesIfNotStored() {
+        if (seenStatuses == null) {
+            deriveStatuses();
+        }
+    }
+
     @JsonIgnore
     public ReplicateStatus getCurrentStatus() {
-        return this.getLatestStatusUpdate().getStatus();
+        deriveStatusesIfNotStored();
+        return currentStatus;
     }
 
     @JsonIgnore
     public Optional<ReplicateStatus> getLastRelevantStatus() {  // FIXME: remove Optional and add a no-args constructor
         // ignore cases like: WORKER_LOST and RECOVERING
-
-        List<ReplicateStatus> statusList = getStatusUpdateList().stream()
-                .map(ReplicateStatusUpdate::getStatus)
-                .collect(Collectors.toList());
-
-        List<ReplicateStatus> ignoredStatuses = Arrays.asList(
-                ReplicateStatus.WORKER_LOST,
-                ReplicateStatus.RECOVERING);
-
-        for (int i = statusList.size() - 1; i >= 0; i--) {
-            if (!ignoredStatuses.contains(statusList.get(i))) {
-                return Optional.of(statusList.get(i));
-            }
-        }
-
-        return Optional.empty();
+        deriveStatusesIfNotStored();
+        return Optional.ofNullable(lastRelevantStatus);
     }
 
     @JsonIgnore
-    public ReplicateStatus getLastButOneStatus() {
-        return this.getStatusUpdateList().get(this.getStatusUpdateList().size() - 2).getStatus();
+    public Set<ReplicateStatus> getSeenStatuses() {
+        deriveStatusesIfNotStored();
+        return Collections.unmodifiableSet(seenStatuses);
     }
 
     @JsonIgnore
-    private ReplicateStatusUpdate getLatestStatusUpdate() {
-        return this.getStatusUpdateList().get(this.getStatusUpdateList().size() - 1);
+    public ReplicateStatus getLastButOneStatus() {
+        return this.getStatusUpdateList().get(this.getStatusUpdateList().size() - 2).getStatus();
     }
 
     public boolean updateStatus(ReplicateStatus newStatus, ReplicateStatusModifier modifier) {
         ReplicateStatusUpdate statusUpdate = new ReplicateStatusUpdate(newStatus, modifier);
-        return statusUpdateList.add(statusUpdate);
+        return updateStatus(statusUpdate);
     }
 
     public boolean updateStatus(ReplicateStatus newStatus, ReplicateStatusCause cause,
@@ -107,20 +158,18 @@ public class Replicate {
                 .build();
 
         ReplicateStatusUpdate statusUpdate = new ReplicateStatusUpdate(newStatus, modifier, details);
-        return statusUpdateList.add(statusUpdate);
+        return updateStatus(statusUpdate);
     }
 
     public boolean updateStatus(ReplicateStatusUpdate statusUpdate) {
+        deriveStatusesIfNotStored();
+        recordStatus(statusUpdate.getStatus());
         return statusUpdateList.add(statusUpdate);
     }
 
     public boolean containsStatus(ReplicateStatus replicateStatus) {
-        for (ReplicateStatusUpdate replicateStatusUpdate : this.getStatusUpdateList()) {
-            if (replicateStatusUpdate.getStatus().equals(replicateStatus)) {
-                return true;
-            }
-        }
-        return false;
+        deriveStatusesIfNotStored();
+        return seenStatuses.contains(replicateStatus);
     }
 
     public boolean containsContributedStatus() {
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.replicate.ReplicateStatusUpdate;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Published once for all status updates of a replicate saved within a single batch write.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ReplicateBatchUpdatedEvent {
+
+    private String chainTaskId;
+    private String walletAddress;
+    private List<ReplicateStatusUpdate> replicateStatusUpdates;
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.chain.WorkerpoolAuthorization;
+import com.iexec.core.configuration.WorkerConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parks replicate demands of workers until a task may need new replicates.
+ * <p>
+ * Instead of periodically asking for a replicate, a worker can wait for one:
+ * its demand is served as soon as a task enters or goes on in contribution phase,
+ * a replicate ends or a worker is lost,
+ * or answered with no content once the long-polling timeout is reached.
+ * <p>
+ * A worker can only have one parked demand at a time, a new demand replaces the previous one.
+ */
+@Slf4j
+@Service
+public class ReplicateLongPollingService {
+
+    private final ReplicateSupplyService replicateSupplyService;
+    private final WorkerConfiguration workerConfiguration;
+    private final Map<String, ReplicateDemand> parkedDemands = new ConcurrentHashMap<>();
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean isServingScheduled = new AtomicBoolean(false);
+
+    public ReplicateLongPollingService(ReplicateSupplyService replicateSupplyService,
+                                       WorkerConfiguration workerConfiguration) {
+        this.replicateSupplyService = replicateSupplyService;
+        this.workerConfiguration = workerConfiguration;
+    }
+
+    /**
+     * Parks a replicate demand until a replicate is available for the worker.
+     *
+     * @param workerLastBlock Last block seen by the worker.
+     * @param walletAddress   Wallet address of the worker asking for work.
+     * @param lookUpNow       Whether an available replicate should be looked for right now
+     *                        or only when a task may need new replicates.
+     * @return A {@link DeferredResult} completed with a {@link WorkerpoolAuthorization}
+     * as soon as a replicate is available, or with no content on timeout.
+     */
+    public DeferredResult<ResponseEntity<WorkerpoolAuthorization>> waitForAvailableReplicate(
+            long workerLastBlock,
+            String walletAddress,
+            boolean lookUpNow) {
+        final DeferredResult<ResponseEntity<WorkerpoolAuthorization>> deferredResult =
+                new DeferredResult<>(workerConfiguration.getReplicateLongPollTimeout());
+        final ReplicateDemand demand = new ReplicateDemand(workerLastBlock, walletAddress, deferredResult);
+        deferredResult.onTimeout(demand::giveUp);
+        deferredResult.onCompletion(() -> parkedDemands.remove(walletAddress, demand));
+
+        // Parking the demand before looking up a replicate
+        // ensures no task becoming available in between is missed.
+        final ReplicateDemand previousDemand = parkedDemands.put(walletAddress, demand);
+        if (previousDemand != null) {
+            previousDemand.giveUp();
+        }
+        if (lookUpNow) {
+            demand.tryToServe();
+        }
+        return deferredResult;
+    }
+
+    /**
+     * Schedules a new attempt to serve all parked demands.
+     * Multiple calls happening before the attempt starts are coalesced into a single one.
+     */
+    public void onTaskMayNeedReplicates() {
+        if (parkedDemands.isEmpty()
+                || executorService.isShutdown()
+                || !isServingScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        executorService.execute(this::serveParkedDemands);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    void serveParkedDemands() {
+        isServingScheduled.set(false);
+        log.debug("Serving parked replicate demands [nbParkedDemands:{}]", parkedDemands.size());
+        parkedDemands.values().forEach(ReplicateDemand::tryToServe);
+    }
+
+    int getNbParkedDemands() {
+        return parkedDemands.size();
+    }
+
+    private class ReplicateDemand {
+        private final long workerLastBlock;
+        private final String walletAddress;
+        private final DeferredResult<ResponseEntity<WorkerpoolAuthorization>> deferredResult;
+
+        private ReplicateDemand(long workerLastBlock,
+                                String walletAddress,
+                                DeferredResult<ResponseEntity<WorkerpoolAuthorization>> deferredResult) {
+            this.workerLastBlock = workerLastBlock;
+            this.walletAddress = walletAddress;
+            this.deferredResult = deferredResult;
+        }
+
+        /**
+         * Looks for an available replicate and completes the demand if any.
+         * <p>
+         * This is synchronized so that a demand can't be served twice,
+         * which would lead to a replicate being created but never sent to the worker.
+         */
+        private synchronized void tryToServe() {
+            if (deferredResult.isSetOrExpired()) {
+                return;
+            }
+            try {
+                replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, walletAddress)
+                        .ifPresent(authorization -> complete(ResponseEntity.ok(authorization)));
+            } catch (RuntimeException e) {
+                log.error("Failed to serve parked replicate demand [walletAddress:{}]", walletAddress, e);
+            }
+        }
+
+        private synchronized void giveUp() {
+            if (!deferredResult.isSetOrExpired()) {
+                complete(ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+            }
+        }
+
+        private void complete(ResponseEntity<WorkerpoolAuthorization> response) {
+            deferredResult.setResult(response);
+            parkedDemands.remove(walletAddress, this);
+        }
+    }
+}
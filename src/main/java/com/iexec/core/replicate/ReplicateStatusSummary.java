@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.replicate.ReplicateStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.iexec.common.replicate.ReplicateStatus.CREATED;
+
+/**
+ * Numbers of replicates of a task per {@link ReplicateStatus}:
+ * <ul>
+ * <li>per current status,
+ * <li>per last relevant status, see {@link Replicate#getLastRelevantStatus()},
+ * <li>per status contained in their history.
+ * </ul>
+ * It is stored within its {@link ReplicatesList} and incremented along each replicate update,
+ * so that counting replicates does not require to walk their whole status history.
+ */
+@Data
+@NoArgsConstructor
+public class ReplicateStatusSummary {
+
+    public static final String CURRENT_STATUS_COUNTS_FIELD_NAME = "currentStatusCounts";
+    public static final String LAST_RELEVANT_STATUS_COUNTS_FIELD_NAME = "lastRelevantStatusCounts";
+    public static final String CONTAINED_STATUS_COUNTS_FIELD_NAME = "containedStatusCounts";
+
+    private Map<ReplicateStatus, Integer> currentStatusCounts = new EnumMap<>(ReplicateStatus.class);
+    private Map<ReplicateStatus, Integer> lastRelevantStatusCounts = new EnumMap<>(ReplicateStatus.class);
+    private Map<ReplicateStatus, Integer> containedStatusCounts = new EnumMap<>(ReplicateStatus.class);
+
+    /**
+     * Computes the summary of the given replicates from their whole status history.
+     */
+    public static ReplicateStatusSummary of(List<Replicate> replicates) {
+        final ReplicateStatusSummary summary = new ReplicateStatusSummary();
+        if (replicates == null) {
+            return summary;
+        }
+        for (Replicate replicate : replicates) {
+            if (replicate.getCurrentStatus() == null) {
+                continue;
+            }
+            summary.currentStatusCounts.merge(replicate.getCurrentStatus(), 1, Integer::sum);
+            replicate.getLastRelevantStatus()
+                    .ifPresent(status -> summary.lastRelevantStatusCounts.merge(status, 1, Integer::sum));
+            replicate.getSeenStatuses()
+                    .forEach(status -> summary.containedStatusCounts.merge(status, 1, Integer::sum));
+        }
+        return summary;
+    }
+
+    /**
+     * Increments to apply to a stored summary when a new replicate is added,
+     * keyed by their path relative to the summary.
+     */
+    public static Map<String, Integer> getNewReplicateIncrements() {
+        return Map.of(
+                CURRENT_STATUS_COUNTS_FIELD_NAME + "." + CREATED.name(), 1,
+                LAST_RELEVANT_STATUS_COUNTS_FIELD_NAME + "." + CREATED.name(), 1,
+                CONTAINED_STATUS_COUNTS_FIELD_NAME + "." + CREATED.name(), 1);
+    }
+
+    /**
+     * Records that a replicate reaches a new status.
+     * This has to be called before the new status is appended to the replicate.
+     *
+     * @param replicate Replicate, in its state before the update.
+     * @param newStatus New status of the replicate.
+     * @return Increments to apply to the stored summary, keyed by their path relative to the summary.
+     */
+    public Map<String, Integer> recordStatusUpdate(Replicate replicate, ReplicateStatus newStatus) {
+        final Map<String, Integer> increments = new HashMap<>();
+        final ReplicateStatus currentStatus = replicate.getCurrentStatus();
+        if (currentStatus != newStatus) {
+            increment(increments, CURRENT_STATUS_COUNTS_FIELD_NAME, currentStatusCounts, currentStatus, -1);
+            increment(increments, CURRENT_STATUS_COUNTS_FIELD_NAME, currentStatusCounts, newStatus, 1);
+        }
+        final Optional<ReplicateStatus> lastRelevantStatus = replicate.getLastRelevantStatus();
+        if (!Replicate.IRRELEVANT_STATUSES.contains(newStatus)
+                && lastRelevantStatus.filter(newStatus::equals).isEmpty()) {
+            lastRelevantStatus.ifPresent(status -> increment(increments,
+                    LAST_RELEVANT_STATUS_COUNTS_FIELD_NAME, lastRelevantStatusCounts, status, -1));
+            increment(increments, LAST_RELEVANT_STATUS_COUNTS_FIELD_NAME, lastRelevantStatusCounts, newStatus, 1);
+        }
+        if (!replicate.containsStatus(newStatus)) {
+            increment(increments, CONTAINED_STATUS_COUNTS_FIELD_NAME, containedStatusCounts, newStatus, 1);
+        }
+        return increments;
+    }
+
+    private static void increment(Map<String, Integer> increments,
+                                  String countsFieldName,
+                                  Map<ReplicateStatus, Integer> counts,
+                                  ReplicateStatus status,
+                                  int increment) {
+        // a null sum removes the count, so that summaries with the same counts are equal
+        counts.merge(status, increment, (count, delta) -> count + delta == 0 ? null : count + delta);
+        increments.merge(countsFieldName + "." + status.name(), increment, Integer::sum);
+    }
+
+    public int getNbReplicatesWithCurrentStatus(ReplicateStatus... statuses) {
+        return sum(currentStatusCounts, statuses);
+    }
+
+    public int getNbReplicatesWithLastRelevantStatus(ReplicateStatus... statuses) {
+        return sum(lastRelevantStatusCounts, statuses);
+    }
+
+    public int getNbReplicatesContainingStatus(ReplicateStatus status) {
+        return containedStatusCounts.getOrDefault(status, 0);
+    }
+
+    private static int sum(Map<ReplicateStatus, Integer> counts, ReplicateStatus... statuses) {
+        int sum = 0;
+        for (ReplicateStatus status : statuses) {
+            sum += counts.getOrDefault(status, 0);
+        }
+        return sum;
+    }
+}
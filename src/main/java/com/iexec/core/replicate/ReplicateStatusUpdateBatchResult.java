@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.notification.TaskNotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of the status updates of a batch targeting the replicate of a worker for a task.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicateStatusUpdateBatchResult {
+    private String chainTaskId;
+    // number of updates saved, updates already reported are not counted
+    private int nbSavedUpdates;
+    // reason why the first rejected update has not been saved, NO_ERROR if none has been rejected
+    private ReplicateStatusUpdateError error;
+    // next action of the worker after the last saved update
+    private TaskNotificationType nextAction;
+}
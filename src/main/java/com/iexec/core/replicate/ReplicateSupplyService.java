@@ -24,8 +24,8 @@ import com.iexec.common.replicate.ReplicateStatus;
 import com.iexec.common.replicate.ReplicateStatusDetails;
 import com.iexec.common.replicate.ReplicateStatusUpdate;
 import com.iexec.common.task.TaskAbortCause;
+import com.iexec.core.chain.GasBalanceCacheService;
 import com.iexec.core.chain.SignatureService;
-import com.iexec.core.chain.Web3jService;
 import com.iexec.core.contribution.ConsensusHelper;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
@@ -33,20 +33,16 @@ import com.iexec.core.task.TaskStatus;
 import com.iexec.core.task.update.TaskUpdateRequestManager;
 import com.iexec.core.worker.Worker;
 import com.iexec.core.worker.WorkerService;
-import net.jodah.expiringmap.ExpiringMap;
-import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.retry.annotation.Retryable;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import static com.iexec.common.replicate.ReplicateStatus.*;
-import static com.iexec.core.task.Task.LONGEST_TASK_TIMEOUT;
 
 
+@Slf4j
 @Service
 public class ReplicateSupplyService {
 
@@ -55,38 +51,30 @@ public class ReplicateSupplyService {
     private final TaskService taskService;
     private final TaskUpdateRequestManager taskUpdateRequestManager;
     private final WorkerService workerService;
-    private final Web3jService web3jService;
-    final Map<String, Lock> taskAccessForNewReplicateLocks =
-            ExpiringMap.builder()
-                    .expiration(LONGEST_TASK_TIMEOUT.getSeconds(), TimeUnit.SECONDS)
-                    .build();
+    private final GasBalanceCacheService gasBalanceCacheService;
 
     public ReplicateSupplyService(ReplicatesService replicatesService,
                                   SignatureService signatureService,
                                   TaskService taskService,
                                   TaskUpdateRequestManager taskUpdateRequestManager,
                                   WorkerService workerService,
-                                  Web3jService web3jService) {
+                                  GasBalanceCacheService gasBalanceCacheService) {
         this.replicatesService = replicatesService;
         this.signatureService = signatureService;
         this.taskService = taskService;
         this.taskUpdateRequestManager = taskUpdateRequestManager;
         this.workerService = workerService;
-        this.web3jService = web3jService;
+        this.gasBalanceCacheService = gasBalanceCacheService;
     }
 
     /*
-     * #1 Retryable - In case the task has been modified between reading and writing it, it is retried up to 5 times
-     *
-     * #2 TaskAccessForNewReplicateLock - To avoid the case where only 1 replicate is required but 2 replicates are
-     * created since 2 workers are calling getAvailableReplicate() and reading the database at the same time, we need a
-     *  'TaskAccessForNewReplicateLock' which should be:
-     *  - locked before `replicatesService.moreReplicatesNeeded(..)`
-     *  - released after `replicatesService.addNewReplicate(..)` in the best scenario
-     *  - released before any `continue` or  `return`
-     *
+     * To avoid the case where only 1 replicate is required but 2 replicates are created
+     * since 2 workers are calling getAvailableReplicate() and reading the database at the same time,
+     * a new replicate is only added if the replicates list has not been modified since it has been read.
+     * This is done with an atomic conditional update, so no lock is needed
+     * and several schedulers can share the same database.
+     * A worker losing the race simply moves on to the next candidate task.
      */
-    @Retryable(value = {OptimisticLockingFailureException.class}, maxAttempts = 5)
     Optional<WorkerpoolAuthorization> getAuthOfAvailableReplicate(long workerLastBlock, String walletAddress) {
         // return empty if max computing task is reached or if the worker is not found
         if (!workerService.canAcceptMoreWorks(walletAddress)) {
@@ -100,7 +88,7 @@ public class ReplicateSupplyService {
             return Optional.empty();
         }
 
-        if (!web3jService.hasEnoughGas(walletAddress)) {
+        if (!gasBalanceCacheService.hasEnoughGas(walletAddress)) {
             return Optional.empty();
         }
 
@@ -118,9 +106,125 @@ public class ReplicateSupplyService {
         );
     }
 
+    /**
+     * Looks for as many available tasks as the worker can still compute
+     * and creates a new {@link Replicate} for each of them.
+     * <p>
+     * Candidate tasks are scanned in a single pass.
+     * New replicates are then saved within a single bulk write
+     * and the worker is updated once.
+     *
+     * @param workerLastBlock Last block seen by the worker.
+     * @param walletAddress   Wallet address of the worker asking for work.
+     * @return Authorizations of the new replicates, the most prioritized first.
+     * Can be empty if no task is available.
+     */
+    List<WorkerpoolAuthorization> getAuthsOfAvailableReplicates(long workerLastBlock, String walletAddress) {
+        // return empty if the worker is not sync
+        //TODO Check if worker node is sync
+        boolean isWorkerLastBlockAvailable = workerLastBlock > 0;
+        if (!isWorkerLastBlockAvailable) {
+            return Collections.emptyList();
+        }
+
+        final Optional<Worker> oWorker = workerService.getWorker(walletAddress);
+        if (oWorker.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Worker worker = oWorker.get();
+        final int nbReplicatesToAllocate = worker.getMaxNbTasks() - worker.getComputingChainTaskIds().size();
+        if (nbReplicatesToAllocate <= 0) {
+            log.debug("Worker asking for too many replicates [walletAddress: {}, nbComputingReplicates:{}, maxNbTasks:{}]",
+                    walletAddress, worker.getComputingChainTaskIds().size(), worker.getMaxNbTasks());
+            return Collections.emptyList();
+        }
+
+        if (!gasBalanceCacheService.hasEnoughGas(walletAddress)) {
+            return Collections.emptyList();
+        }
+
+        if (!workerService.isAllowedToJoin(walletAddress)) {
+            workerService.deleteWorkerByAddress(walletAddress);
+            return Collections.emptyList();
+        }
+
+        final List<Task> acceptedTasks = new ArrayList<>();
+        final List<ReplicatesList> acceptedReplicatesLists = new ArrayList<>();
+        final Iterator<Task> candidateTasks = taskService
+                .getPrioritizedInitializedOrRunningTasks(!worker.isTeeEnabled())
+                .iterator();
+        while (acceptedTasks.size() < nbReplicatesToAllocate && candidateTasks.hasNext()) {
+            final Task task = candidateTasks.next();
+            getReplicatesListIfNeedsReplicateFromWorker(task, walletAddress)
+                    .ifPresent(replicatesList -> {
+                        acceptedTasks.add(task);
+                        acceptedReplicatesLists.add(replicatesList);
+                    });
+        }
+
+        final List<String> addedChainTaskIds =
+                replicatesService.addNewReplicates(acceptedReplicatesLists, walletAddress);
+        if (addedChainTaskIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        workerService.addChainTaskIdsToWorker(addedChainTaskIds, walletAddress);
+
+        return acceptedTasks.stream()
+                .filter(task -> addedChainTaskIds.contains(task.getChainTaskId()))
+                .map(task -> signatureService.createAuthorization(
+                        walletAddress,
+                        task.getChainTaskId(),
+                        task.getEnclaveChallenge()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether a {@link Task} needs a new {@link Replicate} from a given worker.
+     * <p>
+     * The returned {@link ReplicatesList} is the state the decision is based on.
+     * It should be used to add the new replicate,
+     * so that the replicate is not added if this state is outdated.
+     *
+     * @param task          {@link Task} that may need a new {@link Replicate}.
+     * @param walletAddress Wallet address of a worker looking for new {@link Task}.
+     * @return The read {@link ReplicatesList} if the worker can join the task,
+     * {@link Optional#empty()} otherwise.
+     */
+    private Optional<ReplicatesList> getReplicatesListIfNeedsReplicateFromWorker(Task task, String walletAddress) {
+        if (task.getEnclaveChallenge().isEmpty()) {
+            return Optional.empty();
+        }
+
+        final String chainTaskId = task.getChainTaskId();
+        final Optional<ReplicatesList> oReplicatesList = replicatesService.getReplicatesList(chainTaskId);
+        if (oReplicatesList.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final ReplicatesList replicatesList = oReplicatesList.get();
+        if (replicatesList.hasWorkerAlreadyParticipated(walletAddress)) {
+            return Optional.empty();
+        }
+
+        final boolean taskNeedsMoreContributions = ConsensusHelper.doesTaskNeedMoreContributionsForConsensus(
+                chainTaskId,
+                replicatesList.getReplicates(),
+                task.getTrust(),
+                task.getMaxExecutionTime());
+        if (!taskNeedsMoreContributions
+                || taskService.isConsensusReached(replicatesList)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(replicatesList);
+    }
+
     /**
      * Loops through available tasks
      * and finds the first one that needs a new {@link Replicate}.
+     * <p>
+     * Available tasks are read from an in-memory index sorted by priority,
+     * so no DB request is needed to find candidates.
      *
      * @param walletAddress Wallet address of the worker asking for work.
      * @param isTeeEnabled  Whether this worker supports TEE.
@@ -131,24 +235,11 @@ public class ReplicateSupplyService {
     private Optional<WorkerpoolAuthorization> getAuthorizationForAnyAvailableTask(
             String walletAddress,
             boolean isTeeEnabled) {
-        final List<String> alreadyScannedTasks = new ArrayList<>();
-
-        Optional<WorkerpoolAuthorization> authorization = Optional.empty();
-        while (authorization.isEmpty()) {
-            final Optional<Task> oTask = taskService.getPrioritizedInitializedOrRunningTask(
-                    !isTeeEnabled,
-                    alreadyScannedTasks
-            );
-            if (oTask.isEmpty()) {
-                // No more tasks waiting for a new replicate.
-                return Optional.empty();
-            }
-
-            final Task task = oTask.get();
-            alreadyScannedTasks.add(task.getChainTaskId());
-            authorization = getAuthorizationForTask(task, walletAddress);
-        }
-        return authorization;
+        return taskService.getPrioritizedInitializedOrRunningTasks(!isTeeEnabled)
+                .map(task -> getAuthorizationForTask(task, walletAddress))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
     }
 
     private Optional<WorkerpoolAuthorization> getAuthorizationForTask(Task task, String walletAddress) {
@@ -180,56 +271,19 @@ public class ReplicateSupplyService {
             workerService.deleteWorkerByAddress(walletAddress);
             return false;
         }
-        if (task.getEnclaveChallenge().isEmpty()) {
-            return false;
-        }
 
-        final String chainTaskId = task.getChainTaskId();
-        final Optional<ReplicatesList> oReplicatesList = replicatesService.getReplicatesList(chainTaskId);
-        // Check is only here to prevent
-        // "`Optional.get()` without `isPresent()` warning".
-        // This case should not happen.
+        final Optional<ReplicatesList> oReplicatesList =
+                getReplicatesListIfNeedsReplicateFromWorker(task, walletAddress);
         if (oReplicatesList.isEmpty()) {
             return false;
         }
 
-        final ReplicatesList replicatesList = oReplicatesList.get();
-
-        final boolean hasWorkerAlreadyParticipated =
-                replicatesList.hasWorkerAlreadyParticipated(walletAddress);
-        if (hasWorkerAlreadyParticipated) {
-            return false;
-        }
-
-        final Lock lock = taskAccessForNewReplicateLocks
-                .computeIfAbsent(chainTaskId, k -> new ReentrantLock());
-        if (!lock.tryLock()) {
-            // Can't get lock on task
-            // => another replicate is already having a look at this task.
+        if (!replicatesService.addNewReplicate(oReplicatesList.get(), walletAddress)) {
+            // Replicates list has been modified in the meantime
+            // => another worker has joined the task or a replicate has been updated.
             return false;
         }
-
-        try {
-            final boolean taskNeedsMoreContributions = ConsensusHelper.doesTaskNeedMoreContributionsForConsensus(
-                    chainTaskId,
-                    replicatesList.getReplicates(),
-                    task.getTrust(),
-                    task.getMaxExecutionTime());
-
-            if (!taskNeedsMoreContributions
-                    || taskService.isConsensusReached(replicatesList)) {
-                return false;
-            }
-
-            replicatesService.addNewReplicate(chainTaskId, walletAddress);
-            workerService.addChainTaskIdToWorker(chainTaskId, walletAddress);
-        } finally {
-            // We should always unlock the task
-            // so that it could be taken by another replicate
-            // if there's any issue.
-            lock.unlock();
-        }
-
+        workerService.addChainTaskIdToWorker(task.getChainTaskId(), walletAddress);
         return true;
     }
 
@@ -25,9 +25,13 @@ import com.iexec.core.worker.WorkerService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.springframework.http.ResponseEntity.status;
 
@@ -36,15 +40,18 @@ public class ReplicatesController {
 
     private final ReplicatesService replicatesService;
     private final ReplicateSupplyService replicateSupplyService;
+    private final ReplicateLongPollingService replicateLongPollingService;
     private final JwtTokenProvider jwtTokenProvider;
     private final WorkerService workerService;
 
     public ReplicatesController(ReplicatesService replicatesService,
                                 ReplicateSupplyService replicateSupplyService,
+                                ReplicateLongPollingService replicateLongPollingService,
                                 JwtTokenProvider jwtTokenProvider,
                                 WorkerService workerService) {
         this.replicatesService = replicatesService;
         this.replicateSupplyService = replicateSupplyService;
+        this.replicateLongPollingService = replicateLongPollingService;
         this.jwtTokenProvider = jwtTokenProvider;
         this.workerService = workerService;
     }
@@ -69,6 +76,67 @@ public class ReplicatesController {
                 .orElseGet(() -> status(HttpStatus.NO_CONTENT).build());
     }
 
+    /**
+     * Waits for an available replicate instead of immediately answering with no content.
+     * <p>
+     * A worker asking again too soon is not rejected,
+     * its demand is served as soon as a task may need new replicates.
+     *
+     * @param blockNumber Last block seen by the worker.
+     * @param bearerToken Worker authentication token.
+     * @return An authorization once a replicate is available,
+     * no content if none became available before the long-polling timeout.
+     */
+    @GetMapping("/replicates/available/longpoll")
+    public DeferredResult<ResponseEntity<WorkerpoolAuthorization>> waitForAvailableReplicate(
+            @RequestParam(name = "blockNumber") long blockNumber,
+            @RequestHeader("Authorization") String bearerToken) {
+        String workerWalletAddress = jwtTokenProvider.getWalletAddressFromBearerToken(bearerToken);
+        if (workerWalletAddress.isEmpty()) {
+            final DeferredResult<ResponseEntity<WorkerpoolAuthorization>> unauthorized = new DeferredResult<>();
+            unauthorized.setResult(ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build());
+            return unauthorized;
+        }
+
+        final boolean isAllowedToAskNow = workerService.isWorkerAllowedToAskReplicate(workerWalletAddress);
+        workerService.updateLastReplicateDemandDate(workerWalletAddress);
+
+        return replicateLongPollingService.waitForAvailableReplicate(
+                blockNumber,
+                workerWalletAddress,
+                isAllowedToAskNow);
+    }
+
+    /**
+     * Hands out as many replicates as the worker can still compute,
+     * within a single request.
+     *
+     * @param blockNumber Last block seen by the worker.
+     * @param bearerToken Worker authentication token.
+     * @return Authorizations of the new replicates, the most prioritized first.
+     */
+    @GetMapping("/replicates/available/batch")
+    public ResponseEntity<List<WorkerpoolAuthorization>> getAvailableReplicates(
+            @RequestParam(name = "blockNumber") long blockNumber,
+            @RequestHeader("Authorization") String bearerToken) {
+        String workerWalletAddress = jwtTokenProvider.getWalletAddressFromBearerToken(bearerToken);
+        if (workerWalletAddress.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build();
+        }
+
+        if (!workerService.isWorkerAllowedToAskReplicate(workerWalletAddress)) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT.value()).build();
+        }
+        workerService.updateLastReplicateDemandDate(workerWalletAddress);
+
+        final List<WorkerpoolAuthorization> authorizations =
+                replicateSupplyService.getAuthsOfAvailableReplicates(blockNumber, workerWalletAddress);
+        if (authorizations.isEmpty()) {
+            return status(HttpStatus.NO_CONTENT).build();
+        }
+        return ResponseEntity.ok(authorizations);
+    }
+
     @GetMapping("/replicates/interrupted")
     public ResponseEntity<List<TaskNotification>> getMissedTaskNotifications(
             @RequestParam(name = "blockNumber") long blockNumber,
@@ -97,18 +165,7 @@ public class ReplicatesController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build();
         }
 
-        statusUpdate.setModifier(ReplicateStatusModifier.WORKER);
-        statusUpdate.setDate(new Date());
-
-        // Assuming wallet address sent by the worker is correct
-        // would be a security issue. Let's replace it.
-        final ReplicateStatusDetails details = statusUpdate.getDetails();
-        if (details != null) {
-            final ComputeLogs computeLogs = details.getComputeLogs();
-            if (computeLogs != null) {
-                computeLogs.setWalletAddress(walletAddress);
-            }
-        }
+        setWorkerAsAuthor(statusUpdate, walletAddress, new Date());
 
         final UpdateReplicateStatusArgs updateReplicateStatusArgs = replicatesService.computeUpdateReplicateStatusArgs(
                 chainTaskId,
@@ -137,4 +194,64 @@ public class ReplicatesController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN.value()).build();
         }
     }
+
+    /**
+     * Updates replicates of the worker with an ordered list of status updates, for one or many tasks.
+     * <p>
+     * Status updates of a task are checked as a chain and saved within a single write,
+     * the task is then updated at most once.
+     * See {@link ReplicatesService#updateReplicateStatuses(String, String, List, List)}.
+     *
+     * @param bearerToken  Worker authentication token.
+     * @param batchEntries Status updates, in the order they have been reached for each task.
+     * @return Outcome of the status updates of each task, in the order tasks first appear in the batch.
+     */
+    @PostMapping("/replicates/updateStatus/batch")
+    public ResponseEntity<List<ReplicateStatusUpdateBatchResult>> updateReplicateStatuses(
+            @RequestHeader("Authorization") String bearerToken,
+            @RequestBody List<ReplicateStatusUpdateBatchEntry> batchEntries) {
+
+        String walletAddress = jwtTokenProvider.getWalletAddressFromBearerToken(bearerToken);
+
+        if (walletAddress.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build();
+        }
+
+        final Date date = new Date();
+        final Map<String, List<ReplicateStatusUpdate>> statusUpdatesByTask = new LinkedHashMap<>();
+        for (ReplicateStatusUpdateBatchEntry batchEntry : batchEntries) {
+            final ReplicateStatusUpdate statusUpdate = batchEntry.getStatusUpdate();
+            if (batchEntry.getChainTaskId() == null || statusUpdate == null || statusUpdate.getStatus() == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            setWorkerAsAuthor(statusUpdate, walletAddress, date);
+            statusUpdatesByTask.computeIfAbsent(batchEntry.getChainTaskId(), chainTaskId -> new ArrayList<>())
+                    .add(statusUpdate);
+        }
+
+        final List<ReplicateStatusUpdateBatchResult> results = new ArrayList<>(statusUpdatesByTask.size());
+        statusUpdatesByTask.forEach((chainTaskId, statusUpdates) -> {
+            // as for a single update, chain reads are done before taking the replicate lock
+            final List<UpdateReplicateStatusArgs> updateReplicateStatusesArgs = replicatesService
+                    .computeUpdateReplicateStatusesArgs(chainTaskId, walletAddress, statusUpdates);
+            results.add(replicatesService.updateReplicateStatuses(chainTaskId, walletAddress, statusUpdates,
+                    updateReplicateStatusesArgs));
+        });
+        return ResponseEntity.ok(results);
+    }
+
+    private void setWorkerAsAuthor(ReplicateStatusUpdate statusUpdate, String walletAddress, Date date) {
+        statusUpdate.setModifier(ReplicateStatusModifier.WORKER);
+        statusUpdate.setDate(date);
+
+        // Assuming wallet address sent by the worker is correct
+        // would be a security issue. Let's replace it.
+        final ReplicateStatusDetails details = statusUpdate.getDetails();
+        if (details != null) {
+            final ComputeLogs computeLogs = details.getComputeLogs();
+            if (computeLogs != null) {
+                computeLogs.setWalletAddress(walletAddress);
+            }
+        }
+    }
 }
@@ -17,7 +17,6 @@
 package com.iexec.core.replicate;
 
 import com.iexec.common.replicate.ReplicateStatus;
-import com.iexec.common.replicate.ReplicateStatusUpdate;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
@@ -26,7 +25,6 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.iexec.common.replicate.ReplicateStatus.*;
 
@@ -35,6 +33,12 @@ import static com.iexec.common.replicate.ReplicateStatus.*;
 @NoArgsConstructor
 public class ReplicatesList {
 
+    public static final String CHAIN_TASK_ID_FIELD_NAME = "chainTaskId";
+    public static final String REPLICATES_FIELD_NAME = "replicates";
+    public static final String REPLICATES_WALLET_ADDRESS_FIELD_NAME = REPLICATES_FIELD_NAME + ".walletAddress";
+    public static final String VERSION_FIELD_NAME = "version";
+    public static final String STATUS_SUMMARY_FIELD_NAME = "statusSummary";
+
     @Id
     private String id;
 
@@ -46,14 +50,39 @@ public class ReplicatesList {
 
     private List<Replicate> replicates;
 
+    private ReplicateStatusSummary statusSummary;
+
     public ReplicatesList(String chainTaskId) {
         this.chainTaskId = chainTaskId;
         this.replicates = new ArrayList<>();
+        this.statusSummary = new ReplicateStatusSummary();
     }
 
     public ReplicatesList(String chainTaskId, List<Replicate> replicates) {
         this.chainTaskId = chainTaskId;
         this.replicates = replicates;
+        this.statusSummary = ReplicateStatusSummary.of(replicates);
+    }
+
+    /**
+     * Summary of replicates statuses, computed from replicates if it has not been stored.
+     */
+    public ReplicateStatusSummary getStatusSummary() {
+        if (statusSummary == null) {
+            statusSummary = ReplicateStatusSummary.of(replicates);
+        }
+        return statusSummary;
+    }
+
+    /**
+     * Derives statuses of replicates and the status summary if they have not been stored,
+     * so that they are not lazily derived later by concurrent readers of a shared list.
+     */
+    void deriveStatusesIfNotStored() {
+        if (replicates != null) {
+            replicates.forEach(Replicate::deriveStatusesIfNotStored);
+        }
+        getStatusSummary();
     }
 
     /**
@@ -79,37 +108,22 @@ public class ReplicatesList {
     }
 
     public int getNbReplicatesWithCurrentStatus(ReplicateStatus... listStatus) {
-        int nbReplicates = 0;
-        for (Replicate replicate : replicates) {
-            for (ReplicateStatus status : listStatus) {
-                if (replicate.getCurrentStatus().equals(status)) {
-                    nbReplicates++;
-                }
-            }
-        }
-        return nbReplicates;
+        return getStatusSummary().getNbReplicatesWithCurrentStatus(listStatus);
     }
 
     public int getNbReplicatesWithLastRelevantStatus(ReplicateStatus... listStatus) {
-        int nbReplicates = 0;
-        for (Replicate replicate : replicates) {
-            for (ReplicateStatus status : listStatus) {
-                if (Objects.equals(replicate.getLastRelevantStatus().orElse(null), status)) {
-                    nbReplicates++;
-                }
-            }
-        }
-        return nbReplicates;
+        return getStatusSummary().getNbReplicatesWithLastRelevantStatus(listStatus);
     }
 
     public int getNbReplicatesContainingStatus(ReplicateStatus... listStatus) {
+        if (listStatus.length == 1) {
+            return getStatusSummary().getNbReplicatesContainingStatus(listStatus[0]);
+        }
+        // a replicate may contain several of these statuses, it is counted once
         Set<String> addressReplicates = new HashSet<>();
         for (Replicate replicate : replicates) {
-            List<ReplicateStatus> listReplicateStatus = replicate.getStatusUpdateList().stream()
-                    .map(ReplicateStatusUpdate::getStatus)
-                    .collect(Collectors.toList());
             for (ReplicateStatus status : listStatus) {
-                if (listReplicateStatus.contains(status)) {
+                if (replicate.containsStatus(status)) {
                     addressReplicates.add(replicate.getWalletAddress());
                 }
             }
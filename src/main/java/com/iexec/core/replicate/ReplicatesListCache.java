@@ -0,0 +1,201 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded write-through cache of {@link ReplicatesList}s, keyed by {@code chainTaskId}.
+ * <p>
+ * Lists are read from the database on first demand, then replaced by the state returned by each write.
+ * A list is only replaced by a state of the same or of a newer version, so that a late read
+ * never overrides a more recent write. When the cache is full, the least recently used list is evicted.
+ * <p>
+ * Cached lists are shared between all readers and must not be modified.
+ * Statuses of their replicates and their status summary are derived before they are cached,
+ * so that readers never derive them lazily on a shared instance.
+ * Writes based on an outdated cached list are rejected by the optimistic locking of the database,
+ * the list is then evicted so that it is read again.
+ * A read in flight while its list is evicted is not cached, so that a state read before a failed write
+ * can't be cached again after the eviction: each read registers its own token, which is dropped by an eviction
+ * and must still be registered for the read result to be cached.
+ * <p>
+ * The cache is local to this scheduler instance: writes of other schedulers sharing the same database
+ * are only seen once the list is evicted or replaced by a newer version.
+ * Deployments with several schedulers must disable it with a size of 0, lists are then always read from the database.
+ */
+class ReplicatesListCache {
+
+    static final String CACHE_METRIC_NAME = "iexec.core.replicates.cache";
+    static final String SIZE_METRIC_NAME = "iexec.core.replicates.cache.size";
+    static final String MEMORY_METRIC_NAME = "iexec.core.replicates.cache.memory";
+    // rough in-memory sizes of cached objects, used to estimate the memory footprint of the cache
+    static final long REPLICATES_LIST_BYTES = 512;
+    static final long REPLICATE_BYTES = 512;
+    static final long STATUS_UPDATE_BYTES = 256;
+
+    private final int maxSize;
+    private final Function<String, Optional<ReplicatesList>> reader;
+    // access-ordered, all accesses are synchronized on this map
+    private final Map<String, ReplicatesList> replicatesLists;
+    // tokens of reads in flight, guarded by the lock of replicatesLists
+    private final Map<String, Object> readTokens = new HashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    ReplicatesListCache(int maxSize,
+                        Function<String, Optional<ReplicatesList>> reader,
+                        MeterRegistry meterRegistry) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Replicates cache size must not be negative [maxSize:" + maxSize + "]");
+        }
+        this.maxSize = maxSize;
+        this.reader = reader;
+        this.replicatesLists = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ReplicatesList> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hitCounter = buildCacheCounter(meterRegistry, "hit");
+        this.missCounter = buildCacheCounter(meterRegistry, "miss");
+        Gauge.builder(SIZE_METRIC_NAME, this, ReplicatesListCache::size)
+                .description("Number of replicates lists kept in memory")
+                .register(meterRegistry);
+        Gauge.builder(MEMORY_METRIC_NAME, this, ReplicatesListCache::getEstimatedMemoryFootprint)
+                .description("Estimated memory footprint of replicates lists kept in memory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter buildCacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CACHE_METRIC_NAME)
+                .description("Replicates lists reads served by the cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets a replicates list, reading it from the database if it is not cached.
+     * <p>
+     * The read is done without holding the cache lock,
+     * so concurrent first reads of a list may read it more than once.
+     *
+     * @param chainTaskId ID of the task
+     * @return The replicates list, empty if the task has none.
+     */
+    Optional<ReplicatesList> get(String chainTaskId) {
+        if (maxSize == 0) {
+            missCounter.increment();
+            return reader.apply(chainTaskId);
+        }
+        final Object readToken = new Object();
+        synchronized (replicatesLists) {
+            final ReplicatesList cachedReplicatesList = replicatesLists.get(chainTaskId);
+            if (cachedReplicatesList != null) {
+                hitCounter.increment();
+                return Optional.of(cachedReplicatesList);
+            }
+            readTokens.put(chainTaskId, readToken);
+        }
+        missCounter.increment();
+        final Optional<ReplicatesList> replicatesList;
+        try {
+            replicatesList = reader.apply(chainTaskId);
+        } catch (RuntimeException e) {
+            synchronized (replicatesLists) {
+                readTokens.remove(chainTaskId, readToken);
+            }
+            throw e;
+        }
+        replicatesList.ifPresent(ReplicatesList::deriveStatusesIfNotStored);
+        synchronized (replicatesLists) {
+            // still registered only if neither evicted nor superseded by another read
+            final boolean isReadStillValid = readTokens.remove(chainTaskId, readToken);
+            if (isReadStillValid && replicatesList.isPresent()) {
+                merge(replicatesList.get());
+            }
+        }
+        return replicatesList;
+    }
+
+    /**
+     * Caches a state of a replicates list, unless a newer version of this list is already cached.
+     *
+     * @param replicatesList State of the list as read or written in the database
+     */
+    void put(ReplicatesList replicatesList) {
+        if (maxSize == 0) {
+            return;
+        }
+        replicatesList.deriveStatusesIfNotStored();
+        synchronized (replicatesLists) {
+            merge(replicatesList);
+        }
+    }
+
+    private void merge(ReplicatesList replicatesList) {
+        replicatesLists.merge(replicatesList.getChainTaskId(), replicatesList,
+                (cached, candidate) -> getVersion(candidate) >= getVersion(cached) ? candidate : cached);
+    }
+
+    private static long getVersion(ReplicatesList replicatesList) {
+        return replicatesList.getVersion() != null ? replicatesList.getVersion() : -1;
+    }
+
+    /**
+     * Drops a cached replicates list, including reads in flight, so that it is read again on next demand.
+     *
+     * @param chainTaskId ID of the task
+     */
+    void evict(String chainTaskId) {
+        synchronized (replicatesLists) {
+            readTokens.remove(chainTaskId);
+            replicatesLists.remove(chainTaskId);
+        }
+    }
+
+    int size() {
+        synchronized (replicatesLists) {
+            return replicatesLists.size();
+        }
+    }
+
+    /**
+     * Estimates the memory used by cached lists from their numbers of replicates and of status updates.
+     */
+    long getEstimatedMemoryFootprint() {
+        synchronized (replicatesLists) {
+            long bytes = 0;
+            for (ReplicatesList replicatesList : replicatesLists.values()) {
+                bytes += REPLICATES_LIST_BYTES;
+                for (Replicate replicate : replicatesList.getReplicates()) {
+                    bytes += REPLICATE_BYTES + STATUS_UPDATE_BYTES * replicate.getStatusUpdateList().size();
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v2.decorator.impl.MongockTemplate;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import io.changock.migration.api.annotations.ChangeLog;
+import io.changock.migration.api.annotations.ChangeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.iexec.core.configuration.ConfigurationRepositoryMigration.CURRENT_AUTHOR;
+
+/**
+ * Replicates status updates are appended in place to the replicate of a worker,
+ * on condition that the replicate status history has not changed since it has been read.
+ * Legacy documents are normalized so that such conditional updates match them:
+ * <ul>
+ * <li>each replicate has a status history, possibly empty;
+ * <li>each {@link ReplicatesList} has a version.
+ * </ul>
+ * Each {@link ReplicatesList} also stores a {@link ReplicateStatusSummary}
+ * and each {@link Replicate} its statuses derived from its history, computed once for legacy documents.
+ */
+@Slf4j
+@ChangeLog(order = "002")
+public class ReplicatesListMigration {
+
+    public static final String REPLICATES_LIST_COLLECTION_NAME = "replicatesList";
+
+    @ChangeSet(order = "001", id = "normalizeReplicatesForInPlaceStatusUpdates", author = CURRENT_AUTHOR)
+    public long normalizeReplicatesForInPlaceStatusUpdates(MongockTemplate mongockTemplate) {
+        final MongoCollection<Document> collection = mongockTemplate.getDb()
+                .getCollection(REPLICATES_LIST_COLLECTION_NAME);
+
+        final long nbVersionedLists = collection.updateMany(
+                Filters.exists(ReplicatesList.VERSION_FIELD_NAME, false),
+                Updates.set(ReplicatesList.VERSION_FIELD_NAME, 0L)
+        ).getModifiedCount();
+
+        final List<Document> arrayFilters = Collections.singletonList(
+                new Document("replicate." + Replicate.STATUS_UPDATE_LIST_FIELD_NAME, null));
+        final long nbNormalizedLists = collection.updateMany(
+                Filters.elemMatch(ReplicatesList.REPLICATES_FIELD_NAME,
+                        Filters.eq(Replicate.STATUS_UPDATE_LIST_FIELD_NAME, null)),
+                Updates.set(ReplicatesList.REPLICATES_FIELD_NAME + ".$[replicate]." + Replicate.STATUS_UPDATE_LIST_FIELD_NAME,
+                        Collections.emptyList()),
+                new UpdateOptions().arrayFilters(arrayFilters)
+        ).getModifiedCount();
+
+        log.info("Replicates lists normalized for in-place status updates [nbVersionedLists:{}, nbNormalizedLists:{}]",
+                nbVersionedLists, nbNormalizedLists);
+        return nbVersionedLists + nbNormalizedLists;
+    }
+
+    @ChangeSet(order = "002", id = "addReplicateStatusSummaries", author = CURRENT_AUTHOR)
+    public long addReplicateStatusSummaries(MongockTemplate mongockTemplate) {
+        final Query legacyListsQuery = Query.query(
+                Criteria.where(ReplicatesList.STATUS_SUMMARY_FIELD_NAME).exists(false));
+        long nbSummarizedLists = 0;
+        try (CloseableIterator<ReplicatesList> legacyLists =
+                     mongockTemplate.stream(legacyListsQuery, ReplicatesList.class)) {
+            while (legacyLists.hasNext()) {
+                final ReplicatesList replicatesList = legacyLists.next();
+                // summary is computed from replicates since it has not been stored
+                mongockTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(replicatesList.getId())),
+                        Update.update(ReplicatesList.STATUS_SUMMARY_FIELD_NAME, replicatesList.getStatusSummary()),
+                        ReplicatesList.class);
+                nbSummarizedLists++;
+            }
+        }
+        log.info("Replicate status summaries added [nbSummarizedLists:{}]", nbSummarizedLists);
+        return nbSummarizedLists;
+    }
+
+    @ChangeSet(order = "003", id = "addReplicatesDerivedStatuses", author = CURRENT_AUTHOR)
+    public long addReplicatesDerivedStatuses(MongockTemplate mongockTemplate) {
+        final Query legacyListsQuery = Query.query(Criteria.where(ReplicatesList.REPLICATES_FIELD_NAME)
+                .elemMatch(Criteria.where(Replicate.CURRENT_STATUS_FIELD_NAME).exists(false)));
+        long nbUpdatedLists = 0;
+        try (CloseableIterator<ReplicatesList> legacyLists =
+                     mongockTemplate.stream(legacyListsQuery, ReplicatesList.class)) {
+            while (legacyLists.hasNext()) {
+                final ReplicatesList replicatesList = legacyLists.next();
+                replicatesList.getReplicates().forEach(Replicate::deriveStatuses);
+                mongockTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(replicatesList.getId())),
+                        Update.update(ReplicatesList.REPLICATES_FIELD_NAME, replicatesList.getReplicates()),
+                        ReplicatesList.class);
+                nbUpdatedLists++;
+            }
+        }
+        log.info("Replicates derived statuses added [nbUpdatedLists:{}]", nbUpdatedLists);
+        return nbUpdatedLists;
+    }
+}
@@ -18,12 +18,15 @@ package com.iexec.core.replicate;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 interface ReplicatesRepository extends MongoRepository<ReplicatesList, String> {
 
     Optional<ReplicatesList> findByChainTaskId(String chainTaskId);
 
+    List<ReplicatesList> findByChainTaskIdIn(List<String> chainTaskIds);
+
     long countByChainTaskId(String chainTaskId);
 
 }
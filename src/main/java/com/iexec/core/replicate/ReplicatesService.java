@@ -23,21 +23,33 @@ import com.iexec.common.task.TaskDescription;
 import com.iexec.common.utils.ContextualLockRunner;
 import com.iexec.core.chain.IexecHubService;
 import com.iexec.core.chain.Web3jService;
+import com.iexec.core.configuration.ReplicatesConfiguration;
 import com.iexec.core.result.ResultService;
 import com.iexec.core.logs.TaskLogsService;
 import com.iexec.core.workflow.ReplicateWorkflow;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.iexec.common.replicate.ReplicateStatus.*;
 import static com.iexec.common.replicate.ReplicateStatusCause.REVEAL_TIMEOUT;
@@ -46,58 +58,182 @@ import static com.iexec.common.replicate.ReplicateStatusCause.REVEAL_TIMEOUT;
 @Service
 public class ReplicatesService {
 
+    // identifier of the replicate of the updated worker in positional updates of a ReplicatesList
+    private static final String FILTERED_REPLICATE = "replicate";
+    private static final String FILTERED_REPLICATE_PATH =
+            ReplicatesList.REPLICATES_FIELD_NAME + ".$[" + FILTERED_REPLICATE + "].";
+
     private ReplicatesRepository replicatesRepository;
+    private MongoTemplate mongoTemplate;
     private IexecHubService iexecHubService;
     private ApplicationEventPublisher applicationEventPublisher;
     private Web3jService web3jService;
     private ResultService resultService;
     private TaskLogsService taskLogsService;
+    private final ReplicatesListCache replicatesListCache;
 
     private final ContextualLockRunner<String> replicatesUpdateLockRunner =
             new ContextualLockRunner<>(10, TimeUnit.MINUTES);
 
     public ReplicatesService(ReplicatesRepository replicatesRepository,
+                             MongoTemplate mongoTemplate,
                              IexecHubService iexecHubService,
                              ApplicationEventPublisher applicationEventPublisher,
                              Web3jService web3jService,
                              ResultService resultService,
-                             TaskLogsService taskLogsService) {
+                             TaskLogsService taskLogsService,
+                             ReplicatesConfiguration replicatesConfiguration,
+                             MeterRegistry meterRegistry) {
         this.replicatesRepository = replicatesRepository;
+        this.mongoTemplate = mongoTemplate;
         this.iexecHubService = iexecHubService;
         this.applicationEventPublisher = applicationEventPublisher;
         this.web3jService = web3jService;
         this.resultService = resultService;
         this.taskLogsService = taskLogsService;
+        this.replicatesListCache = new ReplicatesListCache(
+                replicatesConfiguration.getCacheSize(),
+                replicatesRepository::findByChainTaskId,
+                meterRegistry);
     }
 
-    public void addNewReplicate(String chainTaskId, String walletAddress) {
-        if (getReplicate(chainTaskId, walletAddress).isEmpty()) {
-            Optional<ReplicatesList> optional = getReplicatesList(chainTaskId);
-            if (optional.isPresent()) {
-                ReplicatesList replicatesList = optional.get();
-                Replicate replicate = new Replicate(walletAddress, chainTaskId);
-                replicate.setWorkerWeight(iexecHubService.getWorkerWeight(walletAddress));// workerWeight value for pendingWeight estimate
-                replicatesList.getReplicates().add(replicate);
-
-                replicatesRepository.save(replicatesList);
-                log.info("New replicate saved [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
-            }
+    /**
+     * Atomically adds a new {@link Replicate} for the given worker to a task.
+     * <p>
+     * The replicate is added only if the {@link ReplicatesList} has not been modified
+     * since it has been read, i.e. if the decision to add a replicate is still based on up-to-date data.
+     * This is safe even if several schedulers share the same database.
+     *
+     * @param replicatesList Last read state of the {@link ReplicatesList} the worker should join.
+     * @param walletAddress  Wallet address of the worker.
+     * @return {@literal true} if the replicate has been added,
+     * {@literal false} if the {@link ReplicatesList} has been modified in the meantime.
+     */
+    public boolean addNewReplicate(ReplicatesList replicatesList, String walletAddress) {
+        final String chainTaskId = replicatesList.getChainTaskId();
+        final int workerWeight = iexecHubService.getWorkerWeight(walletAddress);
+        final ReplicatesList updatedReplicatesList = mongoTemplate.findAndModify(
+                buildNewReplicateQuery(replicatesList, walletAddress),
+                buildNewReplicateUpdate(chainTaskId, walletAddress, workerWeight),
+                FindAndModifyOptions.options().returnNew(true),
+                ReplicatesList.class);
+        final boolean isAdded = updatedReplicatesList != null;
+
+        if (isAdded) {
+            replicatesListCache.put(updatedReplicatesList);
+            log.info("New replicate saved [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
         } else {
-            log.error("Replicate already saved [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
+            // the list may have been modified by another scheduler, the cached state is read again
+            replicatesListCache.evict(chainTaskId);
+            log.info("New replicate not saved, replicates list has been modified [chainTaskId:{}, walletAddress:{}]",
+                    chainTaskId, walletAddress);
         }
+        return isAdded;
+    }
 
+    /**
+     * Adds a new {@link Replicate} for the given worker to each of the given tasks.
+     * <p>
+     * All {@link ReplicatesList} are updated within a single bulk write.
+     * As in {@link ReplicatesService#addNewReplicate(ReplicatesList, String)},
+     * each update is applied only if its {@link ReplicatesList} has not been modified since it has been read.
+     *
+     * @param replicatesLists Last read states of the {@link ReplicatesList} the worker should join.
+     * @param walletAddress   Wallet address of the worker.
+     * @return IDs of the tasks for which a new replicate has been added.
+     */
+    public List<String> addNewReplicates(List<ReplicatesList> replicatesLists, String walletAddress) {
+        if (replicatesLists.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<String> chainTaskIds = replicatesLists.stream()
+                .map(ReplicatesList::getChainTaskId)
+                .collect(Collectors.toList());
+        final int workerWeight = iexecHubService.getWorkerWeight(walletAddress);
+        final BulkOperations bulkOperations =
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReplicatesList.class);
+        for (ReplicatesList replicatesList : replicatesLists) {
+            bulkOperations.updateOne(
+                    buildNewReplicateQuery(replicatesList, walletAddress),
+                    buildNewReplicateUpdate(replicatesList.getChainTaskId(), walletAddress, workerWeight));
+        }
+
+        final int nbAddedReplicates = bulkOperations.execute().getModifiedCount();
+        // bulk writes do not return updated lists, cached states are read again on next demand
+        chainTaskIds.forEach(replicatesListCache::evict);
+        if (nbAddedReplicates == chainTaskIds.size()) {
+            log.info("New replicates saved [chainTaskIds:{}, walletAddress:{}]", chainTaskIds, walletAddress);
+            return chainTaskIds;
+        }
+
+        // Some updates have been skipped, let's find out which replicates have been saved.
+        final List<String> addedChainTaskIds = replicatesRepository.findByChainTaskIdIn(chainTaskIds)
+                .stream()
+                .filter(replicatesList -> replicatesList.hasWorkerAlreadyParticipated(walletAddress))
+                .map(ReplicatesList::getChainTaskId)
+                .collect(Collectors.toList());
+        log.info("Some new replicates have not been saved [expected:{}, saved:{}, chainTaskIds:{}, walletAddress:{}]",
+                chainTaskIds.size(), addedChainTaskIds.size(), addedChainTaskIds, walletAddress);
+        return addedChainTaskIds;
+    }
+
+    /**
+     * Matches a {@link ReplicatesList} only if it is still in the given version
+     * and if the worker has no replicate in it.
+     */
+    private Query buildNewReplicateQuery(ReplicatesList replicatesList, String walletAddress) {
+        return Query.query(Criteria
+                .where(ReplicatesList.CHAIN_TASK_ID_FIELD_NAME).is(replicatesList.getChainTaskId())
+                .and(ReplicatesList.VERSION_FIELD_NAME).is(replicatesList.getVersion())
+                .and(ReplicatesList.REPLICATES_WALLET_ADDRESS_FIELD_NAME).ne(walletAddress));
+    }
+
+    /**
+     * Pushes a new {@link Replicate} and bumps the version of the {@link ReplicatesList},
+     * so that concurrent claims and whole-document saves based on the previous version fail.
+     */
+    private Update buildNewReplicateUpdate(String chainTaskId, String walletAddress, int workerWeight) {
+        final Replicate replicate = new Replicate(walletAddress, chainTaskId);
+        replicate.setWorkerWeight(workerWeight);// workerWeight value for pendingWeight estimate
+        final Update update = new Update()
+                .push(ReplicatesList.REPLICATES_FIELD_NAME, replicate)
+                .inc(ReplicatesList.VERSION_FIELD_NAME, 1);
+        incrementStatusSummary(update, ReplicateStatusSummary.getNewReplicateIncrements());
+        return update;
+    }
+
+    /**
+     * Applies increments of the {@link ReplicateStatusSummary} within the same update as the replicate change,
+     * so that the stored summary always matches the stored replicates.
+     */
+    private void incrementStatusSummary(Update update, Map<String, Integer> increments) {
+        increments.forEach((path, increment) ->
+                update.inc(ReplicatesList.STATUS_SUMMARY_FIELD_NAME + "." + path, increment));
     }
 
     public synchronized void createEmptyReplicateList(String chainTaskId) {
-        replicatesRepository.save(new ReplicatesList(chainTaskId));
+        replicatesListCache.put(replicatesRepository.save(new ReplicatesList(chainTaskId)));
     }
 
     public boolean hasReplicatesList(String chainTaskId) {
         return replicatesRepository.countByChainTaskId(chainTaskId) > 0;
     }
 
+    /**
+     * Gets the replicates list of a task from the in-memory cache, reading it from the database on first demand.
+     * <p>
+     * The returned list is shared with other readers and must not be modified.
+     */
     public Optional<ReplicatesList> getReplicatesList(String chainTaskId) {
-        return replicatesRepository.findByChainTaskId(chainTaskId);
+        return replicatesListCache.get(chainTaskId);
+    }
+
+    /**
+     * Drops the cached replicates list of a task, e.g. once the task is over and its replicates won't change anymore.
+     */
+    public void evictReplicatesList(String chainTaskId) {
+        replicatesListCache.evict(chainTaskId);
     }
 
     public List<Replicate> getReplicates(String chainTaskId) {
@@ -178,6 +314,19 @@ public class ReplicatesService {
 
         ReplicatesList replicatesList = oReplicateList.get();
         Replicate replicate = replicatesList.getReplicateOfWorker(walletAddress).orElseThrow(); // "get" could be used there but triggers a warning
+        return canUpdateReplicateStatus(chainTaskId, replicate, statusUpdate, updateReplicateStatusArgs);
+    }
+
+    /**
+     * Checks whether a replicate in the given state can be updated with given status.
+     *
+     * @see ReplicatesService#canUpdateReplicateStatus(String, String, ReplicateStatusUpdate, UpdateReplicateStatusArgs)
+     */
+    private ReplicateStatusUpdateError canUpdateReplicateStatus(String chainTaskId,
+                                                                Replicate replicate,
+                                                                ReplicateStatusUpdate statusUpdate,
+                                                                UpdateReplicateStatusArgs updateReplicateStatusArgs) {
+        String walletAddress = replicate.getWalletAddress();
         ReplicateStatus newStatus = statusUpdate.getStatus();
 
         boolean hasAlreadyTransitionedToStatus = replicate.containsStatus(newStatus);
@@ -240,6 +389,9 @@ public class ReplicatesService {
         switch (statusUpdate.getStatus()) {
             case CONTRIBUTED:
                 workerWeight = iexecHubService.getWorkerWeight(walletAddress);
+                // the contribution may have been cached before the block of the contribute transaction
+                iexecHubService.evictChainContributionReadBefore(chainTaskId, walletAddress,
+                        getReceiptBlockNumber(statusUpdate));
                 chainContribution = iexecHubService.getChainContribution(chainTaskId, walletAddress).orElse(null);
                 break;
             case RESULT_UPLOADED:
@@ -266,6 +418,30 @@ public class ReplicatesService {
                 .build();
     }
 
+    /**
+     * Computes arguments used by {@link ReplicatesService#updateReplicateStatuses(String, String, List, List)},
+     * in the order of the status updates.
+     * <p>
+     * This reads the chain and should be called before taking the replicate lock.
+     * Statuses already reported by the cached replicate are skipped with empty arguments,
+     * they are rejected as already reported once the lock is taken.
+     */
+    public List<UpdateReplicateStatusArgs> computeUpdateReplicateStatusesArgs(String chainTaskId,
+                                                                              String walletAddress,
+                                                                              List<ReplicateStatusUpdate> statusUpdates) {
+        final Optional<Replicate> oReplicate = getReplicate(chainTaskId, walletAddress);
+        final List<UpdateReplicateStatusArgs> updateReplicateStatusesArgs = new ArrayList<>(statusUpdates.size());
+        for (ReplicateStatusUpdate statusUpdate : statusUpdates) {
+            final boolean isAlreadyReported = oReplicate
+                    .map(replicate -> replicate.containsStatus(statusUpdate.getStatus()))
+                    .orElse(false);
+            updateReplicateStatusesArgs.add(isAlreadyReported
+                    ? UpdateReplicateStatusArgs.builder().build()
+                    : computeUpdateReplicateStatusArgs(chainTaskId, walletAddress, statusUpdate));
+        }
+        return updateReplicateStatusesArgs;
+    }
+
     /*
      * This implicitly sets the modifier to POOL_MANAGER
      *
@@ -407,18 +583,207 @@ public class ReplicatesService {
             return Optional.empty();
         }
 
-        ReplicatesList replicatesList = getReplicatesList(chainTaskId).orElseThrow();           // "get" could be used there but triggers a warning
-        Replicate replicate = replicatesList.getReplicateOfWorker(walletAddress).orElseThrow(); // "get" could be used there but triggers a warning
+        // cached lists are shared with readers, the update is prepared on a private copy
+        ReplicatesList replicatesList = replicatesRepository.findByChainTaskId(chainTaskId).orElseThrow(); // "get" could be used there but triggers a warning
+        Replicate replicate = replicatesList.getReplicateOfWorker(walletAddress).orElseThrow();            // "get" could be used there but triggers a warning
         ReplicateStatus newStatus = statusUpdate.getStatus();
+        // the update is saved only if no other status update has been appended to the replicate since this read
+        final int nbKnownStatusUpdates = replicate.getStatusUpdateList().size();
+        final boolean isCheckedHistoryOutdated = getReplicate(chainTaskId, walletAddress)
+                .map(checkedReplicate -> checkedReplicate.getStatusUpdateList().size() != nbKnownStatusUpdates)
+                .orElse(true);
+        if (isCheckedHistoryOutdated) {
+            replicatesListCache.evict(chainTaskId);
+            throw new OptimisticLockingFailureException(String.format(
+                    "Replicate has been checked against an outdated history [chainTaskId:%s, walletAddress:%s]",
+                    chainTaskId, walletAddress));
+        }
+        final Update update = new Update();
+        final Map<String, Integer> statusSummaryIncrements = new HashMap<>();
+        prepareStatusUpdate(chainTaskId, replicatesList, replicate, statusUpdate, updateReplicateStatusArgs,
+                update, statusSummaryIncrements);
+        incrementStatusSummary(update, statusSummaryIncrements);
+        update.push(FILTERED_REPLICATE_PATH + Replicate.STATUS_UPDATE_LIST_FIELD_NAME, statusUpdate)
+                .set(FILTERED_REPLICATE_PATH + Replicate.CURRENT_STATUS_FIELD_NAME, replicate.getCurrentStatus())
+                .set(FILTERED_REPLICATE_PATH + Replicate.LAST_RELEVANT_STATUS_FIELD_NAME,
+                        replicate.getLastRelevantStatus().orElse(null))
+                .addToSet(FILTERED_REPLICATE_PATH + Replicate.SEEN_STATUSES_FIELD_NAME, newStatus);
+        saveStatusUpdate(chainTaskId, walletAddress, nbKnownStatusUpdates, update);
+        applicationEventPublisher.publishEvent(new ReplicateUpdatedEvent(chainTaskId, walletAddress, statusUpdate));
+        ReplicateStatusCause newStatusCause = statusUpdate.getDetails() != null ?
+                statusUpdate.getDetails().getCause() : null;
+        TaskNotificationType nextAction = ReplicateWorkflow.getInstance().getNextAction(newStatus, newStatusCause);
+
+        log.info("Replicate updated successfully [newStatus:{}, newStatusCause:{} " +
+                        "nextAction:{}, chainTaskId:{}, walletAddress:{}]",
+                replicate.getCurrentStatus(), newStatusCause, nextAction, chainTaskId, walletAddress);
+
+        return Optional.ofNullable(nextAction);
+    }
+
+    /**
+     * Appends an ordered chain of status updates to the replicate of a worker, within a single write.
+     * <p>
+     * Each update is checked as {@link ReplicatesService#canUpdateReplicateStatus(String, String, ReplicateStatusUpdate, UpdateReplicateStatusArgs)}
+     * does, against the replicate state reached through the previous updates of the chain:
+     * <ul>
+     *     <li>Updates already reported are skipped, so that a worker can send a batch again.</li>
+     *     <li>The chain stops at the first rejected update, the updates before it are saved nonetheless.</li>
+     * </ul>
+     * A single {@link ReplicateBatchUpdatedEvent} is published for all saved updates,
+     * so that the task is updated at most once.
+     *
+     * @param chainTaskId   Chain task id of the task whose replicate should be updated.
+     * @param walletAddress Wallet address of the worker whose replicate should be updated.
+     * @param statusUpdates Status updates of the replicate, in the order they have been reached.
+     * @param updateReplicateStatusesArgs Args of each status update, computed by
+     *                                    {@link ReplicatesService#computeUpdateReplicateStatusesArgs(String, String, List)}.
+     * @return The outcome of the batch for this task.
+     */
+    @Retryable(value = {OptimisticLockingFailureException.class}, maxAttempts = 100)
+    public ReplicateStatusUpdateBatchResult updateReplicateStatuses(String chainTaskId,
+                                                                    String walletAddress,
+                                                                    List<ReplicateStatusUpdate> statusUpdates,
+                                                                    List<UpdateReplicateStatusArgs> updateReplicateStatusesArgs) {
+        // Same lock as single status updates of this replicate.
+        final String lockKey = chainTaskId + walletAddress;
+        return replicatesUpdateLockRunner.getWithLock(
+                lockKey,
+                () -> updateReplicateStatusesWithoutThreadSafety(chainTaskId, walletAddress, statusUpdates,
+                        updateReplicateStatusesArgs)
+        );
+    }
+
+    @Recover
+    public ReplicateStatusUpdateBatchResult updateReplicateStatuses(OptimisticLockingFailureException exception,
+                                                                    String chainTaskId,
+                                                                    String walletAddress,
+                                                                    List<ReplicateStatusUpdate> statusUpdates,
+                                                                    List<UpdateReplicateStatusArgs> updateReplicateStatusesArgs) {
+        logUpdateReplicateStatusRecover(exception);
+        return ReplicateStatusUpdateBatchResult.builder()
+                .chainTaskId(chainTaskId)
+                .error(ReplicateStatusUpdateError.GENERIC_CANT_UPDATE)
+                .build();
+    }
+
+    /**
+     * This method updates a replicate with a chain of status updates but does not care about thread safety.
+     * It has to be used with a synchronization mechanism, e.g.
+     * {@link ReplicatesService#updateReplicateStatuses(String, String, List, List)}
+     */
+    ReplicateStatusUpdateBatchResult updateReplicateStatusesWithoutThreadSafety(String chainTaskId,
+                                                                               String walletAddress,
+                                                                               List<ReplicateStatusUpdate> statusUpdates,
+                                                                               List<UpdateReplicateStatusArgs> updateReplicateStatusesArgs) {
+        log.info("Replicate batch update request [statuses:{}, chainTaskId:{}, walletAddress:{}]",
+                statusUpdates.stream().map(ReplicateStatusUpdate::getStatus).collect(Collectors.toList()),
+                chainTaskId, walletAddress);
+        final ReplicateStatusUpdateBatchResult.ReplicateStatusUpdateBatchResultBuilder result =
+                ReplicateStatusUpdateBatchResult.builder().chainTaskId(chainTaskId);
+
+        // the chain is checked and prepared on a private copy, each update is checked against the state reached so far
+        final Optional<ReplicatesList> oReplicatesList = replicatesRepository.findByChainTaskId(chainTaskId);
+        final Optional<Replicate> oReplicate = oReplicatesList
+                .flatMap(replicatesList -> replicatesList.getReplicateOfWorker(walletAddress));
+        if (oReplicate.isEmpty()) {
+            log.error("Cannot update replicate, could not get replicate [chainTaskId:{}, walletAddress:{}]",
+                    chainTaskId, walletAddress);
+            return result.error(ReplicateStatusUpdateError.UNKNOWN_REPLICATE).build();
+        }
+        final ReplicatesList replicatesList = oReplicatesList.get();
+        final Replicate replicate = oReplicate.get();
+        // the updates are saved only if no other status update has been appended to the replicate since this read
+        final int nbKnownStatusUpdates = replicate.getStatusUpdateList().size();
+        final Update update = new Update();
+        final Map<String, Integer> statusSummaryIncrements = new HashMap<>();
+        final List<ReplicateStatusUpdate> savedStatusUpdates = new ArrayList<>();
+        ReplicateStatusUpdateError error = ReplicateStatusUpdateError.NO_ERROR;
+        boolean hasAlreadyReportedUpdates = false;
+
+        for (int i = 0; i < statusUpdates.size(); i++) {
+            final ReplicateStatusUpdate statusUpdate = statusUpdates.get(i);
+            final UpdateReplicateStatusArgs updateReplicateStatusArgs = updateReplicateStatusesArgs.get(i);
+            final ReplicateStatusUpdateError updateError =
+                    canUpdateReplicateStatus(chainTaskId, replicate, statusUpdate, updateReplicateStatusArgs);
+            if (updateError == ReplicateStatusUpdateError.ALREADY_REPORTED) {
+                hasAlreadyReportedUpdates = true;
+                continue;
+            }
+            if (updateError != ReplicateStatusUpdateError.NO_ERROR) {
+                error = updateError;
+                break;
+            }
+            prepareStatusUpdate(chainTaskId, replicatesList, replicate, statusUpdate, updateReplicateStatusArgs,
+                    update, statusSummaryIncrements);
+            savedStatusUpdates.add(statusUpdate);
+        }
+        result.error(error);
+
+        if (savedStatusUpdates.isEmpty()) {
+            // as for a single update already reported, the worker should wait for its next action
+            return result
+                    .nextAction(hasAlreadyReportedUpdates && error == ReplicateStatusUpdateError.NO_ERROR
+                            ? TaskNotificationType.PLEASE_WAIT : null)
+                    .build();
+        }
+
+        incrementStatusSummary(update, statusSummaryIncrements);
+        update.push(FILTERED_REPLICATE_PATH + Replicate.STATUS_UPDATE_LIST_FIELD_NAME)
+                .each(savedStatusUpdates.toArray())
+                .set(FILTERED_REPLICATE_PATH + Replicate.CURRENT_STATUS_FIELD_NAME, replicate.getCurrentStatus())
+                .set(FILTERED_REPLICATE_PATH + Replicate.LAST_RELEVANT_STATUS_FIELD_NAME,
+                        replicate.getLastRelevantStatus().orElse(null))
+                .addToSet(FILTERED_REPLICATE_PATH + Replicate.SEEN_STATUSES_FIELD_NAME)
+                .each(savedStatusUpdates.stream().map(ReplicateStatusUpdate::getStatus).toArray());
+        saveStatusUpdate(chainTaskId, walletAddress, nbKnownStatusUpdates, update);
+        applicationEventPublisher.publishEvent(
+                new ReplicateBatchUpdatedEvent(chainTaskId, walletAddress, savedStatusUpdates));
+
+        final ReplicateStatusUpdate lastStatusUpdate = savedStatusUpdates.get(savedStatusUpdates.size() - 1);
+        final ReplicateStatusCause lastStatusCause = lastStatusUpdate.getDetails() != null ?
+                lastStatusUpdate.getDetails().getCause() : null;
+        final TaskNotificationType nextAction = ReplicateWorkflow.getInstance()
+                .getNextAction(lastStatusUpdate.getStatus(), lastStatusCause);
+
+        log.info("Replicate updated successfully by batch [nbSavedUpdates:{}, newStatus:{}, newStatusCause:{}, " +
+                        "nextAction:{}, error:{}, chainTaskId:{}, walletAddress:{}]",
+                savedStatusUpdates.size(), replicate.getCurrentStatus(), lastStatusCause, nextAction, error,
+                chainTaskId, walletAddress);
+
+        return result
+                .nbSavedUpdates(savedStatusUpdates.size())
+                .nextAction(nextAction)
+                .build();
+    }
+
+    /**
+     * Applies a checked status update to a private copy of a replicate,
+     * and adds the matching changes of replicate fields to the given database update.
+     * Changes of the status history and of the {@link ReplicateStatusSummary} are left to the caller,
+     * summary increments are merged into the given map.
+     */
+    private void prepareStatusUpdate(String chainTaskId,
+                                     ReplicatesList replicatesList,
+                                     Replicate replicate,
+                                     ReplicateStatusUpdate statusUpdate,
+                                     UpdateReplicateStatusArgs updateReplicateStatusArgs,
+                                     Update update,
+                                     Map<String, Integer> statusSummaryIncrements) {
+        final ReplicateStatus newStatus = statusUpdate.getStatus();
 
         if (newStatus.equals(CONTRIBUTED)) {
             replicate.setContributionHash(updateReplicateStatusArgs.getChainContribution().getResultHash());
             replicate.setWorkerWeight(updateReplicateStatusArgs.getWorkerWeight());
+            update.set(FILTERED_REPLICATE_PATH + Replicate.CONTRIBUTION_HASH_FIELD_NAME, replicate.getContributionHash())
+                    .set(FILTERED_REPLICATE_PATH + Replicate.WORKER_WEIGHT_FIELD_NAME, replicate.getWorkerWeight());
         }
 
         if (newStatus.equals(RESULT_UPLOADED)) {
             replicate.setResultLink(updateReplicateStatusArgs.getResultLink());
             replicate.setChainCallbackData(updateReplicateStatusArgs.getChainCallbackData());
+            update.set(FILTERED_REPLICATE_PATH + Replicate.RESULT_LINK_FIELD_NAME, replicate.getResultLink())
+                    .set(FILTERED_REPLICATE_PATH + Replicate.CHAIN_CALLBACK_DATA_FIELD_NAME, replicate.getChainCallbackData());
         }
 
         if (statusUpdate.getDetails() != null &&
@@ -428,20 +793,44 @@ public class ReplicatesService {
             taskLogsService.addComputeLogs(chainTaskId, computeLogs);
             statusUpdate.getDetails().setComputeLogs(null);//using null here to keep light replicate
             replicate.setAppComputeLogsPresent(true);
+            update.set(FILTERED_REPLICATE_PATH + Replicate.APP_COMPUTE_LOGS_PRESENT_FIELD_NAME, true);
         }
 
+        replicatesList.getStatusSummary().recordStatusUpdate(replicate, newStatus).forEach((path, increment) ->
+                // a null sum removes the increment, increments of successive updates may cancel each other
+                statusSummaryIncrements.merge(path, increment, (sum, delta) -> sum + delta == 0 ? null : sum + delta));
         replicate.updateStatus(statusUpdate);
-        replicatesRepository.save(replicatesList);
-        applicationEventPublisher.publishEvent(new ReplicateUpdatedEvent(chainTaskId, walletAddress, statusUpdate));
-        ReplicateStatusCause newStatusCause = statusUpdate.getDetails() != null ?
-                statusUpdate.getDetails().getCause() : null;
-        TaskNotificationType nextAction = ReplicateWorkflow.getInstance().getNextAction(newStatus, newStatusCause);
-
-        log.info("Replicate updated successfully [newStatus:{}, newStatusCause:{} " +
-                        "nextAction:{}, chainTaskId:{}, walletAddress:{}]",
-                replicate.getCurrentStatus(), newStatusCause, nextAction, chainTaskId, walletAddress);
+    }
 
-        return Optional.ofNullable(nextAction);
+    /**
+     * Appends a status update to the replicate of a worker, in place, without rewriting the whole {@link ReplicatesList}.
+     * <p>
+     * The update is applied only if the replicate still has the status history the update has been checked against.
+     * Updates of replicates of other workers do not modify this history, so they never conflict with this one.
+     * The version of the {@link ReplicatesList} is bumped nonetheless,
+     * so that new replicates claims based on the previous state fail.
+     * The updated {@link ReplicatesList} replaces the cached one.
+     *
+     * @throws OptimisticLockingFailureException if the replicate has been updated in the meantime,
+     *                                           the status update is then checked again against the new history.
+     */
+    private void saveStatusUpdate(String chainTaskId, String walletAddress, int nbKnownStatusUpdates, Update update) {
+        final Query query = Query.query(Criteria
+                .where(ReplicatesList.CHAIN_TASK_ID_FIELD_NAME).is(chainTaskId)
+                .and(ReplicatesList.REPLICATES_FIELD_NAME).elemMatch(Criteria
+                        .where(Replicate.WALLET_ADDRESS_FIELD_NAME).is(walletAddress)
+                        .and(Replicate.STATUS_UPDATE_LIST_FIELD_NAME).size(nbKnownStatusUpdates)));
+        update.inc(ReplicatesList.VERSION_FIELD_NAME, 1)
+                .filterArray(Criteria.where(FILTERED_REPLICATE + "." + Replicate.WALLET_ADDRESS_FIELD_NAME).is(walletAddress));
+        final ReplicatesList updatedReplicatesList = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), ReplicatesList.class);
+        if (updatedReplicatesList == null) {
+            replicatesListCache.evict(chainTaskId);
+            throw new OptimisticLockingFailureException(String.format(
+                    "Replicate has been updated in the meantime [chainTaskId:%s, walletAddress:%s]",
+                    chainTaskId, walletAddress));
+        }
+        replicatesListCache.put(updatedReplicatesList);
     }
 
     private void logUpdateReplicateStatusRecover(OptimisticLockingFailureException exception) {
@@ -453,9 +842,7 @@ public class ReplicatesService {
                                                  ReplicateStatusUpdate statusUpdate,
                                                  UpdateReplicateStatusArgs updateReplicateStatusArgs) {
         ReplicateStatus newStatus = statusUpdate.getStatus();
-        ReplicateStatusDetails details = statusUpdate.getDetails();
-        long receiptBlockNumber = details != null && details.getChainReceipt() != null
-                ? details.getChainReceipt().getBlockNumber() : 0;
+        long receiptBlockNumber = getReceiptBlockNumber(statusUpdate);
 
         boolean isBlockAvailable = web3jService.isBlockAvailable(receiptBlockNumber);
         if (!isBlockAvailable) {
@@ -463,6 +850,8 @@ public class ReplicatesService {
                     getStatusUpdateLogs(chainTaskId, replicate, statusUpdate));
             return false;
         }
+        // the contribution checked below must not predate the block of the receipt
+        iexecHubService.evictChainContributionReadBefore(chainTaskId, replicate.getWalletAddress(), receiptBlockNumber);
 
         if (!verifyStatus(chainTaskId, replicate.getWalletAddress(), newStatus, updateReplicateStatusArgs)) {
             log.error("Cannot update replicate, status is not correct {}",
@@ -481,6 +870,12 @@ public class ReplicatesService {
         return true;
     }
 
+    private static long getReceiptBlockNumber(ReplicateStatusUpdate statusUpdate) {
+        ReplicateStatusDetails details = statusUpdate.getDetails();
+        return details != null && details.getChainReceipt() != null
+                ? details.getChainReceipt().getBlockNumber() : 0;
+    }
+
     private boolean canUpdateToUploadSuccess(String chainTaskId,
                                              Replicate replicate,
                                              ReplicateStatusUpdate statusUpdate,
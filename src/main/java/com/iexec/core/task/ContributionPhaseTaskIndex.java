@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of tasks in contribution phase,
+ * i.e. {@link TaskStatus#INITIALIZED} or {@link TaskStatus#RUNNING} tasks.
+ * <p>
+ * Tasks are sorted the same way they would be by the DB:
+ * {@link TaskStatus#RUNNING} tasks first, then by ascending contribution deadline.
+ * <p>
+ * Only an immutable snapshot of the fields needed to sort tasks and to supply replicates
+ * is kept when a task is indexed. The {@link Task} instance given by the caller keeps
+ * being modified by task updates, so it is never shared with index readers:
+ * each of them gets its own detached copy of the snapshot.
+ */
+class ContributionPhaseTaskIndex {
+
+    private static final Comparator<Entry> PRIORITY_COMPARATOR =
+            Comparator.comparing((Entry entry) -> entry.status, Comparator.reverseOrder())
+                    .thenComparing(entry -> entry.contributionDeadline, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(entry -> entry.chainTaskId);
+
+    private final ConcurrentSkipListSet<Entry> prioritizedEntries = new ConcurrentSkipListSet<>(PRIORITY_COMPARATOR);
+    private final Map<String, Entry> entriesByChainTaskId = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the whole content of the index with given tasks.
+     * Tasks that are not in contribution phase are ignored.
+     *
+     * @param tasks Tasks to index.
+     */
+    synchronized void rebuild(Collection<Task> tasks) {
+        prioritizedEntries.clear();
+        entriesByChainTaskId.clear();
+        tasks.forEach(this::update);
+    }
+
+    /**
+     * Indexes the last known state of a task.
+     * If the task is not in contribution phase anymore, it is removed from the index.
+     *
+     * @param task Task to index.
+     */
+    synchronized void update(Task task) {
+        if (task == null || task.getChainTaskId() == null) {
+            return;
+        }
+        final Entry previousEntry = entriesByChainTaskId.remove(task.getChainTaskId());
+        if (previousEntry != null) {
+            prioritizedEntries.remove(previousEntry);
+        }
+        if (TaskStatus.isInContributionPhase(task.getCurrentStatus())) {
+            final Entry entry = new Entry(task);
+            entriesByChainTaskId.put(entry.chainTaskId, entry);
+            prioritizedEntries.add(entry);
+        }
+    }
+
+    /**
+     * Returns a lazy {@link Stream} over indexed tasks, sorted by priority.
+     * <p>
+     * The stream is weakly consistent: it never fails on concurrent updates
+     * but it may or may not reflect them.
+     * Returned tasks are detached copies only holding indexed fields.
+     *
+     * @return Indexed tasks, the most prioritized first.
+     */
+    Stream<Task> streamPrioritizedTasks() {
+        return prioritizedEntries.stream().map(Entry::toTask);
+    }
+
+    boolean contains(String chainTaskId) {
+        return entriesByChainTaskId.containsKey(chainTaskId);
+    }
+
+    int size() {
+        return entriesByChainTaskId.size();
+    }
+
+    private static class Entry {
+        private final String chainTaskId;
+        private final TaskStatus status;
+        private final Date contributionDeadline;
+        private final String tag;
+        private final int trust;
+        private final long maxExecutionTime;
+        private final String enclaveChallenge;
+
+        private Entry(Task task) {
+            this.chainTaskId = task.getChainTaskId();
+            this.status = task.getCurrentStatus();
+            this.contributionDeadline = task.getContributionDeadline() != null
+                    ? new Date(task.getContributionDeadline().getTime())
+                    : null;
+            this.tag = task.getTag();
+            this.trust = task.getTrust();
+            this.maxExecutionTime = task.getMaxExecutionTime();
+            this.enclaveChallenge = task.getEnclaveChallenge();
+        }
+
+        private Task toTask() {
+            return Task.builder()
+                    .chainTaskId(chainTaskId)
+                    .currentStatus(status)
+                    .contributionDeadline(contributionDeadline != null ? new Date(contributionDeadline.getTime()) : null)
+                    .tag(tag)
+                    .trust(trust)
+                    .maxExecutionTime(maxExecutionTime)
+                    .enclaveChallenge(enclaveChallenge)
+                    .build();
+        }
+    }
+}
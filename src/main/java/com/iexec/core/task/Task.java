@@ -56,6 +56,8 @@ import static com.iexec.core.task.TaskStatus.CONSENSUS_REACHED;
         unique = true)
 public class Task {
 
+    public static final String VERSION_FIELD_NAME               = "version";
+    public static final String CHAIN_TASK_ID_FIELD_NAME         = "chainTaskId";
     public static final String CURRENT_STATUS_FIELD_NAME        = "currentStatus";
     public static final String CONTRIBUTION_DEADLINE_FIELD_NAME = "contributionDeadline";
     /**
@@ -67,9 +69,11 @@ public class Task {
     private String id;
 
     @Version
+    @Field(VERSION_FIELD_NAME)
     private Long version;
 
     @Indexed(unique = true)
+    @Field(CHAIN_TASK_ID_FIELD_NAME)
     private String chainTaskId;
 
     private String chainDealId;
@@ -18,33 +18,43 @@ package com.iexec.core.task;
 
 import com.iexec.common.chain.ChainTask;
 import com.iexec.common.chain.ChainTaskStatus;
-import com.iexec.common.tee.TeeUtils;
 import com.iexec.core.chain.IexecHubService;
 import com.iexec.core.replicate.ReplicatesList;
 import com.iexec.core.replicate.ReplicatesService;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import javax.annotation.PostConstruct;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.iexec.core.task.TaskStatus.*;
 
 @Slf4j
 @Service
 public class TaskService {
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
     private final TaskRepository taskRepository;
+    private final MongoTemplate mongoTemplate;
     private final IexecHubService iexecHubService;
     private final ReplicatesService replicatesService;
+    private final ContributionPhaseTaskIndex contributionPhaseTaskIndex = new ContributionPhaseTaskIndex();
 
     public TaskService(TaskRepository taskRepository,
+                       MongoTemplate mongoTemplate,
                        IexecHubService iexecHubService,
                        ReplicatesService replicatesService) {
         this.taskRepository = taskRepository;
+        this.mongoTemplate = mongoTemplate;
         this.iexecHubService = iexecHubService;
         this.replicatesService = replicatesService;
     }
@@ -100,6 +110,45 @@ public class TaskService {
                 });
     }
 
+    /**
+     * Saves new tasks in database with a single unordered bulk insert.
+     * <p>
+     * Tasks which already exist are not inserted thanks to the {@code unique_deal_idx} index,
+     * so that a deal can be replayed.
+     * Callers should split large bags of tasks into reasonable chunks.
+     *
+     * @param tasks New tasks to save
+     * @return Saved tasks, without tasks which already existed or could not be saved.
+     */
+    public List<Task> addTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        // Versions are not initialized by bulk inserts as they are by repository saves
+        tasks.forEach(task -> task.setVersion(0L));
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)
+                    .insert(tasks)
+                    .execute();
+            return tasks;
+        } catch (BulkOperationException e) {
+            final Set<Integer> notInsertedIndexes = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                notInsertedIndexes.add(error.getIndex());
+                if (error.getCode() != DUPLICATE_KEY_ERROR_CODE) {
+                    log.error("Failed to add task [chainTaskId:{}, error:{}]",
+                            tasks.get(error.getIndex()).getChainTaskId(), error.getMessage());
+                }
+            }
+            log.info("Some tasks already added [nbTasks:{}, nbNotAddedTasks:{}]",
+                    tasks.size(), notInsertedIndexes.size());
+            return IntStream.range(0, tasks.size())
+                    .filter(index -> !notInsertedIndexes.contains(index))
+                    .mapToObj(tasks::get)
+                    .collect(Collectors.toList());
+        }
+    }
+
     /**
      * Updates a task if it already exists in DB.
      * Otherwise, will not do anything.
@@ -109,7 +158,61 @@ public class TaskService {
     public Optional<Task> updateTask(Task task) {
         return taskRepository
                 .findByChainTaskId(task.getChainTaskId())
-                .map(existingTask -> taskRepository.save(task));
+                .map(existingTask -> {
+                    final Task savedTask = taskRepository.save(task);
+                    contributionPhaseTaskIndex.update(savedTask);
+                    return savedTask;
+                });
+    }
+
+    /**
+     * Updates several tasks with a single bulk write.
+     * <p>
+     * A task is only updated if it has not been modified in DB since it has been read,
+     * as checked by its version.
+     * <p>
+     * Updated tasks can't be told apart from others in the bulk write result.
+     * If all tasks have been updated, their versions are bumped and they are indexed.
+     * Otherwise, given tasks keep the version they have been read with and should be read again,
+     * the contribution phase index is then refreshed from the DB state of all given tasks.
+     *
+     * @param tasks Tasks to update.
+     * @return The number of updated tasks.
+     */
+    public int updateTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        final Map<String, Long> readVersions = new HashMap<>();
+        final BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class);
+        for (Task task : tasks) {
+            final Long version = task.getVersion();
+            readVersions.put(task.getChainTaskId(), version);
+            // The replacement document holds the new version
+            task.setVersion(version == null ? 0 : version + 1);
+            bulkOperations.replaceOne(
+                    Query.query(Criteria.where(Task.CHAIN_TASK_ID_FIELD_NAME).is(task.getChainTaskId())
+                            .and(Task.VERSION_FIELD_NAME).is(version)),
+                    task);
+        }
+        final int nbUpdatedTasks;
+        try {
+            nbUpdatedTasks = bulkOperations.execute().getMatchedCount();
+        } catch (RuntimeException e) {
+            tasks.forEach(task -> task.setVersion(readVersions.get(task.getChainTaskId())));
+            throw e;
+        }
+        if (nbUpdatedTasks == tasks.size()) {
+            tasks.forEach(contributionPhaseTaskIndex::update);
+        } else {
+            tasks.forEach(task -> task.setVersion(readVersions.get(task.getChainTaskId())));
+            final List<String> chainTaskIds = tasks.stream()
+                    .map(Task::getChainTaskId)
+                    .collect(Collectors.toList());
+            taskRepository.findByChainTaskId(chainTaskIds).forEach(contributionPhaseTaskIndex::update);
+        }
+        log.debug("Updated tasks [nbTasks:{}, nbUpdatedTasks:{}]", tasks.size(), nbUpdatedTasks);
+        return nbUpdatedTasks;
     }
 
     public Optional<Task> getTaskByChainTaskId(String chainTaskId) {
@@ -129,66 +232,38 @@ public class TaskService {
     }
 
     /**
-     * Retrieves the first {@link TaskStatus#INITIALIZED}
-     * or {@link TaskStatus#RUNNING} task from the DB,
-     * depending on current statuses and contribution deadlines.
+     * Retrieves {@link TaskStatus#INITIALIZED} and {@link TaskStatus#RUNNING} tasks
+     * from the in-memory {@link ContributionPhaseTaskIndex},
+     * sorted by current status and contribution deadline.
      * <p>
      * If {@code shouldExcludeTeeTasks} is {@literal true},
      * then only standard tasks are retrieved.
      * Otherwise, all tasks are retrieved.
      * <p>
-     * Tasks can be excluded with {@code excludedChainTaskIds}.
+     * The returned {@link Stream} is lazy, so that callers can stop
+     * as soon as they have found a suitable task.
      *
      * @param shouldExcludeTeeTasks Whether TEE tasks should be retrieved
      *                              as well as standard tasks.
-     * @param excludedChainTaskIds Tasks to exclude from retrieval.
-     * @return The first task which is {@link TaskStatus#INITIALIZED}
-     * or {@link TaskStatus#RUNNING},
-     * or {@link Optional#empty()} if no task meets the requirements.
+     * @return Tasks which are {@link TaskStatus#INITIALIZED} or {@link TaskStatus#RUNNING},
+     * the most prioritized first.
      */
-    public Optional<Task> getPrioritizedInitializedOrRunningTask(
-            boolean shouldExcludeTeeTasks,
-            List<String> excludedChainTaskIds) {
-        final String excludedTag = shouldExcludeTeeTasks
-                ? TeeUtils.TEE_TAG
-                : null;
-        return findPrioritizedTask(
-                Arrays.asList(INITIALIZED, RUNNING),
-                excludedTag,
-                excludedChainTaskIds,
-                Sort.by(Sort.Order.desc(Task.CURRENT_STATUS_FIELD_NAME),
-                        Sort.Order.asc(Task.CONTRIBUTION_DEADLINE_FIELD_NAME)));
+    public Stream<Task> getPrioritizedInitializedOrRunningTasks(boolean shouldExcludeTeeTasks) {
+        return contributionPhaseTaskIndex.streamPrioritizedTasks()
+                .filter(task -> !shouldExcludeTeeTasks || !task.isTeeTask());
     }
 
     /**
-     * Shortcut for {@link TaskRepository#findFirstByCurrentStatusInAndTagNotAndChainTaskIdNotIn}.
-     * Retrieves the prioritized task matching with given criteria:
-     * <ul>
-     *     <li>Task is in one of given {@code statuses};</li>
-     *     <li>Task has not given {@code excludedTag}
-     *          - this is mainly used to exclude TEE tasks;
-     *     </li>
-     *     <li>Chain task ID is not one of the given {@code excludedChainTaskIds};</li>
-     *     <li>Tasks are prioritized according to the {@code sort} parameter.</li>
-     * </ul>
-     *
-     * @param statuses             The task status should be one of this list.
-     * @param excludedTag          The task tag should not be this tag
-     *                             - use {@literal null} if no tag should be excluded.
-     * @param excludedChainTaskIds The chain task ID should not be one of this list.
-     * @param sort                 How to prioritize tasks.
-     * @return The first task matching with the criteria, according to the {@code sort} parameter.
+     * Loads all {@link TaskStatus#INITIALIZED} and {@link TaskStatus#RUNNING} tasks
+     * from the DB into the {@link ContributionPhaseTaskIndex}.
+     * <p>
+     * The index is then kept up-to-date by {@link TaskService#updateTask(Task)}.
      */
-    private Optional<Task> findPrioritizedTask(List<TaskStatus> statuses,
-                                               String excludedTag,
-                                               List<String> excludedChainTaskIds,
-                                               Sort sort) {
-        return taskRepository.findFirstByCurrentStatusInAndTagNotAndChainTaskIdNotIn(
-                statuses,
-                excludedTag,
-                excludedChainTaskIds,
-                sort
-        );
+    @PostConstruct
+    void rebuildContributionPhaseTaskIndex() {
+        final List<Task> tasks = taskRepository.findByCurrentStatus(TaskStatus.getWaitingContributionStatuses());
+        contributionPhaseTaskIndex.rebuild(tasks);
+        log.info("Contribution phase task index rebuilt [size:{}]", contributionPhaseTaskIndex.size());
     }
 
     public List<Task> getTasksInNonFinalStatuses() {
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task.event;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Published when a batch of tasks of a bag-of-tasks deal has been created,
+ * instead of a {@link TaskCreatedEvent} per task.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class DealTasksCreatedEvent implements TasksCreatedEvent {
+
+    private String chainDealId;
+    private List<String> chainTaskIds;
+}
@@ -23,7 +23,7 @@ import lombok.*;
 @AllArgsConstructor
 @Getter
 @Setter
-public class TaskCreatedEvent {
+public class TaskCreatedEvent implements TasksCreatedEvent {
 
     private String chainTaskId;
 }
@@ -20,6 +20,8 @@ import com.iexec.common.replicate.ReplicateStatus;
 import com.iexec.common.replicate.ReplicateStatusCause;
 import com.iexec.common.replicate.ReplicateStatusUpdate;
 import com.iexec.core.detector.replicate.ContributionUnnotifiedDetector;
+import com.iexec.core.replicate.ReplicateBatchUpdatedEvent;
+import com.iexec.core.replicate.ReplicateLongPollingService;
 import com.iexec.core.replicate.ReplicateUpdatedEvent;
 import com.iexec.core.replicate.ReplicatesService;
 import com.iexec.core.task.update.TaskUpdateRequestManager;
@@ -38,25 +40,44 @@ public class ReplicateListeners {
     private final WorkerService workerService;
     private final ContributionUnnotifiedDetector contributionUnnotifiedDetector;
     private final ReplicatesService replicatesService;
+    private final ReplicateLongPollingService replicateLongPollingService;
 
     public ReplicateListeners(WorkerService workerService,
                               TaskUpdateRequestManager taskUpdateRequestManager,
                               ContributionUnnotifiedDetector contributionUnnotifiedDetector,
-                              ReplicatesService replicatesService) {
+                              ReplicatesService replicatesService,
+                              ReplicateLongPollingService replicateLongPollingService) {
         this.workerService = workerService;
         this.taskUpdateRequestManager = taskUpdateRequestManager;
         this.contributionUnnotifiedDetector = contributionUnnotifiedDetector;
         this.replicatesService = replicatesService;
+        this.replicateLongPollingService = replicateLongPollingService;
     }
 
     @EventListener
     public void onReplicateUpdatedEvent(ReplicateUpdatedEvent event) {
         log.debug("Received ReplicateUpdatedEvent [chainTaskId:{}] ", event.getChainTaskId());
-        ReplicateStatusUpdate statusUpdate = event.getReplicateStatusUpdate();
-        ReplicateStatus newStatus = statusUpdate.getStatus();
-        ReplicateStatusCause cause = statusUpdate.getDetails() != null ? statusUpdate.getDetails().getCause() : null;
+        taskUpdateRequestManager.publishRequest(event.getChainTaskId());
+        onReplicateStatusUpdate(event.getChainTaskId(), event.getWalletAddress(), event.getReplicateStatusUpdate());
+    }
 
+    /**
+     * Requests a single task update for all status updates of the batch,
+     * then reacts to each status update as for a single one.
+     */
+    @EventListener
+    public void onReplicateBatchUpdatedEvent(ReplicateBatchUpdatedEvent event) {
+        log.debug("Received ReplicateBatchUpdatedEvent [chainTaskId:{}, nbUpdates:{}] ",
+                event.getChainTaskId(), event.getReplicateStatusUpdates().size());
         taskUpdateRequestManager.publishRequest(event.getChainTaskId());
+        for (ReplicateStatusUpdate statusUpdate : event.getReplicateStatusUpdates()) {
+            onReplicateStatusUpdate(event.getChainTaskId(), event.getWalletAddress(), statusUpdate);
+        }
+    }
+
+    private void onReplicateStatusUpdate(String chainTaskId, String walletAddress, ReplicateStatusUpdate statusUpdate) {
+        ReplicateStatus newStatus = statusUpdate.getStatus();
+        ReplicateStatusCause cause = statusUpdate.getDetails() != null ? statusUpdate.getDetails().getCause() : null;
 
         /*
          * Should release 1 CPU of given worker for this replicate if status is
@@ -67,7 +88,7 @@ public class ReplicateListeners {
                 || newStatus.equals(ReplicateStatus.DATA_DOWNLOAD_FAILED)
                 || newStatus.equals(ReplicateStatus.COMPUTED)
                 || newStatus.equals(ReplicateStatus.COMPUTE_FAILED)) {
-            workerService.removeComputedChainTaskIdFromWorker(event.getChainTaskId(), event.getWalletAddress());
+            workerService.removeComputedChainTaskIdFromWorker(chainTaskId, walletAddress);
         }
 
         /*
@@ -85,15 +106,25 @@ public class ReplicateListeners {
          * Should add FAILED status if not completable
          * */
         if (ReplicateStatus.getUncompletableStatuses().contains(newStatus)) {
-            replicatesService.updateReplicateStatus(event.getChainTaskId(),
-                    event.getWalletAddress(), ReplicateStatus.FAILED);
+            replicatesService.updateReplicateStatus(chainTaskId,
+                    walletAddress, ReplicateStatus.FAILED);
         }
 
         /*
          * Should release given worker for this replicate if status is COMPLETED or FAILED
          * */
         if (ReplicateStatus.getFinalStatuses().contains(newStatus)) {
-            workerService.removeChainTaskIdFromWorker(event.getChainTaskId(), event.getWalletAddress());
+            workerService.removeChainTaskIdFromWorker(chainTaskId, walletAddress);
+        }
+
+        /*
+         * A worker slot has been released or a task may need a new replicate
+         * to replace a lost or failed one: parked replicate demands should be served again
+         * */
+        if (ReplicateStatus.getFinalStatuses().contains(newStatus)
+                || newStatus.equals(ReplicateStatus.WORKER_LOST)
+                || newStatus.equals(ReplicateStatus.COMPUTED)) {
+            replicateLongPollingService.onTaskMayNeedReplicates();
         }
     }
 
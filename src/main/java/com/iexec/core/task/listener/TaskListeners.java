@@ -22,6 +22,7 @@ import com.iexec.common.notification.TaskNotificationType;
 import com.iexec.common.task.TaskAbortCause;
 import com.iexec.core.pubsub.NotificationService;
 import com.iexec.core.replicate.Replicate;
+import com.iexec.core.replicate.ReplicateLongPollingService;
 import com.iexec.core.replicate.ReplicatesService;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.event.*;
@@ -43,15 +44,18 @@ public class TaskListeners {
     private final NotificationService notificationService;
     private final ReplicatesService replicatesService;
     private final WorkerService workerService;
+    private final ReplicateLongPollingService replicateLongPollingService;
 
     public TaskListeners(TaskUpdateRequestManager taskUpdateRequestManager,
                          NotificationService notificationService,
                          ReplicatesService replicatesService,
-                         WorkerService workerService) {
+                         WorkerService workerService,
+                         ReplicateLongPollingService replicateLongPollingService) {
         this.taskUpdateRequestManager = taskUpdateRequestManager;
         this.notificationService = notificationService;
         this.replicatesService = replicatesService;
         this.workerService = workerService;
+        this.replicateLongPollingService = replicateLongPollingService;
     }
 
 
@@ -61,6 +65,26 @@ public class TaskListeners {
         taskUpdateRequestManager.publishRequest(event.getChainTaskId());
     }
 
+    @EventListener
+    public void onDealTasksCreatedEvent(DealTasksCreatedEvent event) {
+        log.info("Received DealTasksCreatedEvent [chainDealId:{}, nbTasks:{}]",
+                event.getChainDealId(), event.getChainTaskIds().size());
+        taskUpdateRequestManager.publishRequests(event.getChainTaskIds());
+    }
+
+    @EventListener
+    public void onBlockchainCommandCompletedEvent(BlockchainCommandCompletedEvent event) {
+        log.debug("Received BlockchainCommandCompletedEvent [chainTaskId:{}]", event.getChainTaskId());
+        taskUpdateRequestManager.publishRequest(event.getChainTaskId());
+    }
+
+    @EventListener
+    public void onTaskInContributionPhase(TaskInContributionPhaseEvent event) {
+        log.debug("Received TaskInContributionPhaseEvent [chainTaskId:{}, status:{}]",
+                event.getChainTaskId(), event.getStatus());
+        replicateLongPollingService.onTaskMayNeedReplicates();
+    }
+
     @EventListener
     public void onTaskContributionTimeout(ContributionTimeoutEvent event) {
         String chainTaskId = event.getChainTaskId();
@@ -29,17 +29,23 @@ import java.util.function.Consumer;
 class TaskUpdate implements Runnable, Comparable<TaskUpdate> {
     private final Task task;
     private final Consumer<String> taskUpdater;
+    private final long creationNanos;
 
     TaskUpdate(Task task,
                Consumer<String> taskUpdater) {
         this.task = task;
         this.taskUpdater = taskUpdater;
+        this.creationNanos = System.nanoTime();
     }
 
     public Task getTask() {
         return task;
     }
 
+    long getCreationNanos() {
+        return creationNanos;
+    }
+
     public String getChainTaskId() {
         return task.getChainTaskId();
     }
@@ -56,7 +62,7 @@ class TaskUpdate implements Runnable, Comparable<TaskUpdate> {
      * Updates a task.
      * <br>
      * 2 updates can be run in parallel if they don't target the same task.
-     * Otherwise, the second update will wait until the first one is achieved.
+     * Updates of a task are always run by the same {@link TaskUpdateLane}, one after the other.
      */
     @Override
     public void run() {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task.update;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded executor running the updates of a subset of tasks, the most prioritized first.
+ * <p>
+ * As a task is always updated by the same lane, two updates of a task can't be run concurrently
+ * and no lock is needed.
+ */
+class TaskUpdateLane extends ThreadPoolExecutor {
+
+    static final String DEPTH_METRIC_NAME = "iexec.core.task.update.lane.depth";
+    static final String WAIT_METRIC_NAME = "iexec.core.task.update.lane.wait";
+    static final String DURATION_METRIC_NAME = "iexec.core.task.update.lane.duration";
+
+    private final Timer waitTimer;
+    private final Timer durationTimer;
+    // only accessed by the single thread of this lane
+    private long currentUpdateStartNanos;
+
+    TaskUpdateLane(int laneIndex, MeterRegistry meterRegistry) {
+        super(1, 1, 0, TimeUnit.MILLISECONDS, new TaskUpdatePriorityBlockingQueue());
+        final String lane = String.valueOf(laneIndex);
+        Gauge.builder(DEPTH_METRIC_NAME, getQueue(), Collection::size)
+                .description("Number of task updates waiting in lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(WAIT_METRIC_NAME)
+                .description("Time spent by task updates waiting in lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder(DURATION_METRIC_NAME)
+                .description("Time spent running task updates in lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TaskUpdatePriorityBlockingQueue getQueue() {
+        return (TaskUpdatePriorityBlockingQueue) super.getQueue();
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        currentUpdateStartNanos = System.nanoTime();
+        if (runnable instanceof TaskUpdate) {
+            waitTimer.record(currentUpdateStartNanos - ((TaskUpdate) runnable).getCreationNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+        durationTimer.record(System.nanoTime() - currentUpdateStartNanos, TimeUnit.NANOSECONDS);
+    }
+
+    boolean isIdle() {
+        return getQueue().isEmpty() && getActiveCount() == 0;
+    }
+}
@@ -36,9 +36,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -54,6 +58,8 @@ class TaskUpdateManager  {
     private final WorkerService workerService;
     private final BlockchainAdapterService blockchainAdapterService;
     private final SmsService smsService;
+    // pending blockchain adapter commands by chainTaskId, a completion callback is attached once per command
+    private final Map<String, CompletableFuture<Optional<Boolean>>> pendingCommands = new ConcurrentHashMap<>();
 
     public TaskUpdateManager(TaskService taskService,
                              IexecHubService iexecHubService,
@@ -93,7 +99,7 @@ class TaskUpdateManager  {
 
         switch (currentStatus) {
             case RECEIVED:
-                received2Initializing(task);
+                // initialized in bulk, deal by deal, see TaskUpdateRequestManager
                 break;
             case INITIALIZING:
                 initializing2Initialized(task);
@@ -172,6 +178,16 @@ class TaskUpdateManager  {
         // `savedTask.isPresent()` should always be true if the task exists in the repository.
         if (savedTask.isPresent()) {
             log.info("UpdateTaskStatus succeeded [chainTaskId:{}, currentStatus:{}, newStatus:{}]", task.getChainTaskId(), currentStatus, newStatus);
+            if (TaskStatus.isInContributionPhase(newStatus)) {
+                applicationEventPublisher.publishEvent(TaskInContributionPhaseEvent.builder()
+                        .chainTaskId(task.getChainTaskId())
+                        .status(newStatus)
+                        .build());
+            }
+            if (TaskStatus.isFinalStatus(newStatus)) {
+                // replicates of a task won't change anymore once it is over
+                replicatesService.evictReplicatesList(task.getChainTaskId());
+            }
             return savedTask.get();
         } else {
             log.warn("UpdateTaskStatus failed. Chain Task is probably unknown." +
@@ -181,60 +197,109 @@ class TaskUpdateManager  {
         }
     }
 
-    void received2Initializing(Task task) {
-        boolean isCurrentStatusReceived = task.getCurrentStatus().equals(RECEIVED);
-
-        if (!isCurrentStatusReceived) {
-            log.error("Cannot initialize task [chainTaskId:{}, currentStatus:{}]",
-                    task.getChainTaskId(), task.getCurrentStatus());
-            return;
+    /**
+     * Requests on-chain initialization of {@link TaskStatus#RECEIVED} tasks of a same deal at once.
+     * <p>
+     * Deal-level checks are done once for all tasks
+     * and tasks whose initialization has been requested are moved to {@link TaskStatus#INITIALIZING}
+     * with a single bulk write, as are tasks moved to {@link TaskStatus#INITIALIZE_FAILED}.
+     * <p>
+     * No other transition is run here: once a task is not {@link TaskStatus#RECEIVED} anymore,
+     * it is only updated by its lane. The caller has to publish an update request
+     * for each returned task so that its lane runs its next transitions.
+     *
+     * @param chainDealId  ID of the deal
+     * @param chainTaskIds IDs of tasks of this deal
+     * @return IDs of tasks which should now be updated by their lanes.
+     */
+    List<String> received2Initializing(String chainDealId, List<String> chainTaskIds) {
+        final Date now = new Date();
+        final List<String> chainTaskIdsToUpdate = new ArrayList<>();
+        final List<Task> receivedTasks = new ArrayList<>();
+        for (Task task : taskService.getTasksByChainTaskIds(chainTaskIds)) {
+            if (!RECEIVED.equals(task.getCurrentStatus())) {
+                continue;
+            }
+            if (now.after(task.getFinalDeadline())) {
+                // final deadline is handled by the lane
+                chainTaskIdsToUpdate.add(task.getChainTaskId());
+                continue;
+            }
+            receivedTasks.add(task);
+        }
+        if (receivedTasks.isEmpty()) {
+            return chainTaskIdsToUpdate;
         }
 
         boolean hasEnoughGas = iexecHubService.hasEnoughGas();
-        boolean isTaskUnsetOnChain = iexecHubService.isTaskInUnsetStatusOnChain(task.getChainDealId(), task.getTaskIndex());
-        boolean isBeforeContributionDeadline = iexecHubService.isBeforeContributionDeadline(task.getChainDealId());
-
-        if (!hasEnoughGas || !isTaskUnsetOnChain || !isBeforeContributionDeadline) {
-            log.error("Cannot initialize task [chainTaskId:{}, hasEnoughGas:{}, "
-                            + "isTaskUnsetOnChain:{}, isBeforeContributionDeadline:{}]",
-                    task.getChainTaskId(), hasEnoughGas, isTaskUnsetOnChain,
-                    isBeforeContributionDeadline);
-            return;
+        boolean isBeforeContributionDeadline = iexecHubService.isBeforeContributionDeadline(chainDealId);
+        if (!hasEnoughGas || !isBeforeContributionDeadline) {
+            log.error("Cannot initialize tasks [chainDealId:{}, nbTasks:{}, hasEnoughGas:{}, " +
+                            "isBeforeContributionDeadline:{}]",
+                    chainDealId, receivedTasks.size(), hasEnoughGas, isBeforeContributionDeadline);
+            return chainTaskIdsToUpdate;
+        }
+
+        final List<Task> updatedTasks = new ArrayList<>();
+        for (Task task : receivedTasks) {
+            if (!iexecHubService.isTaskInUnsetStatusOnChain(chainDealId, task.getTaskIndex())) {
+                log.error("Cannot initialize task [chainTaskId:{}, isTaskUnsetOnChain:false]",
+                        task.getChainTaskId());
+                continue;
+            }
+            task.changeStatus(requestInitialize(task) ? INITIALIZING : INITIALIZE_FAILED);
+            updatedTasks.add(task);
+        }
+        if (updatedTasks.isEmpty()) {
+            return chainTaskIdsToUpdate;
         }
 
-        blockchainAdapterService
+        final int nbUpdatedTasks = taskService.updateTasks(updatedTasks);
+        log.info("UpdateTaskStatus succeeded [chainDealId:{}, nbTasks:{}, nbUpdatedTasks:{}]",
+                chainDealId, updatedTasks.size(), nbUpdatedTasks);
+        // Tasks modified in the meantime are read again by their lanes as well
+        updatedTasks.forEach(task -> chainTaskIdsToUpdate.add(task.getChainTaskId()));
+        return chainTaskIdsToUpdate;
+    }
+
+    /**
+     * Requests on-chain initialization of a task and sets its enclave challenge.
+     *
+     * @param task Task to initialize
+     * @return {@literal true} if initialization has been requested
+     * and the enclave challenge has been retrieved, {@literal false} otherwise.
+     */
+    private boolean requestInitialize(Task task) {
+        final Optional<String> chainTaskId = blockchainAdapterService
                 .requestInitialize(task.getChainDealId(), task.getTaskIndex())
-                .filter(chainTaskId -> chainTaskId.equalsIgnoreCase(task.getChainTaskId()))
-                .ifPresentOrElse(chainTaskId -> {
-                    log.info("Requested initialize on blockchain [chainTaskId:{}]",
-                            task.getChainTaskId());
-                    final Optional<String> enclaveChallenge = smsService.getEnclaveChallenge(chainTaskId, task.isTeeTask());
-                    if (enclaveChallenge.isEmpty()) {
-                        log.error("Can't initialize task, enclave challenge is empty" +
-                                " [chainTaskId:{}]", chainTaskId);
-                        updateTaskStatusAndSave(task, INITIALIZE_FAILED);
-                        updateTask(chainTaskId);
-                        return;
-                    }
-                    task.setEnclaveChallenge(enclaveChallenge.get());
-                    updateTaskStatusAndSave(task, INITIALIZING);
-                    //Watch initializing to initialized
-                    updateTask(task.getChainTaskId());
-                }, () -> {
-                    log.error("Failed to request initialize on blockchain [chainTaskId:{}]",
-                            task.getChainTaskId());
-                    updateTaskStatusAndSave(task, INITIALIZE_FAILED);
-                    updateTaskStatusAndSave(task, FAILED);
-                });
+                .filter(id -> id.equalsIgnoreCase(task.getChainTaskId()));
+        if (chainTaskId.isEmpty()) {
+            log.error("Failed to request initialize on blockchain [chainTaskId:{}]",
+                    task.getChainTaskId());
+            return false;
+        }
+        log.info("Requested initialize on blockchain [chainTaskId:{}]", task.getChainTaskId());
+        final Optional<String> enclaveChallenge = smsService.getEnclaveChallenge(task.getChainTaskId(), task.isTeeTask());
+        if (enclaveChallenge.isEmpty()) {
+            log.error("Can't initialize task, enclave challenge is empty" +
+                    " [chainTaskId:{}]", task.getChainTaskId());
+            return false;
+        }
+        task.setEnclaveChallenge(enclaveChallenge.get());
+        return true;
     }
 
     void initializing2Initialized(Task task) {
         if (!INITIALIZING.equals(task.getCurrentStatus())){
             return;
         }
+        final CompletableFuture<Optional<Boolean>> isInitialized =
+                blockchainAdapterService.isInitialized(task.getChainTaskId());
+        if (isCommandPending(task.getChainTaskId(), isInitialized)) {
+            return;
+        }
         // TODO: the block where initialization happened can be found
-        blockchainAdapterService
-                .isInitialized(task.getChainTaskId())
+        isInitialized.join()
                 .ifPresentOrElse(isSuccess -> {
                     if (isSuccess != null && isSuccess) {
                         log.info("Initialized on blockchain (tx mined) [chainTaskId:{}]",
@@ -573,8 +638,12 @@ class TaskUpdateManager  {
     }
 
     void finalizing2Finalized2Completed(Task task) {
-        blockchainAdapterService
-                .isFinalized(task.getChainTaskId())
+        final CompletableFuture<Optional<Boolean>> isFinalized =
+                blockchainAdapterService.isFinalized(task.getChainTaskId());
+        if (isCommandPending(task.getChainTaskId(), isFinalized)) {
+            return;
+        }
+        isFinalized.join()
                 .ifPresentOrElse(isSuccess -> {
                     if (isSuccess != null && isSuccess) {
                         log.info("Finalized on blockchain (tx mined)" +
@@ -600,6 +669,38 @@ class TaskUpdateManager  {
         applicationEventPublisher.publishEvent(new TaskCompletedEvent(task));
     }
 
+    /**
+     * Checks whether a blockchain adapter command is still pending.
+     * If so, the task will be updated again once the command is completed,
+     * so that the current update does not wait for it.
+     * <p>
+     * The completion callback is only attached the first time a pending command is seen,
+     * so that a single {@link BlockchainCommandCompletedEvent} is published per command
+     * however many updates run while it is pending.
+     *
+     * @param chainTaskId       ID of the task
+     * @param commandCompletion completion of the command, as returned by {@link BlockchainAdapterService}
+     * @return {@literal true} if the command is not completed yet, {@literal false} otherwise.
+     */
+    private boolean isCommandPending(String chainTaskId, CompletableFuture<Optional<Boolean>> commandCompletion) {
+        if (commandCompletion.isDone()) {
+            return false;
+        }
+        log.debug("Waiting for command completion [chainTaskId:{}]", chainTaskId);
+        final CompletableFuture<Optional<Boolean>> previousCompletion =
+                pendingCommands.put(chainTaskId, commandCompletion);
+        if (previousCompletion == commandCompletion) {
+            return true;
+        }
+        commandCompletion.thenRun(() -> {
+            pendingCommands.remove(chainTaskId, commandCompletion);
+            // the task has changed onchain, it should not be served from the block cache anymore
+            iexecHubService.evictChainTask(chainTaskId);
+            applicationEventPublisher.publishEvent(new BlockchainCommandCompletedEvent(chainTaskId));
+        });
+        return true;
+    }
+
     void toFailed(Task task) {
         updateTaskStatusAndSave(task, FAILED);
         applicationEventPublisher.publishEvent(new TaskFailedEvent(task.getChainTaskId()));
@@ -18,14 +18,33 @@ package com.iexec.core.task.update;
 
 import com.iexec.core.task.Task;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
-public class TaskUpdatePriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+/**
+ * Unbounded blocking priority queue of {@link TaskUpdate} elements.
+ * <p>
+ * Elements are kept in a binary heap indexed by {@code chainTaskId}:
+ * <ul>
+ *     <li>inserting, removing or taking an element is done in {@code O(log n)};</li>
+ *     <li>checking whether a task is queued is done in {@code O(1)};</li>
+ *     <li>inserting an update of an already queued task replaces the queued update
+ *     and moves it according to its new priority, so that a queue never contains
+ *     two updates of the same task.</li>
+ * </ul>
+ * Updates without {@code chainTaskId} are not indexed and never replaced.
+ */
+public class TaskUpdatePriorityBlockingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final List<TaskUpdate> heap = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+
     /**
      * Inserts the specified element into this priority queue.
      * As the queue is unbounded, this method will never return {@code false}.
@@ -45,6 +64,9 @@ public class TaskUpdatePriorityBlockingQueue extends PriorityBlockingQueue<Runna
      * Inserts the specified element into this priority queue.
      * As the queue is unbounded, this method will never return {@code false}.
      * <br>
+     * If an update of the same task is already queued, it is replaced by this one
+     * and its priority is updated accordingly.
+     * <br>
      * However, if the parameter is not a {@link TaskUpdate},
      * it will throw an {@link UnsupportedOperationException}.
      *
@@ -57,12 +79,211 @@ public class TaskUpdatePriorityBlockingQueue extends PriorityBlockingQueue<Runna
             throw new UnsupportedOperationException("TaskUpdatePriorityBlockingQueue can only have TaskUpdate elements." +
                     " [addedElementClass: " + runnable.getClass().getSimpleName() + "]");
         }
-        return super.offer(runnable);
+        final TaskUpdate taskUpdate = (TaskUpdate) runnable;
+        lock.lock();
+        try {
+            if (!replace(taskUpdate)) {
+                heap.add(taskUpdate);
+                siftUp(heap.size() - 1, taskUpdate);
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable runnable, long timeout, TimeUnit unit) {
+        return offer(runnable);
+    }
+
+    @Override
+    public void put(Runnable runnable) {
+        offer(runnable);
+    }
+
+    /**
+     * Replaces the queued update of the same task, if any, and updates its priority.
+     *
+     * @param taskUpdate The new update of the task
+     * @return {@code true} if an update of this task was queued and has been replaced,
+     * {@code false} otherwise.
+     */
+    public boolean replaceIfPresent(TaskUpdate taskUpdate) {
+        lock.lock();
+        try {
+            return replace(taskUpdate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public TaskUpdate poll() {
+        lock.lock();
+        try {
+            return heap.isEmpty() ? null : removeAt(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public TaskUpdate poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return removeAt(0);
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public TaskUpdate take() throws InterruptedException {
-        return (TaskUpdate) super.take();
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                notEmpty.await();
+            }
+            return removeAt(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public TaskUpdate peek() {
+        lock.lock();
+        try {
+            return heap.isEmpty() ? null : heap.get(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        lock.lock();
+        try {
+            return indexOf(o) >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        lock.lock();
+        try {
+            final int index = indexOf(o);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            heap.clear();
+            positions.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException("Can't drain a queue to itself");
+        }
+        lock.lock();
+        try {
+            int nbDrainedElements = 0;
+            while (nbDrainedElements < maxElements && !heap.isEmpty()) {
+                c.add(removeAt(0));
+                nbDrainedElements++;
+            }
+            return nbDrainedElements;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of this queue, in no particular order.
+     * Removing an element through this iterator removes it from this queue.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        final List<TaskUpdate> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(heap);
+        } finally {
+            lock.unlock();
+        }
+        return new Iterator<>() {
+            private int cursor = 0;
+            private TaskUpdate lastReturned = null;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.size();
+            }
+
+            @Override
+            public Runnable next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = snapshot.get(cursor++);
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                removeElement(lastReturned);
+                lastReturned = null;
+            }
+        };
     }
 
     /**
@@ -101,6 +322,116 @@ public class TaskUpdatePriorityBlockingQueue extends PriorityBlockingQueue<Runna
      * {@code false} otherwise.
      */
     public boolean containsTask(String chainTaskId) {
-        return streamAsTaskUpdate().anyMatch(taskUpdate -> chainTaskId.equals(taskUpdate.getChainTaskId()));
+        lock.lock();
+        try {
+            return positions.containsKey(chainTaskId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // region heap operations, lock should be held
+    private boolean replace(TaskUpdate taskUpdate) {
+        final String chainTaskId = taskUpdate.getChainTaskId();
+        final Integer index = chainTaskId != null ? positions.get(chainTaskId) : null;
+        if (index == null) {
+            return false;
+        }
+        siftDown(siftUp(index, taskUpdate), taskUpdate);
+        return true;
+    }
+
+    private int indexOf(Object o) {
+        if (!(o instanceof TaskUpdate)) {
+            return -1;
+        }
+        final String chainTaskId = ((TaskUpdate) o).getChainTaskId();
+        if (chainTaskId != null) {
+            final Integer index = positions.get(chainTaskId);
+            return index != null && heap.get(index).equals(o) ? index : -1;
+        }
+        return heap.indexOf(o);
+    }
+
+    private void removeElement(TaskUpdate taskUpdate) {
+        lock.lock();
+        try {
+            // only remove this exact element, not a newer update of the same task
+            for (int i = 0; i < heap.size(); i++) {
+                if (heap.get(i) == taskUpdate) {
+                    removeAt(i);
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TaskUpdate removeAt(int index) {
+        final TaskUpdate removed = heap.get(index);
+        final TaskUpdate last = heap.remove(heap.size() - 1);
+        unindex(removed);
+        if (last != removed) {
+            siftDown(siftUp(index, last), last);
+        }
+        return removed;
+    }
+
+    /**
+     * Moves given element up from given index until its parent has a higher priority.
+     *
+     * @return The final index of the element.
+     */
+    private int siftUp(int index, TaskUpdate taskUpdate) {
+        while (index > 0) {
+            final int parentIndex = (index - 1) >>> 1;
+            final TaskUpdate parent = heap.get(parentIndex);
+            if (taskUpdate.compareTo(parent) >= 0) {
+                break;
+            }
+            set(index, parent);
+            index = parentIndex;
+        }
+        set(index, taskUpdate);
+        return index;
+    }
+
+    /**
+     * Moves given element down from given index until its children have a lower priority.
+     */
+    private void siftDown(int index, TaskUpdate taskUpdate) {
+        final int size = heap.size();
+        final int half = size >>> 1;
+        while (index < half) {
+            int childIndex = (index << 1) + 1;
+            TaskUpdate child = heap.get(childIndex);
+            final int rightIndex = childIndex + 1;
+            if (rightIndex < size && heap.get(rightIndex).compareTo(child) < 0) {
+                childIndex = rightIndex;
+                child = heap.get(rightIndex);
+            }
+            if (taskUpdate.compareTo(child) <= 0) {
+                break;
+            }
+            set(index, child);
+            index = childIndex;
+        }
+        set(index, taskUpdate);
+    }
+
+    private void set(int index, TaskUpdate taskUpdate) {
+        heap.set(index, taskUpdate);
+        if (taskUpdate.getChainTaskId() != null) {
+            positions.put(taskUpdate.getChainTaskId(), index);
+        }
+    }
+
+    private void unindex(TaskUpdate taskUpdate) {
+        final String chainTaskId = taskUpdate.getChainTaskId();
+        if (chainTaskId != null) {
+            positions.remove(chainTaskId);
+        }
     }
+    // endregion
 }
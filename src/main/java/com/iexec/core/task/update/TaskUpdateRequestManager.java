@@ -16,95 +16,221 @@
 
 package com.iexec.core.task.update;
 
-import com.iexec.common.utils.ContextualLockRunner;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
+import com.iexec.core.task.TaskStatus;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.*;
-import java.util.function.Supplier;
-
-import static com.iexec.core.task.Task.LONGEST_TASK_TIMEOUT;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * This class is used to perform updates on a task one by one.
  * It also ensures that no extra update is performed for no reason
  * (in the case of multiple replicate updates in a short time,
  * the task update will only be called once)
+ * <p>
+ * Requests are not published one by one: they are coalesced by {@code chainTaskId}
+ * while pending, then drained in batches whose tasks are read with a single DB query.
+ * <p>
+ * Each {@code chainTaskId} is hashed to one of several single-threaded {@link TaskUpdateLane}s,
+ * so that updates of a task are run one after the other without any thread waiting on a task lock.
+ * <p>
+ * {@link TaskStatus#RECEIVED} tasks are not updated by lanes: they are grouped by deal
+ * and initialized in bulk, see {@link TaskUpdateManager#received2Initializing(String, List)}.
+ * Once initialization has been requested, an update request is published for each task
+ * so that all its later transitions are run by its lane, which stays the single writer of the task.
  */
 @Slf4j
 @Component
 public class TaskUpdateRequestManager {
     /**
-     * Max number of threads to update task for each core.
+     * Number of lanes, hence of threads, to update tasks.
+     */
+    private static final int TASK_UPDATE_LANES_NB = Runtime.getRuntime().availableProcessors() * 2;
+    /**
+     * Max number of pending requests published with a single DB query.
      */
-    private static final int TASK_UPDATE_THREADS_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+    static final int PUBLISH_BATCH_SIZE = 100;
 
     private final ExecutorService executorService = Executors.newFixedThreadPool(1);
-    private final ContextualLockRunner<String> taskExecutionLockRunner =
-            new ContextualLockRunner<>(LONGEST_TASK_TIMEOUT.getSeconds(), TimeUnit.SECONDS);
-
-    final TaskUpdatePriorityBlockingQueue queue = new TaskUpdatePriorityBlockingQueue();
-    // Both `corePoolSize` and `maximumPoolSize` should be set to `TASK_UPDATE_THREADS_POOL_SIZE`.
-    // Otherwise, `taskUpdateExecutor` won't pop `maximumPoolSize` threads
-    // as new threads are popped only if the queue is full
-    // - which never happens with an unbounded queue.
-    final ThreadPoolExecutor taskUpdateExecutor = new ThreadPoolExecutor(
-            TASK_UPDATE_THREADS_POOL_SIZE,
-            TASK_UPDATE_THREADS_POOL_SIZE,
-            0,
-            TimeUnit.MILLISECONDS,
-            queue
-    );
+    private final Map<String, CompletableFuture<Boolean>> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicBoolean isDrainScheduled = new AtomicBoolean(false);
+    /**
+     * {@link TaskStatus#RECEIVED} tasks are only updated by this executor, deal by deal.
+     */
+    private final ExecutorService initializationExecutorService = Executors.newSingleThreadExecutor();
+    private final Set<String> tasksPendingInitialization = ConcurrentHashMap.newKeySet();
+
+    final TaskUpdateLane[] lanes;
 
     private final TaskService taskService;
     private final TaskUpdateManager taskUpdateManager;
 
     public TaskUpdateRequestManager(TaskService taskService,
-                                    TaskUpdateManager taskUpdateManager) {
+                                    TaskUpdateManager taskUpdateManager,
+                                    MeterRegistry meterRegistry) {
         this.taskService = taskService;
         this.taskUpdateManager = taskUpdateManager;
+        this.lanes = IntStream.range(0, TASK_UPDATE_LANES_NB)
+                .mapToObj(laneIndex -> new TaskUpdateLane(laneIndex, meterRegistry))
+                .toArray(TaskUpdateLane[]::new);
     }
 
     /**
-     * Publish TaskUpdateRequest async
-     * @param chainTaskId
-     * @return
+     * Publish TaskUpdateRequest async.
+     * <p>
+     * A request for a task which already has a pending request is coalesced with the latter
+     * and gets the same result.
+     *
+     * @param chainTaskId ID of the task to update
+     * @return A {@link CompletableFuture} completed with {@literal true} once the update is published,
+     * with {@literal false} if there is no such task or if an update of this task is already queued.
      */
     public CompletableFuture<Boolean> publishRequest(String chainTaskId) {
-        Supplier<Boolean> publishRequest = () -> {
-            if (chainTaskId.isEmpty()){
-                return false;
+        if (chainTaskId.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        final CompletableFuture<Boolean> request = new CompletableFuture<>();
+        final CompletableFuture<Boolean> pendingRequest = pendingRequests.putIfAbsent(chainTaskId, request);
+        if (pendingRequest != null) {
+            log.debug("Request already pending [chainTaskId:{}]", chainTaskId);
+            return pendingRequest;
+        }
+        scheduleDrain();
+        return request;
+    }
+
+    /**
+     * Publish TaskUpdateRequests of several tasks at once, as {@link #publishRequest(String)} does.
+     * <p>
+     * All requests are pending before being drained,
+     * so that they are published by as few batches as possible.
+     *
+     * @param chainTaskIds IDs of the tasks to update
+     */
+    public void publishRequests(List<String> chainTaskIds) {
+        for (String chainTaskId : chainTaskIds) {
+            if (!chainTaskId.isEmpty()) {
+                pendingRequests.putIfAbsent(chainTaskId, new CompletableFuture<>());
             }
-            if (queue.containsTask(chainTaskId)){
-                log.debug("Request already published [chainTaskId:{}]", chainTaskId);
-                return false;
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            executorService.execute(this::drainPendingRequests);
+        }
+    }
+
+    /**
+     * Publishes pending requests by batches of {@link TaskUpdateRequestManager#PUBLISH_BATCH_SIZE}.
+     */
+    private void drainPendingRequests() {
+        isDrainScheduled.set(false);
+        while (!pendingRequests.isEmpty()) {
+            final Map<String, CompletableFuture<Boolean>> batch = new HashMap<>();
+            for (String chainTaskId : pendingRequests.keySet()) {
+                if (batch.size() >= PUBLISH_BATCH_SIZE) {
+                    break;
+                }
+                // Requests received from now on for this task will lead to a new update
+                final CompletableFuture<Boolean> request = pendingRequests.remove(chainTaskId);
+                if (request != null) {
+                    batch.put(chainTaskId, request);
+                }
             }
-            final Optional<Task> oTask = taskService.getTaskByChainTaskId(chainTaskId);
-            if (oTask.isEmpty()) {
-                log.warn("No such task. [chainTaskId: {}]", chainTaskId);
-                return false;
+            try {
+                publishBatch(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to publish task update requests [chainTaskIds:{}]", batch.keySet(), e);
+                batch.values().forEach(request -> request.completeExceptionally(e));
             }
+        }
+    }
 
-            final Task task = oTask.get();
-            taskUpdateExecutor.execute(new TaskUpdate(task, this::updateTask));
+    private void publishBatch(Map<String, CompletableFuture<Boolean>> batch) {
+        final Map<String, Task> tasks = taskService.getTasksByChainTaskIds(new ArrayList<>(batch.keySet()))
+                .stream()
+                .collect(Collectors.toMap(Task::getChainTaskId, Function.identity(), (task, duplicate) -> task));
+        final Map<String, List<String>> receivedTasksByDeal = new HashMap<>();
+        final Date now = new Date();
+        batch.forEach((chainTaskId, request) -> {
+            final Task task = tasks.get(chainTaskId);
+            if (task == null) {
+                log.warn("No such task. [chainTaskId: {}]", chainTaskId);
+                request.complete(false);
+                return;
+            }
+            // A task whose final deadline is reached is failed by its lane, whatever its status
+            final boolean isFinalDeadlineReached = task.getFinalDeadline() != null && now.after(task.getFinalDeadline());
+            if (TaskStatus.RECEIVED.equals(task.getCurrentStatus()) && !isFinalDeadlineReached) {
+                if (!tasksPendingInitialization.add(chainTaskId)) {
+                    log.debug("Initialization already pending [chainTaskId:{}]", chainTaskId);
+                    request.complete(false);
+                    return;
+                }
+                receivedTasksByDeal.computeIfAbsent(task.getChainDealId(), chainDealId -> new ArrayList<>())
+                        .add(chainTaskId);
+                request.complete(true);
+                return;
+            }
+            final TaskUpdate taskUpdate = new TaskUpdate(task, this::updateTask);
+            final TaskUpdateLane lane = getLane(chainTaskId);
+            // An already queued update only gets its priority refreshed from the latest task state
+            if (lane.getQueue().replaceIfPresent(taskUpdate)) {
+                log.debug("Request already published [chainTaskId:{}]", chainTaskId);
+                request.complete(false);
+                return;
+            }
+            lane.execute(taskUpdate);
             log.debug("Published task update request" +
-                    " [chainTaskId:{}, currentStatus:{}, contributionDeadline:{}, queueSize:{}]",
-                    chainTaskId, task.getChainTaskId(), task.getContributionDeadline(), queue.size());
-            return true;
-        };
-        // TODO: find a better way to publish request.
-        // As of now, we do sequential requests to the DB which can cause a big load.
-        // We should aim to have some batch requests to unload the scheduler.
-        return CompletableFuture.supplyAsync(publishRequest, executorService);
+                    " [chainTaskId:{}, currentStatus:{}, contributionDeadline:{}, laneQueueSize:{}]",
+                    chainTaskId, task.getCurrentStatus(), task.getContributionDeadline(), lane.getQueue().size());
+            request.complete(true);
+        });
+        receivedTasksByDeal.forEach((chainDealId, chainTaskIds) -> {
+            log.debug("Published task initialization request [chainDealId:{}, nbTasks:{}]",
+                    chainDealId, chainTaskIds.size());
+            initializationExecutorService.execute(() -> initializeTasks(chainDealId, chainTaskIds));
+        });
+    }
+
+    /**
+     * Initializes {@link TaskStatus#RECEIVED} tasks of a deal at once.
+     * <p>
+     * Requests for these tasks are ignored until they are initialized,
+     * then update requests are published for them: their next transitions are run by their lanes
+     * as they are not {@link TaskStatus#RECEIVED} anymore.
+     */
+    private void initializeTasks(String chainDealId, List<String> chainTaskIds) {
+        try {
+            // Published tasks are not RECEIVED anymore or have reached their final deadline,
+            // so they are routed to their lanes even while they are still pending initialization
+            publishRequests(taskUpdateManager.received2Initializing(chainDealId, chainTaskIds));
+        } catch (RuntimeException e) {
+            log.error("Failed to initialize tasks [chainDealId:{}, chainTaskIds:{}]", chainDealId, chainTaskIds, e);
+        } finally {
+            chainTaskIds.forEach(tasksPendingInitialization::remove);
+        }
+    }
+
+    TaskUpdateLane getLane(String chainTaskId) {
+        return lanes[Math.floorMod(chainTaskId.hashCode(), lanes.length)];
+    }
+
+    boolean isIdle() {
+        return tasksPendingInitialization.isEmpty() && Arrays.stream(lanes).allMatch(TaskUpdateLane::isIdle);
     }
 
     private void updateTask(String chainTaskId) {
-        taskExecutionLockRunner.acceptWithLock(
-                chainTaskId,
-                taskUpdateManager::updateTask
-        );
+        taskUpdateManager.updateTask(chainTaskId);
     }
 }
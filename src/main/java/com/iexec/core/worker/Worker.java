@@ -33,6 +33,10 @@ import java.util.List;
 @Builder
 public class Worker {
 
+    public static final String WALLET_ADDRESS_FIELD_NAME = "walletAddress";
+    public static final String LAST_ALIVE_DATE_FIELD_NAME = "lastAliveDate";
+    public static final String LAST_REPLICATE_DEMAND_DATE_FIELD_NAME = "lastReplicateDemandDate";
+
     @Id
     private String id;
     private String name;
@@ -20,52 +20,134 @@ import com.iexec.core.chain.ChainConfig;
 import com.iexec.core.chain.WorkerPassService;
 import com.iexec.core.configuration.WorkerConfiguration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import static com.iexec.common.utils.DateTimeUtils.addMinutesToDate;
 
+/**
+ * Manages registered workers.
+ * <p>
+ * Workers are kept in an in-memory registry keyed by wallet address,
+ * so that asking for a replicate does not read the same worker document several times.
+ * Registration, deletion and changes of participating or computing tasks are written through to the database.
+ * Alive and replicate demand dates are updated on each ping or replicate demand,
+ * they are only persisted periodically in a single bulk write.
+ */
 @Slf4j
 @Service
 public class WorkerService {
 
     private final WorkerRepository workerRepository;
+    private final MongoTemplate mongoTemplate;
     private final WorkerConfiguration workerConfiguration;
     private final WorkerPassService workerPassService;
     private final ChainConfig chainConfig;
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    private final Set<String> workersWithUnsavedActivity = ConcurrentHashMap.newKeySet();
 
     public WorkerService(WorkerRepository workerRepository,
+                         MongoTemplate mongoTemplate,
                          WorkerConfiguration workerConfiguration,
                          WorkerPassService workerPassService,
                          ChainConfig chainConfig) {
         this.workerRepository = workerRepository;
+        this.mongoTemplate = mongoTemplate;
         this.workerConfiguration = workerConfiguration;
         this.workerPassService = workerPassService;
         this.chainConfig = chainConfig;
     }
 
+    @PostConstruct
+    void loadWorkers() {
+        workerRepository.findAll().forEach(worker -> workers.put(worker.getWalletAddress(), worker));
+        log.info("Loaded workers in registry [nbWorkers:{}]", workers.size());
+    }
+
+    /**
+     * Persists alive and replicate demand dates of workers which have been updated since last flush.
+     */
+    @PreDestroy
+    @Scheduled(fixedRateString = "#{@workerConfiguration.getActivityFlushPeriod()}")
+    public void flushWorkersActivity() {
+        final List<String> flushedWalletAddresses = new ArrayList<>();
+        final BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Worker.class);
+        for (Iterator<String> iterator = workersWithUnsavedActivity.iterator(); iterator.hasNext(); ) {
+            final String walletAddress = iterator.next();
+            iterator.remove();
+            final Worker worker = workers.get(walletAddress);
+            if (worker == null) {
+                continue;
+            }
+            bulkOperations.updateOne(
+                    Query.query(Criteria.where(Worker.WALLET_ADDRESS_FIELD_NAME).is(walletAddress)),
+                    new Update()
+                            .set(Worker.LAST_ALIVE_DATE_FIELD_NAME, worker.getLastAliveDate())
+                            .set(Worker.LAST_REPLICATE_DEMAND_DATE_FIELD_NAME, worker.getLastReplicateDemandDate()));
+            flushedWalletAddresses.add(walletAddress);
+        }
+        if (flushedWalletAddresses.isEmpty()) {
+            return;
+        }
+        try {
+            bulkOperations.execute();
+            log.debug("Flushed workers activity [nbWorkers:{}]", flushedWalletAddresses.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush workers activity, will retry [nbWorkers:{}]", flushedWalletAddresses.size(), e);
+            workersWithUnsavedActivity.addAll(flushedWalletAddresses);
+        }
+    }
+
     public Optional<Worker> getWorker(String walletAddress) {
-        return workerRepository.findByWalletAddress(walletAddress);
+        final Worker cachedWorker = workers.get(walletAddress);
+        if (cachedWorker != null) {
+            return Optional.of(cachedWorker);
+        }
+        return workerRepository.findByWalletAddress(walletAddress)
+                .map(worker -> {
+                    final Worker previousWorker = workers.putIfAbsent(walletAddress, worker);
+                    return previousWorker != null ? previousWorker : worker;
+                });
     }
 
     public Worker addWorker(Worker worker) {
-        Optional<Worker> oWorker = workerRepository.findByWalletAddress(worker.getWalletAddress());
+        final String walletAddress = worker.getWalletAddress();
+        Optional<Worker> oWorker = getWorker(walletAddress);
 
         if (oWorker.isPresent()) {
             Worker existingWorker = oWorker.get();
-            log.info("The worker is already registered [workerId:{}]", existingWorker.getId());
-            worker.setId(existingWorker.getId());
-            worker.setParticipatingChainTaskIds(existingWorker.getParticipatingChainTaskIds());
-            worker.setComputingChainTaskIds(existingWorker.getComputingChainTaskIds());
-        } else {
-            log.info("Registering new worker");
+            synchronized (existingWorker) {
+                log.info("The worker is already registered [workerId:{}]", existingWorker.getId());
+                worker.setId(existingWorker.getId());
+                // Lists are copied so that they are never shared between two instances,
+                // each instance guarding its own lists with its monitor
+                worker.setParticipatingChainTaskIds(copyOf(existingWorker.getParticipatingChainTaskIds()));
+                worker.setComputingChainTaskIds(copyOf(existingWorker.getComputingChainTaskIds()));
+                Worker savedWorker = workerRepository.save(worker);
+                workers.put(walletAddress, savedWorker);
+                return savedWorker;
+            }
         }
 
-        return workerRepository.save(worker);
+        log.info("Registering new worker");
+        Worker savedWorker = workerRepository.save(worker);
+        workers.put(walletAddress, savedWorker);
+        return savedWorker;
+    }
+
+    private static List<String> copyOf(List<String> chainTaskIds) {
+        return chainTaskIds != null ? new ArrayList<>(chainTaskIds) : new ArrayList<>();
     }
 
     public boolean isAllowedToJoin(String workerAddress) {
@@ -76,7 +158,7 @@ public class WorkerService {
         if (chainConfig.getWorkerPassAddress().isBlank()) {
             return isAllowedByWhitelist;
         }
-        boolean isAllowedByWorkerPass = workerPassService.hasWorkerPass(workerAddress).isPresent() && workerPassService.hasWorkerPass(workerAddress).get();
+        boolean isAllowedByWorkerPass = workerPassService.hasWorkerPass(workerAddress).orElse(false);
 
         if (whitelist.isEmpty()) {
             return isAllowedByWorkerPass;
@@ -86,10 +168,14 @@ public class WorkerService {
     }
 
     public Optional<Worker> deleteWorkerByAddress(String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            workerRepository.delete(worker);
+            synchronized (worker) {
+                workerRepository.delete(worker);
+                workers.remove(walletAddress, worker);
+                workersWithUnsavedActivity.remove(walletAddress);
+            }
             return Optional.of(worker);
         }
 
@@ -97,15 +183,7 @@ public class WorkerService {
     }
 
     public Optional<Worker> updateLastAlive(String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
-        if (optional.isPresent()) {
-            Worker worker = optional.get();
-            worker.setLastAliveDate(new Date());
-            workerRepository.save(worker);
-            return Optional.of(worker);
-        }
-
-        return Optional.empty();
+        return updateWorkerActivity(walletAddress, worker -> worker.setLastAliveDate(new Date()));
     }
 
     public boolean isWorkerAllowedToAskReplicate(String walletAddress) {
@@ -123,7 +201,7 @@ public class WorkerService {
     }
 
     public Optional<Date> getLastReplicateDemand(String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isEmpty()) {
             return Optional.empty();
         }
@@ -133,11 +211,20 @@ public class WorkerService {
     }
 
     public Optional<Worker> updateLastReplicateDemandDate(String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        return updateWorkerActivity(walletAddress, worker -> worker.setLastReplicateDemandDate(new Date()));
+    }
+
+    /**
+     * Updates a worker in the registry only, it will be persisted on next activity flush.
+     */
+    private Optional<Worker> updateWorkerActivity(String walletAddress, Consumer<Worker> activityUpdate) {
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            worker.setLastReplicateDemandDate(new Date());
-            workerRepository.save(worker);
+            synchronized (worker) {
+                activityUpdate.accept(worker);
+            }
+            workersWithUnsavedActivity.add(walletAddress);
             return Optional.of(worker);
         }
 
@@ -145,52 +232,75 @@ public class WorkerService {
     }
 
     public Optional<Worker> addChainTaskIdToWorker(String chainTaskId, String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
+        if (optional.isPresent()) {
+            Worker worker = optional.get();
+            synchronized (worker) {
+                worker.addChainTaskId(chainTaskId);
+                log.info("Added chainTaskId to worker [chainTaskId:{}, workerName:{}]", chainTaskId, walletAddress);
+                return Optional.of(workerRepository.save(worker));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Worker> addChainTaskIdsToWorker(List<String> chainTaskIds, String walletAddress) {
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            worker.addChainTaskId(chainTaskId);
-            log.info("Added chainTaskId to worker [chainTaskId:{}, workerName:{}]", chainTaskId, walletAddress);
-            return Optional.of(workerRepository.save(worker));
+            synchronized (worker) {
+                chainTaskIds.forEach(worker::addChainTaskId);
+                log.info("Added chainTaskIds to worker [chainTaskIds:{}, workerName:{}]", chainTaskIds, walletAddress);
+                return Optional.of(workerRepository.save(worker));
+            }
         }
         return Optional.empty();
     }
 
     public List<String> getChainTaskIds(String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            return worker.getParticipatingChainTaskIds();
+            synchronized (worker) {
+                return new ArrayList<>(worker.getParticipatingChainTaskIds());
+            }
         }
         return Collections.emptyList();
     }
 
     public List<String> getComputingTaskIds(String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            return worker.getComputingChainTaskIds();
+            synchronized (worker) {
+                return new ArrayList<>(worker.getComputingChainTaskIds());
+            }
         }
         return Collections.emptyList();
     }
 
     public Optional<Worker> removeChainTaskIdFromWorker(String chainTaskId, String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            worker.removeChainTaskId(chainTaskId);
-            log.info("Removed chainTaskId from worker [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
-            return Optional.of(workerRepository.save(worker));
+            synchronized (worker) {
+                worker.removeChainTaskId(chainTaskId);
+                log.info("Removed chainTaskId from worker [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
+                return Optional.of(workerRepository.save(worker));
+            }
         }
         return Optional.empty();
     }
 
     public Optional<Worker> removeComputedChainTaskIdFromWorker(String chainTaskId, String walletAddress) {
-        Optional<Worker> optional = workerRepository.findByWalletAddress(walletAddress);
+        Optional<Worker> optional = getWorker(walletAddress);
         if (optional.isPresent()) {
             Worker worker = optional.get();
-            worker.removeComputedChainTaskId(chainTaskId);
-            log.info("Removed computed chainTaskId from worker [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
-            return Optional.of(workerRepository.save(worker));
+            synchronized (worker) {
+                worker.removeComputedChainTaskId(chainTaskId);
+                log.info("Removed computed chainTaskId from worker [chainTaskId:{}, walletAddress:{}]", chainTaskId, walletAddress);
+                return Optional.of(workerRepository.save(worker));
+            }
         }
         return Optional.empty();
     }
@@ -216,7 +326,10 @@ public class WorkerService {
 
         Worker worker = optionalWorker.get();
         int workerMaxNbTasks = worker.getMaxNbTasks();
-        int runningReplicateNb = worker.getComputingChainTaskIds().size();
+        int runningReplicateNb;
+        synchronized (worker) {
+            runningReplicateNb = worker.getComputingChainTaskIds().size();
+        }
 
         if (runningReplicateNb >= workerMaxNbTasks) {
             log.debug("Worker asking for too many replicates [walletAddress: {}, runningReplicateNb:{}, workerMaxNbTasks:{}]", walletAddress, runningReplicateNb, workerMaxNbTasks);
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockAwareReadCacheTests {
+
+    private static final String CACHE_NAME = "test";
+
+    private final AtomicInteger nbReads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private BlockAwareReadCache<String, String> cache;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BlockAwareReadCache<>(CACHE_NAME,
+                key -> {
+                    nbReads.incrementAndGet();
+                    return key.startsWith("missing") ? Optional.empty() : Optional.of(key + "-" + nbReads.get());
+                },
+                meterRegistry);
+        cache.onNewBlock(1);
+    }
+
+    private double getCacheCount(String result) {
+        return meterRegistry.get(BlockAwareReadCache.CACHE_METRIC_NAME)
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void shouldReadOnlyOncePerBlock() {
+        assertThat(cache.get("task")).contains("task-1");
+        assertThat(cache.get("task")).contains("task-1");
+
+        assertThat(nbReads.get()).isOne();
+        assertThat(getCacheCount("hit")).isOne();
+        assertThat(getCacheCount("miss")).isOne();
+    }
+
+    @Test
+    void shouldReadAgainOnNewBlock() {
+        cache.get("task");
+
+        cache.onNewBlock(2);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("task")).contains("task-2");
+        assertThat(cache.getBlockNumber()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepEntriesWhenSameBlockIsNotified() {
+        cache.get("task");
+
+        cache.onNewBlock(1);
+
+        assertThat(cache.get("task")).contains("task-1");
+        assertThat(nbReads.get()).isOne();
+    }
+
+    @Test
+    void shouldReadAgainOnceEvicted() {
+        cache.get("task");
+
+        cache.evict("task");
+
+        assertThat(cache.get("task")).contains("task-2");
+    }
+
+    @Test
+    void shouldReadAgainWhenReadBeforeNewerBlock() {
+        cache.get("task");
+
+        cache.evictIfReadBefore("task", 2);
+
+        assertThat(cache.get("task")).contains("task-2");
+    }
+
+    @Test
+    void shouldKeepValueReadAtOrAfterBlock() {
+        cache.get("task");
+
+        cache.evictIfReadBefore("task", 1);
+
+        assertThat(cache.get("task")).contains("task-1");
+        assertThat(nbReads.get()).isOne();
+    }
+
+    @Test
+    void shouldNotCacheValueReadBeforeEviction() {
+        final long stamp = cache.getReadStamp();
+
+        cache.evict("task");
+        cache.put("task", "task-before-eviction", stamp);
+
+        assertThat(cache.contains("task")).isFalse();
+    }
+
+    @Test
+    void shouldNotCacheValueReadBeforeNewBlock() {
+        final long stamp = cache.getReadStamp();
+
+        cache.onNewBlock(2);
+        cache.put("task", "task-at-block-1", stamp);
+
+        assertThat(cache.contains("task")).isFalse();
+    }
+
+    @Test
+    void shouldCacheValueReadWithCurrentStamp() {
+        cache.put("task", "task-0", cache.getReadStamp());
+
+        assertThat(cache.get("task")).contains("task-0");
+        assertThat(nbReads.get()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheMissingValue() {
+        assertThat(cache.get("missingTask")).isEmpty();
+        assertThat(cache.get("missingTask")).isEmpty();
+
+        assertThat(nbReads.get()).isEqualTo(2);
+        assertThat(getCacheCount("miss")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.iexec.common.chain.ChainContribution;
+import com.iexec.common.chain.ChainContributionStatus;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link ChainContributionBatchReader} against a local mock JSON-RPC endpoint
+ * answering {@code eth_call} batch requests.
+ */
+class ChainContributionBatchReaderTests {
+
+    private static final String HUB_ADDRESS = "0xBF6B2B07e47326B7c8bfCb4A5460bef9f0Fd2002";
+    private static final String CHAIN_TASK_ID = "0x1111111111111111111111111111111111111111111111111111111111111111";
+    // calls for this wallet are answered with a JSON-RPC error
+    private static final String FAILING_WALLET = "0x00000000000000000000000000000000000000ff";
+    // 4 bytes selector, then 32 bytes chainTaskId, then 32 bytes wallet address
+    private static final int WALLET_OFFSET_IN_CALL_DATA = 2 + 8 + 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger nbHttpRequests = new AtomicInteger();
+    private HttpServer server;
+    private Web3j web3j;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            nbHttpRequests.incrementAndGet();
+            final JsonNode requests = objectMapper.readTree(exchange.getRequestBody());
+            final ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode request : requests) {
+                responses.add(answer(request));
+            }
+            final byte[] body = objectMapper.writeValueAsBytes(responses);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        web3j = Web3j.build(new HttpService("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void stop() {
+        web3j.shutdown();
+        server.stop(0);
+    }
+
+    /**
+     * Answers a {@code CONTRIBUTED} contribution, or an error for {@link #FAILING_WALLET}.
+     */
+    private ObjectNode answer(JsonNode request) {
+        final ObjectNode response = objectMapper.createObjectNode()
+                .put("jsonrpc", "2.0")
+                .put("id", request.get("id").asLong());
+        final String data = request.get("params").get(0).get("data").asText();
+        final String walletAddress = "0x" + data.substring(WALLET_OFFSET_IN_CALL_DATA + 24, WALLET_OFFSET_IN_CALL_DATA + 64);
+        if (FAILING_WALLET.equals(walletAddress)) {
+            response.putObject("error").put("code", -32000).put("message", "execution reverted");
+            return response;
+        }
+        response.put("result", "0x" + FunctionEncoder.encodeConstructor(List.of(
+                new Uint256(ChainContributionStatus.CONTRIBUTED.ordinal()),
+                new Bytes32(new byte[32]),
+                new Bytes32(new byte[32]),
+                new Address(walletAddress))));
+        return response;
+    }
+
+    private static List<Pair<String, String>> buildKeys(int nbKeys) {
+        final List<Pair<String, String>> keys = new ArrayList<>(nbKeys);
+        for (int i = 1; i <= nbKeys; i++) {
+            keys.add(Pair.of(CHAIN_TASK_ID, String.format("0x%040x", i)));
+        }
+        return keys;
+    }
+
+    @Test
+    void shouldNotBuildReaderWithoutPositiveBatchSize() {
+        assertThatThrownBy(() -> new ChainContributionBatchReader(web3j, HUB_ADDRESS, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReadContributionsWithOneRequestPerBatch() {
+        final ChainContributionBatchReader reader = new ChainContributionBatchReader(web3j, HUB_ADDRESS, 2);
+        final List<Pair<String, String>> keys = buildKeys(5);
+
+        final Map<Pair<String, String>, ChainContribution> contributions = reader.read(keys);
+
+        assertThat(nbHttpRequests.get()).isEqualTo(3);
+        assertThat(contributions).hasSize(5);
+        for (Pair<String, String> key : keys) {
+            assertThat(contributions.get(key).getStatus()).isEqualTo(ChainContributionStatus.CONTRIBUTED);
+        }
+    }
+
+    @Test
+    void shouldOmitContributionsWhichCouldNotBeRead() {
+        final ChainContributionBatchReader reader = new ChainContributionBatchReader(web3j, HUB_ADDRESS, 10);
+        final List<Pair<String, String>> keys = buildKeys(2);
+        keys.add(Pair.of(CHAIN_TASK_ID, FAILING_WALLET));
+
+        final Map<Pair<String, String>, ChainContribution> contributions = reader.read(keys);
+
+        assertThat(nbHttpRequests.get()).isOne();
+        assertThat(contributions).containsOnlyKeys(keys.get(0), keys.get(1));
+    }
+
+    @Test
+    void shouldOmitContributionsOfFailedBatch() {
+        server.stop(0);
+        final ChainContributionBatchReader reader = new ChainContributionBatchReader(web3j, HUB_ADDRESS, 10);
+
+        assertThat(reader.read(buildKeys(3))).isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.chain.ChainDeal;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChainDealCacheTests {
+
+    private static final Date CONTRIBUTION_DEADLINE = new Date(1000);
+    private static final Date FINAL_DEADLINE = new Date(2000);
+
+    private final Map<String, AtomicInteger> nbFetches = new HashMap<>();
+
+    private ChainDealCache buildCache(int maxSize) {
+        return new ChainDealCache(maxSize,
+                chainDealId -> {
+                    nbFetches.computeIfAbsent(chainDealId, id -> new AtomicInteger()).incrementAndGet();
+                    return chainDealId.startsWith("missing")
+                            ? Optional.empty()
+                            : Optional.of(ChainDeal.builder().tag(chainDealId).build());
+                },
+                chainDeal -> CONTRIBUTION_DEADLINE,
+                chainDeal -> FINAL_DEADLINE);
+    }
+
+    private int getNbFetches(String chainDealId) {
+        return nbFetches.getOrDefault(chainDealId, new AtomicInteger()).get();
+    }
+
+    @Test
+    void shouldNotBuildCacheWithoutPositiveSize() {
+        assertThatThrownBy(() -> buildCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldFetchDealOnlyOnceAndCacheItsDeadlines() {
+        final ChainDealCache cache = buildCache(10);
+
+        final Optional<ChainDealCache.CachedChainDeal> first = cache.get("deal");
+        final Optional<ChainDealCache.CachedChainDeal> second = cache.get("deal");
+
+        assertThat(first).isPresent();
+        assertThat(second).containsSame(first.get());
+        assertThat(first.get().getChainDeal().getTag()).isEqualTo("deal");
+        assertThat(first.get().getContributionDeadline()).isEqualTo(CONTRIBUTION_DEADLINE);
+        assertThat(first.get().getFinalDeadline()).isEqualTo(FINAL_DEADLINE);
+        assertThat(getNbFetches("deal")).isOne();
+    }
+
+    @Test
+    void shouldNotCacheMissingDeal() {
+        final ChainDealCache cache = buildCache(10);
+
+        assertThat(cache.get("missingDeal")).isEmpty();
+        assertThat(cache.get("missingDeal")).isEmpty();
+
+        assertThat(getNbFetches("missingDeal")).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedDealWhenFull() {
+        final ChainDealCache cache = buildCache(2);
+        cache.get("deal1");
+        cache.get("deal2");
+        // deal1 becomes the most recently used one
+        cache.get("deal1");
+
+        cache.get("deal3");
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.get("deal1");
+        assertThat(getNbFetches("deal1")).isOne();
+        cache.get("deal2");
+        assertThat(getNbFetches("deal2")).isEqualTo(2);
+    }
+}
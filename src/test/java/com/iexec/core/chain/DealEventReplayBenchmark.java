@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures catch-up time of a deal events replay over {@link #NB_BLOCKS} blocks,
+ * read from a local stub node rejecting requests over more than {@link #NODE_MAX_RANGE} blocks.
+ * <p>
+ * A replay by fixed windows read one at a time is compared to an adaptive replay with parallel reads.
+ * <p>
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class DealEventReplayBenchmark {
+
+    private static final long NB_BLOCKS = 1_000_000;
+    private static final long DEAL_PERIOD = 1_000;
+    private static final long NODE_MAX_RANGE = 10_000;
+    private static final long NODE_LATENCY_MS = 10;
+
+    @Test
+    void benchmarkReplay() throws IOException {
+        final long sequentialDurationMs = run(2_000, 2_000, 1);
+        final long adaptiveDurationMs = run(2_000, 50_000, 4);
+
+        log.info("Sequential replay by fixed windows [nbBlocks:{}, durationMs:{}]", NB_BLOCKS, sequentialDurationMs);
+        log.info("Parallel replay by adaptive windows [nbBlocks:{}, durationMs:{}]", NB_BLOCKS, adaptiveDurationMs);
+        assertThat(adaptiveDurationMs).isLessThan(sequentialDurationMs);
+    }
+
+    private long run(long initialWindowSize, long maxWindowSize, int concurrency) throws IOException {
+        try (EthLogsStubNode node = new EthLogsStubNode(DEAL_PERIOD, NODE_MAX_RANGE, NODE_LATENCY_MS)) {
+            final DealEventReplayer replayer = new DealEventReplayer((from, to) -> DealEventReplayer.readDealEvents(
+                    node.getWeb3j(), EthLogsStubNode.HUB_ADDRESS, EthLogsStubNode.POOL_ADDRESS, from, to),
+                    initialWindowSize, maxWindowSize, concurrency);
+            final AtomicInteger nbEvents = new AtomicInteger();
+            final long start = System.currentTimeMillis();
+            final BigInteger lastReplayedBlock = replayer.replay(BigInteger.ONE, BigInteger.valueOf(NB_BLOCKS),
+                    event -> nbEvents.incrementAndGet(), checkpoint -> {
+                    });
+            final long durationMs = System.currentTimeMillis() - start;
+            replayer.shutdown();
+
+            assertThat(lastReplayedBlock).isEqualTo(BigInteger.valueOf(NB_BLOCKS));
+            assertThat(nbEvents.get()).isEqualTo(NB_BLOCKS / DEAL_PERIOD);
+            log.info("Replay done [concurrency:{}, nbRequests:{}, nbFailedRequests:{}, finalWindowSize:{}]",
+                    concurrency, node.getNbRequests(), node.getNbFailedRequests(), replayer.getWindowSize());
+            return durationMs;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealEventReplayerTests {
+
+    private static final long DEAL_PERIOD = 10;
+
+    private DealEventReplayer replayer;
+    private final List<DealEvent> handledEvents = new ArrayList<>();
+    private final List<BigInteger> checkpoints = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        if (replayer != null) {
+            replayer.shutdown();
+        }
+    }
+
+    /**
+     * Reads a deal event every {@link #DEAL_PERIOD} blocks, after a random delay
+     * so that windows read in parallel complete in any order.
+     */
+    private static List<DealEvent> readEvents(BigInteger from, BigInteger to) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return LongStream.rangeClosed(from.longValue(), to.longValue())
+                .filter(block -> block % DEAL_PERIOD == 0)
+                .mapToObj(block -> new DealEvent("0x" + block, BigInteger.valueOf(block)))
+                .collect(Collectors.toList());
+    }
+
+    private static List<BigInteger> expectedEventBlocks(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .filter(block -> block % DEAL_PERIOD == 0)
+                .mapToObj(BigInteger::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private BigInteger replay(long from, long to) {
+        return replayer.replay(BigInteger.valueOf(from), BigInteger.valueOf(to), handledEvents::add, checkpoints::add);
+    }
+
+    private List<BigInteger> handledEventBlocks() {
+        return handledEvents.stream()
+                .map(DealEvent::getBlockNumber)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldNotBuildReplayerWithInvalidWindowSizes() {
+        assertThatThrownBy(() -> new DealEventReplayer(DealEventReplayerTests::readEvents, 0, 10, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DealEventReplayer(DealEventReplayerTests::readEvents, 100, 10, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DealEventReplayer(DealEventReplayerTests::readEvents, 10, 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldHandleEventsInOrderAndCheckpointEachWindow() {
+        replayer = new DealEventReplayer(DealEventReplayerTests::readEvents, 100, 100, 4);
+
+        final BigInteger lastReplayedBlock = replay(0, 999);
+
+        assertThat(lastReplayedBlock).isEqualTo(BigInteger.valueOf(999));
+        assertThat(handledEventBlocks()).containsExactlyElementsOf(expectedEventBlocks(0, 999));
+        assertThat(checkpoints).containsExactlyElementsOf(LongStream.rangeClosed(1, 10)
+                .mapToObj(i -> BigInteger.valueOf(i * 100 - 1))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldGrowWindowOnSuccess() {
+        replayer = new DealEventReplayer(DealEventReplayerTests::readEvents, 10, 80, 1);
+
+        replay(0, 999);
+
+        assertThat(replayer.getWindowSize()).isEqualTo(80);
+        assertThat(handledEventBlocks()).containsExactlyElementsOf(expectedEventBlocks(0, 999));
+    }
+
+    @Test
+    void shouldShrinkWindowOnErrorAndReadFailedWindowAgain() {
+        final AtomicInteger nbFailedReads = new AtomicInteger();
+        replayer = new DealEventReplayer((from, to) -> {
+            if (to.subtract(from).longValue() + 1 > 50) {
+                nbFailedReads.incrementAndGet();
+                throw new IOException("query exceeds max block range");
+            }
+            return readEvents(from, to);
+        }, 200, 400, 2);
+
+        final BigInteger lastReplayedBlock = replay(0, 999);
+
+        assertThat(lastReplayedBlock).isEqualTo(BigInteger.valueOf(999));
+        assertThat(replayer.getWindowSize()).isEqualTo(50);
+        assertThat(handledEventBlocks()).containsExactlyElementsOf(expectedEventBlocks(0, 999));
+        assertThat(checkpoints).isSorted().doesNotHaveDuplicates();
+        // windows of 200 blocks, then of 100 blocks, fail until the window size is low enough
+        assertThat(nbFailedReads.get()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void shouldStopReplayAtLastCheckpointWhenSingleBlockKeepsFailing() {
+        final BigInteger failingBlock = BigInteger.valueOf(500);
+        final AtomicInteger nbReadsOfFailingBlock = new AtomicInteger();
+        replayer = new DealEventReplayer((from, to) -> {
+            if (from.compareTo(failingBlock) <= 0 && to.compareTo(failingBlock) >= 0) {
+                if (from.equals(to)) {
+                    nbReadsOfFailingBlock.incrementAndGet();
+                }
+                throw new IOException("node unavailable");
+            }
+            return readEvents(from, to);
+        }, 100, 100, 2);
+
+        final BigInteger lastReplayedBlock = replay(0, 999);
+
+        assertThat(lastReplayedBlock).isEqualTo(BigInteger.valueOf(499));
+        assertThat(checkpoints).last().isEqualTo(BigInteger.valueOf(499));
+        assertThat(handledEventBlocks()).containsExactlyElementsOf(expectedEventBlocks(0, 499));
+        assertThat(nbReadsOfFailingBlock.get()).isEqualTo(DealEventReplayer.MAX_ATTEMPTS_OF_SINGLE_BLOCK_WINDOW);
+    }
+
+    @Test
+    void shouldStopReplayAtLastCheckpointWhenHandlerFails() {
+        final AtomicInteger nbReads = new AtomicInteger();
+        replayer = new DealEventReplayer((from, to) -> {
+            nbReads.incrementAndGet();
+            return readEvents(from, to);
+        }, 100, 100, 4);
+
+        final BigInteger lastReplayedBlock = replayer.replay(BigInteger.ZERO, BigInteger.valueOf(9_999), dealEvent -> {
+            if (dealEvent.getBlockNumber().longValue() == 250) {
+                throw new IllegalStateException("database unavailable");
+            }
+            handledEvents.add(dealEvent);
+        }, checkpoints::add);
+
+        assertThat(lastReplayedBlock).isEqualTo(BigInteger.valueOf(199));
+        assertThat(checkpoints).last().isEqualTo(BigInteger.valueOf(199));
+        assertThat(handledEventBlocks()).containsExactlyElementsOf(expectedEventBlocks(0, 240));
+        // windows still in flight are cancelled, the remaining range is never read
+        assertThat(nbReads.get()).isLessThan(100);
+    }
+
+    @Test
+    void shouldReadDealEventsOfPoolFromNode() throws IOException {
+        try (EthLogsStubNode node = new EthLogsStubNode(DEAL_PERIOD, 100, 0)) {
+            final List<DealEvent> dealEvents = DealEventReplayer.readDealEvents(node.getWeb3j(),
+                    EthLogsStubNode.HUB_ADDRESS, EthLogsStubNode.POOL_ADDRESS, BigInteger.ONE, BigInteger.valueOf(30));
+
+            assertThat(dealEvents).containsExactly(
+                    new DealEvent(EthLogsStubNode.getChainDealId(10), BigInteger.valueOf(10)),
+                    new DealEvent(EthLogsStubNode.getChainDealId(20), BigInteger.valueOf(20)),
+                    new DealEvent(EthLogsStubNode.getChainDealId(30), BigInteger.valueOf(30)));
+        }
+    }
+
+    @Test
+    void shouldNotReadDealEventsWhenNodeReturnsError() throws IOException {
+        try (EthLogsStubNode node = new EthLogsStubNode(DEAL_PERIOD, 100, 0)) {
+            assertThatThrownBy(() -> DealEventReplayer.readDealEvents(node.getWeb3j(),
+                    EthLogsStubNode.HUB_ADDRESS, EthLogsStubNode.POOL_ADDRESS, BigInteger.ZERO, BigInteger.valueOf(100)))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.chain.ChainDeal;
+import com.iexec.core.task.event.DealTasksCreatedEvent;
+import com.iexec.core.task.event.TaskCreatedEvent;
+import com.iexec.core.task.event.TasksCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealIngestionPipelineTests {
+
+    private final List<String> insertedDeals = new CopyOnWriteArrayList<>();
+    private final List<TasksCreatedEvent> publishedEvents = new CopyOnWriteArrayList<>();
+    private final List<String> checkpointedDeals = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private DealIngestionPipeline pipeline;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stop() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    private DealIngestionPipeline buildPipeline(Function<DealEvent, Optional<ChainDeal>> dealFetcher,
+                                                int bufferSize, int fetchConcurrency) {
+        return new DealIngestionPipeline(
+                dealFetcher,
+                (dealEvent, chainDeal, eventPublisher) -> {
+                    insertedDeals.add(dealEvent.getChainDealId());
+                    eventPublisher.accept(new TaskCreatedEvent("created-" + dealEvent.getChainDealId()));
+                },
+                publishedEvents::add,
+                dealEvent -> checkpointedDeals.add(dealEvent.getChainDealId()),
+                bufferSize,
+                fetchConcurrency,
+                meterRegistry);
+    }
+
+    private static DealEvent buildDealEvent(String chainDealId) {
+        return new DealEvent(chainDealId, BigInteger.ONE);
+    }
+
+    private void waitUntilIdle() {
+        Awaitility.await()
+                .timeout(5, TimeUnit.SECONDS)
+                .until(() -> pipeline.isIdle());
+    }
+
+    @Test
+    void shouldNotBuildPipelineWithoutPositiveSizes() {
+        assertThatThrownBy(() -> buildPipeline(dealEvent -> Optional.empty(), 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buildPipeline(dealEvent -> Optional.empty(), 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldIngestDealsInReceptionOrderWhenFetchedOutOfOrder() {
+        final CountDownLatch lastDealFetched = new CountDownLatch(1);
+        pipeline = buildPipeline(dealEvent -> {
+            if ("deal1".equals(dealEvent.getChainDealId())) {
+                awaitQuietly(lastDealFetched);
+            } else if ("deal3".equals(dealEvent.getChainDealId())) {
+                lastDealFetched.countDown();
+            }
+            return Optional.of(new ChainDeal());
+        }, 10, 3);
+
+        pipeline.submit(buildDealEvent("deal1"));
+        pipeline.submit(buildDealEvent("deal2"));
+        pipeline.submit(buildDealEvent("deal3"));
+        waitUntilIdle();
+
+        assertThat(insertedDeals).containsExactly("deal1", "deal2", "deal3");
+        assertThat(publishedEvents).containsExactly(new TaskCreatedEvent("created-deal1"),
+                new TaskCreatedEvent("created-deal2"), new TaskCreatedEvent("created-deal3"));
+        assertThat(checkpointedDeals).containsExactly("deal1", "deal2", "deal3");
+    }
+
+    @Test
+    void shouldCheckpointDealsNotIngested() {
+        pipeline = buildPipeline(dealEvent -> {
+            if ("failing".equals(dealEvent.getChainDealId())) {
+                throw new IllegalStateException("node unavailable");
+            }
+            return "expired".equals(dealEvent.getChainDealId()) ? Optional.empty() : Optional.of(new ChainDeal());
+        }, 10, 1);
+
+        pipeline.submit(buildDealEvent("failing"));
+        pipeline.submit(buildDealEvent("expired"));
+        pipeline.submit(buildDealEvent("deal"));
+        waitUntilIdle();
+
+        assertThat(insertedDeals).containsExactly("deal");
+        assertThat(checkpointedDeals).containsExactly("failing", "expired", "deal");
+    }
+
+    @Test
+    void shouldBlockReceptionWhileBufferIsFull() {
+        final CountDownLatch fetchAllowed = new CountDownLatch(1);
+        pipeline = buildPipeline(dealEvent -> {
+            awaitQuietly(fetchAllowed);
+            return Optional.of(new ChainDeal());
+        }, 1, 1);
+        // deal1 is taken by the insertion stage waiting for its fetch, deal2 fills the buffer, deal3 has to wait
+        pipeline.submit(buildDealEvent("deal1"));
+        pipeline.submit(buildDealEvent("deal2"));
+
+        final CompletableFuture<Boolean> thirdSubmission =
+                CompletableFuture.supplyAsync(() -> pipeline.submit(buildDealEvent("deal3")));
+
+        Awaitility.await()
+                .during(200, TimeUnit.MILLISECONDS)
+                .atMost(1, TimeUnit.SECONDS)
+                .until(() -> !thirdSubmission.isDone());
+        fetchAllowed.countDown();
+        assertThat(thirdSubmission.join()).isTrue();
+        waitUntilIdle();
+        assertThat(checkpointedDeals).containsExactly("deal1", "deal2", "deal3");
+    }
+
+    @Test
+    void shouldPublishEventsOfEachChunkBeforeInsertingNextOne() {
+        final List<Integer> nbPublishedEventsBeforeInserts = new CopyOnWriteArrayList<>();
+        pipeline = new DealIngestionPipeline(
+                dealEvent -> Optional.of(new ChainDeal()),
+                (dealEvent, chainDeal, eventPublisher) -> {
+                    for (int chunk = 0; chunk < 3; chunk++) {
+                        nbPublishedEventsBeforeInserts.add(publishedEvents.size());
+                        eventPublisher.accept(new DealTasksCreatedEvent(dealEvent.getChainDealId(),
+                                List.of("task" + chunk)));
+                    }
+                },
+                publishedEvents::add,
+                dealEvent -> checkpointedDeals.add(dealEvent.getChainDealId()),
+                10,
+                1,
+                meterRegistry);
+
+        pipeline.submit(buildDealEvent("deal"));
+        waitUntilIdle();
+
+        assertThat(nbPublishedEventsBeforeInserts).containsExactly(0, 1, 2);
+        assertThat(publishedEvents).hasSize(3);
+        assertThat(checkpointedDeals).containsExactly("deal");
+    }
+
+    @Test
+    void shouldRecordMetricsOfEachStage() {
+        pipeline = buildPipeline(dealEvent -> Optional.of(new ChainDeal()), 10, 2);
+
+        pipeline.submit(buildDealEvent("deal1"));
+        pipeline.submit(buildDealEvent("deal2"));
+        waitUntilIdle();
+
+        for (String stage : List.of("receive", "fetch", "insert", "publish")) {
+            assertThat(meterRegistry.get(DealIngestionPipeline.STAGE_METRIC_NAME).tag("stage", stage).timer().count())
+                    .isEqualTo(2);
+        }
+        assertThat(meterRegistry.get(DealIngestionPipeline.PENDING_METRIC_NAME).gauge().value()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
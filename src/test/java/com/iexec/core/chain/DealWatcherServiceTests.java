@@ -23,16 +23,25 @@ import com.iexec.common.chain.DealParams;
 import com.iexec.core.configuration.ConfigurationService;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
+import com.iexec.core.task.event.DealTasksCreatedEvent;
 import com.iexec.core.task.event.TaskCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.reactivex.Flowable;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static com.iexec.core.task.TaskTestsUtils.CHAIN_DEAL_ID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -50,12 +59,36 @@ class DealWatcherServiceTests {
     @Mock
     private TaskService taskService;
 
-    @InjectMocks
+    @Mock
+    private Web3jService web3jService;
+
+    @Mock
+    private DealEventReplayer dealEventReplayer;
+
+    @Mock
+    private ChainConfig chainConfig;
+
     private DealWatcherService dealWatcherService;
 
     @BeforeEach
     void init() {
         MockitoAnnotations.openMocks(this);
+        when(chainConfig.getDealIngestionBufferSize()).thenReturn(10);
+        when(chainConfig.getDealIngestionFetchConcurrency()).thenReturn(2);
+        dealWatcherService = new DealWatcherService(iexecHubService, configurationService, applicationEventPublisher,
+                taskService, web3jService, dealEventReplayer, chainConfig, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stop() {
+        dealWatcherService.shutdown();
+    }
+
+    private void subscribeAndWaitForIngestion(BigInteger from) {
+        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        Awaitility.await()
+                .timeout(5, TimeUnit.SECONDS)
+                .until(() -> dealWatcherService.isIngestionIdle());
     }
 
     @Test
@@ -84,7 +117,7 @@ class DealWatcherServiceTests {
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
         when(iexecHubService.getDealEventObservableToLatest(from)).thenReturn(Flowable.just(dealEvent));
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         Mockito.verify(configurationService, Mockito.times(1))
                 .setLastSeenBlockWithDeal(blockOfDeal);
@@ -124,7 +157,7 @@ class DealWatcherServiceTests {
 
         ArgumentCaptor<TaskCreatedEvent> argumentCaptor = ArgumentCaptor.forClass(TaskCreatedEvent.class);
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         Mockito.verify(configurationService, Mockito.times(1))
                 .setLastSeenBlockWithDeal(blockOfDeal);
@@ -136,6 +169,58 @@ class DealWatcherServiceTests {
         assertThat(argumentCaptor.getValue()).isEqualTo(new TaskCreatedEvent(task.getChainTaskId()));
     }
 
+    @Test
+    void shouldCreateTasksOfBagOfTasksInBulkAndPublishEventPerChunk() {
+        final int botSize = 2 * DealWatcherService.TASK_INSERT_CHUNK_SIZE + 1;
+        ChainDeal chainDeal = ChainDeal.builder()
+                .botFirst(BigInteger.valueOf(0))
+                .botSize(BigInteger.valueOf(botSize))
+                .chainApp(ChainApp.builder().uri("0x00").build())
+                .chainCategory(new ChainCategory())
+                .params(DealParams.builder().iexecArgs("args").build())
+                .trust(BigInteger.valueOf(3))
+                .build();
+
+        BigInteger from = BigInteger.valueOf(0);
+        BigInteger blockOfDeal = BigInteger.valueOf(3);
+        Optional<DealEvent> dealEvent = Optional.of(DealEvent.builder()
+                .chainDealId(CHAIN_DEAL_ID)
+                .blockNumber(blockOfDeal)
+                .build());
+
+        when(iexecHubService.getDealEventObservableToLatest(from)).thenReturn(Flowable.just(dealEvent));
+        when(iexecHubService.getChainDeal(CHAIN_DEAL_ID)).thenReturn(Optional.of(chainDeal));
+        when(iexecHubService.isBeforeContributionDeadline(chainDeal)).thenReturn(true);
+        when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
+        // first task of the deal has already been added
+        when(taskService.addTasks(anyList())).thenAnswer(invocation -> invocation.<List<Task>>getArgument(0)
+                .stream()
+                .filter(task -> task.getTaskIndex() != 0)
+                .collect(Collectors.toList()));
+
+        subscribeAndWaitForIngestion(from);
+
+        ArgumentCaptor<List<Task>> chunksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(taskService, times(3)).addTasks(chunksCaptor.capture());
+        assertThat(chunksCaptor.getAllValues())
+                .extracting(List::size)
+                .containsExactly(DealWatcherService.TASK_INSERT_CHUNK_SIZE, DealWatcherService.TASK_INSERT_CHUNK_SIZE, 1);
+        verify(taskService, never()).addTask(any(), anyInt(), anyLong(), any(), any(), anyInt(), anyLong(), any(), any(), any());
+
+        ArgumentCaptor<DealTasksCreatedEvent> eventsCaptor = ArgumentCaptor.forClass(DealTasksCreatedEvent.class);
+        verify(applicationEventPublisher, times(3)).publishEvent(eventsCaptor.capture());
+        assertThat(eventsCaptor.getAllValues())
+                .extracting(event -> event.getChainTaskIds().size())
+                .containsExactly(DealWatcherService.TASK_INSERT_CHUNK_SIZE - 1, DealWatcherService.TASK_INSERT_CHUNK_SIZE, 1);
+        // each chunk is published before the next one is inserted
+        InOrder inOrder = inOrder(taskService, applicationEventPublisher);
+        for (int i = 0; i < 3; i++) {
+            inOrder.verify(taskService).addTasks(anyList());
+            inOrder.verify(applicationEventPublisher).publishEvent(any(DealTasksCreatedEvent.class));
+        }
+        verify(configurationService).setLastSeenBlockWithDeal(blockOfDeal);
+    }
+
     @Test
     void shouldUpdateLastSeenBlockWhenOneDealAndNotCreateTaskSinceDealIsExpired() {
         ChainDeal chainDeal = ChainDeal.builder()
@@ -162,7 +247,7 @@ class DealWatcherServiceTests {
                 .thenReturn(false);
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         verify(configurationService, times(1))
                 .setLastSeenBlockWithDeal(blockOfDeal);
@@ -192,7 +277,7 @@ class DealWatcherServiceTests {
         when(iexecHubService.getChainDeal(dealEvent.get().getChainDealId())).thenReturn(Optional.of(chainDeal));
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         Mockito.verify(configurationService, Mockito.times(1))
             .setLastSeenBlockWithDeal(blockOfDeal);
@@ -219,7 +304,7 @@ class DealWatcherServiceTests {
         when(iexecHubService.getChainDeal(dealEvent.get().getChainDealId())).thenReturn(Optional.of(chainDeal));
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         Mockito.verify(configurationService, Mockito.times(1))
                 .setLastSeenBlockWithDeal(blockOfDeal);
@@ -246,7 +331,7 @@ class DealWatcherServiceTests {
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
         when(iexecHubService.getDealEventObservableToLatest(from)).thenReturn(Flowable.just(dealEvent1, dealEvent2));
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         Mockito.verify(configurationService, Mockito.times(1))
                 .setLastSeenBlockWithDeal(blockOfDeal1);
@@ -267,7 +352,7 @@ class DealWatcherServiceTests {
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(from);
         when(iexecHubService.getDealEventObservableToLatest(from)).thenReturn(Flowable.just(dealEvent1));
 
-        dealWatcherService.subscribeToDealEventFromOneBlockToLatest(from);
+        subscribeAndWaitForIngestion(from);
 
         Mockito.verify(configurationService, Mockito.times(0))
                 .setLastSeenBlockWithDeal(blockOfDeal1);
@@ -284,29 +369,27 @@ class DealWatcherServiceTests {
 
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(BigInteger.TEN);
         when(configurationService.getFromReplay()).thenReturn(BigInteger.ZERO);
-        when(iexecHubService.getDealEventObservable(any(), any())).thenReturn(Flowable.just(dealEvent1));
+        when(dealEventReplayer.replay(eq(BigInteger.ZERO), eq(BigInteger.TEN), any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<DealEvent>>getArgument(2).accept(dealEvent1.get());
+            invocation.<Consumer<BigInteger>>getArgument(3).accept(BigInteger.TEN);
+            return BigInteger.TEN;
+        });
 
         dealWatcherService.replayDealEvent();
 
         Mockito.verify(iexecHubService, Mockito.times(1))
                 .getChainDeal(any());
+        Mockito.verify(configurationService).setFromReplay(BigInteger.TEN);
     }
 
     @Test
     void shouldNotReplayIfFromReplayEqualsLastSeenBlock() {
-        BigInteger blockOfDeal1 = BigInteger.valueOf(3);
-        Optional<DealEvent> dealEvent1 = Optional.of(DealEvent
-                .builder()
-                .chainDealId("chainDealId1")
-                .blockNumber(blockOfDeal1)
-                .build());
-
         when(configurationService.getLastSeenBlockWithDeal()).thenReturn(BigInteger.ZERO);
         when(configurationService.getFromReplay()).thenReturn(BigInteger.ZERO);
-        when(iexecHubService.getDealEventObservable(any(), any())).thenReturn(Flowable.just(dealEvent1));
 
         dealWatcherService.replayDealEvent();
 
+        Mockito.verifyNoInteractions(dealEventReplayer);
         Mockito.verify(iexecHubService, Mockito.times(0))
                 .getChainDeal(any());
     }
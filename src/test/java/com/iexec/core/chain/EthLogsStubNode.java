@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.iexec.common.contract.generated.IexecHubContract;
+import com.sun.net.httpserver.HttpServer;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local JSON-RPC endpoint answering {@code eth_getLogs} requests with a {@code SchedulerNotice} log
+ * of {@link #POOL_ADDRESS} every {@code dealPeriod} blocks.
+ * <p>
+ * Like most nodes, it answers an error to requests over more than {@code maxRange} blocks.
+ */
+class EthLogsStubNode implements AutoCloseable {
+
+    static final String HUB_ADDRESS = "0xbf6b2b07e47326b7c8bfcb4a5460bef9f0fd2002";
+    static final String POOL_ADDRESS = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final String EMPTY_HASH = "0x" + "00".repeat(32);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger nbRequests = new AtomicInteger();
+    private final AtomicInteger nbFailedRequests = new AtomicInteger();
+    private final long dealPeriod;
+    private final long maxRange;
+    private final long latencyMs;
+    private final ExecutorService executorService;
+    private final HttpServer server;
+    private final Web3j web3j;
+
+    EthLogsStubNode(long dealPeriod, long maxRange, long latencyMs) throws IOException {
+        this.dealPeriod = dealPeriod;
+        this.maxRange = maxRange;
+        this.latencyMs = latencyMs;
+        this.executorService = Executors.newFixedThreadPool(8);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executorService);
+        server.createContext("/", exchange -> {
+            nbRequests.incrementAndGet();
+            final JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            final byte[] body = objectMapper.writeValueAsBytes(answer(request));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        this.web3j = Web3j.build(new HttpService("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    /**
+     * Deal ID of the deal emitted at a given block.
+     */
+    static String getChainDealId(long blockNumber) {
+        return String.format("0x%064x", blockNumber);
+    }
+
+    private ObjectNode answer(JsonNode request) {
+        sleep();
+        final ObjectNode response = objectMapper.createObjectNode()
+                .put("jsonrpc", "2.0")
+                .put("id", request.get("id").asLong());
+        final JsonNode filter = request.get("params").get(0);
+        final long from = Numeric.decodeQuantity(filter.get("fromBlock").asText()).longValue();
+        final long to = Numeric.decodeQuantity(filter.get("toBlock").asText()).longValue();
+        if (to - from + 1 > maxRange) {
+            nbFailedRequests.incrementAndGet();
+            response.putObject("error")
+                    .put("code", -32005)
+                    .put("message", "query exceeds max block range " + maxRange);
+            return response;
+        }
+        final ArrayNode logs = response.putArray("result");
+        final long firstDealBlock = ((from + dealPeriod - 1) / dealPeriod) * dealPeriod;
+        for (long block = firstDealBlock; block <= to; block += dealPeriod) {
+            final ObjectNode log = logs.addObject()
+                    .put("address", HUB_ADDRESS)
+                    .put("data", getChainDealId(block))
+                    .put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(block)))
+                    .put("blockHash", EMPTY_HASH)
+                    .put("transactionHash", EMPTY_HASH)
+                    .put("transactionIndex", "0x0")
+                    .put("logIndex", "0x0")
+                    .put("removed", false);
+            log.putArray("topics")
+                    .add(EventEncoder.encode(IexecHubContract.SCHEDULERNOTICE_EVENT))
+                    .add("0x" + TypeEncoder.encode(new Address(POOL_ADDRESS)));
+        }
+        return response;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    Web3j getWeb3j() {
+        return web3j;
+    }
+
+    int getNbRequests() {
+        return nbRequests.get();
+    }
+
+    int getNbFailedRequests() {
+        return nbFailedRequests.get();
+    }
+
+    @Override
+    public void close() {
+        web3j.shutdown();
+        server.stop(0);
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link GasBalanceBatchReader} against a local mock JSON-RPC endpoint
+ * answering {@code eth_getBalance} batch requests.
+ */
+class GasBalanceBatchReaderTests {
+
+    // balance requests for this wallet are answered with a JSON-RPC error
+    private static final String FAILING_WALLET = "0x00000000000000000000000000000000000000ff";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger nbHttpRequests = new AtomicInteger();
+    private HttpServer server;
+    private Web3j web3j;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            nbHttpRequests.incrementAndGet();
+            final JsonNode requests = objectMapper.readTree(exchange.getRequestBody());
+            final ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode request : requests) {
+                responses.add(answer(request));
+            }
+            final byte[] body = objectMapper.writeValueAsBytes(responses);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        web3j = Web3j.build(new HttpService("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void stop() {
+        web3j.shutdown();
+        server.stop(0);
+    }
+
+    /**
+     * Answers a balance equal to the wallet address, or an error for {@link #FAILING_WALLET}.
+     */
+    private ObjectNode answer(JsonNode request) {
+        final ObjectNode response = objectMapper.createObjectNode()
+                .put("jsonrpc", "2.0")
+                .put("id", request.get("id").asLong());
+        final String walletAddress = request.get("params").get(0).asText();
+        if (FAILING_WALLET.equals(walletAddress)) {
+            response.putObject("error").put("code", -32000).put("message", "header not found");
+            return response;
+        }
+        response.put("result", "0x" + new BigInteger(walletAddress.substring(2), 16).toString(16));
+        return response;
+    }
+
+    private static List<String> buildWalletAddresses(int nbWallets) {
+        final List<String> walletAddresses = new ArrayList<>(nbWallets);
+        for (int i = 1; i <= nbWallets; i++) {
+            walletAddresses.add(String.format("0x%040x", i));
+        }
+        return walletAddresses;
+    }
+
+    @Test
+    void shouldNotBuildReaderWithoutPositiveBatchSize() {
+        assertThatThrownBy(() -> new GasBalanceBatchReader(web3j, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReadBalancesWithOneRequestPerBatch() {
+        final GasBalanceBatchReader reader = new GasBalanceBatchReader(web3j, 2);
+        final List<String> walletAddresses = buildWalletAddresses(5);
+
+        final Map<String, BigInteger> balances = reader.read(walletAddresses);
+
+        assertThat(nbHttpRequests.get()).isEqualTo(3);
+        assertThat(balances).hasSize(5);
+        for (int i = 0; i < walletAddresses.size(); i++) {
+            assertThat(balances.get(walletAddresses.get(i))).isEqualTo(BigInteger.valueOf(i + 1L));
+        }
+    }
+
+    @Test
+    void shouldOmitBalancesWhichCouldNotBeRead() {
+        final GasBalanceBatchReader reader = new GasBalanceBatchReader(web3j, 10);
+        final List<String> walletAddresses = buildWalletAddresses(2);
+        walletAddresses.add(FAILING_WALLET);
+
+        final Map<String, BigInteger> balances = reader.read(walletAddresses);
+
+        assertThat(nbHttpRequests.get()).isOne();
+        assertThat(balances).containsOnlyKeys(walletAddresses.get(0), walletAddresses.get(1));
+    }
+
+    @Test
+    void shouldOmitBalancesOfFailedBatch() {
+        server.stop(0);
+        final GasBalanceBatchReader reader = new GasBalanceBatchReader(web3j, 10);
+
+        assertThat(reader.read(buildWalletAddresses(3))).isEmpty();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GasBalanceCacheServiceTests {
+
+    private static final String WALLET_ADDRESS = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final String OTHER_WALLET_ADDRESS = "0x2a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final long IDLE_TTL = 60_000;
+
+    @Mock
+    private Web3jService web3jService;
+    @Mock
+    private ChainConfig chainConfig;
+    @Mock
+    private GasBalanceBatchReader gasBalanceBatchReader;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GasBalanceCacheService gasBalanceCacheService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        when(chainConfig.getGasBalanceCacheMaxStaleBlocks()).thenReturn(5L);
+        when(chainConfig.getGasBalanceCacheIdleTtl()).thenReturn(IDLE_TTL);
+        meterRegistry = new SimpleMeterRegistry();
+        gasBalanceCacheService = new GasBalanceCacheService(web3jService, chainConfig, gasBalanceBatchReader, meterRegistry);
+    }
+
+    private double getCacheCount(String result) {
+        return meterRegistry.get(GasBalanceCacheService.CACHE_METRIC_NAME)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void shouldCheckOnChainOnlyOnFirstDemand() {
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+
+        assertThat(gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS)).isTrue();
+        assertThat(gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS)).isTrue();
+
+        verify(web3jService, times(1)).hasEnoughGas(WALLET_ADDRESS);
+        assertThat(getCacheCount("miss")).isOne();
+        assertThat(getCacheCount("hit")).isOne();
+    }
+
+    @Test
+    void shouldRefreshStaleCheckInBackground() {
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+
+        when(web3jService.getLatestBlockNumber()).thenReturn(10L);
+        when(gasBalanceBatchReader.read(List.of(WALLET_ADDRESS))).thenReturn(Map.of(WALLET_ADDRESS, BigInteger.ONE));
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(false);
+        gasBalanceCacheService.refreshStaleChecks();
+        assertThat(gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS)).isFalse();
+
+        verify(web3jService, times(2)).hasEnoughGas(WALLET_ADDRESS);
+        assertThat(getCacheCount("hit")).isOne();
+    }
+
+    @Test
+    void shouldReadBalancesOfStaleChecksInSingleBatch() {
+        when(web3jService.hasEnoughGas(any())).thenReturn(true);
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+        gasBalanceCacheService.hasEnoughGas(OTHER_WALLET_ADDRESS);
+
+        when(web3jService.getLatestBlockNumber()).thenReturn(10L);
+        gasBalanceCacheService.refreshStaleChecks();
+
+        verify(gasBalanceBatchReader).read(argThat(walletAddresses -> walletAddresses.size() == 2
+                && walletAddresses.containsAll(List.of(WALLET_ADDRESS, OTHER_WALLET_ADDRESS))));
+    }
+
+    @Test
+    void shouldNotCheckAgainWhenBalanceIsUnchanged() {
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+        when(gasBalanceBatchReader.read(List.of(WALLET_ADDRESS))).thenReturn(Map.of(WALLET_ADDRESS, BigInteger.TEN));
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+        // first refresh records the balance the check is based on
+        when(web3jService.getLatestBlockNumber()).thenReturn(10L);
+        gasBalanceCacheService.refreshStaleChecks();
+
+        when(web3jService.getLatestBlockNumber()).thenReturn(20L);
+        gasBalanceCacheService.refreshStaleChecks();
+
+        verify(gasBalanceBatchReader, times(2)).read(List.of(WALLET_ADDRESS));
+        verify(web3jService, times(2)).hasEnoughGas(WALLET_ADDRESS);
+        assertThat(gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS)).isTrue();
+    }
+
+    @Test
+    void shouldKeepStaleCheckWhenBalanceCouldNotBeRead() {
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+
+        when(web3jService.getLatestBlockNumber()).thenReturn(10L);
+        when(gasBalanceBatchReader.read(List.of(WALLET_ADDRESS))).thenReturn(Map.of());
+        gasBalanceCacheService.refreshStaleChecks();
+
+        verify(web3jService, times(1)).hasEnoughGas(WALLET_ADDRESS);
+        assertThat(gasBalanceCacheService.getNbChecks()).isOne();
+    }
+
+    @Test
+    void shouldNotRefreshFreshCheck() {
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+        when(web3jService.getLatestBlockNumber()).thenReturn(3L);
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+
+        gasBalanceCacheService.refreshStaleChecks();
+
+        verify(web3jService, times(1)).hasEnoughGas(WALLET_ADDRESS);
+        verifyNoInteractions(gasBalanceBatchReader);
+        assertThat(gasBalanceCacheService.getNbChecks()).isOne();
+    }
+
+    @Test
+    void shouldKeepCheckOfWorkerAskingWithinIdleTtl() {
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+
+        gasBalanceCacheService.refreshStaleChecks();
+        gasBalanceCacheService.refreshStaleChecks();
+
+        assertThat(gasBalanceCacheService.getNbChecks()).isOne();
+    }
+
+    @Test
+    void shouldEvictCheckOfWorkerNotAskingAnymore() throws InterruptedException {
+        when(chainConfig.getGasBalanceCacheIdleTtl()).thenReturn(50L);
+        when(web3jService.hasEnoughGas(WALLET_ADDRESS)).thenReturn(true);
+        gasBalanceCacheService.hasEnoughGas(WALLET_ADDRESS);
+
+        gasBalanceCacheService.refreshStaleChecks();
+        assertThat(gasBalanceCacheService.getNbChecks()).isOne();
+        TimeUnit.MILLISECONDS.sleep(100);
+        gasBalanceCacheService.refreshStaleChecks();
+        assertThat(gasBalanceCacheService.getNbChecks()).isZero();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import com.iexec.common.replicate.ReplicateStatus;
+import com.iexec.common.replicate.ReplicateStatusDetails;
+import com.iexec.common.replicate.ReplicateStatusUpdate;
+import com.iexec.common.utils.BytesUtils;
+import com.iexec.core.configuration.ConfigurationService;
+import com.iexec.core.replicate.Replicate;
+import com.iexec.core.replicate.ReplicatesService;
+import com.iexec.core.task.Task;
+import com.iexec.core.task.TaskService;
+import com.iexec.core.task.update.TaskUpdateRequestManager;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.iexec.core.task.TaskTestsUtils.CHAIN_TASK_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskEventWatcherServiceTests {
+
+    private static final String WALLET_ADDRESS = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final String CHECKSUM_WALLET_ADDRESS = "0x1a69b2eB604db8eBA185df03ea4F5288dcBbD248";
+
+    @Mock
+    private IexecHubService iexecHubService;
+    @Mock
+    private ConfigurationService configurationService;
+    @Mock
+    private ReplicatesService replicatesService;
+    @Mock
+    private TaskService taskService;
+    @Mock
+    private TaskUpdateRequestManager taskUpdateRequestManager;
+
+    @InjectMocks
+    private TaskEventWatcherService taskEventWatcherService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static TaskChainEvent buildEvent(TaskChainEvent.EventType type, long blockNumber) {
+        return TaskChainEvent.builder()
+                .type(type)
+                .chainTaskId(CHAIN_TASK_ID)
+                .walletAddress(type.isHasWorker() ? WALLET_ADDRESS : null)
+                .blockNumber(BigInteger.valueOf(blockNumber))
+                .build();
+    }
+
+    private static Replicate buildReplicate(ReplicateStatus status) {
+        final Replicate replicate = new Replicate(CHECKSUM_WALLET_ADDRESS, CHAIN_TASK_ID);
+        replicate.setStatusUpdateList(new ArrayList<>(Collections.singletonList(
+                ReplicateStatusUpdate.builder().status(status).build())));
+        return replicate;
+    }
+
+    // region subscription
+    @Test
+    void shouldSubscribeFromLastSeenBlockAndPersistNewBlocks() {
+        final BigInteger from = BigInteger.TEN;
+        when(configurationService.getLastSeenBlockWithTaskEvent()).thenReturn(from);
+        when(iexecHubService.getTaskEventObservableToLatest(from)).thenReturn(Flowable.just(
+                buildEvent(TaskChainEvent.EventType.CONSENSUS, 10),
+                buildEvent(TaskChainEvent.EventType.CONSENSUS, 11),
+                buildEvent(TaskChainEvent.EventType.FINALIZE, 11)));
+
+        taskEventWatcherService.run();
+
+        verify(configurationService, never()).setLastSeenBlockWithTaskEvent(from);
+        verify(configurationService, times(1)).setLastSeenBlockWithTaskEvent(BigInteger.valueOf(11));
+    }
+
+    @Test
+    void shouldResubscribeOnceSubscriptionFailed() {
+        final BigInteger from = BigInteger.TEN;
+        when(configurationService.getLastSeenBlockWithTaskEvent()).thenReturn(from);
+        when(iexecHubService.getTaskEventObservableToLatest(from))
+                .thenReturn(Flowable.error(new RuntimeException("node unavailable")));
+
+        taskEventWatcherService.run();
+        taskEventWatcherService.resubscribeIfNeeded();
+
+        verify(iexecHubService, times(2)).getTaskEventObservableToLatest(from);
+    }
+    // endregion
+
+    // region replicate events
+    @Test
+    void shouldSetReplicateContributedOnContributeEvent() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(new Task()));
+        when(replicatesService.getReplicates(CHAIN_TASK_ID))
+                .thenReturn(List.of(buildReplicate(ReplicateStatus.CONTRIBUTING)));
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.CONTRIBUTE, 12));
+
+        verify(iexecHubService).evictChainContribution(CHAIN_TASK_ID, CHECKSUM_WALLET_ADDRESS);
+        verify(replicatesService).updateReplicateStatus(CHAIN_TASK_ID, CHECKSUM_WALLET_ADDRESS,
+                ReplicateStatus.CONTRIBUTED, new ReplicateStatusDetails(12L));
+    }
+
+    @Test
+    void shouldSetReplicateRevealedOnRevealEvent() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(new Task()));
+        when(replicatesService.getReplicates(CHAIN_TASK_ID))
+                .thenReturn(List.of(buildReplicate(ReplicateStatus.REVEALING)));
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.REVEAL, 12));
+
+        verify(replicatesService).updateReplicateStatus(CHAIN_TASK_ID, CHECKSUM_WALLET_ADDRESS,
+                ReplicateStatus.REVEALED, new ReplicateStatusDetails(12L));
+    }
+
+    @Test
+    void shouldNotUpdateReplicateAlreadyNotified() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(new Task()));
+        when(replicatesService.getReplicates(CHAIN_TASK_ID))
+                .thenReturn(List.of(buildReplicate(ReplicateStatus.CONTRIBUTED)));
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.CONTRIBUTE, 12));
+
+        verify(replicatesService, never()).updateReplicateStatus(any(), any(), any(ReplicateStatus.class),
+                any(ReplicateStatusDetails.class));
+    }
+
+    @Test
+    void shouldIgnoreReplicateEventOfUnknownWorker() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(new Task()));
+        when(replicatesService.getReplicates(CHAIN_TASK_ID)).thenReturn(Collections.emptyList());
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.CONTRIBUTE, 12));
+
+        verify(iexecHubService, never()).evictChainContribution(any(), any());
+        verify(replicatesService, never()).updateReplicateStatus(any(), any(), any(ReplicateStatus.class),
+                any(ReplicateStatusDetails.class));
+    }
+
+    @Test
+    void shouldIgnoreReplicateEventOfTaskOfAnotherPool() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.empty());
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.CONTRIBUTE, 12));
+
+        verify(replicatesService, never()).getReplicates(any());
+        verify(iexecHubService, never()).evictChainContribution(any(), any());
+    }
+    // endregion
+
+    // region task events
+    @Test
+    void shouldUpdateTaskOnConsensusEvent() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(new Task()));
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.CONSENSUS, 12));
+
+        verify(iexecHubService).evictChainTask(CHAIN_TASK_ID);
+        verify(taskUpdateRequestManager).publishRequest(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldIgnoreEventOfTaskOfAnotherPool() {
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.empty());
+
+        taskEventWatcherService.onTaskEvent(buildEvent(TaskChainEvent.EventType.FINALIZE, 12));
+
+        verifyNoInteractions(taskUpdateRequestManager);
+        verify(configurationService).setLastSeenBlockWithTaskEvent(BigInteger.valueOf(12));
+    }
+    // endregion
+
+    // region log decoding
+    @Test
+    void shouldDecodeContributeEventFromLog() {
+        final Log log = buildLog(TaskChainEvent.EventType.CONTRIBUTE, List.of(
+                new Bytes32(BytesUtils.stringToBytes(CHAIN_TASK_ID)),
+                new Address(WALLET_ADDRESS),
+                new Bytes32(new byte[32])));
+
+        final Optional<TaskChainEvent> event = TaskChainEvent.fromLog(log);
+
+        assertThat(event).contains(buildEvent(TaskChainEvent.EventType.CONTRIBUTE, 12));
+    }
+
+    @Test
+    void shouldNotDecodeUnknownLog() {
+        final Log log = new Log();
+        log.setTopics(List.of("0x" + "00".repeat(32)));
+
+        assertThat(TaskChainEvent.fromLog(log)).isEmpty();
+    }
+
+    /**
+     * Encodes event values in topics or data, depending on whether their parameter is indexed.
+     */
+    @SuppressWarnings("rawtypes")
+    private static Log buildLog(TaskChainEvent.EventType type, List<Type> values) {
+        final Event event = type.getEvent();
+        final List<String> topics = new ArrayList<>();
+        topics.add(type.getTopic());
+        final StringBuilder data = new StringBuilder("0x");
+        for (int i = 0; i < event.getParameters().size(); i++) {
+            final TypeReference<Type> parameter = event.getParameters().get(i);
+            final String encodedValue = TypeEncoder.encode(values.get(i));
+            if (parameter.isIndexed()) {
+                topics.add("0x" + encodedValue);
+            } else {
+                data.append(encodedValue);
+            }
+        }
+        final Log log = new Log();
+        log.setTopics(topics);
+        log.setData(data.toString());
+        log.setBlockNumber("0xc");
+        return log;
+    }
+    // endregion
+}
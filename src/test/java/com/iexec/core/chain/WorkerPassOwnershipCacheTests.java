@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.chain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkerPassOwnershipCacheTests {
+
+    private static final String FROM = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final String TO = "0x2a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final long TTL = 200;
+
+    private WorkerPassOwnershipCache cache;
+    private AtomicInteger nbReads;
+
+    @BeforeEach
+    void init() {
+        cache = new WorkerPassOwnershipCache(TTL);
+        nbReads = new AtomicInteger();
+    }
+
+    private Function<String, Optional<Boolean>> reader(Optional<Boolean> ownership) {
+        return address -> {
+            nbReads.incrementAndGet();
+            return ownership;
+        };
+    }
+
+    @Test
+    void shouldReadOwnershipOnlyOnFirstCall() {
+        assertThat(cache.get(FROM, reader(Optional.of(true)))).contains(true);
+        assertThat(cache.get(FROM, reader(Optional.of(false)))).contains(true);
+
+        assertThat(nbReads.get()).isOne();
+    }
+
+    @Test
+    void shouldReadOwnershipAgainAfterTtl() throws InterruptedException {
+        cache.get(FROM, reader(Optional.of(true)));
+
+        TimeUnit.MILLISECONDS.sleep(TTL * 2);
+
+        assertThat(cache.get(FROM, reader(Optional.of(false)))).contains(false);
+        assertThat(nbReads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldInvalidateBothPartiesOfTransfer() {
+        cache.get(FROM, reader(Optional.of(true)));
+        cache.get(TO, reader(Optional.of(false)));
+
+        cache.invalidate(FROM, TO);
+
+        assertThat(cache.get(FROM, reader(Optional.of(false)))).contains(false);
+        assertThat(cache.get(TO, reader(Optional.of(true)))).contains(true);
+        assertThat(nbReads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldInvalidateAllOwnerships() {
+        cache.get(FROM, reader(Optional.of(true)));
+        cache.get(TO, reader(Optional.of(false)));
+
+        cache.invalidateAll();
+
+        assertThat(cache.get(FROM, reader(Optional.of(false)))).contains(false);
+        assertThat(cache.get(TO, reader(Optional.of(true)))).contains(true);
+        assertThat(nbReads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotCacheFailedRead() {
+        assertThat(cache.get(FROM, reader(Optional.empty()))).isEmpty();
+        assertThat(cache.get(FROM, reader(Optional.of(true)))).contains(true);
+
+        assertThat(nbReads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheReadInvalidatedWhileInFlight() {
+        final Optional<Boolean> staleOwnership = cache.get(FROM, address -> {
+            // Transfer seen while the balance is being read
+            cache.invalidate(FROM, TO);
+            return Optional.of(true);
+        });
+
+        assertThat(staleOwnership).contains(true);
+        assertThat(cache.get(FROM, reader(Optional.of(false)))).contains(false);
+        assertThat(nbReads.get()).isOne();
+    }
+}
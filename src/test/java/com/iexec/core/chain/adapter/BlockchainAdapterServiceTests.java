@@ -29,6 +29,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.*;
 
@@ -39,8 +40,6 @@ class BlockchainAdapterServiceTests {
     public static final int TASK_INDEX = 0;
     public static final String LINK = "link";
     public static final String CALLBACK = "callback";
-    public static final int PERIOD = 10;
-    public static final int MAX_ATTEMPTS = 3;
 
     @Mock
     private BlockchainAdapterApiClient blockchainAdapterClient;
@@ -86,8 +85,11 @@ class BlockchainAdapterServiceTests {
     void isInitialized() {
         when(blockchainAdapterClient.getStatusForInitializeTaskRequest(CHAIN_TASK_ID))
                 .thenReturn(CommandStatus.SUCCESS);
-        Assertions.assertThat(blockchainAdapterService.isInitialized(CHAIN_TASK_ID))
-                .isEqualTo(Optional.of(true));
+        final CompletableFuture<Optional<Boolean>> isInitialized = blockchainAdapterService.isInitialized(CHAIN_TASK_ID);
+        Assertions.assertThat(isInitialized).isNotDone();
+
+        blockchainAdapterService.watchCommands();
+        Assertions.assertThat(isInitialized).isCompletedWithValue(Optional.of(true));
     }
 
     // Finalize
@@ -123,11 +125,14 @@ class BlockchainAdapterServiceTests {
     void isFinalized() {
         when(blockchainAdapterClient.getStatusForFinalizeTaskRequest(CHAIN_TASK_ID))
                 .thenReturn(CommandStatus.SUCCESS);
-        Assertions.assertThat(blockchainAdapterService.isFinalized(CHAIN_TASK_ID))
-                .isEqualTo(Optional.of(true));
+        final CompletableFuture<Optional<Boolean>> isFinalized = blockchainAdapterService.isFinalized(CHAIN_TASK_ID);
+        Assertions.assertThat(isFinalized).isNotDone();
+
+        blockchainAdapterService.watchCommands();
+        Assertions.assertThat(isFinalized).isCompletedWithValue(Optional.of(true));
     }
 
-    // Testing ability to pull & wait
+    // Testing ability to watch commands
 
     @Test
     void isCommandCompletedWithSuccess() {
@@ -136,11 +141,12 @@ class BlockchainAdapterServiceTests {
                 .thenReturn(CommandStatus.PROCESSING)
                 .thenReturn(CommandStatus.SUCCESS);
 
-        Optional<Boolean> commandCompleted = blockchainAdapterService
-                .isCommandCompleted(blockchainAdapterClient::getStatusForInitializeTaskRequest,
-                CHAIN_TASK_ID, PERIOD, MAX_ATTEMPTS);
-        Assertions.assertThat(commandCompleted.isPresent()).isTrue();
-        Assertions.assertThat(commandCompleted.get()).isTrue();
+        final CompletableFuture<Optional<Boolean>> commandCompleted = blockchainAdapterService.isInitialized(CHAIN_TASK_ID);
+        blockchainAdapterService.watchCommands();
+        blockchainAdapterService.watchCommands();
+        Assertions.assertThat(commandCompleted).isNotDone();
+        blockchainAdapterService.watchCommands();
+        Assertions.assertThat(commandCompleted).isCompletedWithValue(Optional.of(true));
     }
 
     @Test
@@ -150,21 +156,52 @@ class BlockchainAdapterServiceTests {
                 .thenReturn(CommandStatus.PROCESSING)
                 .thenReturn(CommandStatus.FAILURE);
 
-        Optional<Boolean> commandCompleted = blockchainAdapterService
-                .isCommandCompleted(blockchainAdapterClient::getStatusForInitializeTaskRequest,
-                CHAIN_TASK_ID, PERIOD, MAX_ATTEMPTS);
-        Assertions.assertThat(commandCompleted.isPresent()).isTrue();
-        Assertions.assertThat(commandCompleted.get()).isFalse();
+        final CompletableFuture<Optional<Boolean>> commandCompleted = blockchainAdapterService.isInitialized(CHAIN_TASK_ID);
+        for (int i = 0; i < 3; i++) {
+            blockchainAdapterService.watchCommands();
+        }
+        Assertions.assertThat(commandCompleted).isCompletedWithValue(Optional.of(false));
     }
 
     @Test
     void isCommandCompletedWithMaxAttempts() {
         when(blockchainAdapterClient.getStatusForInitializeTaskRequest(CHAIN_TASK_ID))
                 .thenReturn(CommandStatus.PROCESSING);
-        Optional<Boolean> commandCompleted = blockchainAdapterService
-                .isCommandCompleted(blockchainAdapterClient::getStatusForInitializeTaskRequest,
-                        CHAIN_TASK_ID, PERIOD, MAX_ATTEMPTS);
-        Assertions.assertThat(commandCompleted).isEmpty();
+
+        final CompletableFuture<Optional<Boolean>> commandCompleted = blockchainAdapterService.isInitialized(CHAIN_TASK_ID);
+        for (int i = 0; i < BlockchainAdapterService.MAX_ATTEMPTS - 1; i++) {
+            blockchainAdapterService.watchCommands();
+        }
+        Assertions.assertThat(commandCompleted).isNotDone();
+        blockchainAdapterService.watchCommands();
+        Assertions.assertThat(commandCompleted).isCompletedWithValue(Optional.empty());
+        verify(blockchainAdapterClient, times(BlockchainAdapterService.MAX_ATTEMPTS))
+                .getStatusForInitializeTaskRequest(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void isCommandCompletedWithError() {
+        when(blockchainAdapterClient.getStatusForInitializeTaskRequest(CHAIN_TASK_ID))
+                .thenThrow(FeignException.BadRequest.class);
+
+        final CompletableFuture<Optional<Boolean>> commandCompleted = blockchainAdapterService.isInitialized(CHAIN_TASK_ID);
+        blockchainAdapterService.watchCommands();
+        Assertions.assertThat(commandCompleted).isCompletedWithValue(Optional.empty());
+    }
+
+    @Test
+    void shouldWatchCommandOnceUntilCompletionIsRetrieved() {
+        when(blockchainAdapterClient.getStatusForInitializeTaskRequest(CHAIN_TASK_ID))
+                .thenReturn(CommandStatus.SUCCESS);
+
+        final CompletableFuture<Optional<Boolean>> commandCompleted = blockchainAdapterService.isInitialized(CHAIN_TASK_ID);
+        Assertions.assertThat(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).isSameAs(commandCompleted);
+        blockchainAdapterService.watchCommands();
+
+        // completion is retrieved once, then the command is watched again
+        Assertions.assertThat(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).isSameAs(commandCompleted);
+        Assertions.assertThat(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).isNotDone();
+        verify(blockchainAdapterClient, times(1)).getStatusForInitializeTaskRequest(CHAIN_TASK_ID);
     }
 
     // region getPublicChainConfig
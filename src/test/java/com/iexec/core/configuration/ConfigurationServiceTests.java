@@ -25,7 +25,7 @@ import org.mockito.MockitoAnnotations;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 import java.math.BigInteger;
 import java.util.Collections;
@@ -139,4 +139,109 @@ class ConfigurationServiceTests {
         assertThat(configurationService.getFromReplay()).isEqualTo(BigInteger.TEN);
     }
 
-}
\ No newline at end of file
+    // region checkpoint write-behind
+    private Configuration mockStoredConfiguration(BigInteger lastSeenBlockWithDeal) {
+        Configuration configuration = Configuration.builder()
+            .lastSeenBlockWithDeal(lastSeenBlockWithDeal)
+            .build();
+        when(configurationRepository.count()).thenReturn((long) 1);
+        when(configurationRepository.findAll()).thenReturn(Collections.singletonList(configuration));
+        when(configurationRepository.save(any())).thenReturn(configuration);
+        return configuration;
+    }
+
+    @Test
+    void shouldReadConfigurationFromDatabaseOnlyOnce() {
+        mockStoredConfiguration(BigInteger.TEN);
+
+        configurationService.getLastSeenBlockWithDeal();
+        configurationService.getLastSeenBlockWithDeal();
+        configurationService.getLastSeenBlockWithTaskEvent();
+
+        verify(configurationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldNotSaveLastSeenBlockWithDealBeforeFlush() {
+        mockStoredConfiguration(BigInteger.ONE);
+        when(chainConfig.getCheckpointMaxPendingUpdates()).thenReturn(100);
+
+        configurationService.setLastSeenBlockWithDeal(BigInteger.TWO);
+        configurationService.setLastSeenBlockWithDeal(BigInteger.TEN);
+
+        assertThat(configurationService.getLastSeenBlockWithDeal()).isEqualTo(BigInteger.TEN);
+        verify(configurationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldSaveLastSeenBlockWithDealOnFlush() {
+        Configuration configuration = mockStoredConfiguration(BigInteger.ONE);
+        when(chainConfig.getCheckpointMaxPendingUpdates()).thenReturn(100);
+
+        configurationService.setLastSeenBlockWithDeal(BigInteger.TWO);
+        configurationService.setLastSeenBlockWithDeal(BigInteger.TEN);
+        configurationService.flush();
+        configurationService.flush();
+
+        verify(configurationRepository, times(1)).save(configuration);
+        verifyNoInteractions(replayConfigurationRepository);
+        assertThat(configuration.getLastSeenBlockWithDeal()).isEqualTo(BigInteger.TEN);
+    }
+
+    @Test
+    void shouldFlushOnceMaxPendingUpdatesReached() {
+        Configuration configuration = mockStoredConfiguration(BigInteger.ONE);
+        when(chainConfig.getCheckpointMaxPendingUpdates()).thenReturn(2);
+
+        configurationService.setLastSeenBlockWithDeal(BigInteger.TWO);
+        verify(configurationRepository, never()).save(any());
+        configurationService.setLastSeenBlockWithTaskEvent(BigInteger.TEN);
+
+        verify(configurationRepository, times(1)).save(configuration);
+    }
+
+    @Test
+    void shouldFlushAgainAfterFailedFlush() {
+        Configuration configuration = mockStoredConfiguration(BigInteger.ONE);
+        when(chainConfig.getCheckpointMaxPendingUpdates()).thenReturn(100);
+        when(configurationRepository.save(any()))
+            .thenThrow(new RuntimeException("database unavailable"))
+            .thenReturn(configuration);
+
+        configurationService.setLastSeenBlockWithDeal(BigInteger.TEN);
+        configurationService.flush();
+        configurationService.flush();
+
+        verify(configurationRepository, times(2)).save(configuration);
+    }
+
+    @Test
+    void shouldNotMoveLastSeenBlockWithDealBackward() {
+        mockStoredConfiguration(BigInteger.TEN);
+        when(chainConfig.getCheckpointMaxPendingUpdates()).thenReturn(100);
+
+        configurationService.setLastSeenBlockWithDeal(BigInteger.ONE);
+        configurationService.flush();
+
+        assertThat(configurationService.getLastSeenBlockWithDeal()).isEqualTo(BigInteger.TEN);
+        verify(configurationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotMoveFromReplayBackward() {
+        ReplayConfiguration replayConfiguration = ReplayConfiguration.builder()
+            .fromBlockNumber(BigInteger.TEN)
+            .build();
+        when(replayConfigurationRepository.count()).thenReturn((long) 1);
+        when(replayConfigurationRepository.findAll()).thenReturn(Collections.singletonList(replayConfiguration));
+        when(chainConfig.getCheckpointMaxPendingUpdates()).thenReturn(100);
+
+        configurationService.setFromReplay(BigInteger.ONE);
+        configurationService.flush();
+
+        assertThat(configurationService.getFromReplay()).isEqualTo(BigInteger.TEN);
+        verify(replayConfigurationRepository, never()).save(any());
+    }
+    // endregion
+
+}
@@ -27,6 +27,7 @@ import com.iexec.core.replicate.ReplicatesService;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
 import com.iexec.core.task.TaskStatus;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -226,4 +227,25 @@ class ContributionUnnotifiedDetectorTests {
                 .updateReplicateStatus(any(), any(), any(), any(ReplicateStatusDetails.class));
     }
 
+    @Test
+    void shouldPrefetchContributionsOfAllReplicatesBeforeCheckingThem() {
+        Task task = Task.builder().chainTaskId(CHAIN_TASK_ID).build();
+        when(taskService.findByCurrentStatus(Arrays.asList(TaskStatus.INITIALIZED, TaskStatus.RUNNING))).thenReturn(Collections.singletonList(task));
+
+        Replicate replicate1 = new Replicate(WALLET_ADDRESS, CHAIN_TASK_ID);
+        replicate1.setStatusUpdateList(Collections.singletonList(ReplicateStatusUpdate.builder().status(CONTRIBUTING).build()));
+        Replicate replicate2 = new Replicate("0x2", CHAIN_TASK_ID);
+        replicate2.setStatusUpdateList(Collections.singletonList(ReplicateStatusUpdate.builder().status(CONTRIBUTING).build()));
+
+        when(cronConfiguration.getContribute()).thenReturn(DETECTOR_PERIOD);
+        when(replicatesService.getReplicates(any())).thenReturn(Arrays.asList(replicate1, replicate2));
+        when(iexecHubService.isStatusTrueOnChain(any(), any(), any())).thenReturn(false);
+        contributionDetector.detectOnchainContributed();
+
+        InOrder inOrder = Mockito.inOrder(iexecHubService);
+        inOrder.verify(iexecHubService).prefetchChainContributions(
+                Arrays.asList(Pair.of(CHAIN_TASK_ID, WALLET_ADDRESS), Pair.of(CHAIN_TASK_ID, "0x2")));
+        inOrder.verify(iexecHubService, Mockito.times(2)).isStatusTrueOnChain(any(), any(), any());
+    }
+
 }
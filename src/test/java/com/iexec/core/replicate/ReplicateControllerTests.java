@@ -13,11 +13,16 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class ReplicateControllerTests {
@@ -42,6 +47,8 @@ class ReplicateControllerTests {
     @Mock
     private ReplicateSupplyService replicateSupplyService;
     @Mock
+    private ReplicateLongPollingService replicateLongPollingService;
+    @Mock
     private JwtTokenProvider jwtTokenProvider;
     @Mock
     private WorkerService workerService;
@@ -113,6 +120,93 @@ class ReplicateControllerTests {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
+
+    @Test
+    void shouldGetAvailableReplicates() {
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn(WALLET_ADDRESS);
+        when(workerService.isWorkerAllowedToAskReplicate(WALLET_ADDRESS))
+                .thenReturn(true);
+        when(replicateSupplyService
+                .getAuthsOfAvailableReplicates(BLOCK_NUMBER, WALLET_ADDRESS))
+                .thenReturn(List.of(AUTH));
+
+        ResponseEntity<List<WorkerpoolAuthorization>> response =
+                replicatesController.getAvailableReplicates(BLOCK_NUMBER, TOKEN);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(AUTH);
+        verify(workerService).updateLastReplicateDemandDate(WALLET_ADDRESS);
+    }
+
+    @Test
+    void shouldNotGetAvailableReplicatesSinceNotAuthorizedToken() {
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn("");
+
+        ResponseEntity<List<WorkerpoolAuthorization>> response =
+                replicatesController.getAvailableReplicates(BLOCK_NUMBER, TOKEN);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void shouldNotGetAvailableReplicatesSinceNoReplicateAvailable() {
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn(WALLET_ADDRESS);
+        when(workerService.isWorkerAllowedToAskReplicate(WALLET_ADDRESS))
+                .thenReturn(true);
+        when(replicateSupplyService
+                .getAuthsOfAvailableReplicates(BLOCK_NUMBER, WALLET_ADDRESS))
+                .thenReturn(List.of());
+
+        ResponseEntity<List<WorkerpoolAuthorization>> response =
+                replicatesController.getAvailableReplicates(BLOCK_NUMBER, TOKEN);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    @Test
+    void shouldWaitForAvailableReplicate() {
+        final DeferredResult<ResponseEntity<WorkerpoolAuthorization>> deferredResult = new DeferredResult<>();
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn(WALLET_ADDRESS);
+        when(workerService.isWorkerAllowedToAskReplicate(WALLET_ADDRESS))
+                .thenReturn(true);
+        when(replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, true))
+                .thenReturn(deferredResult);
+
+        assertThat(replicatesController.waitForAvailableReplicate(BLOCK_NUMBER, TOKEN))
+                .isEqualTo(deferredResult);
+        verify(workerService).updateLastReplicateDemandDate(WALLET_ADDRESS);
+    }
+
+    @Test
+    void shouldWaitForAvailableReplicateWithoutLookingUpNowSinceAskedTooSoon() {
+        final DeferredResult<ResponseEntity<WorkerpoolAuthorization>> deferredResult = new DeferredResult<>();
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn(WALLET_ADDRESS);
+        when(workerService.isWorkerAllowedToAskReplicate(WALLET_ADDRESS))
+                .thenReturn(false);
+        when(replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, false))
+                .thenReturn(deferredResult);
+
+        assertThat(replicatesController.waitForAvailableReplicate(BLOCK_NUMBER, TOKEN))
+                .isEqualTo(deferredResult);
+    }
+
+    @Test
+    void shouldNotWaitForAvailableReplicateSinceNotAuthorizedToken() {
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn("");
+
+        DeferredResult<ResponseEntity<WorkerpoolAuthorization>> response =
+                replicatesController.waitForAvailableReplicate(BLOCK_NUMBER, TOKEN);
+
+        assertThat(response.getResult())
+                .isEqualTo(ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build());
+        verifyNoInteractions(replicateLongPollingService);
+    }
     //endregion
 
     //region interrupted replicate
@@ -254,4 +348,79 @@ class ReplicateControllerTests {
                 .isEqualTo(TaskNotificationType.PLEASE_WAIT);
     }
     //endregion
+
+    //region update replicates by batch
+
+    @Test
+    void shouldUpdateReplicatesByBatchOncePerTask() {
+        final String chainTaskId2 = "chainTaskId2";
+        final ReplicateStatusUpdate started = ReplicateStatusUpdate.builder().status(ReplicateStatus.STARTED).build();
+        final ReplicateStatusUpdate downloading = ReplicateStatusUpdate.builder()
+                .status(ReplicateStatus.APP_DOWNLOADING).build();
+        final ReplicateStatusUpdate otherTaskStarted = ReplicateStatusUpdate.builder()
+                .status(ReplicateStatus.STARTED).build();
+        final ReplicateStatusUpdateBatchResult result = ReplicateStatusUpdateBatchResult.builder()
+                .chainTaskId(CHAIN_TASK_ID)
+                .nbSavedUpdates(2)
+                .error(ReplicateStatusUpdateError.NO_ERROR)
+                .nextAction(TaskNotificationType.PLEASE_DOWNLOAD_APP)
+                .build();
+        final ReplicateStatusUpdateBatchResult result2 = ReplicateStatusUpdateBatchResult.builder()
+                .chainTaskId(chainTaskId2)
+                .error(ReplicateStatusUpdateError.BAD_WORKFLOW_TRANSITION)
+                .build();
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn(WALLET_ADDRESS);
+        final List<UpdateReplicateStatusArgs> args = List.of(
+                UpdateReplicateStatusArgs.builder().build(), UpdateReplicateStatusArgs.builder().build());
+        final List<UpdateReplicateStatusArgs> args2 = List.of(UpdateReplicateStatusArgs.builder().build());
+        when(replicatesService.computeUpdateReplicateStatusesArgs(CHAIN_TASK_ID, WALLET_ADDRESS, List.of(started, downloading)))
+                .thenReturn(args);
+        when(replicatesService.computeUpdateReplicateStatusesArgs(chainTaskId2, WALLET_ADDRESS, List.of(otherTaskStarted)))
+                .thenReturn(args2);
+        when(replicatesService.updateReplicateStatuses(CHAIN_TASK_ID, WALLET_ADDRESS, List.of(started, downloading), args))
+                .thenReturn(result);
+        when(replicatesService.updateReplicateStatuses(chainTaskId2, WALLET_ADDRESS, List.of(otherTaskStarted), args2))
+                .thenReturn(result2);
+
+        final ResponseEntity<List<ReplicateStatusUpdateBatchResult>> response =
+                replicatesController.updateReplicateStatuses(TOKEN, List.of(
+                        new ReplicateStatusUpdateBatchEntry(CHAIN_TASK_ID, started),
+                        new ReplicateStatusUpdateBatchEntry(chainTaskId2, otherTaskStarted),
+                        new ReplicateStatusUpdateBatchEntry(CHAIN_TASK_ID, downloading)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(result, result2);
+        assertThat(started.getModifier()).isEqualTo(ReplicateStatusModifier.WORKER);
+        assertThat(started.getDate()).isNotNull();
+        verify(replicatesService, never()).computeUpdateReplicateStatusArgs(any(), any(), any());
+    }
+
+    @Test
+    void shouldNotUpdateReplicatesByBatchSinceUnauthorized() {
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn("");
+
+        final ResponseEntity<List<ReplicateStatusUpdateBatchResult>> response =
+                replicatesController.updateReplicateStatuses(TOKEN,
+                        List.of(new ReplicateStatusUpdateBatchEntry(CHAIN_TASK_ID, UPDATE)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        verifyNoInteractions(replicatesService);
+    }
+
+    @Test
+    void shouldNotUpdateReplicatesByBatchSinceMissingStatus() {
+        when(jwtTokenProvider.getWalletAddressFromBearerToken(TOKEN))
+                .thenReturn(WALLET_ADDRESS);
+
+        final ResponseEntity<List<ReplicateStatusUpdateBatchResult>> response =
+                replicatesController.updateReplicateStatuses(TOKEN, List.of(
+                        new ReplicateStatusUpdateBatchEntry(CHAIN_TASK_ID, UPDATE),
+                        new ReplicateStatusUpdateBatchEntry(CHAIN_TASK_ID, ReplicateStatusUpdate.builder().build())));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(replicatesService);
+    }
+    //endregion
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.replicate.ReplicateStatus;
+import com.iexec.common.replicate.ReplicateStatusModifier;
+import com.iexec.common.replicate.ReplicateStatusUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static com.iexec.common.replicate.ReplicateStatus.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares derived statuses of {@link Replicate} with the history walks they replace,
+ * on the status checks done by replicates counters and detectors over a task of {@link #NB_REPLICATES} replicates.
+ * <p>
+ * Allocated bytes are read from the JVM thread allocation counter.
+ * <p>
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class ReplicateDerivedStatusBenchmark {
+
+    private static final int NB_REPLICATES = 1_000;
+    private static final int NB_ROUNDS = 1_000;
+    private static final ReplicateStatus[] HISTORY = {
+            STARTING, STARTED, APP_DOWNLOADING, APP_DOWNLOADED, COMPUTING, COMPUTED,
+            WORKER_LOST, RECOVERING, CONTRIBUTING, CONTRIBUTED
+    };
+
+    private final List<Replicate> replicates = buildReplicates();
+
+    private static List<Replicate> buildReplicates() {
+        final List<Replicate> replicates = new ArrayList<>(NB_REPLICATES);
+        for (int i = 0; i < NB_REPLICATES; i++) {
+            final Replicate replicate = new Replicate("0x" + i, "chainTaskId");
+            // replicates are at different steps of the workflow
+            for (int j = 0; j <= i % HISTORY.length; j++) {
+                replicate.updateStatus(HISTORY[j], ReplicateStatusModifier.WORKER);
+            }
+            replicates.add(replicate);
+        }
+        return replicates;
+    }
+
+    /**
+     * Last relevant status as computed before statuses were derived along updates.
+     */
+    private static Optional<ReplicateStatus> walkLastRelevantStatus(Replicate replicate) {
+        List<ReplicateStatus> statusList = replicate.getStatusUpdateList().stream()
+                .map(ReplicateStatusUpdate::getStatus)
+                .collect(Collectors.toList());
+        List<ReplicateStatus> ignoredStatuses = Arrays.asList(WORKER_LOST, RECOVERING);
+        for (int i = statusList.size() - 1; i >= 0; i--) {
+            if (!ignoredStatuses.contains(statusList.get(i))) {
+                return Optional.of(statusList.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Status lookup as computed before statuses were derived along updates.
+     */
+    private static boolean walkContainsStatus(Replicate replicate, ReplicateStatus status) {
+        for (ReplicateStatusUpdate statusUpdate : replicate.getStatusUpdateList()) {
+            if (statusUpdate.getStatus().equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void benchmarkDerivedStatuses() {
+        final Result walkResult = run(ReplicateDerivedStatusBenchmark::walkLastRelevantStatus,
+                replicate -> walkContainsStatus(replicate, CONTRIBUTED));
+        final Result derivedResult = run(Replicate::getLastRelevantStatus,
+                replicate -> replicate.containsStatus(CONTRIBUTED));
+
+        log.info("History walks [replicates:{}, rounds:{}] {}", NB_REPLICATES, NB_ROUNDS, walkResult);
+        log.info("Derived statuses [replicates:{}, rounds:{}] {}", NB_REPLICATES, NB_ROUNDS, derivedResult);
+        assertThat(derivedResult.nbMatches).isEqualTo(walkResult.nbMatches);
+        assertThat(derivedResult.allocatedBytes).isLessThan(walkResult.allocatedBytes);
+        assertThat(derivedResult.nanos).isLessThan(walkResult.nanos);
+    }
+
+    private Result run(Function<Replicate, Optional<ReplicateStatus>> lastRelevantStatus,
+                       Predicate<Replicate> containsContributed) {
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        // warm up
+        count(lastRelevantStatus, containsContributed);
+
+        final Result result = new Result();
+        final long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+        for (int i = 0; i < NB_ROUNDS; i++) {
+            result.nbMatches += count(lastRelevantStatus, containsContributed);
+        }
+        result.nanos = System.nanoTime() - start;
+        result.allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes;
+        return result;
+    }
+
+    private long count(Function<Replicate, Optional<ReplicateStatus>> lastRelevantStatus,
+                       Predicate<Replicate> containsContributed) {
+        long nbMatches = 0;
+        for (Replicate replicate : replicates) {
+            if (lastRelevantStatus.apply(replicate).filter(COMPUTED::equals).isPresent()) {
+                nbMatches++;
+            }
+            if (containsContributed.test(replicate)) {
+                nbMatches++;
+            }
+            if (replicate.getCurrentStatus() == WORKER_LOST) {
+                nbMatches++;
+            }
+        }
+        return nbMatches;
+    }
+
+    private static class Result {
+        private long nbMatches;
+        private long nanos;
+        private long allocatedBytes;
+
+        @Override
+        public String toString() {
+            return String.format("[totalMs:%d, allocatedBytesPerRound:%d]",
+                    nanos / 1_000_000, allocatedBytes / NB_ROUNDS);
+        }
+    }
+}
@@ -51,6 +51,8 @@ class ReplicateListenersTests {
     private ReplicatesService replicatesService;
     @Mock
     private TaskUpdateRequestManager taskUpdateRequestManager;
+    @Mock
+    private ReplicateLongPollingService replicateLongPollingService;
 
     @InjectMocks
     private ReplicateListeners replicateListeners;
@@ -106,6 +108,27 @@ class ReplicateListenersTests {
                 .removeComputedChainTaskIdFromWorker(CHAIN_TASK_ID, WORKER_WALLET);
     }
 
+    @Test
+    void shouldServeParkedDemandsOnWorkerLost() {
+        replicateListeners.onReplicateUpdatedEvent(getMockReplicate(WORKER_LOST));
+
+        Mockito.verify(replicateLongPollingService).onTaskMayNeedReplicates();
+    }
+
+    @Test
+    void shouldServeParkedDemandsOnFinalStatus() {
+        replicateListeners.onReplicateUpdatedEvent(getMockReplicate(FAILED));
+
+        Mockito.verify(replicateLongPollingService).onTaskMayNeedReplicates();
+    }
+
+    @Test
+    void shouldNotServeParkedDemandsOnIntermediateStatus() {
+        replicateListeners.onReplicateUpdatedEvent(getMockReplicate(CONTRIBUTED));
+
+        Mockito.verifyNoInteractions(replicateLongPollingService);
+    }
+
     @Test
     void shouldTriggerDetectOnchainContributedSinceTaskNotActive() {
         ReplicateUpdatedEvent replicateUpdatedEvent = ReplicateUpdatedEvent.builder()
@@ -210,6 +233,24 @@ class ReplicateListenersTests {
                 .removeChainTaskIdFromWorker(CHAIN_TASK_ID, WORKER_WALLET);
     }
 
+    @Test
+    void shouldUpdateTaskOnceOnReplicateBatchUpdate() {
+        ReplicateBatchUpdatedEvent replicateBatchUpdatedEvent = ReplicateBatchUpdatedEvent.builder()
+                .chainTaskId(CHAIN_TASK_ID)
+                .walletAddress(WORKER_WALLET)
+                .replicateStatusUpdates(List.of(
+                        new ReplicateStatusUpdate(COMPUTING),
+                        new ReplicateStatusUpdate(COMPUTED),
+                        new ReplicateStatusUpdate(CONTRIBUTING)))
+                .build();
+
+        replicateListeners.onReplicateBatchUpdatedEvent(replicateBatchUpdatedEvent);
+
+        Mockito.verify(taskUpdateRequestManager, Mockito.times(1)).publishRequest(CHAIN_TASK_ID);
+        Mockito.verify(workerService, Mockito.times(1))
+                .removeComputedChainTaskIdFromWorker(CHAIN_TASK_ID, WORKER_WALLET);
+    }
+
     private ReplicateUpdatedEvent getMockReplicate(ReplicateStatus computed) {
         return ReplicateUpdatedEvent.builder()
                 .chainTaskId(CHAIN_TASK_ID)
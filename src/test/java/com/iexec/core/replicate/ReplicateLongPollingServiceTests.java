@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.chain.WorkerpoolAuthorization;
+import com.iexec.core.configuration.WorkerConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReplicateLongPollingServiceTests {
+
+    private static final String CHAIN_TASK_ID = "chainTaskId";
+    private static final String WALLET_ADDRESS = "walletAddress";
+    private static final long BLOCK_NUMBER = 1;
+    private static final WorkerpoolAuthorization AUTH = WorkerpoolAuthorization.builder()
+            .chainTaskId(CHAIN_TASK_ID)
+            .workerWallet(WALLET_ADDRESS)
+            .build();
+
+    @Mock
+    private ReplicateSupplyService replicateSupplyService;
+    @Mock
+    private WorkerConfiguration workerConfiguration;
+
+    @InjectMocks
+    private ReplicateLongPollingService replicateLongPollingService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        when(workerConfiguration.getReplicateLongPollTimeout()).thenReturn(30000L);
+    }
+
+    @Test
+    void shouldServeDemandRightAway() {
+        when(replicateSupplyService.getAuthOfAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS))
+                .thenReturn(Optional.of(AUTH));
+
+        DeferredResult<ResponseEntity<WorkerpoolAuthorization>> result =
+                replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, true);
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(AUTH));
+        assertThat(replicateLongPollingService.getNbParkedDemands()).isZero();
+    }
+
+    @Test
+    void shouldParkDemandUntilTaskNeedsReplicates() {
+        when(replicateSupplyService.getAuthOfAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS))
+                .thenReturn(Optional.empty());
+
+        DeferredResult<ResponseEntity<WorkerpoolAuthorization>> result =
+                replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, true);
+
+        assertThat(result.hasResult()).isFalse();
+        assertThat(replicateLongPollingService.getNbParkedDemands()).isOne();
+
+        when(replicateSupplyService.getAuthOfAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS))
+                .thenReturn(Optional.of(AUTH));
+        replicateLongPollingService.serveParkedDemands();
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(AUTH));
+        assertThat(replicateLongPollingService.getNbParkedDemands()).isZero();
+    }
+
+    @Test
+    void shouldNotLookUpReplicateRightAwayWhenNotAllowed() {
+        DeferredResult<ResponseEntity<WorkerpoolAuthorization>> result =
+                replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, false);
+
+        assertThat(result.hasResult()).isFalse();
+        assertThat(replicateLongPollingService.getNbParkedDemands()).isOne();
+        verifyNoInteractions(replicateSupplyService);
+    }
+
+    @Test
+    void shouldReplacePreviousDemandOfSameWorker() {
+        DeferredResult<ResponseEntity<WorkerpoolAuthorization>> previousResult =
+                replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, false);
+        DeferredResult<ResponseEntity<WorkerpoolAuthorization>> result =
+                replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, false);
+
+        assertThat(previousResult.getResult())
+                .isEqualTo(ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+        assertThat(result.hasResult()).isFalse();
+        assertThat(replicateLongPollingService.getNbParkedDemands()).isOne();
+    }
+
+    @Test
+    void shouldNotScheduleServingWhenNoParkedDemand() {
+        replicateLongPollingService.onTaskMayNeedReplicates();
+
+        verifyNoInteractions(replicateSupplyService);
+    }
+
+    @Test
+    void shouldNotScheduleServingAfterShutdown() {
+        replicateLongPollingService.waitForAvailableReplicate(BLOCK_NUMBER, WALLET_ADDRESS, false);
+        replicateLongPollingService.shutdown();
+
+        replicateLongPollingService.onTaskMayNeedReplicates();
+
+        verifyNoInteractions(replicateSupplyService);
+    }
+}
@@ -24,15 +24,27 @@ import com.iexec.common.task.TaskDescription;
 import com.iexec.common.utils.BytesUtils;
 import com.iexec.core.chain.IexecHubService;
 import com.iexec.core.chain.Web3jService;
+import com.iexec.core.configuration.ReplicatesConfiguration;
 import com.iexec.core.logs.TaskLogsService;
 import com.iexec.core.result.ResultService;
+import com.iexec.core.workflow.ReplicateWorkflow;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.iexec.common.replicate.ReplicateStatus.*;
@@ -43,6 +55,8 @@ import static org.mockito.Mockito.*;
 
 class ReplicateServiceTests {
 
+    private static final String CHAIN_TASK_ID_2 = "0xc536af16737e02bb28100452a932056d499be3c462619751a9ed36515de64d50";
+
     private static final UpdateReplicateStatusArgs UPDATE_ARGS = UpdateReplicateStatusArgs.builder()
             .workerWeight(1)
             .build();
@@ -50,6 +64,10 @@ class ReplicateServiceTests {
     @Mock
     private ReplicatesRepository replicatesRepository;
     @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Mock
     private IexecHubService iexecHubService;
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
@@ -60,64 +78,202 @@ class ReplicateServiceTests {
     @Mock
     private TaskLogsService taskLogsService;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private ReplicatesService replicatesService;
 
     @BeforeEach
     void init() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        replicatesService = new ReplicatesService(replicatesRepository, mongoTemplate, iexecHubService,
+                applicationEventPublisher, web3jService, resultService, taskLogsService,
+                new ReplicatesConfiguration(100), meterRegistry);
     }
 
     @Test
     void shouldCreateNewReplicate() {
         Replicate replicate1 = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
         replicate1.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
-        replicate1.updateStatus(COMPUTED, ReplicateStatusModifier.WORKER);
-        Replicate replicate2 = new Replicate(WALLET_WORKER_2, CHAIN_TASK_ID);
-        replicate2.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
-
-        ArrayList<Replicate> list = new ArrayList<>();
-        list.add(replicate1);
-        list.add(replicate2);
-        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, list);
-        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
-        when(replicatesRepository.save(any())).thenReturn(replicatesList);
-        replicatesService.addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_3);
-        Mockito.verify(replicatesRepository, Mockito.times(1))
-                .save(any());
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, new ArrayList<>(List.of(replicate1)));
+        replicatesList.setVersion(3L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
+
+        assertThat(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_2)).isTrue();
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+        assertThat(queryCaptor.getValue().getQueryObject())
+                .containsEntry(ReplicatesList.CHAIN_TASK_ID_FIELD_NAME, CHAIN_TASK_ID)
+                .containsEntry(ReplicatesList.VERSION_FIELD_NAME, 3L);
+        verify(replicatesRepository, never()).save(any());
     }
 
     @Test
-    void shouldNotCreateNewReplicate() {
-        Replicate replicate1 = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
-        replicate1.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
-        replicate1.updateStatus(COMPUTED, ReplicateStatusModifier.WORKER);
-        Replicate replicate2 = new Replicate(WALLET_WORKER_2, CHAIN_TASK_ID);
-        replicate2.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
+    void shouldNotCreateNewReplicateSinceReplicatesListModified() {
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, new ArrayList<>());
+        replicatesList.setVersion(3L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(null);
+
+        assertThat(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_2)).isFalse();
+        verify(replicatesRepository, never()).save(any());
+    }
 
-        ArrayList<Replicate> list = new ArrayList<>();
-        list.add(replicate1);
-        list.add(replicate2);
-        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, list);
-        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
-        when(replicatesRepository.save(any())).thenReturn(replicatesList);
+    @Test
+    void shouldCreateNewReplicatesInASingleBulkWrite() {
+        final BulkWriteResult bulkWriteResult = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReplicatesList.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(2);
+
+        final List<String> addedChainTaskIds = replicatesService.addNewReplicates(
+                List.of(new ReplicatesList(CHAIN_TASK_ID), new ReplicatesList(CHAIN_TASK_ID_2)),
+                WALLET_WORKER_1);
+
+        assertThat(addedChainTaskIds).containsExactly(CHAIN_TASK_ID, CHAIN_TASK_ID_2);
+        verify(iexecHubService, times(1)).getWorkerWeight(WALLET_WORKER_1);
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(replicatesRepository, never()).findByChainTaskIdIn(any());
+        verify(replicatesRepository, never()).save(any());
+    }
 
-        replicatesService.addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_1);
-        Mockito.verify(replicatesRepository, Mockito.times(0))
-                .save(any());
+    @Test
+    void shouldOnlyReturnSavedReplicatesWhenSomeUpdatesAreSkipped() {
+        final BulkWriteResult bulkWriteResult = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReplicatesList.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(1);
+        final ReplicatesList joinedList = new ReplicatesList(CHAIN_TASK_ID,
+                List.of(new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID)));
+        final ReplicatesList skippedList = new ReplicatesList(CHAIN_TASK_ID_2, List.of());
+        when(replicatesRepository.findByChainTaskIdIn(List.of(CHAIN_TASK_ID, CHAIN_TASK_ID_2)))
+                .thenReturn(List.of(joinedList, skippedList));
+
+        final List<String> addedChainTaskIds = replicatesService.addNewReplicates(
+                List.of(new ReplicatesList(CHAIN_TASK_ID), new ReplicatesList(CHAIN_TASK_ID_2)),
+                WALLET_WORKER_1);
+
+        assertThat(addedChainTaskIds).containsExactly(CHAIN_TASK_ID);
+    }
 
-        replicatesService.addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_2);
-        Mockito.verify(replicatesRepository, Mockito.times(0))
-                .save(any());
+    @Test
+    void shouldNotCreateNewReplicatesSinceNoTask() {
+        assertThat(replicatesService.addNewReplicates(List.of(), WALLET_WORKER_1)).isEmpty();
+        verifyNoInteractions(mongoTemplate);
     }
 
     @Test
     void shouldCreateEmptyReplicateList() {
+        when(replicatesRepository.save(any(ReplicatesList.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
         replicatesService.createEmptyReplicateList(CHAIN_TASK_ID);
 
         Mockito.verify(replicatesRepository, Mockito.times(1)).save(new ReplicatesList(CHAIN_TASK_ID));
     }
 
+    // replicates lists cache
+
+    @Test
+    void shouldServeReplicatesListFromCacheOnceRead() {
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID,
+                List.of(new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID)));
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
+
+        assertThat(replicatesService.getReplicatesList(CHAIN_TASK_ID)).contains(replicatesList);
+        assertThat(replicatesService.getReplicate(CHAIN_TASK_ID, WALLET_WORKER_1)).isPresent();
+        assertThat(replicatesService.getNbReplicatesWithCurrentStatus(CHAIN_TASK_ID, CREATED)).isOne();
+
+        verify(replicatesRepository, times(1)).findByChainTaskId(CHAIN_TASK_ID);
+        assertThat(meterRegistry.get(ReplicatesListCache.CACHE_METRIC_NAME).tag("result", "miss").counter().count())
+                .isOne();
+        assertThat(meterRegistry.get(ReplicatesListCache.CACHE_METRIC_NAME).tag("result", "hit").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldServeCreatedReplicatesListFromCache() {
+        when(replicatesRepository.save(any(ReplicatesList.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        replicatesService.createEmptyReplicateList(CHAIN_TASK_ID);
+
+        assertThat(replicatesService.getReplicates(CHAIN_TASK_ID)).isEmpty();
+        verify(replicatesRepository, never()).findByChainTaskId(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldReadReplicatesListAgainOnceEvicted() {
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID))
+                .thenReturn(Optional.of(new ReplicatesList(CHAIN_TASK_ID)));
+
+        replicatesService.getReplicatesList(CHAIN_TASK_ID);
+        replicatesService.evictReplicatesList(CHAIN_TASK_ID);
+        replicatesService.getReplicatesList(CHAIN_TASK_ID);
+
+        verify(replicatesRepository, times(2)).findByChainTaskId(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldCacheReplicatesListWithNewReplicate() {
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID);
+        replicatesList.setVersion(3L);
+        ReplicatesList updatedReplicatesList = new ReplicatesList(CHAIN_TASK_ID,
+                List.of(new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID)));
+        updatedReplicatesList.setVersion(4L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(updatedReplicatesList);
+
+        assertThat(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_1)).isTrue();
+
+        assertThat(replicatesService.getReplicatesList(CHAIN_TASK_ID)).contains(updatedReplicatesList);
+        verify(replicatesRepository, never()).findByChainTaskId(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldEvictReplicatesListsUpdatedByBulkWrite() {
+        final BulkWriteResult bulkWriteResult = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReplicatesList.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(1);
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID))
+                .thenReturn(Optional.of(new ReplicatesList(CHAIN_TASK_ID)));
+        replicatesService.getReplicatesList(CHAIN_TASK_ID);
+
+        replicatesService.addNewReplicates(List.of(new ReplicatesList(CHAIN_TASK_ID)), WALLET_WORKER_1);
+        replicatesService.getReplicatesList(CHAIN_TASK_ID);
+
+        verify(replicatesRepository, times(2)).findByChainTaskId(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldNotAppendStatusUpdateSinceCachedReplicateIsOutdated() {
+        Replicate cachedReplicate = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
+        cachedReplicate.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
+        Replicate storedReplicate = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
+        storedReplicate.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
+        storedReplicate.updateStatus(STARTED, ReplicateStatusModifier.WORKER);
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID))
+                .thenReturn(Optional.of(new ReplicatesList(CHAIN_TASK_ID, List.of(cachedReplicate))))
+                .thenReturn(Optional.of(new ReplicatesList(CHAIN_TASK_ID, List.of(storedReplicate))));
+        replicatesService.getReplicatesList(CHAIN_TASK_ID);
+        ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
+                .modifier(WORKER)
+                .status(STARTED)
+                .build();
+
+        // the status update has been checked against the cached history, the retry checks it against the stored one
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> replicatesService
+                .updateReplicateStatusWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate, UPDATE_ARGS));
+        verify(mongoTemplate, never())
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+        assertThat(replicatesService.getReplicate(CHAIN_TASK_ID, WALLET_WORKER_1).orElseThrow().getCurrentStatus())
+                .isEqualTo(STARTED);
+    }
+
     @Test
     void shouldHaveReplicates() {
         when(replicatesRepository.countByChainTaskId(CHAIN_TASK_ID)).thenReturn(Long.valueOf(1));
@@ -395,7 +551,8 @@ class ReplicateServiceTests {
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(web3jService.isBlockAvailable(anyLong())).thenReturn(true);
         when(iexecHubService.repeatIsContributedTrue(anyString(), anyString())).thenReturn(true);
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
         String resultHash = "hash";
         when(iexecHubService.getChainContribution(CHAIN_TASK_ID, WALLET_WORKER_1)).thenReturn(Optional.of(ChainContribution.builder()
                 .resultHash(resultHash)
@@ -440,7 +597,8 @@ class ReplicateServiceTests {
                 .build();
         ArgumentCaptor<ReplicateUpdatedEvent> argumentCaptor = ArgumentCaptor.forClass(ReplicateUpdatedEvent.class);
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         replicatesService.updateReplicateStatus(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate);
         Mockito.verify(applicationEventPublisher, Mockito.times(1))
@@ -471,7 +629,8 @@ class ReplicateServiceTests {
                 .build();
         ArgumentCaptor<ReplicateUpdatedEvent> argumentCaptor = ArgumentCaptor.forClass(ReplicateUpdatedEvent.class);
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         replicatesService.updateReplicateStatus(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate);
         Mockito.verify(applicationEventPublisher, Mockito.times(1))
@@ -491,8 +650,8 @@ class ReplicateServiceTests {
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.empty());
 
         replicatesService.updateReplicateStatus(CHAIN_TASK_ID, WALLET_WORKER_1, new ReplicateStatusUpdate(REVEALING));
-        Mockito.verify(replicatesRepository, Mockito.times(0))
-                .save(any());
+        Mockito.verify(mongoTemplate, Mockito.times(0))
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
         Mockito.verify(applicationEventPublisher, Mockito.times(0))
                 .publishEvent(any());
     }
@@ -512,8 +671,8 @@ class ReplicateServiceTests {
                 .build();
 
         replicatesService.updateReplicateStatus(CHAIN_TASK_ID, WALLET_WORKER_2, statusUpdate);
-        Mockito.verify(replicatesRepository, Mockito.times(0))
-                .save(any());
+        Mockito.verify(mongoTemplate, Mockito.times(0))
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
         Mockito.verify(applicationEventPublisher, Mockito.times(0))
                 .publishEvent(any());
     }
@@ -532,8 +691,8 @@ class ReplicateServiceTests {
                 .build();
 
         replicatesService.updateReplicateStatus(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate);
-        Mockito.verify(replicatesRepository, Mockito.times(0))
-                .save(any());
+        Mockito.verify(mongoTemplate, Mockito.times(0))
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
         Mockito.verify(applicationEventPublisher, Mockito.times(0))
                 .publishEvent(any());
     }
@@ -554,8 +713,8 @@ class ReplicateServiceTests {
                 .build();
 
         replicatesService.updateReplicateStatus(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate);
-        Mockito.verify(replicatesRepository, Mockito.times(0))
-                .save(any());
+        Mockito.verify(mongoTemplate, Mockito.times(0))
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
         Mockito.verify(applicationEventPublisher, Mockito.times(0))
                 .publishEvent(any());
     }
@@ -570,7 +729,8 @@ class ReplicateServiceTests {
         when(web3jService.isBlockAvailable(anyLong())).thenReturn(true);
         when(iexecHubService.repeatIsContributedTrue(anyString(), anyString())).thenReturn(false);
         when(iexecHubService.getChainContribution(CHAIN_TASK_ID, WALLET_WORKER_1)).thenReturn(Optional.empty());
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         ReplicateStatusDetails details = new ReplicateStatusDetails(10L);
         ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
@@ -600,7 +760,8 @@ class ReplicateServiceTests {
                 .build()));
         when(iexecHubService.getWorkerWeight(WALLET_WORKER_1)).thenReturn(0);
 
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         ReplicateStatusDetails details = new ReplicateStatusDetails(10L);
         ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
@@ -642,7 +803,8 @@ class ReplicateServiceTests {
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(web3jService.isBlockAvailable(anyLong())).thenReturn(true);
         when(iexecHubService.repeatIsRevealedTrue(anyString(), anyString())).thenReturn(true);
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
                 .modifier(WORKER)
@@ -667,7 +829,8 @@ class ReplicateServiceTests {
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(web3jService.isBlockAvailable(anyLong())).thenReturn(true);
         when(iexecHubService.repeatIsRevealedTrue(anyString(), anyString())).thenReturn(true);
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
                 .modifier(WORKER)
@@ -677,12 +840,13 @@ class ReplicateServiceTests {
         // Without any synchronization mechanism,
         // this would update between 1 and 10 times to `REVEALED`.
         // Or this could throw a `ConcurrentModificationException`
-        // on `Replicate#containsStatus` call.
+        // on `Replicate#containsStatus` call,
+        // or an `OptimisticLockingFailureException` if the history changed while being checked.
         try {
             IntStream.range(0, 10)
                     .parallel()
                     .forEach(i -> replicatesService.updateReplicateStatusWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate, UPDATE_ARGS));
-        } catch (ConcurrentModificationException e) {
+        } catch (ConcurrentModificationException | OptimisticLockingFailureException e) {
             System.out.println("Concurrent modification detected," +
                     " thread safety is effectively not met.");
             return;
@@ -712,7 +876,8 @@ class ReplicateServiceTests {
         when(iexecHubService.getChainContribution(CHAIN_TASK_ID, WALLET_WORKER_1)).thenReturn(Optional.of(ChainContribution.builder()
         .resultHash("hash")
         .build()));
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         ArgumentCaptor<ReplicateUpdatedEvent> argumentCaptor = ArgumentCaptor.forClass(ReplicateUpdatedEvent.class);
         ReplicateStatusDetails details = new ReplicateStatusDetails(10L);
@@ -748,7 +913,8 @@ class ReplicateServiceTests {
                 .build();
         ArgumentCaptor<ReplicateUpdatedEvent> argumentCaptor = ArgumentCaptor.forClass(ReplicateUpdatedEvent.class);
         when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
-        when(replicatesRepository.save(replicatesList)).thenReturn(replicatesList);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
 
         final UpdateReplicateStatusArgs updateArgs = UpdateReplicateStatusArgs
                 .builder()
@@ -765,6 +931,232 @@ class ReplicateServiceTests {
         assertThat(capturedEvent.getReplicateStatusUpdate().getStatus()).isEqualTo(RESULT_UPLOADED);
     }
 
+    @Test
+    void shouldAppendStatusUpdateToReplicateOfWorkerOnly() {
+        Replicate replicate = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
+        replicate.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, Collections.singletonList(replicate));
+        replicatesList.setVersion(3L);
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
+        ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
+                .modifier(WORKER)
+                .status(STARTED)
+                .build();
+
+        replicatesService.updateReplicateStatusWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate, UPDATE_ARGS);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+        verify(replicatesRepository, never()).save(any());
+        // no condition on the version, updates of other replicates do not conflict
+        final Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertThat(queryObject)
+                .containsEntry(ReplicatesList.CHAIN_TASK_ID_FIELD_NAME, CHAIN_TASK_ID)
+                .doesNotContainKey(ReplicatesList.VERSION_FIELD_NAME);
+        assertThat((Document) ((Document) queryObject.get(ReplicatesList.REPLICATES_FIELD_NAME)).get("$elemMatch"))
+                .containsEntry(Replicate.WALLET_ADDRESS_FIELD_NAME, WALLET_WORKER_1)
+                .containsEntry(Replicate.STATUS_UPDATE_LIST_FIELD_NAME, new Document("$size", 2));
+        final Update update = updateCaptor.getValue();
+        assertThat((Document) update.getUpdateObject().get("$push"))
+                .containsEntry("replicates.$[replicate].statusUpdateList", statusUpdate);
+        assertThat((Document) update.getUpdateObject().get("$inc"))
+                .containsEntry(ReplicatesList.VERSION_FIELD_NAME, 1)
+                .containsEntry("statusSummary.currentStatusCounts.STARTING", -1)
+                .containsEntry("statusSummary.currentStatusCounts.STARTED", 1)
+                .containsEntry("statusSummary.containedStatusCounts.STARTED", 1);
+        assertThat((Document) update.getUpdateObject().get("$set"))
+                .containsEntry("replicates.$[replicate].currentStatus", STARTED)
+                .containsEntry("replicates.$[replicate].lastRelevantStatus", STARTED);
+        assertThat(update.hasArrayFilters()).isTrue();
+        assertThat(replicatesList.getNbReplicatesWithCurrentStatus(STARTED)).isOne();
+        assertThat(replicatesList.getNbReplicatesWithCurrentStatus(STARTING)).isZero();
+        verify(applicationEventPublisher).publishEvent(any(ReplicateUpdatedEvent.class));
+    }
+
+    @Test
+    void shouldNotAppendStatusUpdateSinceReplicateUpdatedInTheMeantime() {
+        Replicate replicate = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
+        replicate.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, Collections.singletonList(replicate));
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(null);
+        ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
+                .modifier(WORKER)
+                .status(STARTED)
+                .build();
+
+        // status update is checked again against the new replicate history by the retry
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> replicatesService
+                .updateReplicateStatusWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate, UPDATE_ARGS));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    // updateReplicateStatuses
+
+    private ReplicatesList getReplicatesListWithStatuses(ReplicateStatus... statuses) {
+        Replicate replicate = new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID);
+        for (ReplicateStatus status : statuses) {
+            replicate.updateStatus(status, ReplicateStatusModifier.WORKER);
+        }
+        ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, Collections.singletonList(replicate));
+        when(replicatesRepository.findByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(replicatesList);
+        return replicatesList;
+    }
+
+    private static List<ReplicateStatusUpdate> getWorkerStatusUpdates(ReplicateStatus... statuses) {
+        List<ReplicateStatusUpdate> statusUpdates = new ArrayList<>();
+        for (ReplicateStatus status : statuses) {
+            statusUpdates.add(ReplicateStatusUpdate.builder().modifier(WORKER).status(status).build());
+        }
+        return statusUpdates;
+    }
+
+    private static List<UpdateReplicateStatusArgs> getEmptyArgs(List<ReplicateStatusUpdate> statusUpdates) {
+        return statusUpdates.stream()
+                .map(statusUpdate -> UpdateReplicateStatusArgs.builder().build())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldComputeArgsOfStatusUpdatesNotAlreadyReported() {
+        getReplicatesListWithStatuses(STARTING, STARTED, COMPUTED, CONTRIBUTING, CONTRIBUTED);
+        when(iexecHubService.getTaskDescriptionFromChain(CHAIN_TASK_ID))
+                .thenReturn(Optional.of(TaskDescription.builder().chainTaskId(CHAIN_TASK_ID).build()));
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(CONTRIBUTED, RESULT_UPLOAD_FAILED);
+
+        List<UpdateReplicateStatusArgs> args = replicatesService
+                .computeUpdateReplicateStatusesArgs(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates);
+
+        assertThat(args).containsExactly(
+                UpdateReplicateStatusArgs.builder().build(),
+                UpdateReplicateStatusArgs.builder()
+                        .taskDescription(TaskDescription.builder().chainTaskId(CHAIN_TASK_ID).build())
+                        .build());
+        // already reported contributions are not read again
+        verify(iexecHubService, never()).getWorkerWeight(any());
+        verify(iexecHubService, never()).getChainContribution(any(), any());
+    }
+
+    @Test
+    void shouldSaveChainOfStatusUpdatesWithinSingleWrite() {
+        ReplicatesList replicatesList = getReplicatesListWithStatuses(STARTING);
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(STARTED, APP_DOWNLOADING, APP_DOWNLOADED);
+
+        ReplicateStatusUpdateBatchResult result = replicatesService
+                .updateReplicateStatusesWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates,
+                        getEmptyArgs(statusUpdates));
+
+        assertThat(result).isEqualTo(ReplicateStatusUpdateBatchResult.builder()
+                .chainTaskId(CHAIN_TASK_ID)
+                .nbSavedUpdates(3)
+                .error(ReplicateStatusUpdateError.NO_ERROR)
+                .nextAction(ReplicateWorkflow.getInstance().getNextAction(APP_DOWNLOADED, null))
+                .build());
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+        assertThat((Document) ((Document) queryCaptor.getValue().getQueryObject()
+                .get(ReplicatesList.REPLICATES_FIELD_NAME)).get("$elemMatch"))
+                .containsEntry(Replicate.STATUS_UPDATE_LIST_FIELD_NAME, new Document("$size", 2));
+        final Update update = updateCaptor.getValue();
+        assertThat((Document) update.getUpdateObject().get("$push"))
+                .containsKey("replicates.$[replicate].statusUpdateList");
+        // intermediate statuses cancel each other out in the summary
+        assertThat((Document) update.getUpdateObject().get("$inc"))
+                .containsEntry("statusSummary.currentStatusCounts.STARTING", -1)
+                .containsEntry("statusSummary.currentStatusCounts.APP_DOWNLOADED", 1)
+                .doesNotContainKey("statusSummary.currentStatusCounts.STARTED")
+                .containsEntry("statusSummary.containedStatusCounts.STARTED", 1);
+        assertThat((Document) update.getUpdateObject().get("$set"))
+                .containsEntry("replicates.$[replicate].currentStatus", APP_DOWNLOADED);
+        assertThat(replicatesList.getReplicates().get(0).getCurrentStatus()).isEqualTo(APP_DOWNLOADED);
+        verify(applicationEventPublisher, times(1))
+                .publishEvent(new ReplicateBatchUpdatedEvent(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates));
+        verify(applicationEventPublisher, never()).publishEvent(any(ReplicateUpdatedEvent.class));
+    }
+
+    @Test
+    void shouldSaveStatusUpdatesBeforeFirstRejectedOne() {
+        getReplicatesListWithStatuses(STARTING);
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(STARTED, COMPUTED, APP_DOWNLOADING);
+
+        ReplicateStatusUpdateBatchResult result = replicatesService
+                .updateReplicateStatusesWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates,
+                        getEmptyArgs(statusUpdates));
+
+        assertThat(result.getNbSavedUpdates()).isOne();
+        assertThat(result.getError()).isEqualTo(ReplicateStatusUpdateError.BAD_WORKFLOW_TRANSITION);
+        verify(applicationEventPublisher, times(1)).publishEvent(
+                new ReplicateBatchUpdatedEvent(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates.subList(0, 1)));
+    }
+
+    @Test
+    void shouldSkipAlreadyReportedStatusUpdates() {
+        getReplicatesListWithStatuses(STARTING, STARTED);
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(STARTING, STARTED, APP_DOWNLOADING);
+
+        ReplicateStatusUpdateBatchResult result = replicatesService
+                .updateReplicateStatusesWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates,
+                        getEmptyArgs(statusUpdates));
+
+        assertThat(result.getNbSavedUpdates()).isOne();
+        assertThat(result.getError()).isEqualTo(ReplicateStatusUpdateError.NO_ERROR);
+        verify(mongoTemplate, times(1))
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+    }
+
+    @Test
+    void shouldNotWriteSinceAllStatusUpdatesAlreadyReported() {
+        getReplicatesListWithStatuses(STARTING, STARTED);
+
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(STARTING, STARTED);
+
+        ReplicateStatusUpdateBatchResult result = replicatesService.updateReplicateStatusesWithoutThreadSafety(
+                CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates, getEmptyArgs(statusUpdates));
+
+        assertThat(result.getNbSavedUpdates()).isZero();
+        assertThat(result.getNextAction()).isEqualTo(TaskNotificationType.PLEASE_WAIT);
+        verify(mongoTemplate, never())
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldNotUpdateReplicateStatusesSinceUnknownReplicate() {
+        getReplicatesListWithStatuses(STARTING);
+
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(STARTED);
+
+        ReplicateStatusUpdateBatchResult result = replicatesService.updateReplicateStatusesWithoutThreadSafety(
+                CHAIN_TASK_ID, WALLET_WORKER_2, statusUpdates, getEmptyArgs(statusUpdates));
+
+        assertThat(result.getError()).isEqualTo(ReplicateStatusUpdateError.UNKNOWN_REPLICATE);
+        verify(mongoTemplate, never())
+                .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class));
+    }
+
+    @Test
+    void shouldNotSaveStatusUpdatesSinceReplicateUpdatedInTheMeantime() {
+        getReplicatesListWithStatuses(STARTING);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReplicatesList.class)))
+                .thenReturn(null);
+
+        List<ReplicateStatusUpdate> statusUpdates = getWorkerStatusUpdates(STARTED, APP_DOWNLOADING);
+
+        // the whole chain is checked again against the new replicate history by the retry
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> replicatesService
+                .updateReplicateStatusesWithoutThreadSafety(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdates,
+                        getEmptyArgs(statusUpdates)));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
     // getReplicateWithResultUploadedStatus
 
     @Test
@@ -1285,6 +1677,23 @@ class ReplicateServiceTests {
                         .build());
     }
 
+    @Test
+    void computeUpdateReplicateStatusArgsContributedShouldEvictContributionReadBeforeReceiptBlock() {
+        final ReplicateStatusUpdate statusUpdate = ReplicateStatusUpdate.builder()
+                .modifier(WORKER)
+                .status(CONTRIBUTED)
+                .details(new ReplicateStatusDetails(10L))
+                .build();
+        when(iexecHubService.getChainContribution(CHAIN_TASK_ID, WALLET_WORKER_1))
+                .thenReturn(Optional.of(new ChainContribution()));
+
+        replicatesService.computeUpdateReplicateStatusArgs(CHAIN_TASK_ID, WALLET_WORKER_1, statusUpdate);
+
+        InOrder inOrder = inOrder(iexecHubService);
+        inOrder.verify(iexecHubService).evictChainContributionReadBefore(CHAIN_TASK_ID, WALLET_WORKER_1, 10L);
+        inOrder.verify(iexecHubService).getChainContribution(CHAIN_TASK_ID, WALLET_WORKER_1);
+    }
+
     @Test
     void computeUpdateReplicateStatusArgsResultUploaded() {
         final int unexpectedWorkerWeight = 1;
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.replicate.ReplicateStatus;
+import com.iexec.common.replicate.ReplicateStatusModifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.iexec.common.replicate.ReplicateStatus.*;
+import static com.iexec.common.utils.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicateStatusSummaryTests {
+
+    private static Replicate buildReplicate(String walletAddress, ReplicateStatus... statuses) {
+        final Replicate replicate = new Replicate(walletAddress, CHAIN_TASK_ID);
+        for (ReplicateStatus status : statuses) {
+            replicate.updateStatus(status, ReplicateStatusModifier.WORKER);
+        }
+        return replicate;
+    }
+
+    @Test
+    void shouldSummarizeReplicatesFromTheirHistory() {
+        final ReplicateStatusSummary summary = ReplicateStatusSummary.of(List.of(
+                buildReplicate(WALLET_WORKER_1, STARTING, COMPUTED),
+                buildReplicate(WALLET_WORKER_2, STARTING, WORKER_LOST),
+                buildReplicate(WALLET_WORKER_3, STARTING)));
+
+        assertThat(summary.getNbReplicatesWithCurrentStatus(STARTING)).isOne();
+        assertThat(summary.getNbReplicatesWithCurrentStatus(COMPUTED, WORKER_LOST)).isEqualTo(2);
+        assertThat(summary.getNbReplicatesWithLastRelevantStatus(STARTING)).isEqualTo(2);
+        assertThat(summary.getNbReplicatesWithLastRelevantStatus(WORKER_LOST)).isZero();
+        assertThat(summary.getNbReplicatesContainingStatus(STARTING)).isEqualTo(3);
+        assertThat(summary.getNbReplicatesContainingStatus(CONTRIBUTED)).isZero();
+    }
+
+    @Test
+    void shouldRecordStatusUpdateAndReturnIncrements() {
+        final Replicate replicate = buildReplicate(WALLET_WORKER_1, STARTING);
+        final ReplicateStatusSummary summary = ReplicateStatusSummary.of(List.of(replicate));
+
+        final Map<String, Integer> increments = summary.recordStatusUpdate(replicate, STARTED);
+
+        assertThat(increments).containsOnly(
+                Map.entry("currentStatusCounts.STARTING", -1),
+                Map.entry("currentStatusCounts.STARTED", 1),
+                Map.entry("lastRelevantStatusCounts.STARTING", -1),
+                Map.entry("lastRelevantStatusCounts.STARTED", 1),
+                Map.entry("containedStatusCounts.STARTED", 1));
+        assertThat(summary.getNbReplicatesWithCurrentStatus(STARTED)).isOne();
+        assertThat(summary.getNbReplicatesWithCurrentStatus(STARTING)).isZero();
+    }
+
+    @Test
+    void shouldKeepLastRelevantStatusWhenWorkerLost() {
+        final Replicate replicate = buildReplicate(WALLET_WORKER_1, STARTING, COMPUTED);
+        final ReplicateStatusSummary summary = ReplicateStatusSummary.of(List.of(replicate));
+
+        final Map<String, Integer> increments = summary.recordStatusUpdate(replicate, WORKER_LOST);
+        replicate.updateStatus(WORKER_LOST, ReplicateStatusModifier.POOL_MANAGER);
+
+        assertThat(increments).containsOnly(
+                Map.entry("currentStatusCounts.COMPUTED", -1),
+                Map.entry("currentStatusCounts.WORKER_LOST", 1),
+                Map.entry("containedStatusCounts.WORKER_LOST", 1));
+        assertThat(summary).isEqualTo(ReplicateStatusSummary.of(List.of(replicate)));
+    }
+
+    @Test
+    void shouldNotCountAgainStatusAlreadyContained() {
+        final Replicate replicate = buildReplicate(WALLET_WORKER_1, STARTING, WORKER_LOST);
+        final ReplicateStatusSummary summary = ReplicateStatusSummary.of(List.of(replicate));
+
+        final Map<String, Integer> increments = summary.recordStatusUpdate(replicate, STARTING);
+
+        assertThat(increments).containsOnly(
+                Map.entry("currentStatusCounts.WORKER_LOST", -1),
+                Map.entry("currentStatusCounts.STARTING", 1));
+    }
+
+    @Test
+    void shouldGetIncrementsOfNewReplicate() {
+        assertThat(ReplicateStatusSummary.getNewReplicateIncrements()).containsOnly(
+                Map.entry("currentStatusCounts.CREATED", 1),
+                Map.entry("lastRelevantStatusCounts.CREATED", 1),
+                Map.entry("containedStatusCounts.CREATED", 1));
+    }
+}
@@ -27,8 +27,8 @@ import com.iexec.common.replicate.ReplicateStatusUpdate;
 import com.iexec.common.task.TaskAbortCause;
 import com.iexec.common.utils.BytesUtils;
 import com.iexec.common.utils.DateTimeUtils;
+import com.iexec.core.chain.GasBalanceCacheService;
 import com.iexec.core.chain.SignatureService;
-import com.iexec.core.chain.Web3jService;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
 import com.iexec.core.task.TaskStatus;
@@ -43,9 +43,7 @@ import org.mockito.*;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import static com.iexec.common.replicate.ReplicateStatus.*;
 import static com.iexec.core.task.TaskStatus.RUNNING;
@@ -78,12 +76,15 @@ class ReplicateSupplyServiceTests {
     @Mock private TaskService taskService;
     @Mock private TaskUpdateRequestManager taskUpdateRequestManager;
     @Mock private WorkerService workerService;
-    @Mock private Web3jService web3jService;
+    @Mock private GasBalanceCacheService gasBalanceCacheService;
 
     @Spy
     @InjectMocks
     private ReplicateSupplyService replicateSupplyService;
 
+    @Captor
+    private ArgumentCaptor<List<ReplicatesList>> replicatesListsCaptor;
+
     @BeforeEach
     void init() {
         MockitoAnnotations.openMocks(this);
@@ -91,7 +92,7 @@ class ReplicateSupplyServiceTests {
 
     void workerCanWorkAndHasGas(String workerAddress) {
         when(workerService.canAcceptMoreWorks(workerAddress)).thenReturn(true);
-        when(web3jService.hasEnoughGas(workerAddress)).thenReturn(true);
+        when(gasBalanceCacheService.hasEnoughGas(workerAddress)).thenReturn(true);
         when(workerService.isAllowedToJoin(workerAddress)).thenReturn(true);
     }
 
@@ -106,7 +107,7 @@ class ReplicateSupplyServiceTests {
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
         assertThat(oAuthorization).isEmpty();
-        Mockito.verifyNoInteractions(web3jService, taskService, taskUpdateRequestManager, replicatesService, signatureService);
+        Mockito.verifyNoInteractions(gasBalanceCacheService, taskService, taskUpdateRequestManager, replicatesService, signatureService);
     }
 
     @Test
@@ -115,13 +116,13 @@ class ReplicateSupplyServiceTests {
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(0, WALLET_WORKER_1);
         assertThat(oAuthorization).isEmpty();
-        Mockito.verifyNoInteractions(web3jService, taskService, taskUpdateRequestManager, replicatesService, signatureService);
+        Mockito.verifyNoInteractions(gasBalanceCacheService, taskService, taskUpdateRequestManager, replicatesService, signatureService);
     }
 
     @Test
     void shouldNotGetReplicateSinceNoRunningTask() {
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(false, Collections.emptyList())).thenReturn(Optional.empty());
+        when(taskService.getPrioritizedInitializedOrRunningTasks(false)).thenReturn(Stream.empty());
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
         assertThat(oAuthorization).isEmpty();
@@ -149,9 +150,9 @@ class ReplicateSupplyServiceTests {
 
 //        when
         when(workerService.canAcceptMoreWorks(WALLET_WORKER_1)).thenReturn(true);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
-        when(web3jService.hasEnoughGas(WALLET_WORKER_1)).thenReturn(true);
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
+        when(gasBalanceCacheService.hasEnoughGas(WALLET_WORKER_1)).thenReturn(true);
         when(workerService.isAllowedToJoin(WALLET_WORKER_1)).thenReturn(false);
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(worker1));
         when(workerService.deleteWorkerByAddress(WALLET_WORKER_1)).thenReturn(Optional.of(worker1));
@@ -166,7 +167,6 @@ class ReplicateSupplyServiceTests {
         Mockito.verifyNoInteractions(signatureService);
         Mockito.verify(workerService).isAllowedToJoin(WALLET_WORKER_1);
         Mockito.verify(workerService).deleteWorkerByAddress(WALLET_WORKER_1);
-        assertTaskAccessForNewReplicateLockNeverUsed(CHAIN_TASK_ID);
     }
 
     @Test
@@ -193,8 +193,8 @@ class ReplicateSupplyServiceTests {
         );
 
 //        when
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
 
         workerCanWorkAndHasGas(WALLET_WORKER_2);
@@ -204,6 +204,7 @@ class ReplicateSupplyServiceTests {
         when(replicatesList.hasWorkerAlreadyParticipated(WALLET_WORKER_2)).thenReturn(false);
 
 //        then
+        when(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_2)).thenReturn(true);
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_2);
 
@@ -211,12 +212,11 @@ class ReplicateSupplyServiceTests {
                 () -> assertThat(oAuthorization).isPresent()
         );
 
-        Mockito.verify(replicatesService).addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_2);
+        Mockito.verify(replicatesService).addNewReplicate(replicatesList, WALLET_WORKER_2);
         Mockito.verify(workerService, Mockito.never()).deleteWorkerByAddress(any());
         Mockito.verify(workerService).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_2);
         Mockito.verify(workerService).isAllowedToJoin(WALLET_WORKER_2);
         Mockito.verify(signatureService).createAuthorization(WALLET_WORKER_2, CHAIN_TASK_ID, BytesUtils.EMPTY_ADDRESS);
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
     @Test
@@ -237,8 +237,8 @@ class ReplicateSupplyServiceTests {
         runningTask.setEnclaveChallenge(BytesUtils.EMPTY_ADDRESS);
 
         workerCanWorkAndHasGas(WALLET_WORKER_2);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_2)).thenReturn(Optional.of(worker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.empty());
 
@@ -247,7 +247,6 @@ class ReplicateSupplyServiceTests {
         assertThat(oAuthorization).isEmpty();
         Mockito.verify(taskService, Mockito.never()).isConsensusReached(any());
         Mockito.verifyNoInteractions(signatureService);
-        assertTaskAccessForNewReplicateLockNeverUsed(CHAIN_TASK_ID);
     }
 
     @Test
@@ -274,8 +273,8 @@ class ReplicateSupplyServiceTests {
         runningTask.setEnclaveChallenge(BytesUtils.EMPTY_ADDRESS);
 
         workerCanWorkAndHasGas(WALLET_WORKER_2);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_2)).thenReturn(Optional.of(worker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(taskService.isConsensusReached(replicatesList)).thenReturn(true);
@@ -288,7 +287,6 @@ class ReplicateSupplyServiceTests {
 
         Mockito.verify(taskService).isConsensusReached(replicatesList);
         Mockito.verifyNoInteractions(signatureService);
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
     @Test
@@ -303,11 +301,11 @@ class ReplicateSupplyServiceTests {
     @Test
     void shouldNotGetAnyReplicateSinceWorkerDoesNotHaveEnoughGas() {
         when(workerService.canAcceptMoreWorks(WALLET_WORKER_1)).thenReturn(true);
-        when(web3jService.hasEnoughGas(WALLET_WORKER_1)).thenReturn(false);
+        when(gasBalanceCacheService.hasEnoughGas(WALLET_WORKER_1)).thenReturn(false);
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
         assertThat(oAuthorization).isEmpty();
-        Mockito.verify(web3jService).hasEnoughGas(WALLET_WORKER_1);
+        Mockito.verify(gasBalanceCacheService).hasEnoughGas(WALLET_WORKER_1);
         Mockito.verifyNoInteractions(taskService, taskUpdateRequestManager, replicatesService, signatureService);
     }
 
@@ -333,8 +331,8 @@ class ReplicateSupplyServiceTests {
         ));
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
 
@@ -345,7 +343,6 @@ class ReplicateSupplyServiceTests {
         assertThat(oAuthorization).isEmpty();
 
         Mockito.verifyNoInteractions(signatureService);
-        assertTaskAccessForNewReplicateLockNeverUsed(CHAIN_TASK_ID);
     }
 
     @Test
@@ -377,8 +374,8 @@ class ReplicateSupplyServiceTests {
 
         // Try to see if a replicate of the task can be scheduled on worker2
         workerCanWorkAndHasGas(WALLET_WORKER_2);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_2)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(replicatesList.hasWorkerAlreadyParticipated(WALLET_WORKER_1)).thenReturn(false);
@@ -387,7 +384,6 @@ class ReplicateSupplyServiceTests {
         assertThat(oAuthorization).isEmpty();
 
         Mockito.verifyNoInteractions(signatureService);
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
     @Test
@@ -412,8 +408,8 @@ class ReplicateSupplyServiceTests {
         );
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(false, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
 
@@ -423,10 +419,9 @@ class ReplicateSupplyServiceTests {
 
         assertThat(oAuthorization).isEmpty();
 
-        Mockito.verify(replicatesService, Mockito.never()).addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_1);
+        Mockito.verify(replicatesService, Mockito.never()).addNewReplicate(any(), eq(WALLET_WORKER_1));
         Mockito.verify(workerService, Mockito.never()).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_1);
         Mockito.verifyNoInteractions(signatureService);
-        assertTaskAccessForNewReplicateLockNeverUsed(CHAIN_TASK_ID);
     }
 
     @Test
@@ -457,28 +452,26 @@ class ReplicateSupplyServiceTests {
         ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, Collections.emptyList());
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, List.of(CHAIN_TASK_ID)))
-                .thenReturn(Optional.of(taskDeadlineReached));
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(task1));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(task1, taskDeadlineReached));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(signatureService.createAuthorization(WALLET_WORKER_1, CHAIN_TASK_ID, BytesUtils.EMPTY_ADDRESS))
                 .thenReturn(WorkerpoolAuthorization.builder().chainTaskId(CHAIN_TASK_ID).build());
 
+        when(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_1)).thenReturn(true);
         final Optional<WorkerpoolAuthorization> oAuthorization = replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
 
         assertThat(oAuthorization).isPresent();
         assertThat(oAuthorization.get().getChainTaskId()).isEqualTo(CHAIN_TASK_ID);
 
-        Mockito.verify(replicatesService).addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_1);
+        Mockito.verify(replicatesService).addNewReplicate(replicatesList, WALLET_WORKER_1);
         Mockito.verify(workerService).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_1);
         Mockito.verify(signatureService, times(0)).createAuthorization(any(), eq(CHAIN_TASK_ID_2), any());
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
     @Test
-    void shouldNotGetReplicateWhenTaskAlreadyAccessed() {
+    void shouldNotGetReplicateWhenReplicatesListModifiedInTheMeantime() {
         Worker existingWorker = Worker.builder()
                 .id("1")
                 .walletAddress(WALLET_WORKER_1)
@@ -494,18 +487,21 @@ class ReplicateSupplyServiceTests {
         runningTask.setContributionDeadline(DateTimeUtils.addMinutesToDate(new Date(), 60));
         runningTask.setEnclaveChallenge(BytesUtils.EMPTY_ADDRESS);
 
+        final ReplicatesList replicatesList = new ReplicatesList(CHAIN_TASK_ID, Collections.emptyList());
+
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
-        when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(new ReplicatesList(CHAIN_TASK_ID, Collections.emptyList())));
-        final Lock lock = replicateSupplyService.taskAccessForNewReplicateLocks.computeIfAbsent(CHAIN_TASK_ID, k -> new ReentrantLock());
-        CompletableFuture.runAsync(lock::lock).join();
+        when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
+        // Another worker has joined the task in the meantime
+        when(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_1)).thenReturn(false);
 
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
 
         assertThat(oAuthorization).isEmpty();
+        Mockito.verify(workerService, Mockito.never()).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_1);
         Mockito.verifyNoInteractions(signatureService);
     }
 
@@ -531,22 +527,22 @@ class ReplicateSupplyServiceTests {
         );
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(signatureService.createAuthorization(WALLET_WORKER_1, CHAIN_TASK_ID, BytesUtils.EMPTY_ADDRESS))
                 .thenReturn(new WorkerpoolAuthorization());
         when(replicatesList.hasWorkerAlreadyParticipated(WALLET_WORKER_1)).thenReturn(false);
 
+        when(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_1)).thenReturn(true);
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
         assertThat(oAuthorization).isPresent();
 
-        Mockito.verify(replicatesService).addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_1);
+        Mockito.verify(replicatesService).addNewReplicate(replicatesList, WALLET_WORKER_1);
         Mockito.verify(workerService).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_1);
         Mockito.verify(signatureService).createAuthorization(WALLET_WORKER_1, CHAIN_TASK_ID, BytesUtils.EMPTY_ADDRESS);
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
     @Test
@@ -571,22 +567,22 @@ class ReplicateSupplyServiceTests {
         );
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(false, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(signatureService.createAuthorization(WALLET_WORKER_1, CHAIN_TASK_ID, ENCLAVE_CHALLENGE))
                 .thenReturn(new WorkerpoolAuthorization());
 
         when(replicatesList.hasWorkerAlreadyParticipated(WALLET_WORKER_1)).thenReturn(false);
+        when(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_1)).thenReturn(true);
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
 
         assertThat(oAuthorization).isPresent();
 
-        Mockito.verify(replicatesService).addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_1);
+        Mockito.verify(replicatesService).addNewReplicate(replicatesList, WALLET_WORKER_1);
         Mockito.verify(workerService).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_1);
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
     @Test
@@ -606,8 +602,8 @@ class ReplicateSupplyServiceTests {
         runningTask.setContributionDeadline(DateTimeUtils.addMinutesToDate(new Date(), 60));
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(true, Collections.emptyList()))
-                .thenReturn(Optional.empty());
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.empty());
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
 
         Optional<WorkerpoolAuthorization> oAuthorization =
@@ -615,7 +611,6 @@ class ReplicateSupplyServiceTests {
 
         assertThat(oAuthorization).isEmpty();
         Mockito.verifyNoInteractions(signatureService);
-        assertTaskAccessForNewReplicateLockNeverUsed(CHAIN_TASK_ID);
     }
 
     @Test
@@ -640,47 +635,136 @@ class ReplicateSupplyServiceTests {
         );
 
         workerCanWorkAndHasGas(WALLET_WORKER_1);
-        when(taskService.getPrioritizedInitializedOrRunningTask(false, Collections.emptyList()))
-                .thenReturn(Optional.of(runningTask));
+        when(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .thenReturn(Stream.of(runningTask));
         when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(existingWorker));
         when(replicatesService.getReplicatesList(CHAIN_TASK_ID)).thenReturn(Optional.of(replicatesList));
         when(signatureService.createAuthorization(WALLET_WORKER_1, CHAIN_TASK_ID, ENCLAVE_CHALLENGE))
                 .thenReturn(new WorkerpoolAuthorization());
 
         when(replicatesList.hasWorkerAlreadyParticipated(WALLET_WORKER_1)).thenReturn(false);
+        when(replicatesService.addNewReplicate(replicatesList, WALLET_WORKER_1)).thenReturn(true);
         Optional<WorkerpoolAuthorization> oAuthorization =
                 replicateSupplyService.getAuthOfAvailableReplicate(workerLastBlock, WALLET_WORKER_1);
 
         assertThat(oAuthorization).isPresent();
 
-        Mockito.verify(replicatesService).addNewReplicate(CHAIN_TASK_ID, WALLET_WORKER_1);
+        Mockito.verify(replicatesService).addNewReplicate(replicatesList, WALLET_WORKER_1);
         Mockito.verify(workerService).addChainTaskIdToWorker(CHAIN_TASK_ID, WALLET_WORKER_1);
-        assertTaskAccessForNewReplicateNotDeadLocking(CHAIN_TASK_ID);
     }
 
-    /**
-     * Checks the lock has been released and can be reused.
-     *
-     * @param chainTaskId ID of the task whose lock should be checked.
-     */
-    private void assertTaskAccessForNewReplicateNotDeadLocking(String chainTaskId) {
-        final Lock lock = replicateSupplyService.taskAccessForNewReplicateLocks.get(chainTaskId);
-        final Boolean successfulLock = CompletableFuture.supplyAsync(() -> {
-                    final boolean locked = lock.tryLock();
-                    if (!locked) {
-                        return false;
-                    }
-                    lock.unlock();
-                    return true;
-                })
-                .completeOnTimeout(false, 1, TimeUnit.SECONDS)
-                .join();
-        assertThat(successfulLock).isTrue();
+    // Tests on getAuthsOfAvailableReplicates()
+
+    @Test
+    void shouldGetAuthsOfAvailableReplicatesUpToWorkerCapacity() {
+        final String chainTaskId3 = "0x1f1b6d1cbc4fab3b7f3dd49fd4a4d1a97e0cb1dd3c8ff6a01c9fbcbd8a1d2a81";
+        final Worker worker = getWorkerWithCapacity(WALLET_WORKER_1, 3, List.of(chainTaskId3));
+        final Task task1 = getRunningTask(CHAIN_TASK_ID);
+        final Task task2 = getRunningTask(CHAIN_TASK_ID_2);
+        final Task task3 = getRunningTask(chainTaskId3);
+
+        when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(worker));
+        workerCanWorkAndHasGas(WALLET_WORKER_1);
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(task1, task2, task3));
+        when(replicatesService.getReplicatesList(anyString()))
+                .thenAnswer(invocation -> Optional.of(new ReplicatesList(invocation.getArgument(0), Collections.emptyList())));
+        when(replicatesService.addNewReplicates(anyList(), eq(WALLET_WORKER_1)))
+                .thenReturn(List.of(CHAIN_TASK_ID, CHAIN_TASK_ID_2));
+        when(signatureService.createAuthorization(eq(WALLET_WORKER_1), anyString(), eq(BytesUtils.EMPTY_ADDRESS)))
+                .thenAnswer(invocation -> WorkerpoolAuthorization.builder().chainTaskId(invocation.getArgument(1)).build());
+
+        final List<WorkerpoolAuthorization> authorizations =
+                replicateSupplyService.getAuthsOfAvailableReplicates(workerLastBlock, WALLET_WORKER_1);
+
+        assertThat(authorizations)
+                .extracting(WorkerpoolAuthorization::getChainTaskId)
+                .containsExactly(CHAIN_TASK_ID, CHAIN_TASK_ID_2);
+        Mockito.verify(replicatesService, Mockito.never()).getReplicatesList(chainTaskId3);
+        Mockito.verify(replicatesService, Mockito.never()).addNewReplicate(any(), anyString());
+        Mockito.verify(replicatesService).addNewReplicates(replicatesListsCaptor.capture(), eq(WALLET_WORKER_1));
+        assertThat(replicatesListsCaptor.getValue())
+                .extracting(ReplicatesList::getChainTaskId)
+                .containsExactly(CHAIN_TASK_ID, CHAIN_TASK_ID_2);
+        Mockito.verify(workerService).addChainTaskIdsToWorker(List.of(CHAIN_TASK_ID, CHAIN_TASK_ID_2), WALLET_WORKER_1);
+    }
+
+    @Test
+    void shouldOnlyGetAuthsOfSavedReplicates() {
+        final Worker worker = getWorkerWithCapacity(WALLET_WORKER_1, 2, Collections.emptyList());
+        final Task task1 = getRunningTask(CHAIN_TASK_ID);
+        final Task task2 = getRunningTask(CHAIN_TASK_ID_2);
+
+        when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(worker));
+        workerCanWorkAndHasGas(WALLET_WORKER_1);
+        when(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .thenReturn(Stream.of(task1, task2));
+        when(replicatesService.getReplicatesList(anyString()))
+                .thenAnswer(invocation -> Optional.of(new ReplicatesList(invocation.getArgument(0), Collections.emptyList())));
+        when(replicatesService.addNewReplicates(anyList(), eq(WALLET_WORKER_1)))
+                .thenReturn(List.of(CHAIN_TASK_ID_2));
+        when(signatureService.createAuthorization(WALLET_WORKER_1, CHAIN_TASK_ID_2, BytesUtils.EMPTY_ADDRESS))
+                .thenReturn(WorkerpoolAuthorization.builder().chainTaskId(CHAIN_TASK_ID_2).build());
+
+        final List<WorkerpoolAuthorization> authorizations =
+                replicateSupplyService.getAuthsOfAvailableReplicates(workerLastBlock, WALLET_WORKER_1);
+
+        assertThat(authorizations)
+                .extracting(WorkerpoolAuthorization::getChainTaskId)
+                .containsExactly(CHAIN_TASK_ID_2);
+        Mockito.verify(workerService).addChainTaskIdsToWorker(List.of(CHAIN_TASK_ID_2), WALLET_WORKER_1);
+        Mockito.verify(signatureService, Mockito.never()).createAuthorization(any(), eq(CHAIN_TASK_ID), any());
+    }
+
+    @Test
+    void shouldNotGetAuthsOfAvailableReplicatesSinceWorkerIsFull() {
+        final Worker worker = getWorkerWithCapacity(WALLET_WORKER_1, 1, List.of(CHAIN_TASK_ID_2));
+        when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(worker));
+        workerCanWorkAndHasGas(WALLET_WORKER_1);
+
+        final List<WorkerpoolAuthorization> authorizations =
+                replicateSupplyService.getAuthsOfAvailableReplicates(workerLastBlock, WALLET_WORKER_1);
+
+        assertThat(authorizations).isEmpty();
+        Mockito.verifyNoInteractions(gasBalanceCacheService, taskService, replicatesService, signatureService);
+    }
+
+    @Test
+    void shouldNotGetAuthsOfAvailableReplicatesSinceWorkerNotAllowedToJoin() {
+        final Worker worker = getWorkerWithCapacity(WALLET_WORKER_1, 2, Collections.emptyList());
+        when(workerService.getWorker(WALLET_WORKER_1)).thenReturn(Optional.of(worker));
+        workerCanWorkAndHasGas(WALLET_WORKER_1);
+        when(workerService.isAllowedToJoin(WALLET_WORKER_1)).thenReturn(false);
+
+        final List<WorkerpoolAuthorization> authorizations =
+                replicateSupplyService.getAuthsOfAvailableReplicates(workerLastBlock, WALLET_WORKER_1);
+
+        assertThat(authorizations).isEmpty();
+        Mockito.verify(workerService).deleteWorkerByAddress(WALLET_WORKER_1);
+        Mockito.verifyNoInteractions(taskService, replicatesService, signatureService);
     }
 
-    private void assertTaskAccessForNewReplicateLockNeverUsed(String chainTaskId) {
-        final Lock lock = replicateSupplyService.taskAccessForNewReplicateLocks.get(chainTaskId);
-        assertThat(lock).isNull();;
+    private Worker getWorkerWithCapacity(String walletAddress, int maxNbTasks, List<String> computingChainTaskIds) {
+        return Worker.builder()
+                .id("1")
+                .walletAddress(walletAddress)
+                .cpuNb(4)
+                .maxNbTasks(maxNbTasks)
+                .teeEnabled(false)
+                .lastAliveDate(new Date())
+                .participatingChainTaskIds(new ArrayList<>(computingChainTaskIds))
+                .computingChainTaskIds(new ArrayList<>(computingChainTaskIds))
+                .build();
+    }
+
+    private Task getRunningTask(String chainTaskId) {
+        Task runningTask = new Task(DAPP_NAME, COMMAND_LINE, 5, chainTaskId);
+        runningTask.setMaxExecutionTime(maxExecutionTime);
+        runningTask.changeStatus(RUNNING);
+        runningTask.setTag(NO_TEE_TAG);
+        runningTask.setContributionDeadline(DateTimeUtils.addMinutesToDate(new Date(), 60));
+        runningTask.setEnclaveChallenge(BytesUtils.EMPTY_ADDRESS);
+        return runningTask;
     }
 
     // Tests on getMissedTaskNotifications()
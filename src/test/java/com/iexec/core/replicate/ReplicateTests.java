@@ -23,8 +23,10 @@ import com.iexec.common.replicate.ReplicateStatusModifier;
 import com.iexec.common.replicate.ReplicateStatusUpdate;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -177,4 +179,36 @@ class ReplicateTests {
         replicate.updateStatus(ReplicateStatus.COMPLETED, ReplicateStatusModifier.WORKER);
         assertThat(replicate.isBusyComputing()).isFalse();
     }
+
+    @Test
+    void shouldMaintainDerivedStatusesAlongUpdates() {
+        Replicate replicate = new Replicate("worker", "taskId");
+        replicate.updateStatus(ReplicateStatus.STARTING, ReplicateStatusModifier.WORKER);
+        replicate.updateStatus(ReplicateStatus.WORKER_LOST, ReplicateStatusModifier.POOL_MANAGER);
+        replicate.updateStatus(ReplicateStatus.RECOVERING, ReplicateStatusModifier.WORKER);
+
+        assertThat(replicate.getCurrentStatus()).isEqualTo(ReplicateStatus.RECOVERING);
+        assertThat(replicate.getLastRelevantStatus()).contains(ReplicateStatus.STARTING);
+        assertThat(replicate.getSeenStatuses()).containsExactlyInAnyOrder(ReplicateStatus.CREATED,
+                ReplicateStatus.STARTING, ReplicateStatus.WORKER_LOST, ReplicateStatus.RECOVERING);
+        assertThat(replicate.containsStatus(ReplicateStatus.WORKER_LOST)).isTrue();
+        assertThat(replicate.containsStatus(ReplicateStatus.COMPUTED)).isFalse();
+    }
+
+    @Test
+    void shouldDeriveStatusesFromHistoryWhenNotStored() {
+        Replicate replicate = new Replicate();
+        replicate.setStatusUpdateList(new ArrayList<>(List.of(
+                ReplicateStatusUpdate.poolManagerRequest(ReplicateStatus.CREATED),
+                new ReplicateStatusUpdate(ReplicateStatus.STARTING, ReplicateStatusModifier.WORKER),
+                ReplicateStatusUpdate.poolManagerRequest(ReplicateStatus.WORKER_LOST))));
+
+        assertThat(replicate.getCurrentStatus()).isEqualTo(ReplicateStatus.WORKER_LOST);
+        assertThat(replicate.getLastRelevantStatus()).contains(ReplicateStatus.STARTING);
+        assertThat(replicate.containsStatus(ReplicateStatus.STARTING)).isTrue();
+
+        replicate.updateStatus(ReplicateStatus.STARTED, ReplicateStatusModifier.WORKER);
+        assertThat(replicate.getCurrentStatus()).isEqualTo(ReplicateStatus.STARTED);
+        assertThat(replicate.getLastRelevantStatus()).contains(ReplicateStatus.STARTED);
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.iexec.common.replicate.ReplicateStatusModifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.iexec.common.replicate.ReplicateStatus.STARTING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicatesListCacheTests {
+
+    private static final int MAX_SIZE = 2;
+
+    private final AtomicInteger nbReads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicatesListCache cache;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ReplicatesListCache(MAX_SIZE,
+                chainTaskId -> {
+                    nbReads.incrementAndGet();
+                    return chainTaskId.startsWith("missing")
+                            ? Optional.empty()
+                            : Optional.of(buildReplicatesList(chainTaskId, 0L));
+                },
+                meterRegistry);
+    }
+
+    private static ReplicatesList buildReplicatesList(String chainTaskId, Long version) {
+        final ReplicatesList replicatesList = new ReplicatesList(chainTaskId);
+        replicatesList.setVersion(version);
+        return replicatesList;
+    }
+
+    private double getCacheCount(String result) {
+        return meterRegistry.get(ReplicatesListCache.CACHE_METRIC_NAME)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void shouldNotBuildCacheWithNegativeSize() {
+        assertThatThrownBy(() -> new ReplicatesListCache(-1, chainTaskId -> Optional.empty(), meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldAlwaysReadWhenCacheIsDisabled() {
+        cache = new ReplicatesListCache(0, chainTaskId -> {
+            nbReads.incrementAndGet();
+            return Optional.of(buildReplicatesList(chainTaskId, 0L));
+        }, meterRegistry);
+
+        cache.get("task");
+        cache.put(buildReplicatesList("task", 1L));
+        cache.get("task");
+
+        assertThat(nbReads.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldReadOnlyOnce() {
+        final Optional<ReplicatesList> replicatesList = cache.get("task");
+
+        assertThat(cache.get("task")).isEqualTo(replicatesList);
+        assertThat(nbReads.get()).isOne();
+        assertThat(getCacheCount("hit")).isOne();
+        assertThat(getCacheCount("miss")).isOne();
+    }
+
+    @Test
+    void shouldNotCacheMissingReplicatesList() {
+        assertThat(cache.get("missing")).isEmpty();
+        assertThat(cache.get("missing")).isEmpty();
+
+        assertThat(nbReads.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldReplaceCachedReplicatesListByNewerVersion() {
+        final ReplicatesList newerReplicatesList = buildReplicatesList("task", 1L);
+        cache.get("task");
+
+        cache.put(newerReplicatesList);
+
+        assertThat(cache.get("task")).contains(newerReplicatesList);
+    }
+
+    @Test
+    void shouldNotReplaceCachedReplicatesListByOlderVersion() {
+        final ReplicatesList newerReplicatesList = buildReplicatesList("task", 3L);
+        cache.put(newerReplicatesList);
+
+        cache.put(buildReplicatesList("task", 2L));
+
+        assertThat(cache.get("task")).contains(newerReplicatesList);
+        assertThat(nbReads.get()).isZero();
+    }
+
+    @Test
+    void shouldReadAgainOnceEvicted() {
+        cache.get("task");
+
+        cache.evict("task");
+
+        assertThat(cache.size()).isZero();
+        cache.get("task");
+        assertThat(nbReads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheReadEvictedWhileInFlight() {
+        cache = new ReplicatesListCache(MAX_SIZE, chainTaskId -> {
+            nbReads.incrementAndGet();
+            // write failure seen while the list is being read
+            cache.evict(chainTaskId);
+            return Optional.of(buildReplicatesList(chainTaskId, 0L));
+        }, meterRegistry);
+
+        assertThat(cache.get("task")).isPresent();
+
+        assertThat(cache.size()).isZero();
+        cache.get("task");
+        assertThat(nbReads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedReplicatesListWhenFull() {
+        cache.get("task1");
+        cache.get("task2");
+        cache.get("task1");
+
+        cache.get("task3");
+
+        assertThat(cache.size()).isEqualTo(MAX_SIZE);
+        cache.get("task1");
+        assertThat(nbReads.get()).isEqualTo(3);
+        cache.get("task2");
+        assertThat(nbReads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldExposeSizeAndEstimatedMemoryFootprint() {
+        final Replicate replicate = new Replicate("worker", "task");
+        replicate.updateStatus(STARTING, ReplicateStatusModifier.WORKER);
+        cache.put(new ReplicatesList("task", List.of(replicate)));
+
+        final long expectedBytes = ReplicatesListCache.REPLICATES_LIST_BYTES
+                + ReplicatesListCache.REPLICATE_BYTES
+                + 2 * ReplicatesListCache.STATUS_UPDATE_BYTES;
+        assertThat(meterRegistry.get(ReplicatesListCache.SIZE_METRIC_NAME).gauge().value()).isOne();
+        assertThat(meterRegistry.get(ReplicatesListCache.MEMORY_METRIC_NAME).gauge().value())
+                .isEqualTo(expectedBytes);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.replicate;
+
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v2.decorator.impl.MongockTemplate;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.List;
+
+import static com.iexec.common.replicate.ReplicateStatus.CREATED;
+import static com.iexec.common.utils.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReplicatesListMigrationTest {
+
+    @Mock
+    private MongockTemplate mongockTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        MongoDatabase db = mock(MongoDatabase.class);
+        when(mongockTemplate.getDb()).thenReturn(db);
+        when(db.getCollection(ReplicatesListMigration.REPLICATES_LIST_COLLECTION_NAME)).thenReturn(collection);
+    }
+
+    @Test
+    void shouldNormalizeLegacyReplicatesLists() {
+        when(collection.updateMany(any(Bson.class), any(Bson.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+        when(collection.updateMany(any(Bson.class), any(Bson.class), any(UpdateOptions.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        long nbUpdates = new ReplicatesListMigration().normalizeReplicatesForInPlaceStatusUpdates(mongockTemplate);
+
+        assertThat(nbUpdates).isEqualTo(3);
+        ArgumentCaptor<UpdateOptions> optionsCaptor = ArgumentCaptor.forClass(UpdateOptions.class);
+        verify(collection).updateMany(any(Bson.class), any(Bson.class), optionsCaptor.capture());
+        assertThat(optionsCaptor.getValue().getArrayFilters()).hasSize(1);
+    }
+
+    @Test
+    void shouldNotNormalizeUpToDateReplicatesLists() {
+        when(collection.updateMany(any(Bson.class), any(Bson.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(collection.updateMany(any(Bson.class), any(Bson.class), any(UpdateOptions.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertThat(new ReplicatesListMigration().normalizeReplicatesForInPlaceStatusUpdates(mongockTemplate))
+                .isZero();
+    }
+
+    @Test
+    void shouldAddStatusSummariesToLegacyReplicatesLists() {
+        final ReplicatesList legacyList = new ReplicatesList(CHAIN_TASK_ID,
+                List.of(new Replicate(WALLET_WORKER_1, CHAIN_TASK_ID)));
+        legacyList.setStatusSummary(null);
+        final CloseableIterator<ReplicatesList> legacyLists = mock(CloseableIterator.class);
+        when(legacyLists.hasNext()).thenReturn(true, false);
+        when(legacyLists.next()).thenReturn(legacyList);
+        when(mongockTemplate.stream(any(Query.class), eq(ReplicatesList.class))).thenReturn(legacyLists);
+
+        assertThat(new ReplicatesListMigration().addReplicateStatusSummaries(mongockTemplate)).isOne();
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongockTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(ReplicatesList.class));
+        final ReplicateStatusSummary summary = (ReplicateStatusSummary) ((Document) updateCaptor.getValue()
+                .getUpdateObject().get("$set")).get(ReplicatesList.STATUS_SUMMARY_FIELD_NAME);
+        assertThat(summary.getNbReplicatesWithCurrentStatus(CREATED)).isOne();
+        verify(legacyLists).close();
+    }
+}
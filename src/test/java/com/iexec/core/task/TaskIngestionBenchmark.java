@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.iexec.core.task.TaskTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares deal ingestion time when tasks are added one by one
+ * and when they are added with bulk inserts, for several bag-of-tasks sizes.
+ * A replay of the deal is ingested as well, all its tasks being already added.
+ * <p>
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataMongoTest
+@Testcontainers
+class TaskIngestionBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Container
+    private static final MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:4.2"));
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.host", mongoDBContainer::getContainerIpAddress);
+        registry.add("spring.data.mongodb.port", () -> mongoDBContainer.getMappedPort(27017));
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private TaskService taskService;
+
+    @BeforeEach
+    void init() {
+        taskRepository.deleteAll();
+        taskService = new TaskService(taskRepository, mongoTemplate, null, null);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    void benchmarkIngestion(int botSize) {
+        final long oneByOneMs = timeMs(() -> addTasksOneByOne(botSize));
+        final long oneByOneReplayMs = timeMs(() -> addTasksOneByOne(botSize));
+        taskRepository.deleteAll();
+        final long bulkMs = timeMs(() -> addTasksInBulk(botSize));
+        final long bulkReplayMs = timeMs(() -> addTasksInBulk(botSize));
+
+        assertThat(taskRepository.count()).isEqualTo(botSize);
+        log.info("Deal ingestion [botSize:{}, oneByOneMs:{}, oneByOneReplayMs:{}, bulkMs:{}, bulkReplayMs:{}]",
+                botSize, oneByOneMs, oneByOneReplayMs, bulkMs, bulkReplayMs);
+    }
+
+    private void addTasksOneByOne(int botSize) {
+        final Date deadline = new Date();
+        for (int taskIndex = 0; taskIndex < botSize; taskIndex++) {
+            taskService.addTask(CHAIN_DEAL_ID, taskIndex, 0, DAPP_NAME, COMMAND_LINE, 0, 60000, NO_TEE_TAG,
+                    deadline, deadline);
+        }
+    }
+
+    private void addTasksInBulk(int botSize) {
+        final Date deadline = new Date();
+        for (int chunkStart = 0; chunkStart < botSize; chunkStart += CHUNK_SIZE) {
+            final List<Task> chunk = new ArrayList<>();
+            for (int taskIndex = chunkStart; taskIndex < Math.min(chunkStart + CHUNK_SIZE, botSize); taskIndex++) {
+                final Task task = new Task(CHAIN_DEAL_ID, taskIndex, DAPP_NAME, COMMAND_LINE, 0, 60000, NO_TEE_TAG);
+                task.setContributionDeadline(deadline);
+                task.setFinalDeadline(deadline);
+                chunk.add(task);
+            }
+            taskService.addTasks(chunk);
+        }
+    }
+
+    private static long timeMs(Runnable runnable) {
+        final long start = System.nanoTime();
+        runnable.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -21,11 +21,18 @@ import com.iexec.common.chain.ChainTaskStatus;
 import com.iexec.core.chain.IexecHubService;
 import com.iexec.core.replicate.ReplicatesList;
 import com.iexec.core.replicate.ReplicatesService;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -36,9 +43,7 @@ import static com.iexec.core.task.TaskStatus.RUNNING;
 import static com.iexec.core.task.TaskTestsUtils.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class TaskServiceTests {
     private final long maxExecutionTime = 60000;
@@ -48,6 +53,12 @@ class TaskServiceTests {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
     @Mock
     private ReplicatesService replicatesService;
 
@@ -158,21 +169,93 @@ class TaskServiceTests {
     }
 
 
+    // region getPrioritizedInitializedOrRunningTasks()
     @Test
-    void shouldGetInitializedOrRunningTasks() {
-        Task task = mock(Task.class);
-        when(taskRepository.findFirstByCurrentStatusInAndTagNotAndChainTaskIdNotIn(
-                eq(Arrays.asList(INITIALIZED, RUNNING)),
-                any(),
-                eq(Collections.emptyList()),
-                eq(Sort.by(Sort.Order.desc(Task.CURRENT_STATUS_FIELD_NAME),
-                        Sort.Order.asc(Task.CONTRIBUTION_DEADLINE_FIELD_NAME)))))
-                .thenReturn(Optional.of(task));
-        Assertions.assertThat(taskService.getPrioritizedInitializedOrRunningTask(false, Collections.emptyList()))
-                .get()
-                .isEqualTo(task);
+    void shouldGetPrioritizedInitializedOrRunningTasks() {
+        Task initializedTask = getIndexableTask(CHAIN_DEAL_ID, 0, INITIALIZED, NO_TEE_TAG, 1);
+        Task runningTask = getIndexableTask(CHAIN_DEAL_ID, 1, RUNNING, NO_TEE_TAG, 2);
+        Task earlierInitializedTask = getIndexableTask(CHAIN_DEAL_ID, 2, INITIALIZED, NO_TEE_TAG, 0);
+        when(taskRepository.findByCurrentStatus(TaskStatus.getWaitingContributionStatuses()))
+                .thenReturn(List.of(initializedTask, runningTask, earlierInitializedTask));
+
+        taskService.rebuildContributionPhaseTaskIndex();
+
+        assertThat(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .extracting(Task::getChainTaskId)
+                .containsExactly(runningTask.getChainTaskId(),
+                        earlierInitializedTask.getChainTaskId(),
+                        initializedTask.getChainTaskId());
     }
 
+    @Test
+    void shouldGetPrioritizedInitializedOrRunningTasksExcludingTeeTasks() {
+        Task standardTask = getIndexableTask(CHAIN_DEAL_ID, 0, INITIALIZED, NO_TEE_TAG, 1);
+        Task teeTask = getIndexableTask(CHAIN_DEAL_ID, 1, RUNNING, TEE_TAG, 1);
+        when(taskRepository.findByCurrentStatus(TaskStatus.getWaitingContributionStatuses()))
+                .thenReturn(List.of(standardTask, teeTask));
+
+        taskService.rebuildContributionPhaseTaskIndex();
+
+        assertThat(taskService.getPrioritizedInitializedOrRunningTasks(true))
+                .extracting(Task::getChainTaskId)
+                .containsExactly(standardTask.getChainTaskId());
+    }
+
+    @Test
+    void shouldIndexTaskEnteringContributionPhaseOnUpdate() {
+        Task task = getIndexableTask(CHAIN_DEAL_ID, 0, INITIALIZED, NO_TEE_TAG, 1);
+        when(taskRepository.findByChainTaskId(task.getChainTaskId())).thenReturn(Optional.of(task));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        taskService.updateTask(task);
+
+        assertThat(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .extracting(Task::getChainTaskId)
+                .containsExactly(task.getChainTaskId());
+    }
+
+    @Test
+    void shouldNotExposeIndexedTaskInstance() {
+        Task task = getIndexableTask(CHAIN_DEAL_ID, 0, INITIALIZED, NO_TEE_TAG, 1);
+        when(taskRepository.findByCurrentStatus(TaskStatus.getWaitingContributionStatuses()))
+                .thenReturn(List.of(task));
+        taskService.rebuildContributionPhaseTaskIndex();
+
+        task.setCurrentStatus(TaskStatus.CONSENSUS_REACHED);
+
+        assertThat(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .hasSize(1)
+                .allSatisfy(indexedTask -> {
+                    assertThat(indexedTask).isNotSameAs(task);
+                    assertThat(indexedTask.getCurrentStatus()).isEqualTo(INITIALIZED);
+                });
+    }
+
+    @Test
+    void shouldRemoveTaskLeavingContributionPhaseOnUpdate() {
+        Task task = getIndexableTask(CHAIN_DEAL_ID, 0, RUNNING, NO_TEE_TAG, 1);
+        when(taskRepository.findByCurrentStatus(TaskStatus.getWaitingContributionStatuses()))
+                .thenReturn(List.of(task));
+        taskService.rebuildContributionPhaseTaskIndex();
+
+        task.changeStatus(TaskStatus.CONSENSUS_REACHED);
+        when(taskRepository.findByChainTaskId(task.getChainTaskId())).thenReturn(Optional.of(task));
+        when(taskRepository.save(task)).thenReturn(task);
+        taskService.updateTask(task);
+
+        assertThat(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .isEmpty();
+    }
+
+    private Task getIndexableTask(String chainDealId, int taskIndex, TaskStatus status,
+                                  String tag, int contributionDeadlineInMinutes) {
+        Task task = new Task(chainDealId, taskIndex, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, tag);
+        task.setCurrentStatus(status);
+        task.setContributionDeadline(Date.from(Instant.now().plus(contributionDeadlineInMinutes, ChronoUnit.MINUTES)));
+        return task;
+    }
+    // endregion
+
     @Test
     void shouldGetTasksInNonFinalStatuses() {
         List<Task> tasks = Collections.singletonList(mock(Task.class));
@@ -215,6 +298,38 @@ class TaskServiceTests {
         assertThat(taskService.isExpired(CHAIN_TASK_ID)).isTrue();
     }
 
+    // region addTasks()
+    @Test
+    void shouldAddTasksInASingleBulkInsert() {
+        final List<Task> tasks = List.of(
+                new Task(CHAIN_DEAL_ID, 0, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, NO_TEE_TAG),
+                new Task(CHAIN_DEAL_ID, 1, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, NO_TEE_TAG));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(tasks)).thenReturn(bulkOperations);
+
+        assertThat(taskService.addTasks(tasks)).containsExactlyElementsOf(tasks);
+
+        assertThat(tasks).allMatch(task -> task.getVersion() == 0L);
+        verify(bulkOperations, times(1)).execute();
+        verify(taskRepository, never()).findByChainDealIdAndTaskIndex(any(), anyInt());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotReturnAlreadyAddedTasks() {
+        final Task alreadyAddedTask = new Task(CHAIN_DEAL_ID, 0, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, NO_TEE_TAG);
+        final Task newTask = new Task(CHAIN_DEAL_ID, 1, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, NO_TEE_TAG);
+        final BulkOperationException bulkOperationException = mock(BulkOperationException.class);
+        when(bulkOperationException.getErrors())
+                .thenReturn(List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(bulkOperationException);
+
+        assertThat(taskService.addTasks(List.of(alreadyAddedTask, newTask))).containsExactly(newTask);
+    }
+    // endregion
+
     // region updateTask()
     @Test
     void shouldUpdateTask() {
@@ -239,6 +354,60 @@ class TaskServiceTests {
         assertThat(optional)
                 .isEmpty();
     }
+
+    @Test
+    void shouldUpdateTasksInASingleBulkWrite() {
+        final Task task1 = getStubTask(maxExecutionTime);
+        final Task task2 = new Task(CHAIN_DEAL_ID, 1, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, NO_TEE_TAG);
+        task1.setVersion(3L);
+        final BulkWriteResult bulkWriteResult = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getMatchedCount()).thenReturn(2);
+
+        assertThat(taskService.updateTasks(List.of(task1, task2))).isEqualTo(2);
+
+        assertThat(task1.getVersion()).isEqualTo(4L);
+        assertThat(task2.getVersion()).isZero();
+        verify(bulkOperations).replaceOne(
+                Query.query(Criteria.where(Task.CHAIN_TASK_ID_FIELD_NAME).is(task1.getChainTaskId())
+                        .and(Task.VERSION_FIELD_NAME).is(3L)),
+                task1);
+        verify(bulkOperations, times(2)).replaceOne(any(Query.class), any(Task.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldKeepReadVersionsAndIndexDbStateWhenSomeTasksNotUpdated() {
+        final Task task1 = getIndexableTask(CHAIN_DEAL_ID, 0, INITIALIZED, NO_TEE_TAG, 1);
+        final Task task2 = getIndexableTask(CHAIN_DEAL_ID, 1, INITIALIZED, NO_TEE_TAG, 2);
+        task1.setVersion(3L);
+        task2.setVersion(5L);
+        final Task task2InDb = getIndexableTask(CHAIN_DEAL_ID, 1, RUNNING, NO_TEE_TAG, 2);
+        final BulkWriteResult bulkWriteResult = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getMatchedCount()).thenReturn(1);
+        when(taskRepository.findByChainTaskId(List.of(task1.getChainTaskId(), task2.getChainTaskId())))
+                .thenReturn(List.of(task1, task2InDb));
+
+        assertThat(taskService.updateTasks(List.of(task1, task2))).isOne();
+
+        assertThat(task1.getVersion()).isEqualTo(3L);
+        assertThat(task2.getVersion()).isEqualTo(5L);
+        assertThat(taskService.getPrioritizedInitializedOrRunningTasks(false))
+                .extracting(Task::getChainTaskId, Task::getCurrentStatus)
+                .containsExactly(
+                        Assertions.tuple(task2.getChainTaskId(), RUNNING),
+                        Assertions.tuple(task1.getChainTaskId(), INITIALIZED));
+    }
+
+    @Test
+    void shouldNotUpdateTasksSinceEmptyList() {
+        assertThat(taskService.updateTasks(List.of())).isZero();
+        verifyNoInteractions(mongoTemplate);
+    }
     // endregion
 
     // region isConsensusReached()
@@ -21,8 +21,10 @@ import com.iexec.common.notification.TaskNotificationType;
 import com.iexec.common.task.TaskAbortCause;
 import com.iexec.core.pubsub.NotificationService;
 import com.iexec.core.replicate.Replicate;
+import com.iexec.core.replicate.ReplicateLongPollingService;
 import com.iexec.core.replicate.ReplicatesService;
 import com.iexec.core.task.Task;
+import com.iexec.core.task.TaskStatus;
 import com.iexec.core.task.event.*;
 import com.iexec.core.task.update.TaskUpdateRequestManager;
 import com.iexec.core.worker.WorkerService;
@@ -55,6 +57,8 @@ class TaskListenerTest {
     private ReplicatesService replicatesService;
     @Mock
     private WorkerService workerService;
+    @Mock
+    private ReplicateLongPollingService replicateLongPollingService;
 
     @InjectMocks
     private TaskListeners taskListeners;
@@ -72,6 +76,13 @@ class TaskListenerTest {
         verify(taskUpdateRequestManager).publishRequest(anyString());
     }
 
+    @Test
+    void shouldServeParkedReplicateDemandsOnTaskInContributionPhaseEvent() {
+        TaskInContributionPhaseEvent event = new TaskInContributionPhaseEvent(CHAIN_TASK_ID, TaskStatus.INITIALIZED);
+        taskListeners.onTaskInContributionPhase(event);
+        verify(replicateLongPollingService).onTaskMayNeedReplicates();
+    }
+
     @Test
     void shouldProcessContributionTimeoutEvent() {
         ContributionTimeoutEvent event = new ContributionTimeoutEvent();
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task.update;
+
+import com.iexec.common.utils.BytesUtils;
+import com.iexec.core.chain.IexecHubService;
+import com.iexec.core.chain.adapter.BlockchainAdapterService;
+import com.iexec.core.replicate.ReplicatesService;
+import com.iexec.core.sms.SmsService;
+import com.iexec.core.task.Task;
+import com.iexec.core.task.TaskService;
+import com.iexec.core.task.TaskStatus;
+import com.iexec.core.worker.WorkerService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.iexec.core.task.TaskTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares initialization throughput of a bag-of-tasks deal when its tasks are initialized
+ * one by one and when they are initialized in bulk.
+ * <p>
+ * Chain node, blockchain adapter, SMS and DB are stubbed, each call waiting for {@link #CALL_LATENCY_MS}.
+ * <p>
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class TaskBulkInitializationBenchmark {
+
+    private static final int NB_TASKS = 500;
+    private static final long CALL_LATENCY_MS = 2;
+
+    @Test
+    void benchmarkInitialization() {
+        final double oneByOneThroughput = run(fixture -> fixture.tasks
+                .forEach(task -> fixture.taskUpdateManager.received2Initializing(CHAIN_DEAL_ID,
+                        List.of(task.getChainTaskId()))));
+        final double bulkThroughput = run(fixture -> {
+            final List<String> chainTaskIds = fixture.tasks.stream()
+                    .map(Task::getChainTaskId)
+                    .collect(Collectors.toList());
+            for (int i = 0; i < chainTaskIds.size(); i += TaskUpdateRequestManager.PUBLISH_BATCH_SIZE) {
+                fixture.taskUpdateManager.received2Initializing(CHAIN_DEAL_ID,
+                        chainTaskIds.subList(i, Math.min(i + TaskUpdateRequestManager.PUBLISH_BATCH_SIZE, chainTaskIds.size())));
+            }
+        });
+
+        log.info("One by one initialization [nbTasks:{}, tasksPerSecond:{}]", NB_TASKS, (int) oneByOneThroughput);
+        log.info("Bulk initialization [nbTasks:{}, tasksPerSecond:{}]", NB_TASKS, (int) bulkThroughput);
+        assertThat(bulkThroughput).isGreaterThan(oneByOneThroughput);
+    }
+
+    private double run(Consumer<Fixture> initialization) {
+        final Fixture fixture = new Fixture();
+        final long start = System.nanoTime();
+        initialization.accept(fixture);
+        final long durationNanos = System.nanoTime() - start;
+        fixture.tasks.forEach(task -> assertThat(task.getCurrentStatus()).isEqualTo(TaskStatus.INITIALIZING));
+        return NB_TASKS * 1_000_000_000.0 / durationNanos;
+    }
+
+    private static <T> Answer<T> withLatency(Answer<T> answer) {
+        return invocation -> {
+            Thread.sleep(CALL_LATENCY_MS);
+            return answer.answer(invocation);
+        };
+    }
+
+    private static class Fixture {
+        private final List<Task> tasks = new ArrayList<>();
+        private final TaskUpdateManager taskUpdateManager;
+
+        private Fixture() {
+            final Map<String, Task> tasksByChainTaskId = new HashMap<>();
+            for (int taskIndex = 0; taskIndex < NB_TASKS; taskIndex++) {
+                final Task task = new Task(CHAIN_DEAL_ID, taskIndex, DAPP_NAME, COMMAND_LINE, 0, 60000, NO_TEE_TAG);
+                task.setFinalDeadline(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)));
+                tasks.add(task);
+                tasksByChainTaskId.put(task.getChainTaskId(), task);
+            }
+
+            final TaskService taskService = mock(TaskService.class);
+            when(taskService.getTaskByChainTaskId(anyString())).then(withLatency(invocation ->
+                    Optional.ofNullable(tasksByChainTaskId.get(invocation.<String>getArgument(0)))));
+            when(taskService.getTasksByChainTaskIds(anyList())).then(withLatency(invocation ->
+                    invocation.<List<String>>getArgument(0).stream()
+                            .map(tasksByChainTaskId::get)
+                            .collect(Collectors.toList())));
+            when(taskService.updateTask(any())).then(withLatency(invocation ->
+                    Optional.of(invocation.<Task>getArgument(0))));
+            when(taskService.updateTasks(anyList())).then(withLatency(invocation ->
+                    invocation.<List<Task>>getArgument(0).size()));
+
+            final IexecHubService iexecHubService = mock(IexecHubService.class);
+            when(iexecHubService.hasEnoughGas()).then(withLatency(invocation -> true));
+            when(iexecHubService.isBeforeContributionDeadline(anyString())).then(withLatency(invocation -> true));
+            when(iexecHubService.isTaskInUnsetStatusOnChain(anyString(), anyInt())).then(withLatency(invocation -> true));
+
+            final BlockchainAdapterService blockchainAdapterService = mock(BlockchainAdapterService.class);
+            when(blockchainAdapterService.requestInitialize(anyString(), anyInt())).then(withLatency(invocation ->
+                    Optional.of(tasks.get(invocation.<Integer>getArgument(1)).getChainTaskId())));
+            when(blockchainAdapterService.isInitialized(anyString())).thenAnswer(invocation -> new CompletableFuture<>());
+
+            final SmsService smsService = mock(SmsService.class);
+            when(smsService.getEnclaveChallenge(anyString(), anyBoolean())).then(withLatency(invocation ->
+                    Optional.of(BytesUtils.EMPTY_ADDRESS)));
+
+            taskUpdateManager = new TaskUpdateManager(taskService, iexecHubService, mock(ReplicatesService.class),
+                    mock(ApplicationEventPublisher.class), mock(WorkerService.class), blockchainAdapterService, smsService);
+        }
+    }
+}
@@ -36,7 +36,9 @@ import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
 import com.iexec.core.task.TaskStatus;
 import com.iexec.core.sms.SmsService;
+import com.iexec.core.task.event.BlockchainCommandCompletedEvent;
 import com.iexec.core.task.event.PleaseUploadEvent;
+import com.iexec.core.task.event.TaskInContributionPhaseEvent;
 import com.iexec.core.worker.Worker;
 import com.iexec.core.worker.WorkerService;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,6 +52,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.iexec.core.task.TaskStatus.*;
@@ -244,12 +247,29 @@ class TaskUpdateManagerTest {
         assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED);
     }
 
+    @Test
+    void shouldNotUpdateReceivedTaskInLane() {
+        Task task = getStubTask(maxExecutionTime);
+        task.changeStatus(RECEIVED);
+        task.setChainTaskId(CHAIN_TASK_ID);
+
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED);
+        verifyNoInteractions(blockchainAdapterService);
+        verify(taskService, never()).updateTask(any());
+    }
+
     @Test
     void shouldNotUpdateReceived2InitializingSinceCurrentStatusIsNotReceived() {
         Task task = getStubTask(maxExecutionTime);
         task.changeStatus(INITIALIZED);
+        task.setChainTaskId(CHAIN_TASK_ID);
 
-        taskUpdateManager.received2Initializing(task);
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
+
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID))).isEmpty();
         assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZED);
     }
 
@@ -259,16 +279,15 @@ class TaskUpdateManagerTest {
         task.changeStatus(RECEIVED);
         task.setChainTaskId(CHAIN_TASK_ID);
 
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
         when(iexecHubService.hasEnoughGas()).thenReturn(false);
         when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, 0)).thenReturn(true);
         when(iexecHubService.isBeforeContributionDeadline(task.getChainDealId()))
                 .thenReturn(true);
-        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, 1)).thenReturn(Optional.of(CHAIN_TASK_ID));
 
-        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID))).isEmpty();
         assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED);
+        verify(blockchainAdapterService, never()).requestInitialize(any(), anyInt());
     }
 
     @Test
@@ -277,16 +296,15 @@ class TaskUpdateManagerTest {
         task.changeStatus(RECEIVED);
         task.setChainTaskId(CHAIN_TASK_ID);
 
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, 0)).thenReturn(false);
         when(iexecHubService.isBeforeContributionDeadline(task.getChainDealId()))
                 .thenReturn(true);
-        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, 0)).thenReturn(Optional.of(CHAIN_TASK_ID));
 
-        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID))).isEmpty();
         assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED);
+        verify(blockchainAdapterService, never()).requestInitialize(any(), anyInt());
     }
 
     @Test
@@ -295,89 +313,206 @@ class TaskUpdateManagerTest {
         task.changeStatus(RECEIVED);
         task.setChainTaskId(CHAIN_TASK_ID);
 
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, 0)).thenReturn(true);
         when(iexecHubService.isBeforeContributionDeadline(task.getChainDealId()))
                 .thenReturn(false);
-        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, 0)).thenReturn(Optional.of(CHAIN_TASK_ID));
 
-        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID))).isEmpty();
         assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED);
+        verify(blockchainAdapterService, never()).requestInitialize(any(), anyInt());
     }
 
     @Test
-    void shouldUpdateInitializing2InitailizeFailedSinceChainTaskIdIsEmpty() {
+    void shouldLeaveReceivedTaskToLaneSinceFinalDeadlineReached() {
         Task task = getStubTask(maxExecutionTime);
         task.changeStatus(RECEIVED);
         task.setChainTaskId(CHAIN_TASK_ID);
+        task.setFinalDeadline(new Date(0));
 
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
+
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID)))
+                .containsExactly(CHAIN_TASK_ID);
+        assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED);
+        verify(taskService, never()).updateTask(any());
+        verify(taskService, never()).updateTasks(any());
+    }
+
+    @Test
+    void shouldUpdateReceived2InitializeFailedSinceChainTaskIdIsEmpty() {
+        Task task = getStubTask(maxExecutionTime);
+        task.changeStatus(RECEIVED);
+        task.setChainTaskId(CHAIN_TASK_ID);
+
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, 0)).thenReturn(true);
         when(iexecHubService.isBeforeContributionDeadline(task.getChainDealId()))
                 .thenReturn(true);
-        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
         when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, 0)).thenReturn(Optional.empty());
+        when(taskService.updateTasks(List.of(task))).thenReturn(1);
 
-        taskUpdateManager.updateTask(task.getChainTaskId());
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID)))
+                .containsExactly(CHAIN_TASK_ID);
 
-        assertThat(task.getLastButOneStatus()).isEqualTo(INITIALIZE_FAILED);
-        assertThat(task.getCurrentStatus()).isEqualTo(FAILED);
+        assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZE_FAILED);
+        verify(taskService).updateTasks(List.of(task));
     }
 
     @Test
-    void shouldUpdateInitializing2InitializeFailedSinceEnclaveChallengeIsEmpty() {
+    void shouldUpdateReceived2InitializeFailedSinceEnclaveChallengeIsEmpty() {
         Task task = getStubTask(maxExecutionTime);
         task.changeStatus(RECEIVED);
         task.setChainTaskId(CHAIN_TASK_ID);
 
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, 0)).thenReturn(true);
         when(iexecHubService.isBeforeContributionDeadline(task.getChainDealId()))
                 .thenReturn(true);
         when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, 0)).thenReturn(Optional.of(CHAIN_TASK_ID));
-        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(Optional.of(true));
-        when(iexecHubService.getChainTask(CHAIN_TASK_ID)).thenReturn(Optional.of(ChainTask.builder()
-                .contributionDeadline(DateTimeUtils.addMinutesToDate(new Date(), 60).getTime())
-                .build()));
         when(smsService.getEnclaveChallenge(CHAIN_TASK_ID, false)).thenReturn(Optional.empty());
+        when(taskService.updateTasks(List.of(task))).thenReturn(1);
 
-        taskUpdateManager.updateTask(task.getChainTaskId());
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID)))
+                .containsExactly(CHAIN_TASK_ID);
+
+        assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZE_FAILED);
+        verify(blockchainAdapterService, never()).isInitialized(any());
+    }
+
+    @Test
+    void shouldUpdateInitializeFailed2FailedInLane() {
+        Task task = getStubTask(maxExecutionTime);
+        task.changeStatus(INITIALIZE_FAILED);
+        task.setChainTaskId(CHAIN_TASK_ID);
+
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
+
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
 
         assertThat(task.getLastButOneStatus()).isEqualTo(INITIALIZE_FAILED);
         assertThat(task.getCurrentStatus()).isEqualTo(FAILED);
     }
 
     @Test
-    void shouldUpdateReceived2Initializing2Initialized() {
+    void shouldUpdateReceived2InitializingAndLeaveNextTransitionsToLane() {
         Task task = getStubTask(maxExecutionTime);
         task.changeStatus(RECEIVED);
         task.setChainTaskId(CHAIN_TASK_ID);
 
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID))).thenReturn(List.of(task));
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, 0)).thenReturn(true);
         when(iexecHubService.isBeforeContributionDeadline(task.getChainDealId()))
                 .thenReturn(true);
-
-        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
         when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, 0)).thenReturn(Optional.of(CHAIN_TASK_ID));
-        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(Optional.of(true));
-        when(iexecHubService.getChainTask(CHAIN_TASK_ID)).thenReturn(Optional.of(ChainTask.builder()
-                .contributionDeadline(DateTimeUtils.addMinutesToDate(new Date(), 60).getTime())
-                .build()));
         when(smsService.getEnclaveChallenge(CHAIN_TASK_ID, false)).thenReturn(Optional.of(BytesUtils.EMPTY_ADDRESS));
+        when(taskService.updateTasks(List.of(task))).thenReturn(1);
 
-        taskUpdateManager.updateTask(CHAIN_TASK_ID);
-        assertThat(task.getChainDealId()).isEqualTo(CHAIN_DEAL_ID);
-        assertThat(task.getDateStatusList().get(task.getDateStatusList().size() - 1).getStatus()).isEqualTo(INITIALIZED);
-        assertThat(task.getDateStatusList().get(task.getDateStatusList().size() - 2).getStatus()).isEqualTo(INITIALIZING);
-        assertThat(task.getDateStatusList().get(task.getDateStatusList().size() - 3).getStatus()).isEqualTo(RECEIVED);
-        assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZED);
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, List.of(CHAIN_TASK_ID)))
+                .containsExactly(CHAIN_TASK_ID);
+        assertThat(task.getLastButOneStatus()).isEqualTo(RECEIVED);
+        assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZING);
         assertThat(task.getEnclaveChallenge()).isEqualTo(BytesUtils.EMPTY_ADDRESS);
+        verify(blockchainAdapterService, never()).isInitialized(any());
+        verify(taskService, never()).getTaskByChainTaskId(any());
+    }
+
+    // Tests on bulk received2Initializing transition
+
+    private List<Task> getReceivedTasksOfDeal(int nbTasks) {
+        final List<Task> tasks = new ArrayList<>();
+        for (int taskIndex = 0; taskIndex < nbTasks; taskIndex++) {
+            Task task = new Task(CHAIN_DEAL_ID, taskIndex, DAPP_NAME, COMMAND_LINE, 0, maxExecutionTime, NO_TEE_TAG);
+            task.setFinalDeadline(Date.from(Instant.now().plus(1, ChronoUnit.MINUTES)));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    void shouldUpdateReceivedTasks2InitializingWithSharedDealChecksAndSingleWrite() {
+        final List<Task> tasks = getReceivedTasksOfDeal(3);
+        final List<String> chainTaskIds = tasks.stream().map(Task::getChainTaskId).collect(Collectors.toList());
+
+        when(taskService.getTasksByChainTaskIds(chainTaskIds)).thenReturn(tasks);
+        when(iexecHubService.hasEnoughGas()).thenReturn(true);
+        when(iexecHubService.isBeforeContributionDeadline(CHAIN_DEAL_ID)).thenReturn(true);
+        when(iexecHubService.isTaskInUnsetStatusOnChain(eq(CHAIN_DEAL_ID), anyInt())).thenReturn(true);
+        for (Task task : tasks) {
+            when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, task.getTaskIndex()))
+                    .thenReturn(Optional.of(task.getChainTaskId()));
+            when(smsService.getEnclaveChallenge(task.getChainTaskId(), false))
+                    .thenReturn(Optional.of(BytesUtils.EMPTY_ADDRESS));
+        }
+        when(taskService.updateTasks(tasks)).thenReturn(tasks.size());
+
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, chainTaskIds))
+                .containsExactlyElementsOf(chainTaskIds);
+
+        verify(iexecHubService, times(1)).hasEnoughGas();
+        verify(iexecHubService, times(1)).isBeforeContributionDeadline(CHAIN_DEAL_ID);
+        verify(taskService, times(1)).updateTasks(tasks);
+        verify(taskService, never()).updateTask(any());
+        verify(taskService, never()).getTaskByChainTaskId(any());
+        for (Task task : tasks) {
+            assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZING);
+            assertThat(task.getEnclaveChallenge()).isEqualTo(BytesUtils.EMPTY_ADDRESS);
+        }
+        // next transitions are run by lanes
+        verify(blockchainAdapterService, never()).isInitialized(any());
+    }
+
+    @Test
+    void shouldNotUpdateReceivedTasks2InitializingSinceDealAfterContributionDeadline() {
+        final List<Task> tasks = getReceivedTasksOfDeal(2);
+        final List<String> chainTaskIds = tasks.stream().map(Task::getChainTaskId).collect(Collectors.toList());
+
+        when(taskService.getTasksByChainTaskIds(chainTaskIds)).thenReturn(tasks);
+        when(iexecHubService.hasEnoughGas()).thenReturn(true);
+        when(iexecHubService.isBeforeContributionDeadline(CHAIN_DEAL_ID)).thenReturn(false);
+
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, chainTaskIds)).isEmpty();
+
+        verify(blockchainAdapterService, never()).requestInitialize(any(), anyInt());
+        verify(taskService, never()).updateTasks(any());
+        tasks.forEach(task -> assertThat(task.getCurrentStatus()).isEqualTo(RECEIVED));
+    }
+
+    @Test
+    void shouldOnlyUpdateReceivedTasks2InitializingWhoseInitializationIsRequested() {
+        final List<Task> tasks = getReceivedTasksOfDeal(3);
+        final List<String> chainTaskIds = tasks.stream().map(Task::getChainTaskId).collect(Collectors.toList());
+        final Task unsetTask = tasks.get(0);
+        final Task failedRequestTask = tasks.get(1);
+        final Task requestedTask = tasks.get(2);
+
+        when(taskService.getTasksByChainTaskIds(chainTaskIds)).thenReturn(tasks);
+        when(iexecHubService.hasEnoughGas()).thenReturn(true);
+        when(iexecHubService.isBeforeContributionDeadline(CHAIN_DEAL_ID)).thenReturn(true);
+        when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, unsetTask.getTaskIndex())).thenReturn(false);
+        when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, failedRequestTask.getTaskIndex())).thenReturn(true);
+        when(iexecHubService.isTaskInUnsetStatusOnChain(CHAIN_DEAL_ID, requestedTask.getTaskIndex())).thenReturn(true);
+        when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, failedRequestTask.getTaskIndex()))
+                .thenReturn(Optional.empty());
+        when(blockchainAdapterService.requestInitialize(CHAIN_DEAL_ID, requestedTask.getTaskIndex()))
+                .thenReturn(Optional.of(requestedTask.getChainTaskId()));
+        when(smsService.getEnclaveChallenge(requestedTask.getChainTaskId(), false))
+                .thenReturn(Optional.of(BytesUtils.EMPTY_ADDRESS));
+        when(taskService.updateTasks(List.of(failedRequestTask, requestedTask))).thenReturn(2);
+
+        assertThat(taskUpdateManager.received2Initializing(CHAIN_DEAL_ID, chainTaskIds))
+                .containsExactly(failedRequestTask.getChainTaskId(), requestedTask.getChainTaskId());
+
+        assertThat(unsetTask.getCurrentStatus()).isEqualTo(RECEIVED);
+        assertThat(failedRequestTask.getCurrentStatus()).isEqualTo(INITIALIZE_FAILED);
+        assertThat(requestedTask.getCurrentStatus()).isEqualTo(INITIALIZING);
+        verify(taskService).updateTasks(List.of(failedRequestTask, requestedTask));
+        verify(taskService, never()).updateTask(any());
     }
 
     // Tests on initializing2Initialized transition
@@ -389,7 +524,7 @@ class TaskUpdateManagerTest {
         task.changeStatus(INITIALIZING);
 
         when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(Optional.of(true));
+        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(true)));
 
         taskUpdateManager.updateTask(CHAIN_TASK_ID);
         assertThat(task.getDateStatusList().get(task.getDateStatusList().size() - 1).getStatus()).isEqualTo(INITIALIZED);
@@ -397,6 +532,46 @@ class TaskUpdateManagerTest {
         assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZED);
     }
 
+    @Test
+    void shouldPublishTaskInContributionPhaseEventWhenInitialized() {
+        Task task = getStubTask(maxExecutionTime);
+        task.setChainTaskId(CHAIN_TASK_ID);
+        task.changeStatus(INITIALIZING);
+
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
+        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(true)));
+
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+
+        verify(applicationEventPublisher).publishEvent(TaskInContributionPhaseEvent.builder()
+                .chainTaskId(CHAIN_TASK_ID)
+                .status(INITIALIZED)
+                .build());
+    }
+
+    @Test
+    void shouldEvictReplicatesListWhenTaskReachesFinalStatus() {
+        Task task = getStubTask(maxExecutionTime);
+        task.setChainTaskId(CHAIN_TASK_ID);
+        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
+
+        taskUpdateManager.updateTaskStatusAndSave(task, FAILED);
+
+        verify(replicatesService).evictReplicatesList(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldNotEvictReplicatesListWhenTaskIsNotOver() {
+        Task task = getStubTask(maxExecutionTime);
+        task.setChainTaskId(CHAIN_TASK_ID);
+        when(taskService.updateTask(task)).thenReturn(Optional.of(task));
+
+        taskUpdateManager.updateTaskStatusAndSave(task, INITIALIZED);
+
+        verify(replicatesService, never()).evictReplicatesList(anyString());
+    }
+
     @Test
     void shouldNotUpdateInitializing2InitializedSinceNotInitialized() {
         Task task = getStubTask(maxExecutionTime);
@@ -404,7 +579,7 @@ class TaskUpdateManagerTest {
         task.changeStatus(INITIALIZING);
 
         when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(Optional.of(false));
+        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(false)));
 
         taskUpdateManager.updateTask(CHAIN_TASK_ID);
         assertThat(task.getDateStatusList().get(task.getDateStatusList().size() - 4).getStatus()).isEqualTo(RECEIVED);
@@ -421,7 +596,7 @@ class TaskUpdateManagerTest {
         task.changeStatus(INITIALIZING);
 
         when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(Optional.empty());
+        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         taskUpdateManager.updateTask(CHAIN_TASK_ID);
         assertThat(task.getDateStatusList().get(task.getDateStatusList().size() - 2).getStatus()).isEqualTo(RECEIVED);
@@ -429,6 +604,44 @@ class TaskUpdateManagerTest {
         assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZING);
     }
 
+    @Test
+    void shouldNotWaitForInitializeCommandCompletionAndUpdateTaskOnceCompleted() {
+        Task task = getStubTask(maxExecutionTime);
+        task.setChainTaskId(CHAIN_TASK_ID);
+        task.changeStatus(INITIALIZING);
+        final CompletableFuture<Optional<Boolean>> isInitialized = new CompletableFuture<>();
+
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(isInitialized);
+
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        assertThat(task.getCurrentStatus()).isEqualTo(INITIALIZING);
+        verify(applicationEventPublisher, never()).publishEvent(any(BlockchainCommandCompletedEvent.class));
+
+        isInitialized.complete(Optional.of(true));
+        verify(iexecHubService).evictChainTask(CHAIN_TASK_ID);
+        verify(applicationEventPublisher).publishEvent(new BlockchainCommandCompletedEvent(CHAIN_TASK_ID));
+    }
+
+    @Test
+    void shouldPublishSingleCommandCompletedEventWhenUpdatedSeveralTimesWhilePending() {
+        Task task = getStubTask(maxExecutionTime);
+        task.setChainTaskId(CHAIN_TASK_ID);
+        task.changeStatus(INITIALIZING);
+        final CompletableFuture<Optional<Boolean>> isInitialized = new CompletableFuture<>();
+
+        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
+        when(blockchainAdapterService.isInitialized(CHAIN_TASK_ID)).thenReturn(isInitialized);
+
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+        taskUpdateManager.updateTask(CHAIN_TASK_ID);
+
+        isInitialized.complete(Optional.of(true));
+        verify(iexecHubService, times(1)).evictChainTask(CHAIN_TASK_ID);
+        verify(applicationEventPublisher, times(1)).publishEvent(new BlockchainCommandCompletedEvent(CHAIN_TASK_ID));
+    }
+
     // Tests on initialized2Running transition
 
     @Test
@@ -1064,7 +1277,7 @@ class TaskUpdateManagerTest {
         when(iexecHubService.getChainTask(any())).thenReturn(Optional.of(chainTask));
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(blockchainAdapterService.requestFinalize(any(), any(), any())).thenReturn(Optional.of(CHAIN_TASK_ID));
-        when(blockchainAdapterService.isFinalized(any())).thenReturn(Optional.of(true));
+        when(blockchainAdapterService.isFinalized(any())).thenReturn(CompletableFuture.completedFuture(Optional.of(true)));
         when(resulRepositoryConfig.getResultRepositoryURL()).thenReturn("http://foo:bar");
         when(iexecHubService.getChainTask(CHAIN_TASK_ID)).thenReturn(Optional.of(ChainTask.builder()
                 .status(ChainTaskStatus.COMPLETED)
@@ -1105,7 +1318,7 @@ class TaskUpdateManagerTest {
         task.changeStatus(FINALIZING);
 
         when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.isFinalized(CHAIN_TASK_ID)).thenReturn(Optional.of(false));
+        when(blockchainAdapterService.isFinalized(CHAIN_TASK_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(false)));
 
         taskUpdateManager.updateTask(CHAIN_TASK_ID);
         assertThat(task.getCurrentStatus()).isEqualTo(FAILED);
@@ -1302,7 +1515,7 @@ class TaskUpdateManagerTest {
         when(iexecHubService.hasEnoughGas()).thenReturn(true);
         when(blockchainAdapterService.requestFinalize(any(), any(), any())).thenReturn(Optional.of(CHAIN_TASK_ID));
 
-        when(blockchainAdapterService.isFinalized(any())).thenReturn(Optional.of(true));
+        when(blockchainAdapterService.isFinalized(any())).thenReturn(CompletableFuture.completedFuture(Optional.of(true)));
         doNothing().when(applicationEventPublisher).publishEvent(any());
 
         taskUpdateManager.updateTask(task.getChainTaskId());
@@ -1405,7 +1618,7 @@ class TaskUpdateManagerTest {
         task.changeStatus(FINALIZING);
 
         when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID)).thenReturn(Optional.of(task));
-        when(blockchainAdapterService.isFinalized(CHAIN_TASK_ID)).thenReturn(Optional.of(true));
+        when(blockchainAdapterService.isFinalized(CHAIN_TASK_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(true)));
 
         taskUpdateManager.updateTask(CHAIN_TASK_ID);
         assertThat(task.getCurrentStatus()).isEqualTo(COMPLETED);
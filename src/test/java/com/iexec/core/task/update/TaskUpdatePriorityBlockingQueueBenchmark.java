@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task.update;
+
+import com.iexec.core.task.Task;
+import com.iexec.core.task.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares {@link TaskUpdatePriorityBlockingQueue} with the {@link PriorityBlockingQueue}
+ * based implementation it replaces, whose {@code containsTask} was a linear scan.
+ * <p>
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class TaskUpdatePriorityBlockingQueueBenchmark {
+
+    private static final int NB_ENTRIES = 100_000;
+    // The previous implementation is too slow to look up all entries
+    private static final int NB_LOOKUPS = 1_000;
+    private static final TaskStatus[] STATUSES = {
+            TaskStatus.INITIALIZED, TaskStatus.RUNNING, TaskStatus.CONSENSUS_REACHED, TaskStatus.AT_LEAST_ONE_REVEALED
+    };
+
+    private final List<TaskUpdate> taskUpdates = buildTaskUpdates();
+
+    private static List<TaskUpdate> buildTaskUpdates() {
+        final Random random = new Random(42);
+        final long now = System.currentTimeMillis();
+        final List<TaskUpdate> taskUpdates = new ArrayList<>(NB_ENTRIES);
+        for (int i = 0; i < NB_ENTRIES; i++) {
+            final Task task = Task.builder()
+                    .chainTaskId("0x" + i)
+                    .currentStatus(STATUSES[random.nextInt(STATUSES.length)])
+                    .contributionDeadline(new Date(now + random.nextInt(3_600_000)))
+                    .build();
+            taskUpdates.add(new TaskUpdate(task, chainTaskId -> {
+            }));
+        }
+        return taskUpdates;
+    }
+
+    @Test
+    void benchmarkQueues() throws InterruptedException {
+        final PriorityBlockingQueue<Runnable> previousQueue = new PriorityBlockingQueue<>();
+        final Predicate<String> previousContainsTask = chainTaskId -> previousQueue.stream()
+                .map(TaskUpdate.class::cast)
+                .anyMatch(taskUpdate -> chainTaskId.equals(taskUpdate.getChainTaskId()));
+        final TaskUpdatePriorityBlockingQueue indexedQueue = new TaskUpdatePriorityBlockingQueue();
+
+        final Result previousResult = run(previousQueue, previousContainsTask);
+        final Result indexedResult = run(indexedQueue, indexedQueue::containsTask);
+
+        log.info("PriorityBlockingQueue [entries:{}] {}", NB_ENTRIES, previousResult);
+        log.info("TaskUpdatePriorityBlockingQueue [entries:{}] {}", NB_ENTRIES, indexedResult);
+        assertThat(indexedResult.lookupNanos).isLessThan(previousResult.lookupNanos);
+    }
+
+    private Result run(BlockingQueue<Runnable> queue,
+                       Predicate<String> containsTask) throws InterruptedException {
+        final Result result = new Result();
+
+        long start = System.nanoTime();
+        taskUpdates.forEach(queue::offer);
+        result.insertNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < NB_LOOKUPS; i++) {
+            // worst case for a linear scan: looked up task is missing
+            assertThat(containsTask.test("missing" + i)).isFalse();
+        }
+        result.lookupNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int nbTakenEntries = 0;
+        while (!queue.isEmpty()) {
+            queue.take();
+            nbTakenEntries++;
+        }
+        result.takeNanos = System.nanoTime() - start;
+        assertThat(nbTakenEntries).isEqualTo(NB_ENTRIES);
+        return result;
+    }
+
+    private static class Result {
+        private long insertNanos;
+        private long lookupNanos;
+        private long takeNanos;
+
+        @Override
+        public String toString() {
+            return String.format("[insertAllMs:%d, containsTaskAvgUs:%d, takeAllMs:%d]",
+                    insertNanos / 1_000_000, lookupNanos / NB_LOOKUPS / 1_000, takeNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.core.task.update;
+
+import com.iexec.core.task.Task;
+import com.iexec.core.task.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskUpdatePriorityBlockingQueueTests {
+
+    private static final Date DEADLINE = new GregorianCalendar(2021, Calendar.JANUARY, 1).getTime();
+
+    private final TaskUpdatePriorityBlockingQueue queue = new TaskUpdatePriorityBlockingQueue();
+
+    private TaskUpdate buildTaskUpdate(String chainTaskId, TaskStatus status, Date contributionDeadline) {
+        return new TaskUpdate(
+                Task.builder()
+                        .chainTaskId(chainTaskId)
+                        .currentStatus(status)
+                        .contributionDeadline(contributionDeadline)
+                        .build(),
+                id -> {
+                }
+        );
+    }
+
+    @Test
+    void shouldNotAcceptOtherRunnable() {
+        assertThatThrownBy(() -> queue.offer(() -> {
+        })).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldContainTask() {
+        queue.add(buildTaskUpdate("1", TaskStatus.RUNNING, DEADLINE));
+
+        assertThat(queue.containsTask("1")).isTrue();
+        assertThat(queue.containsTask("2")).isFalse();
+    }
+
+    @Test
+    void shouldReplaceQueuedUpdateOfSameTaskAndUpdateItsPriority() throws InterruptedException {
+        final TaskUpdate runningTask1 = buildTaskUpdate("1", TaskStatus.RUNNING, DEADLINE);
+        final TaskUpdate runningTask2 = buildTaskUpdate("2", TaskStatus.RUNNING, DEADLINE);
+        final TaskUpdate consensusReachedTask2 = buildTaskUpdate("2", TaskStatus.CONSENSUS_REACHED, DEADLINE);
+        queue.add(runningTask1);
+        queue.add(runningTask2);
+
+        queue.add(consensusReachedTask2);
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.takeAll()).containsExactly(consensusReachedTask2, runningTask1);
+    }
+
+    @Test
+    void shouldReplaceIfPresent() {
+        final TaskUpdate taskUpdate = buildTaskUpdate("1", TaskStatus.RUNNING, DEADLINE);
+        final TaskUpdate newTaskUpdate = buildTaskUpdate("1", TaskStatus.CONSENSUS_REACHED, DEADLINE);
+
+        assertThat(queue.replaceIfPresent(taskUpdate)).isFalse();
+        assertThat(queue).isEmpty();
+
+        queue.add(taskUpdate);
+        assertThat(queue.replaceIfPresent(newTaskUpdate)).isTrue();
+        assertThat(queue.peek()).isSameAs(newTaskUpdate);
+    }
+
+    @Test
+    void shouldRemoveElement() throws InterruptedException {
+        final List<TaskUpdate> taskUpdates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Date deadline = new GregorianCalendar(2021, Calendar.JANUARY, i + 1).getTime();
+            taskUpdates.add(buildTaskUpdate(String.valueOf(i), TaskStatus.RUNNING, deadline));
+        }
+        final List<TaskUpdate> shuffledTaskUpdates = new ArrayList<>(taskUpdates);
+        Collections.shuffle(shuffledTaskUpdates);
+        queue.addAll(shuffledTaskUpdates);
+
+        assertThat(queue.remove(taskUpdates.get(3))).isTrue();
+        assertThat(queue.remove(taskUpdates.get(3))).isFalse();
+        assertThat(queue.containsTask("3")).isFalse();
+
+        taskUpdates.remove(3);
+        assertThat(queue.takeAll()).containsExactlyElementsOf(taskUpdates);
+        assertThat(queue.containsTask("0")).isFalse();
+    }
+
+    @Test
+    void shouldRemoveElementThroughIterator() {
+        queue.add(buildTaskUpdate("1", TaskStatus.RUNNING, DEADLINE));
+        queue.add(buildTaskUpdate("2", TaskStatus.RUNNING, DEADLINE));
+
+        final Iterator<Runnable> iterator = queue.iterator();
+        iterator.next();
+        iterator.remove();
+
+        assertThat(queue.size()).isOne();
+    }
+
+    @Test
+    void shouldDrainInOrder() {
+        final TaskUpdate runningTask = buildTaskUpdate("1", TaskStatus.RUNNING, DEADLINE);
+        final TaskUpdate completedTask = buildTaskUpdate("2", TaskStatus.COMPLETED, DEADLINE);
+        queue.add(runningTask);
+        queue.add(completedTask);
+
+        final List<Runnable> drainedElements = new ArrayList<>();
+        assertThat(queue.drainTo(drainedElements)).isEqualTo(2);
+
+        assertThat(drainedElements).containsExactly(completedTask, runningTask);
+        assertThat(queue).isEmpty();
+        assertThat(queue.containsTask("1")).isFalse();
+    }
+
+    @Test
+    void shouldPollNullAfterTimeoutWhenEmpty() throws InterruptedException {
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+    }
+}
@@ -3,12 +3,11 @@ package com.iexec.core.task.update;
 import com.iexec.core.task.Task;
 import com.iexec.core.task.TaskService;
 import com.iexec.core.task.TaskStatus;
-import net.jodah.expiringmap.ExpiringMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -18,7 +17,7 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class TaskUpdateRequestManagerTests {
 
@@ -26,20 +25,22 @@ class TaskUpdateRequestManagerTests {
 
     @Mock
     private TaskService taskService;
+    @Mock
+    private TaskUpdateManager taskUpdateManager;
 
-    @InjectMocks
     private TaskUpdateRequestManager taskUpdateRequestManager;
 
     @BeforeEach
     void init() {
         MockitoAnnotations.openMocks(this);
+        taskUpdateRequestManager = new TaskUpdateRequestManager(taskService, taskUpdateManager, new SimpleMeterRegistry());
     }
 
     // region publishRequest()
     @Test
     void shouldPublishRequest() throws ExecutionException, InterruptedException {
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID))
-                .thenReturn(Optional.of(Task.builder().chainTaskId(CHAIN_TASK_ID).build()));
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID)))
+                .thenReturn(List.of(Task.builder().chainTaskId(CHAIN_TASK_ID).build()));
 
         CompletableFuture<Boolean> booleanCompletableFuture = taskUpdateRequestManager.publishRequest(CHAIN_TASK_ID);
         booleanCompletableFuture.join();
@@ -57,9 +58,9 @@ class TaskUpdateRequestManagerTests {
 
     @Test
     void shouldNotPublishRequestSinceItemAlreadyAdded() throws ExecutionException, InterruptedException {
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID))
-                .thenReturn(Optional.of(Task.builder().chainTaskId(CHAIN_TASK_ID).build()));
-        taskUpdateRequestManager.queue.add(
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID)))
+                .thenReturn(List.of(Task.builder().chainTaskId(CHAIN_TASK_ID).build()));
+        taskUpdateRequestManager.getLane(CHAIN_TASK_ID).getQueue().add(
                 buildTaskUpdate(CHAIN_TASK_ID, null, null, null)
         );
 
@@ -71,14 +72,46 @@ class TaskUpdateRequestManagerTests {
 
     @Test
     void shouldNotPublishRequestSinceTaskDoesNotExist() throws ExecutionException, InterruptedException {
-        when(taskService.getTaskByChainTaskId(CHAIN_TASK_ID))
-                .thenReturn(Optional.empty());
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID)))
+                .thenReturn(List.of());
 
         CompletableFuture<Boolean> booleanCompletableFuture = taskUpdateRequestManager.publishRequest(CHAIN_TASK_ID);
         booleanCompletableFuture.join();
 
         Assertions.assertThat(booleanCompletableFuture.get()).isFalse();
     }
+
+    @Test
+    void shouldCoalescePendingRequestsAndReadTheirTasksAtOnce() throws InterruptedException {
+        final CountDownLatch firstReadStarted = new CountDownLatch(1);
+        final CountDownLatch firstReadAllowed = new CountDownLatch(1);
+        when(taskService.getTasksByChainTaskIds(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                        .map(chainTaskId -> Task.builder().chainTaskId(chainTaskId).build())
+                        .collect(Collectors.toList()));
+        when(taskService.getTasksByChainTaskIds(List.of("blocking")))
+                .thenAnswer(invocation -> {
+                    firstReadStarted.countDown();
+                    firstReadAllowed.await();
+                    return List.of(Task.builder().chainTaskId("blocking").build());
+                });
+
+        final CompletableFuture<Boolean> blockingRequest = taskUpdateRequestManager.publishRequest("blocking");
+        Assertions.assertThat(firstReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // these requests are pending while the first one is being published
+        final CompletableFuture<Boolean> request1 = taskUpdateRequestManager.publishRequest("1");
+        final CompletableFuture<Boolean> request2 = taskUpdateRequestManager.publishRequest("2");
+        final CompletableFuture<Boolean> duplicatedRequest1 = taskUpdateRequestManager.publishRequest("1");
+        Assertions.assertThat(duplicatedRequest1).isSameAs(request1);
+        firstReadAllowed.countDown();
+
+        Assertions.assertThat(blockingRequest.join()).isTrue();
+        Assertions.assertThat(request1.join()).isTrue();
+        Assertions.assertThat(request2.join()).isTrue();
+        verify(taskService).getTasksByChainTaskIds(argThat(chainTaskIds ->
+                chainTaskIds.size() == 2 && chainTaskIds.containsAll(List.of("1", "2"))));
+        verify(taskService, never()).getTaskByChainTaskId(any());
+    }
     // endregion
 
     // region consume tasks in order
@@ -90,22 +123,17 @@ class TaskUpdateRequestManagerTests {
 
         final Random random = new Random();
         // Consuming a task update should only log the call a few times, while sleeping between each log
-        // so that another task could be updated at the same time if authorized by lock.
-        final ConcurrentMap<String, Object> locks = ExpiringMap.builder()
-                .expiration(100, TimeUnit.HOURS)
-                .build();
+        // so that another task could be updated at the same time if not prevented by lanes.
         final Consumer<String> taskUpdater = chainTaskId -> {
-            synchronized (locks.computeIfAbsent(chainTaskId, key -> new Object())) {
-                final int updateId = (int) System.nanoTime() % Integer.MAX_VALUE;
-                taskForUpdateId.put(updateId, chainTaskId);
-                for (int i = 0; i < callsPerUpdate; i++) {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextInt(10));
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    callsOrder.add(updateId);
+            final int updateId = (int) System.nanoTime() % Integer.MAX_VALUE;
+            taskForUpdateId.put(updateId, chainTaskId);
+            for (int i = 0; i < callsPerUpdate; i++) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(random.nextInt(10));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
                 }
+                callsOrder.add(updateId);
             }
         };
 
@@ -113,13 +141,17 @@ class TaskUpdateRequestManagerTests {
                 .map(id -> buildTaskUpdate(id, TaskStatus.RUNNING, new Date(), taskUpdater))
                 .collect(Collectors.toList());
 
-        updates.forEach(taskUpdateRequestManager.taskUpdateExecutor::execute);
+        updates.forEach(update -> taskUpdateRequestManager.getLane(update.getChainTaskId()).execute(update));
+        // Queued updates of a task are merged with the update of this task already queued, if any,
+        // so the number of executed updates depends on how many updates have been run without being queued.
         Awaitility
                 .await()
                 .timeout(30, TimeUnit.SECONDS)
-                .until(() -> callsOrder.size() == callsPerUpdate * updates.size());
+                .until(() -> taskUpdateRequestManager.isIdle()
+                        && callsOrder.size() == callsPerUpdate * taskForUpdateId.size());
 
-        Assertions.assertThat(callsOrder.size()).isEqualTo(callsPerUpdate * updates.size());
+        Assertions.assertThat(taskForUpdateId.values()).contains("1", "2");
+        Assertions.assertThat(callsOrder.size()).isEqualTo(callsPerUpdate * taskForUpdateId.size());
 
         // We loop through calls order and see if all calls for a given update have finished
         // before another update starts for this task.
@@ -141,10 +173,139 @@ class TaskUpdateRequestManagerTests {
     }
     // endregion
 
+    // region initialization
+    @Test
+    void shouldInitializeReceivedTasksOfADealAtOnce() throws InterruptedException {
+        final CountDownLatch firstReadStarted = new CountDownLatch(1);
+        final CountDownLatch firstReadAllowed = new CountDownLatch(1);
+        final CountDownLatch initializationStarted = new CountDownLatch(1);
+        final CountDownLatch initializationAllowed = new CountDownLatch(1);
+        when(taskService.getTasksByChainTaskIds(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                        .map(chainTaskId -> Task.builder()
+                                .chainTaskId(chainTaskId)
+                                .chainDealId("0xdeal")
+                                .currentStatus(TaskStatus.RECEIVED)
+                                .build())
+                        .collect(Collectors.toList()));
+        when(taskService.getTasksByChainTaskIds(List.of("blocking")))
+                .thenAnswer(invocation -> {
+                    firstReadStarted.countDown();
+                    firstReadAllowed.await();
+                    return List.of(Task.builder().chainTaskId("blocking").build());
+                });
+        doAnswer(invocation -> {
+            initializationStarted.countDown();
+            initializationAllowed.await();
+            return List.of();
+        }).when(taskUpdateManager).received2Initializing(eq("0xdeal"), anyList());
+
+        taskUpdateRequestManager.publishRequest("blocking");
+        Assertions.assertThat(firstReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // these requests are published by the same batch
+        final CompletableFuture<Boolean> request1 = taskUpdateRequestManager.publishRequest("0x1");
+        final CompletableFuture<Boolean> request2 = taskUpdateRequestManager.publishRequest("0x2");
+        firstReadAllowed.countDown();
+        Assertions.assertThat(request1.join()).isTrue();
+        Assertions.assertThat(request2.join()).isTrue();
+        Assertions.assertThat(initializationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // initialization of this task is already pending
+        Assertions.assertThat(taskUpdateRequestManager.publishRequest("0x1").join()).isFalse();
+        initializationAllowed.countDown();
+        Awaitility.await()
+                .timeout(5, TimeUnit.SECONDS)
+                .until(() -> taskUpdateRequestManager.isIdle());
+
+        verify(taskUpdateManager, times(1)).received2Initializing(eq("0xdeal"), argThat(chainTaskIds ->
+                chainTaskIds.size() == 2 && chainTaskIds.containsAll(List.of("0x1", "0x2"))));
+        verify(taskUpdateManager, never()).updateTask("0x1");
+        verify(taskUpdateManager, never()).updateTask("0x2");
+    }
+
+    @Test
+    void shouldRunNextTransitionsOfInitializedTasksInTheirLanes() {
+        final Map<String, TaskStatus> statuses = new ConcurrentHashMap<>(Map.of("0x1", TaskStatus.RECEIVED));
+        when(taskService.getTasksByChainTaskIds(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                        .map(chainTaskId -> Task.builder()
+                                .chainTaskId(chainTaskId)
+                                .chainDealId("0xdeal")
+                                .currentStatus(statuses.get(chainTaskId))
+                                .build())
+                        .collect(Collectors.toList()));
+        doAnswer(invocation -> {
+            statuses.put("0x1", TaskStatus.INITIALIZING);
+            return List.of("0x1");
+        }).when(taskUpdateManager).received2Initializing(eq("0xdeal"), anyList());
+
+        taskUpdateRequestManager.publishRequest("0x1");
+
+        Awaitility.await()
+                .timeout(5, TimeUnit.SECONDS)
+                .untilAsserted(() -> verify(taskUpdateManager).updateTask("0x1"));
+        verify(taskUpdateManager, times(1)).received2Initializing(eq("0xdeal"), anyList());
+    }
+
+    @Test
+    void shouldUpdateReceivedTaskInItsLaneSinceFinalDeadlineReached() {
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID)))
+                .thenReturn(List.of(Task.builder()
+                        .chainTaskId(CHAIN_TASK_ID)
+                        .chainDealId("0xdeal")
+                        .currentStatus(TaskStatus.RECEIVED)
+                        .finalDeadline(new Date(0))
+                        .build()));
+
+        taskUpdateRequestManager.publishRequest(CHAIN_TASK_ID);
+
+        Awaitility.await()
+                .timeout(5, TimeUnit.SECONDS)
+                .untilAsserted(() -> verify(taskUpdateManager).updateTask(CHAIN_TASK_ID));
+        verify(taskUpdateManager, never()).received2Initializing(any(), anyList());
+    }
+    // endregion
+
+    // region lanes
+    @Test
+    void shouldRunUpdatesOfATaskInTheSameLane() {
+        final TaskUpdateLane lane = taskUpdateRequestManager.getLane(CHAIN_TASK_ID);
+        Assertions.assertThat(taskUpdateRequestManager.getLane(CHAIN_TASK_ID)).isSameAs(lane);
+
+        lane.execute(buildTaskUpdate(CHAIN_TASK_ID, TaskStatus.RUNNING, new Date(), id -> {
+        }));
+        Awaitility.await()
+                .timeout(5, TimeUnit.SECONDS)
+                .until(() -> lane.getCompletedTaskCount() == 1);
+        verify(taskUpdateManager, never()).updateTask(any());
+    }
+
+    @Test
+    void shouldUpdateTaskWithTaskUpdateManager() {
+        when(taskService.getTasksByChainTaskIds(List.of(CHAIN_TASK_ID)))
+                .thenReturn(List.of(Task.builder().chainTaskId(CHAIN_TASK_ID).build()));
+
+        taskUpdateRequestManager.publishRequest(CHAIN_TASK_ID).join();
+
+        verify(taskUpdateManager, timeout(5000)).updateTask(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldExposeLaneMetrics() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final TaskUpdateRequestManager manager = new TaskUpdateRequestManager(taskService, taskUpdateManager, meterRegistry);
+        final int nbLanes = manager.lanes.length;
+
+        Assertions.assertThat(meterRegistry.find(TaskUpdateLane.DEPTH_METRIC_NAME).gauges()).hasSize(nbLanes);
+        Assertions.assertThat(meterRegistry.find(TaskUpdateLane.WAIT_METRIC_NAME).timers()).hasSize(nbLanes);
+        Assertions.assertThat(meterRegistry.find(TaskUpdateLane.DURATION_METRIC_NAME).timers()).hasSize(nbLanes);
+    }
+    // endregion
+
     // region queue ordering
     @Test
     void shouldGetInOrderForStatus() throws InterruptedException {
-        final TaskUpdatePriorityBlockingQueue queue = taskUpdateRequestManager.queue;
+        final TaskUpdatePriorityBlockingQueue queue = new TaskUpdatePriorityBlockingQueue();
 
         TaskUpdate initializingTask = buildTaskUpdate(null, TaskStatus.INITIALIZING, null, null);
         TaskUpdate completedTask = buildTaskUpdate(null, TaskStatus.COMPLETED, null, null);
@@ -177,7 +338,7 @@ class TaskUpdateRequestManagerTests {
 
     @Test
     void shouldGetInOrderForContributionDeadline() throws InterruptedException {
-        final TaskUpdatePriorityBlockingQueue queue = taskUpdateRequestManager.queue;
+        final TaskUpdatePriorityBlockingQueue queue = new TaskUpdatePriorityBlockingQueue();
 
         final Date d1 = new GregorianCalendar(2021, Calendar.JANUARY, 1).getTime();
         final Date d2 = new GregorianCalendar(2021, Calendar.JANUARY, 2).getTime();
@@ -208,7 +369,7 @@ class TaskUpdateRequestManagerTests {
 
     @Test
     void shouldGetInOrderForStatusAndContributionDeadline() throws InterruptedException {
-        final TaskUpdatePriorityBlockingQueue queue = taskUpdateRequestManager.queue;
+        final TaskUpdatePriorityBlockingQueue queue = new TaskUpdatePriorityBlockingQueue();
 
         final Date d1 = new GregorianCalendar(2021, Calendar.JANUARY, 1).getTime();
         final Date d2 = new GregorianCalendar(2021, Calendar.JANUARY, 2).getTime();
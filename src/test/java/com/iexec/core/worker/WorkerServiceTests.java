@@ -22,6 +22,10 @@ import com.iexec.core.configuration.WorkerConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -38,6 +42,12 @@ class WorkerServiceTests {
     @Mock
     private WorkerRepository workerRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
     @Mock
     private WorkerConfiguration workerConfiguration;
 
@@ -77,6 +87,35 @@ class WorkerServiceTests {
         assertThat(foundWorker.get()).isEqualTo(existingWorker);
     }
 
+    @Test
+    void shouldGetWorkerFromRegistryAfterFirstRead() {
+        String walletAddress = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+        Worker existingWorker = Worker.builder()
+                .id("1")
+                .walletAddress(walletAddress)
+                .build();
+        when(workerRepository.findByWalletAddress(walletAddress)).thenReturn(Optional.of(existingWorker));
+
+        assertThat(workerService.getWorker(walletAddress)).contains(existingWorker);
+        assertThat(workerService.getWorker(walletAddress)).contains(existingWorker);
+        Mockito.verify(workerRepository, Mockito.times(1)).findByWalletAddress(walletAddress);
+    }
+
+    @Test
+    void shouldGetWorkerLoadedAtStartup() {
+        String walletAddress = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+        Worker existingWorker = Worker.builder()
+                .id("1")
+                .walletAddress(walletAddress)
+                .build();
+        when(workerRepository.findAll()).thenReturn(List.of(existingWorker));
+
+        workerService.loadWorkers();
+
+        assertThat(workerService.getWorker(walletAddress)).contains(existingWorker);
+        Mockito.verify(workerRepository, Mockito.never()).findByWalletAddress(any());
+    }
+
     // addWorker
 
     @Test
@@ -111,6 +150,32 @@ class WorkerServiceTests {
         assertThat(addedWorker.getId()).isEqualTo(existingWorker.getId());
     }
 
+    @Test
+    void shouldNotShareChainTaskIdsListsWithReplacedWorker() {
+        String walletAddress = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+        Worker existingWorker = Worker.builder()
+                .id("1")
+                .walletAddress(walletAddress)
+                .participatingChainTaskIds(new ArrayList<>(List.of("task1", "task2")))
+                .computingChainTaskIds(new ArrayList<>(List.of("task2")))
+                .build();
+        Worker newWorker = Worker.builder()
+                .walletAddress(walletAddress)
+                .build();
+
+        when(workerRepository.findByWalletAddress(walletAddress)).thenReturn(Optional.of(existingWorker));
+        when(workerRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Worker addedWorker = workerService.addWorker(newWorker);
+
+        assertThat(addedWorker.getParticipatingChainTaskIds())
+                .containsExactly("task1", "task2")
+                .isNotSameAs(existingWorker.getParticipatingChainTaskIds());
+        assertThat(addedWorker.getComputingChainTaskIds())
+                .containsExactly("task2")
+                .isNotSameAs(existingWorker.getComputingChainTaskIds());
+    }
+
     @Test
     void shouldAddNewWorker() {
         String workerName = "worker1";
@@ -156,6 +221,7 @@ class WorkerServiceTests {
         when(chainConfig.getWorkerPassAddress()).thenReturn("0x123");
         when(workerPassService.hasWorkerPass("w1")).thenReturn(Optional.of(true));
         assertThat(workerService.isAllowedToJoin("w1")).isTrue();
+        Mockito.verify(workerPassService, Mockito.times(1)).hasWorkerPass("w1");
     }
 
     @Test
@@ -249,14 +315,11 @@ class WorkerServiceTests {
         // call
         Optional<Worker> updatedWorker = workerService.updateLastAlive(walletAddress);
 
-        // check argument passed to the save method
-        ArgumentCaptor<Worker> argument = ArgumentCaptor.forClass(Worker.class);
-        Mockito.verify(workerRepository).save(argument.capture());
-        assertThat(argument.getValue().getId()).isEqualTo(worker.getId());
-        assertThat(argument.getValue().getName()).isEqualTo(worker.getName());
-        // check that the save method was called with a lastAlive parameter updated less than a second ago
+        // check that the worker is not saved right away
+        Mockito.verify(workerRepository, Mockito.never()).save(any());
+        // check that lastAlive has been updated less than a second ago
         Date now = new Date();
-        long duration = now.getTime() - argument.getValue().getLastAliveDate().getTime();
+        long duration = now.getTime() - worker.getLastAliveDate().getTime();
         long diffInSeconds = TimeUnit.MILLISECONDS.toSeconds(duration);
         assertThat(diffInSeconds).isEqualTo(0);
 
@@ -331,6 +394,49 @@ class WorkerServiceTests {
                 .isAfter(lastDate);
     }
 
+    // flushWorkersActivity
+
+    @Test
+    void shouldFlushWorkersActivityInASingleBulkWrite() {
+        Worker worker1 = Worker.builder().walletAddress("w1").build();
+        Worker worker2 = Worker.builder().walletAddress("w2").build();
+        when(workerRepository.findByWalletAddress("w1")).thenReturn(Optional.of(worker1));
+        when(workerRepository.findByWalletAddress("w2")).thenReturn(Optional.of(worker2));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Worker.class)).thenReturn(bulkOperations);
+
+        workerService.updateLastAlive("w1");
+        workerService.updateLastReplicateDemandDate("w1");
+        workerService.updateLastAlive("w2");
+        workerService.flushWorkersActivity();
+
+        Mockito.verify(bulkOperations, Mockito.times(2)).updateOne(any(Query.class), any(Update.class));
+        Mockito.verify(bulkOperations).execute();
+        Mockito.verify(workerRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    void shouldNotFlushWorkersActivityWhenNothingChanged() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Worker.class)).thenReturn(bulkOperations);
+
+        workerService.flushWorkersActivity();
+
+        Mockito.verify(bulkOperations, Mockito.never()).execute();
+    }
+
+    @Test
+    void shouldFlushWorkersActivityAgainWhenBulkWriteFailed() {
+        Worker worker = Worker.builder().walletAddress("w1").build();
+        when(workerRepository.findByWalletAddress("w1")).thenReturn(Optional.of(worker));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Worker.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new RuntimeException("write failed"));
+
+        workerService.updateLastAlive("w1");
+        workerService.flushWorkersActivity();
+        workerService.flushWorkersActivity();
+
+        Mockito.verify(bulkOperations, Mockito.times(2)).execute();
+    }
+
     // addChainTaskIdToWorker
 
     @Test
@@ -368,6 +474,37 @@ class WorkerServiceTests {
         assertThat(addedWorker.isPresent()).isFalse();
     }
 
+    // addChainTaskIdsToWorker
+
+    @Test
+    void shouldAddTaskIdsToWorker() {
+        String walletAddress = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+        Worker existingWorker = Worker.builder()
+                .id("1")
+                .name("worker1")
+                .walletAddress(walletAddress)
+                .participatingChainTaskIds(new ArrayList<>(List.of("task1")))
+                .computingChainTaskIds(new ArrayList<>(List.of("task1")))
+                .build();
+
+        when(workerRepository.findByWalletAddress(walletAddress)).thenReturn(Optional.of(existingWorker));
+        when(workerRepository.save(existingWorker)).thenReturn(existingWorker);
+
+        Optional<Worker> addedWorker = workerService.addChainTaskIdsToWorker(List.of("task2", "task3"), walletAddress);
+        assertThat(addedWorker).isPresent();
+        Worker worker = addedWorker.get();
+        assertThat(worker.getParticipatingChainTaskIds()).containsExactly("task1", "task2", "task3");
+        assertThat(worker.getComputingChainTaskIds()).containsExactly("task1", "task2", "task3");
+        Mockito.verify(workerRepository, Mockito.times(1)).save(existingWorker);
+    }
+
+    @Test
+    void shouldNotAddTaskIdsToWorker() {
+        when(workerRepository.findByWalletAddress(Mockito.anyString())).thenReturn(Optional.empty());
+        Optional<Worker> addedWorker = workerService.addChainTaskIdsToWorker(List.of("task1"), "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248");
+        assertThat(addedWorker).isEmpty();
+    }
+
     // getChainTaskIds
 
     @Test
@@ -791,6 +928,9 @@ class WorkerServiceTests {
 
         assertThat(workerService.deleteWorkerByAddress("w1")).isEqualTo(Optional.of(worker));
         Mockito.verify(workerRepository).delete(worker);
+
+        when(workerRepository.findByWalletAddress("w1")).thenReturn(Optional.empty());
+        assertThat(workerService.getWorker("w1")).isEmpty();
     }
 
     @Test